@@ -66,7 +66,8 @@ public class AIPlayerMJL extends AbstractJSkatPlayer {
 			maxBidValue = new Bidding(knowledge.getOwnCards()).getMaxBid();
 		}
 		if (maxBidValue < nextBidValue) {
-			aiPlayer = new OpponentPlayer(knowledge.getOwnCards(), playerName);
+			aiPlayer = new OpponentPlayer(knowledge.getOwnCards(), playerName,
+					rand);
 			return -1;
 		}
 		return nextBidValue;
@@ -84,7 +85,8 @@ public class AIPlayerMJL extends AbstractJSkatPlayer {
 		}
 		boolean result = !(maxBidValue < 18) && maxBidValue >= currBidValue;
 		if (!result) {
-			aiPlayer = new OpponentPlayer(knowledge.getOwnCards(), playerName);
+			aiPlayer = new OpponentPlayer(knowledge.getOwnCards(), playerName,
+					rand);
 		}
 		return result;
 	}
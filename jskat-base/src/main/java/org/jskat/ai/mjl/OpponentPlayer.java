@@ -45,14 +45,22 @@ public class OpponentPlayer extends AbstractCardPlayer {
 
 	private final String name;
 
-	private final Random rand = new Random();
+	private final Random rand;
 
 	/**
+	 * Constructor
 	 * 
+	 * @param cards
+	 *            Cards of the player
+	 * @param name
+	 *            Player name
+	 * @param rand
+	 *            Random generator of the player
 	 */
-	OpponentPlayer(final CardList cards, final String name) {
+	OpponentPlayer(final CardList cards, final String name, final Random rand) {
 		super(cards);
 		this.name = name;
+		this.rand = rand;
 		log.debug("Constructing a new opponent player called <" + name + ">...");
 	}
 
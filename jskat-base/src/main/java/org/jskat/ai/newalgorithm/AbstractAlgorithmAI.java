@@ -20,6 +20,7 @@
 package org.jskat.ai.newalgorithm;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.jskat.data.Trick;
 import org.jskat.player.PlayerKnowledge;
@@ -46,7 +47,7 @@ public abstract class AbstractAlgorithmAI {
 		myPlayer				= p;
 		knowledge				= p.getKnowledge();
 		
-		oSituation				= new Situation(knowledge, pGameType);
+		oSituation				= new Situation(knowledge, pGameType, p.getRandom());
 		
 		oPlayedCards			= new CardList();
 		oNotOpponentCards		= new CardList();
@@ -185,8 +186,8 @@ public abstract class AbstractAlgorithmAI {
 		}
 		return cards.get(0);
 	}
-	protected static Card playRandomCard(CardList pCards) {
-		return pCards.get((int)(Math.random()*pCards.size()));
+	protected static Card playRandomCard(CardList pCards, Random pRandom) {
+		return pCards.get(pRandom.nextInt(pCards.size()));
 	}
 	protected static Card getLowValueTrumpCard(CardList pCards, Suit pTrumpSuit) {
 		for(int i=pCards.getLastIndexOfSuit(pTrumpSuit); i>=0; i--) {
@@ -208,8 +209,8 @@ public abstract class AbstractAlgorithmAI {
 		}
 		return pCards.get(pCards.indexOf(Card.CJ));
 	}
-	protected static Card playRandomJack(CardList pCards) {
-		int tRandom = (int)(Math.random()*Helper.countJacks(pCards));
+	protected static Card playRandomJack(CardList pCards, Random pRandom) {
+		int tRandom = pRandom.nextInt(Helper.countJacks(pCards));
 		return pCards.get(tRandom);
 	}
 	
@@ -19,6 +19,8 @@
  */
 package org.jskat.ai.newalgorithm;
 
+import java.util.Random;
+
 import org.apache.log4j.Logger;
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
@@ -289,4 +291,8 @@ public class AlgorithmAI extends AbstractJSkatPlayer {
 		return knowledge;
 	}
 
+	protected Random getRandom() {
+		return rand;
+	}
+
 }
@@ -20,6 +20,7 @@
 package org.jskat.ai.newalgorithm;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.apache.log4j.Logger;
 import org.jskat.util.Card;
@@ -79,7 +80,8 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 	public CardList discardSkat(BidEvaluator pBid) {
 		log.debug("discardSkat");
 
-		CardList tDiscardCards = discardSkatCards(pBid, knowledge.getOwnCards());
+		CardList tDiscardCards = discardSkatCards(pBid, knowledge.getOwnCards(),
+				oSituation.getRandom());
 		// knowledge.removeOwnCards(tDiscardCards.getImmutableCopy());
 
 		oSituation.setCardsAfterDiscarding(knowledge.getOwnCards());
@@ -94,7 +96,7 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 		pCards.sort(pSituation.getGameType());
 
 		if (Helper.countJacks(pCards) == 4) {
-			return pCards.get((int) (Math.random() * 3 + 1));
+			return pCards.get(pSituation.getRandom().nextInt(3) + 1);
 		} else if (pCards.contains(Card.CJ)
 				&& (pCards.contains(Card.HJ) || pCards.contains(Card.DJ))) {
 			return pCards.get(0);
@@ -102,7 +104,7 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 			return pCards.get(1);
 		} else if (pCards.get(0) == Card.SJ) {
 			return pCards
-					.get((int) (Math.random() * Helper.countJacks(pCards)));
+					.get(pSituation.getRandom().nextInt(Helper.countJacks(pCards)));
 		}
 
 		return playForehandCard(pCards, pTrickCards, pPlayedCards,
@@ -242,7 +244,7 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 		}
 
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		return getRandomAllowedCard(pCards, null, pSituation.getGameType());
@@ -290,15 +292,15 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 
 		possibleCards = getPossibleMaxValueCards(pCards, 0);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 		possibleCards = getPossibleMaxValueCards(pCards, 3);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 		possibleCards = getPossibleMaxValueCards(pCards, 4);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		return getRandomAllowedCard(pCards, null, pSituation.getGameType());
@@ -355,15 +357,15 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 			else {
 				possibleCards = getPossibleMaxValueCards(pCards, 0);
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 				possibleCards = getPossibleMaxValueCards(pCards, 3);
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 				possibleCards = getPossibleMaxValueCards(pCards, 4);
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 			}
 		}
@@ -372,7 +374,7 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 	}
 
 	public static CardList discardSkatCards(BidEvaluator pBid,
-			CardList pOwnCards) {
+			CardList pOwnCards, Random pRandom) {
 		CardList tCards = new CardList(pOwnCards);
 		tCards.sort(GameType.GRAND);
 
@@ -460,7 +462,7 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 
 		// Wenn 2x blank moeglich
 		while (tDiscardCards.size() > 2) {
-			tDiscardCards.remove((int) (Math.random() * tDiscardCards.size()));
+			tDiscardCards.remove(pRandom.nextInt(tDiscardCards.size()));
 		}
 
 		if (tDiscardCards.size() == 0) {
@@ -478,24 +480,21 @@ public class AlgorithmGrand extends AbstractAlgorithmAI {
 		if (tDiscardCards.size() == 1) {
 			if (!t1ToDiscard.isEmpty()) {
 				tDiscardCards
-						.add(t1ToDiscard.get((int) (Math.random() * t1ToDiscard
-								.size())));
+						.add(t1ToDiscard.get(pRandom.nextInt(t1ToDiscard.size())));
 			}
 			if (tDiscardCards.size() != 2 && !t1PossibleDiscard.isEmpty()) {
 				tDiscardCards
-						.add(t1PossibleDiscard.get((int) (Math.random() * t1PossibleDiscard
-								.size())));
+						.add(t1PossibleDiscard.get(pRandom.nextInt(t1PossibleDiscard.size())));
 			}
 		}
 
 		if (tDiscardCards.size() != 2 && !t2ToDiscard.isEmpty()) {
-			tDiscardCards = t2ToDiscard.get((int) (Math.random() * t2ToDiscard
-					.size()));
+			tDiscardCards = t2ToDiscard.get(pRandom.nextInt(t2ToDiscard.size()));
 		}
 
 		if (tDiscardCards.size() != 2 && !t2PossibleDiscard.isEmpty()) {
 			tDiscardCards = t2PossibleDiscard
-					.get((int) (Math.random() * t2PossibleDiscard.size()));
+					.get(pRandom.nextInt(t2PossibleDiscard.size()));
 		}
 
 		return tDiscardCards;
@@ -131,20 +131,20 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 		}
 
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		possibleCards = getPossibleMaxValueCards(pCards, 0);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 		possibleCards = getPossibleMaxValueCards(pCards, 3);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 		possibleCards = getPossibleMaxValueCards(pCards, 4);
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		return getRandomAllowedCard(pCards, null, pSituation.getGameType());
@@ -206,7 +206,7 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 						}
 					}
 					if (!tPossibleCards.isEmpty()) {
-						return playRandomCard(tPossibleCards);
+						return playRandomCard(tPossibleCards, pSituation.getRandom());
 					}
 					// Butter eine andere hohe Karte
 					for (Suit s : Suit.values()) {
@@ -289,7 +289,7 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 				}
 			}
 			if (!possibleCards.isEmpty()) {
-				return playRandomCard(possibleCards);
+				return playRandomCard(possibleCards, pSituation.getRandom());
 			}
 
 			// Lusche werfen
@@ -334,15 +334,15 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 					} else {
 						possibleCards = getPossibleMaxValueCards(pCards, 0);
 						if (!possibleCards.isEmpty()) {
-							return playRandomCard(possibleCards);
+							return playRandomCard(possibleCards, pSituation.getRandom());
 						}
 						possibleCards = getPossibleMaxValueCards(pCards, 3);
 						if (!possibleCards.isEmpty()) {
-							return playRandomCard(possibleCards);
+							return playRandomCard(possibleCards, pSituation.getRandom());
 						}
 						possibleCards = getPossibleMaxValueCards(pCards, 4);
 						if (!possibleCards.isEmpty()) {
-							return playRandomCard(possibleCards);
+							return playRandomCard(possibleCards, pSituation.getRandom());
 						}
 					}
 				}
@@ -477,7 +477,7 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 			}
 		}
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		} else {
 			return getRandomAllowedCard(pCards, pInitialCard,
 					pSituation.getGameType());
@@ -513,7 +513,7 @@ public class AlgorithmOpponentGrand extends AbstractAlgorithmAI {
 			}
 		}
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		} else {
 			return getRandomAllowedCard(pCards, pInitialCard,
 					pSituation.getGameType());
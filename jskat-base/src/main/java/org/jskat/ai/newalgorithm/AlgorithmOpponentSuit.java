@@ -121,10 +121,10 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 		}
 
 		if (!tPossibleHighCard.isEmpty()) {
-			return playRandomCard(tPossibleHighCard);
+			return playRandomCard(tPossibleHighCard, pSituation.getRandom());
 		}
 		if (!tPossibleLowCard.isEmpty()) {
-			return playRandomCard(tPossibleLowCard);
+			return playRandomCard(tPossibleLowCard, pSituation.getRandom());
 		}
 
 		return playForehandCard(pCards, pTrickCards, pPlayedCards,
@@ -190,7 +190,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 		}
 
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		return getRandomAllowedCard(pCards, null, pSituation.getGameType());
@@ -353,7 +353,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 						possibleCards.add(lCard);
 					}
 					if (possibleCards.size() > 0) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 				}
 
@@ -379,7 +379,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 					}
 				}
 				if (possibleCards.size() > 0) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 			}
 		}
@@ -462,7 +462,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 					}
 				}
 				if (possibleCards.size() > 0) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 			}
 
@@ -476,7 +476,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 				}
 			}
 			if (possibleCards.size() > 0) {
-				return playRandomCard(possibleCards);
+				return playRandomCard(possibleCards, pSituation.getRandom());
 			}
 		}
 		// Forehand-Karte ist keine Trumpfkarte und Solo-Spieler sitzt in
@@ -637,7 +637,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 						}
 					}
 					if (!possibleCards.isEmpty()) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 
 					// mit einem niedrigen Trumpf mitnehmen
@@ -712,7 +712,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 						}
 					}
 					if (!possibleCards.isEmpty()) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 				}
 			}
@@ -735,17 +735,17 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 				possibleCards = getPossibleMaxValueCards(pCards, 0,
 						pSituation.getTrumpSuit());
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 				possibleCards = getPossibleMaxValueCards(pCards, 3,
 						pSituation.getTrumpSuit());
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 				possibleCards = getPossibleMaxValueCards(pCards, 4,
 						pSituation.getTrumpSuit());
 				if (!possibleCards.isEmpty()) {
-					return playRandomCard(possibleCards);
+					return playRandomCard(possibleCards, pSituation.getRandom());
 				}
 			}
 			// Wenn Vorhand eine andere Farbe ist
@@ -795,17 +795,17 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 					possibleCards = getPossibleMaxValueCards(pCards, 0,
 							pSituation.getTrumpSuit());
 					if (!possibleCards.isEmpty()) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 					possibleCards = getPossibleMaxValueCards(pCards, 3,
 							pSituation.getTrumpSuit());
 					if (!possibleCards.isEmpty()) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 					possibleCards = getPossibleMaxValueCards(pCards, 4,
 							pSituation.getTrumpSuit());
 					if (!possibleCards.isEmpty()) {
-						return playRandomCard(possibleCards);
+						return playRandomCard(possibleCards, pSituation.getRandom());
 					}
 				}
 			}
@@ -930,7 +930,7 @@ public class AlgorithmOpponentSuit extends AbstractAlgorithmAI {
 			}
 		}
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		return getRandomAllowedCard(pCards, tForehandCard,
@@ -20,6 +20,7 @@
 package org.jskat.ai.newalgorithm;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.apache.log4j.Logger;
 import org.jskat.util.Card;
@@ -82,7 +83,8 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 	public CardList discardSkat(BidEvaluator pBid) {
 		log.debug("discardSkat");
 
-		CardList tDiscardCards = discardSkatCards(pBid, knowledge.getOwnCards());
+		CardList tDiscardCards = discardSkatCards(pBid, knowledge.getOwnCards(),
+				oSituation.getRandom());
 		// knowledge.removeOwnCards(tDiscardCards);
 
 		oSituation.setCardsAfterDiscarding(knowledge.getOwnCards());
@@ -100,9 +102,9 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 			return playLowestWinningJack(pCards);
 		}
 
-		int tRandom = (int) (Math.random() * 4);
+		int tRandom = pSituation.getRandom().nextInt(4);
 		if (tRandom < 3 && Helper.countJacks(pCards) > 0) {
-			return playRandomJack(pCards);
+			return playRandomJack(pCards, pSituation.getRandom());
 		}
 
 		// Count Aces
@@ -218,7 +220,7 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 		}
 
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		// Wenn der Spieler die restligen Truempfe hat
@@ -329,7 +331,7 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 		}
 
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		// Wenn Hinterhand auf der Farbe nicht blank ist
@@ -488,7 +490,7 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 			}
 		}
 		if (!possibleCards.isEmpty()) {
-			return playRandomCard(possibleCards);
+			return playRandomCard(possibleCards, pSituation.getRandom());
 		}
 
 		if (pCards.getTrumpCount(pSituation.getTrumpSuit()) > 0) {
@@ -511,7 +513,7 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 	}
 
 	public static CardList discardSkatCards(BidEvaluator pBid,
-			CardList pOwnCards) {
+			CardList pOwnCards, Random pRandom) {
 		CardList tCards = new CardList(pOwnCards);
 		tCards.sort(pBid.getSuggestedGameType());
 
@@ -612,7 +614,7 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 
 		// Wenn 2x blank moeglich
 		while (tDiscardCards.size() > 2) {
-			tDiscardCards.remove((int) (Math.random() * tDiscardCards.size()));
+			tDiscardCards.remove(pRandom.nextInt(tDiscardCards.size()));
 		}
 
 		if (tDiscardCards.size() == 0) {
@@ -630,24 +632,21 @@ public class AlgorithmSuit extends AbstractAlgorithmAI {
 		if (tDiscardCards.size() == 1) {
 			if (!t1ToDiscard.isEmpty()) {
 				tDiscardCards
-						.add(t1ToDiscard.get((int) (Math.random() * t1ToDiscard
-								.size())));
+						.add(t1ToDiscard.get(pRandom.nextInt(t1ToDiscard.size())));
 			}
 			if (!t1PossibleDiscard.isEmpty()) {
 				tDiscardCards
-						.add(t1PossibleDiscard.get((int) (Math.random() * t1PossibleDiscard
-								.size())));
+						.add(t1PossibleDiscard.get(pRandom.nextInt(t1PossibleDiscard.size())));
 			}
 		}
 
 		if (tDiscardCards.size() != 2 && !t2ToDiscard.isEmpty()) {
-			tDiscardCards = t2ToDiscard.get((int) (Math.random() * t2ToDiscard
-					.size()));
+			tDiscardCards = t2ToDiscard.get(pRandom.nextInt(t2ToDiscard.size()));
 		}
 
 		if (tDiscardCards.size() != 2 && !t2PossibleDiscard.isEmpty()) {
 			tDiscardCards = t2PossibleDiscard
-					.get((int) (Math.random() * t2PossibleDiscard.size()));
+					.get(pRandom.nextInt(t2PossibleDiscard.size()));
 		}
 
 		if (tDiscardCards.size() != 2 && !tTenZeroToDiscard.isEmpty()) {
@@ -20,6 +20,7 @@
 package org.jskat.ai.newalgorithm;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.jskat.player.PlayerKnowledge;
 import org.jskat.util.CardList;
@@ -43,8 +44,9 @@ public class Situation {
 	private Suit			oLongestSuit;
 	private ArrayList<Suit>	oBlankSuits;
 	private int				oRandomInt;
+	private final Random	oRandom;
 	
-	public Situation(PlayerKnowledge pKnowledge, GameType pGameType) {
+	public Situation(PlayerKnowledge pKnowledge, GameType pGameType, Random pRandom) {
 		oTrumpSuit				= pGameType.getTrumpSuit();
 		oGameType				= pGameType;
 		oFreeSuitsLeftPlayer	= new ArrayList<Suit>();
@@ -54,16 +56,18 @@ public class Situation {
 		
 		setCardsAfterDiscarding(pKnowledge.getOwnCards());
 		
-		oRandomInt				= (int)(Math.random()*3);
+		oRandom					= pRandom;
+		oRandomInt				= oRandom.nextInt(3);
 	}
 	
 	public Situation(Suit pTrumpSuit, GameType pGameType, Suit pLongestSuit, ArrayList<Suit> pBlankSuit, int pRandomInt, boolean hasTrumpLeftPlayer, boolean hasTrumpRightPlayer
-			, ArrayList<Suit> pFreeSuitsLeftPlayer, ArrayList<Suit> pFreeSuitsRightPlayer) {
+			, ArrayList<Suit> pFreeSuitsLeftPlayer, ArrayList<Suit> pFreeSuitsRightPlayer, Random pRandom) {
 		oTrumpSuit				= pTrumpSuit;
 		oGameType				= pGameType;
 		oLongestSuit			= pLongestSuit;
 		oBlankSuits				= pBlankSuit;
 		oRandomInt				= pRandomInt;
+		oRandom					= pRandom;
 		oHasTrumpLeftPlayer		= hasTrumpLeftPlayer;
 		oHasTrumpRightPlayer	= hasTrumpRightPlayer;
 		oFreeSuitsLeftPlayer	= pFreeSuitsLeftPlayer;
@@ -99,6 +103,9 @@ public class Situation {
 	public int getRandomInt() {
 		return oRandomInt;
 	}
+	public Random getRandom() {
+		return oRandom;
+	}
 	
 // -------------------------
 // LEFT PLAYER
@@ -21,14 +21,18 @@ package org.jskat.ai.nn;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
+import org.jskat.ai.nn.data.PlayerParty;
 import org.jskat.ai.nn.data.SkatNetworks;
-import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
+import org.jskat.ai.nn.input.IncrementalNetworkInputGenerator;
 import org.jskat.ai.nn.input.NetworkInputGenerator;
+import org.jskat.ai.nn.train.TrainingSample;
+import org.jskat.ai.nn.train.TrainingSampleConsumer;
 import org.jskat.ai.nn.util.INeuralNetwork;
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
@@ -39,6 +43,7 @@ import org.jskat.player.AbstractJSkatPlayer;
 import org.jskat.player.JSkatPlayer;
 import org.jskat.util.Card;
 import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
 import org.jskat.util.rule.SkatRule;
@@ -52,6 +57,9 @@ import org.slf4j.LoggerFactory;
 public class AIPlayerNN extends AbstractJSkatPlayer {
 
 	private final static long MAX_SIMULATIONS = 50;
+	private final static double MIN_WON_RATE_FOR_BIDDING = 0.6;
+	private final static double MIN_WON_RATE_FOR_HAND_GAME = 0.95;
+	private final static int MAX_HAND_SIZE = 10;
 
 	public static double WON = 1.0d;
 	public static double LOST = 0.0d;
@@ -60,14 +68,62 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 
 	private DecimalFormat formatter = new DecimalFormat("0.00000000000000000");
 
-	private final GameSimulator gameSimulator;
+	/**
+	 * Decisions that are based on game simulations
+	 */
+	public enum SimulationDecision {
+		/**
+		 * Bidding and holding bids
+		 */
+		BIDDING,
+		/**
+		 * Picking up the skat
+		 */
+		PICKING_UP_SKAT,
+		/**
+		 * Discarding cards
+		 */
+		DISCARDING,
+		/**
+		 * Announcing a game
+		 */
+		ANNOUNCING;
+	}
+
+	private final Map<SimulationDecision, Long> timeBudgets = new EnumMap<SimulationDecision, Long>(
+			SimulationDecision.class);
+	private long lastSimulatedEpisodes;
+	/**
+	 * Simulation results of the current game by position and hand, all
+	 * decisions of a game refine the same results
+	 */
+	private final Map<Long, SimulationResults> simulationCache = new HashMap<Long, SimulationResults>();
+	private long lastAllocatedBytesPerEpisode = -1L;
+	/**
+	 * TRUE if all candidates of a decision are simulated on the same sampled
+	 * worlds
+	 */
+	private boolean commonWorlds = false;
+	/**
+	 * Simulation results on common worlds of the current game by position and
+	 * known cards
+	 */
+	private final Map<Long, PairedSimulationResults> commonWorldCache = new HashMap<Long, PairedSimulationResults>();
+
 	private NetworkInputGenerator inputGenerator;
+	/**
+	 * Reused buffers for evaluating the playable cards
+	 */
+	private double[][] inputBuffers = new double[0][];
+	private double[] outputBuffer = new double[0];
+	private final CardList bestCards = new CardList();
+	private final CardList highestOutputCards = new CardList();
 
-	private final Random rand;
 	private final List<double[]> allInputs = new ArrayList<double[]>();
 	private GameType bestGameTypeFromDiscarding;
 
 	private boolean isLearning = false;
+	private TrainingSampleConsumer sampleConsumer;
 	private double lastAvgNetworkError = 0.0;
 
 	private final List<GameType> feasibleGameTypes = new ArrayList<GameType>();
@@ -91,16 +147,232 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		log.debug("Constructing new AIPlayerNN"); //$NON-NLS-1$
 		setPlayerName(newPlayerName);
 
-		gameSimulator = new GameSimulator();
-		inputGenerator = new GenericNetworkInputGenerator();
+		inputGenerator = new IncrementalNetworkInputGenerator(knowledge);
 
 		for (GameType gameType : GameType.values()) {
 			if (gameType != GameType.RAMSCH && gameType != GameType.PASSED_IN) {
 				feasibleGameTypes.add(gameType);
 			}
 		}
+	}
+
+	/**
+	 * Sets the number of threads used for the game simulations of all neural
+	 * network players
+	 * 
+	 * @param threads
+	 *            Number of threads
+	 */
+	public static void setSimulationParallelism(final int threads) {
+
+		GameSimulator.setParallelism(threads);
+	}
+
+	/**
+	 * Sets a time budget for all decisions that are based on game simulations
+	 * 
+	 * @param milliseconds
+	 *            Time budget in milliseconds, NULL for a fixed number of
+	 *            simulated games
+	 */
+	public void setTimeBudget(final Long milliseconds) {
+
+		for (SimulationDecision decision : SimulationDecision.values()) {
+			setTimeBudget(decision, milliseconds);
+		}
+	}
+
+	/**
+	 * Sets a time budget for a decision, the simulations stop earlier if the
+	 * decision is clear enough
+	 * 
+	 * @param decision
+	 *            Decision
+	 * @param milliseconds
+	 *            Time budget in milliseconds, NULL for a fixed number of
+	 *            simulated games
+	 */
+	public void setTimeBudget(final SimulationDecision decision,
+			final Long milliseconds) {
+
+		if (milliseconds == null) {
+			timeBudgets.remove(decision);
+		} else {
+			timeBudgets.put(decision, milliseconds);
+		}
+	}
+
+	/**
+	 * Gets the time budget for a decision
+	 * 
+	 * @param decision
+	 *            Decision
+	 * @return Time budget in milliseconds, NULL if a fixed number of games is
+	 *         simulated
+	 */
+	public Long getTimeBudget(final SimulationDecision decision) {
+
+		return timeBudgets.get(decision);
+	}
+
+	/**
+	 * Sets whether all game types and discards of a decision are simulated on
+	 * the same sampled worlds, the candidates are compared by their
+	 * differences on the same worlds then
+	 * 
+	 * @param isCommonWorlds
+	 *            TRUE for common worlds, FALSE for independent worlds per
+	 *            candidate
+	 */
+	public void setCommonWorlds(final boolean isCommonWorlds) {
+
+		commonWorlds = isCommonWorlds;
+	}
+
+	/**
+	 * Checks whether all candidates of a decision are simulated on the same
+	 * sampled worlds
+	 * 
+	 * @return TRUE for common worlds
+	 */
+	public boolean isCommonWorlds() {
+
+		return commonWorlds;
+	}
+
+	/**
+	 * Gets the number of games simulated for the last decision
+	 * 
+	 * @return Number of simulated games
+	 */
+	public long getLastSimulatedEpisodes() {
 
-		rand = new Random();
+		return lastSimulatedEpisodes;
+	}
+
+	/**
+	 * Gets the memory allocated per simulated game for the last decision
+	 * 
+	 * @return Allocated bytes per game or -1 if the JVM can't measure it
+	 */
+	public long getLastAllocatedBytesPerEpisode() {
+
+		return lastAllocatedBytesPerEpisode;
+	}
+
+	private SimulationResults simulate(final SimulationDecision decision,
+			final List<GameType> gameTypes, final CardList hand,
+			final long maxEpisodes, final Double threshold) {
+
+		return simulate(decision, gameTypes, Collections.singletonList(hand),
+				maxEpisodes, threshold).get(0);
+	}
+
+	private List<SimulationResults> simulate(
+			final SimulationDecision decision, final List<GameType> gameTypes,
+			final List<CardList> hands, final long maxEpisodes,
+			final Double threshold) {
+
+		if (commonWorlds) {
+			return simulateCommonWorlds(decision, gameTypes, hands,
+					maxEpisodes, threshold);
+		}
+
+		List<SimulationResults> results;
+
+		Player position = knowledge.getPlayerPosition();
+		List<SimulationResults> cachedResults = new ArrayList<SimulationResults>();
+		long cachedEpisodes = 0;
+		for (CardList hand : hands) {
+			SimulationResults handResults = getCachedResults(position, hand);
+			cachedEpisodes += handResults.getTotalEpisodes();
+			cachedResults.add(handResults);
+		}
+
+		Long timeBudget = timeBudgets.get(decision);
+		if (timeBudget == null) {
+			results = GameSimulator.simulateMaxEpisodes(gameTypes, position,
+					hands, Long.valueOf(maxEpisodes), rand, cachedResults);
+		} else {
+			results = GameSimulator.simulateWithTimeBudget(gameTypes,
+					position, hands, timeBudget.longValue(), threshold, rand,
+					cachedResults);
+		}
+
+		lastSimulatedEpisodes = -cachedEpisodes;
+		for (SimulationResults handResults : results) {
+			lastSimulatedEpisodes += handResults.getTotalEpisodes();
+		}
+		lastAllocatedBytesPerEpisode = SimulationResults
+				.getAllocatedBytesPerEpisode(results);
+		log.debug(decision + ": simulated " + lastSimulatedEpisodes + " games, " //$NON-NLS-1$ //$NON-NLS-2$
+				+ lastAllocatedBytesPerEpisode + " bytes allocated per game"); //$NON-NLS-1$
+
+		return results;
+	}
+
+	private List<SimulationResults> simulateCommonWorlds(
+			final SimulationDecision decision, final List<GameType> gameTypes,
+			final List<CardList> hands, final long maxEpisodes,
+			final Double threshold) {
+
+		// the worlds are sampled for all cards of the candidate hands, e.g.
+		// the twelve cards before discarding
+		int knownCards = 0;
+		for (CardList hand : hands) {
+			knownCards |= CardSet.getMask(hand);
+		}
+		PairedSimulationResults pairedResults = getCachedResults(
+				knowledge.getPlayerPosition(), knownCards);
+		long cachedEpisodes = pairedResults.getTotalEpisodes();
+
+		Long timeBudget = timeBudgets.get(decision);
+		if (timeBudget == null) {
+			GameSimulator.simulateCommonWorlds(gameTypes, hands,
+					Long.valueOf(maxEpisodes), rand, pairedResults);
+		} else {
+			GameSimulator.simulateCommonWorldsWithTimeBudget(gameTypes, hands,
+					timeBudget.longValue(), threshold, rand, pairedResults);
+		}
+
+		List<SimulationResults> results = pairedResults.getResults(hands,
+				gameTypes);
+
+		lastSimulatedEpisodes = pairedResults.getTotalEpisodes()
+				- cachedEpisodes;
+		lastAllocatedBytesPerEpisode = SimulationResults
+				.getAllocatedBytesPerEpisode(results);
+		log.debug(decision + ": simulated " + lastSimulatedEpisodes + " games on common worlds, " //$NON-NLS-1$ //$NON-NLS-2$
+				+ lastAllocatedBytesPerEpisode + " bytes allocated per game"); //$NON-NLS-1$
+
+		return results;
+	}
+
+	private PairedSimulationResults getCachedResults(final Player position,
+			final int knownCards) {
+
+		Long key = Long.valueOf((long) position.getOrder() << 32 | knownCards
+				& 0xFFFFFFFFL);
+		PairedSimulationResults result = commonWorldCache.get(key);
+		if (result == null) {
+			result = new PairedSimulationResults(position,
+					CardSet.toCardList(knownCards));
+			commonWorldCache.put(key, result);
+		}
+		return result;
+	}
+
+	private SimulationResults getCachedResults(final Player position,
+			final CardList hand) {
+
+		Long key = Long.valueOf((long) position.getOrder() << 32
+				| CardSet.getMask(hand) & 0xFFFFFFFFL);
+		SimulationResults result = simulationCache.get(key);
+		if (result == null) {
+			result = new SimulationResults();
+			simulationCache.put(key, result);
+		}
+		return result;
 	}
 
 	/**
@@ -140,13 +412,13 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 
 		List<GameType> filteredGameTypes = filterFeasibleGameTypes(bidValue);
 
-		gameSimulator.resetGameSimulator(filteredGameTypes,
-				knowledge.getPlayerPosition(), knowledge.getOwnCards());
-		SimulationResults results = gameSimulator.simulateMaxEpisodes(Long
-				.valueOf(MAX_SIMULATIONS / 2));
+		SimulationResults results = simulate(SimulationDecision.BIDDING,
+				filteredGameTypes, knowledge.getOwnCards(),
+				MAX_SIMULATIONS / 2, Double.valueOf(MIN_WON_RATE_FOR_BIDDING));
 
-		for (Double wonRate : results.getAllWonRates()) {
-			if (wonRate.doubleValue() > 0.6) {
+		// cached results can hold game types that are too cheap now
+		for (GameType gameType : filteredGameTypes) {
+			if (results.getWonRate(gameType).doubleValue() > MIN_WON_RATE_FOR_BIDDING) {
 				return true;
 			}
 		}
@@ -235,10 +507,9 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 
 		List<GameType> gameTypesToCheck = filterFeasibleGameTypes(knowledge
 				.getHighestBid(knowledge.getPlayerPosition()));
-		gameSimulator.resetGameSimulator(gameTypesToCheck,
-				knowledge.getPlayerPosition(), knowledge.getOwnCards());
-		SimulationResults results = gameSimulator.simulateMaxEpisodes(Long
-				.valueOf(MAX_SIMULATIONS));
+		SimulationResults results = simulate(SimulationDecision.ANNOUNCING,
+				gameTypesToCheck, knowledge.getOwnCards(), MAX_SIMULATIONS,
+				null);
 
 		for (GameType gameType : gameTypesToCheck) {
 
@@ -274,14 +545,14 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		List<GameType> filteredGameTypes = filterFeasibleGameTypes(knowledge
 				.getHighestBid(knowledge.getPlayerPosition()).intValue());
 
-		gameSimulator.resetGameSimulator(filteredGameTypes,
-				knowledge.getPlayerPosition(), knowledge.getOwnCards());
-		SimulationResults results = gameSimulator.simulateMaxEpisodes(Long
-				.valueOf(MAX_SIMULATIONS));
+		SimulationResults results = simulate(
+				SimulationDecision.PICKING_UP_SKAT, filteredGameTypes,
+				knowledge.getOwnCards(), MAX_SIMULATIONS,
+				Double.valueOf(MIN_WON_RATE_FOR_HAND_GAME));
 
-		for (Double wonRate : results.getAllWonRates()) {
+		for (GameType gameType : filteredGameTypes) {
 
-			if (wonRate.doubleValue() > 0.95) {
+			if (results.getWonRate(gameType).doubleValue() > MIN_WON_RATE_FOR_HAND_GAME) {
 
 				result = false;
 			}
@@ -305,34 +576,39 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		List<GameType> filteredGameTypes = filterFeasibleGameTypes(knowledge
 				.getHighestBid(knowledge.getPlayerPosition()).intValue());
 
-		// check all possible discards
+		// check all possible discards, the simulations of all discards are
+		// run at once to keep all simulation threads busy
+		int handMask = CardSet.getMask(cards);
+		List<CardList> discards = new ArrayList<CardList>();
+		List<CardList> simHands = new ArrayList<CardList>();
 		for (int i = 0; i < cards.size() - 1; i++) {
 			for (int j = i + 1; j < cards.size(); j++) {
 
-				CardList simCards = new CardList();
-				simCards.addAll(cards);
+				int skatMask = CardSet.getMask(cards.get(i))
+						| CardSet.getMask(cards.get(j));
+
+				discards.add(CardSet.toCardList(skatMask));
+				simHands.add(CardSet.toCardList(handMask & ~skatMask));
+			}
+		}
 
-				CardList currSkat = new CardList();
-				currSkat.add(simCards.get(i));
-				currSkat.add(simCards.get(j));
+		List<SimulationResults> allResults = simulate(
+				SimulationDecision.DISCARDING, filteredGameTypes, simHands,
+				MAX_SIMULATIONS / 2, null);
 
-				simCards.removeAll(currSkat);
+		for (int i = 0; i < discards.size(); i++) {
 
-				gameSimulator.resetGameSimulator(filteredGameTypes,
-						knowledge.getPlayerPosition(), simCards);
-				SimulationResults simulationResults = gameSimulator
-						.simulateMaxEpisodes(Long.valueOf(MAX_SIMULATIONS / 2));
+			SimulationResults simulationResults = allResults.get(i);
 
-				for (GameType currType : filteredGameTypes) {
+			for (GameType currType : filteredGameTypes) {
 
-					Double wonRate = simulationResults.getWonRate(currType);
+				Double wonRate = simulationResults.getWonRate(currType);
 
-					if (wonRate.doubleValue() > highestWonRate) {
-						highestWonRate = wonRate.doubleValue();
-						bestGameTypeFromDiscarding = currType;
-						result.clear();
-						result.addAll(currSkat);
-					}
+				if (wonRate.doubleValue() > highestWonRate) {
+					highestWonRate = wonRate.doubleValue();
+					bestGameTypeFromDiscarding = currType;
+					result.clear();
+					result.addAll(discards.get(i));
 				}
 			}
 		}
@@ -366,31 +642,40 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 
 		int bestCardIndex = -1;
 
-		log.debug('\n' + knowledge.toString());
+		if (log.isDebugEnabled()) {
+			log.debug('\n' + knowledge.toString());
+		}
 
 		// first find all possible cards
 		CardList possibleCards = getPlayableCards(knowledge.getTrickCards());
 
-		log.debug("found " + possibleCards.size() + " possible cards: " + possibleCards); //$NON-NLS-1$//$NON-NLS-2$
-
-		Map<Card, double[]> cardInputs = new HashMap<Card, double[]>();
+		if (log.isDebugEnabled()) {
+			log.debug("found " + possibleCards.size() + " possible cards: " + possibleCards); //$NON-NLS-1$//$NON-NLS-2$
+		}
 
 		INeuralNetwork net = SkatNetworks.getNetwork(knowledge.getGame()
 				.getGameType(), isDeclarer(), knowledge.getCurrentTrick()
 				.getTrickNumberInGame());
 
-		CardList bestCards = new CardList();
-		CardList highestOutputCards = new CardList();
-		double highestOutput = Double.NEGATIVE_INFINITY;
-		for (Card card : possibleCards) {
-
-			log.debug("Testing card " + card); //$NON-NLS-1$
+		// evaluate all cards in one pass with the reused buffers
+		int cardCount = possibleCards.size();
+		ensureBufferSize(cardCount, net.getInputNeuronCount());
+		for (int i = 0; i < cardCount; i++) {
+			inputGenerator.setNetInputs(knowledge, possibleCards.get(i),
+					inputBuffers[i]);
+		}
+		net.getPredictedOutcomes(inputBuffers, cardCount, outputBuffer);
 
-			double[] inputs = inputGenerator.getNetInputs(knowledge, card);
+		bestCards.clear();
+		highestOutputCards.clear();
+		double highestOutput = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < cardCount; i++) {
 
-			cardInputs.put(card, inputs);
-			double currOutput = net.getPredictedOutcome(inputs);
-			log.warn("net output for card " + card + ": " + formatter.format(currOutput)); //$NON-NLS-1$
+			Card card = possibleCards.get(i);
+			double currOutput = outputBuffer[i];
+			if (log.isWarnEnabled()) {
+				log.warn("net output for card " + card + ": " + formatter.format(currOutput)); //$NON-NLS-1$
+			}
 
 			if (currOutput > 0.9) {
 				bestCards.add(card);
@@ -407,11 +692,15 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		if (bestCards.size() > 0) {
 			// get random card out of the best cards
 			bestCardIndex = chooseRandomCard(possibleCards, bestCards);
-			log.warn("Trick " + (knowledge.getNoOfTricks() + 1) + ": Found best cards. Choosing random from " + bestCards.size() + " out of " + possibleCards.size() + ": " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			if (log.isDebugEnabled()) {
+				log.debug("Trick " + (knowledge.getNoOfTricks() + 1) + ": Found best cards. Choosing random from " + bestCards.size() + " out of " + possibleCards.size() + ": " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			}
 		} else {
 			// no best card, get card with best output
 			bestCardIndex = chooseRandomCard(possibleCards, highestOutputCards);
-			log.warn("Trick " + (knowledge.getNoOfTricks() + 1) + ": No best cards. Choosing card with highest output: " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$ //$NON-NLS-2$ 
+			if (log.isDebugEnabled()) {
+				log.debug("Trick " + (knowledge.getNoOfTricks() + 1) + ": No best cards. Choosing card with highest output: " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		}
 		// } else {
 		// // no best card, get random card out of all cards
@@ -419,16 +708,30 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		//			log.warn("Trick " + (knowledge.getNoOfTricks() + 1) + ": No best cards. Choosing card from all: " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$ //$NON-NLS-2$ 
 		// }
 
-		// store parameters for the card to play
-		// for adjustment of weights after the game
-		storeInputParameters(cardInputs.get(possibleCards.get(bestCardIndex)));
+		if (isLearning) {
+			// store parameters for the card to play
+			// for adjustment of weights after the game, the buffers are
+			// reused for the next card
+			storeInputParameters(inputBuffers[bestCardIndex].clone());
+		}
 
-		log.debug("choosing card " + bestCardIndex); //$NON-NLS-1$
-		log.debug("as player " + knowledge.getPlayerPosition() + ": " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$//$NON-NLS-2$
+		if (log.isDebugEnabled()) {
+			log.debug("choosing card " + bestCardIndex); //$NON-NLS-1$
+			log.debug("as player " + knowledge.getPlayerPosition() + ": " + possibleCards.get(bestCardIndex)); //$NON-NLS-1$//$NON-NLS-2$
+		}
 
 		return possibleCards.get(bestCardIndex);
 	}
 
+	private void ensureBufferSize(final int cardCount, final int inputCount) {
+
+		if (inputBuffers.length < cardCount
+				|| inputBuffers.length > 0 && inputBuffers[0].length != inputCount) {
+			inputBuffers = new double[Math.max(cardCount, MAX_HAND_SIZE)][inputCount];
+			outputBuffer = new double[inputBuffers.length];
+		}
+	}
+
 	private String getInputString(final double[] inputs) {
 		String result = "";
 		for (double input : inputs) {
@@ -458,6 +761,8 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 
 		bestGameTypeFromDiscarding = null;
 		allInputs.clear();
+		simulationCache.clear();
+		commonWorldCache.clear();
 	}
 
 	/**
@@ -503,6 +808,20 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 					}
 				}
 			}
+			if (sampleConsumer != null) {
+				// the networks are adjusted by the consumer
+				PlayerParty playerParty = isDeclarer() ? PlayerParty.DECLARER
+						: PlayerParty.OPPONENT;
+				List<TrainingSample> samples = new ArrayList<TrainingSample>(
+						inputs.size());
+				for (int i = 0; i < inputs.size(); i++) {
+					samples.add(new TrainingSample(knowledge.getGameType(),
+							playerParty, i, inputs.get(i), output));
+				}
+				sampleConsumer.addSamples(samples);
+				return;
+			}
+
 			double[] outputs = new double[] { output };
 
 			int index = 0;
@@ -562,6 +881,19 @@ public class AIPlayerNN extends AbstractJSkatPlayer {
 		isLearning = newIsLearning;
 	}
 
+	/**
+	 * Sets a consumer for the training samples of a learning player, the
+	 * player doesn't adjust the networks itself then
+	 * 
+	 * @param newSampleConsumer
+	 *            Sample consumer or NULL to adjust the networks directly
+	 */
+	public void setTrainingSampleConsumer(
+			final TrainingSampleConsumer newSampleConsumer) {
+
+		sampleConsumer = newSampleConsumer;
+	}
+
 	/**
 	 * Sets a new logger for the nn player
 	 * 
@@ -0,0 +1,86 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Measures the memory allocated by the current thread<br>
+ * The measurement needs java.lang.management and the HotSpot extension of the
+ * thread bean, which are both missing on some platforms (e.g. Android). This
+ * class is only loaded on the first measurement and all HotSpot methods are
+ * called reflectively, {@link GameSimulation#getAllocatedBytes()} falls back to
+ * -1 if it can't be loaded.
+ */
+final class AllocationMeter {
+
+	private static final String HOTSPOT_THREAD_BEAN = "com.sun.management.ThreadMXBean"; //$NON-NLS-1$
+
+	private static final Object threadBean = ManagementFactory
+			.getThreadMXBean();
+	private static final Method getThreadAllocatedBytes = getMeasuringMethod();
+
+	private AllocationMeter() {
+		// only static methods
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far
+	 * 
+	 * @return Allocated bytes or -1 if the JVM can't measure it
+	 */
+	static long getAllocatedBytes() {
+
+		if (getThreadAllocatedBytes == null) {
+			return -1L;
+		}
+		try {
+			return ((Long) getThreadAllocatedBytes.invoke(threadBean,
+					Long.valueOf(Thread.currentThread().getId()))).longValue();
+		} catch (Exception e) {
+			return -1L;
+		}
+	}
+
+	private static Method getMeasuringMethod() {
+
+		try {
+			Class<?> beanClass = Class.forName(HOTSPOT_THREAD_BEAN);
+			if (!beanClass.isInstance(threadBean)) {
+				return null;
+			}
+			Boolean supported = (Boolean) beanClass.getMethod(
+					"isThreadAllocatedMemorySupported").invoke(threadBean); //$NON-NLS-1$
+			if (!supported.booleanValue()) {
+				return null;
+			}
+			beanClass.getMethod("setThreadAllocatedMemoryEnabled", //$NON-NLS-1$
+					boolean.class).invoke(threadBean, Boolean.TRUE);
+			return beanClass.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+		} catch (ClassNotFoundException e) {
+			// no HotSpot JVM
+			return null;
+		} catch (Exception e) {
+			// the HotSpot extension differs from the expected one
+			return null;
+		}
+	}
+}
@@ -19,21 +19,28 @@
  */
 package org.jskat.ai.nn;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
-import org.jskat.util.Card;
+import org.jskat.player.PlayerKnowledge;
 import org.jskat.util.CardDeck;
 import org.jskat.util.CardList;
 import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
 
 /**
  * Simulates possible card decks according to the player knowledge
  */
 public class CardDeckSimulator {
 
-	private static Random rand = new Random();
+	/**
+	 * Default random generators, one per thread
+	 */
+	private static final ThreadLocal<Random> randoms = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new SkatRandom();
+		}
+	};
 
 	/**
 	 * Simulates a card distribution
@@ -47,85 +54,53 @@ public class CardDeckSimulator {
 	public static CardDeck simulateUnknownCards(Player playerPosition,
 			CardList playerHand) {
 
-		// prepare result
-		Map<Player, CardList> playerHands = new HashMap<Player, CardList>();
-		CardList skat = new CardList();
-
-		for (Player player : Player.values()) {
-			// set empty card list
-			playerHands.put(player, new CardList());
-		}
-		playerHands.get(playerPosition).addAll(playerHand);
-
-		// get unknown cards
-		CardDeck unknownCards = new CardDeck();
-		for (Card card : playerHand) {
-
-			unknownCards.remove(card);
-		}
-		unknownCards.shuffle();
-
-		// set unknown cards
-		for (Card card : unknownCards) {
-
-			Player player = null;
-			if (playerHands.get(Player.FOREHAND).size() < 10) {
-				player = Player.FOREHAND;
-			} else if (playerHands.get(Player.MIDDLEHAND).size() < 10) {
-				player = Player.MIDDLEHAND;
-			} else if (playerHands.get(Player.REARHAND).size() < 10) {
-				player = Player.REARHAND;
-			}
-
-			if (player != null) {
-				playerHands.get(player).add(card);
-			} else {
-				// player hands are filled -> put card into skat
-				skat.add(card);
-			}
-		}
-
-		return createCardDeck(playerHands, skat);
+		return simulateUnknownCards(playerPosition, playerHand, randoms.get());
 	}
 
-	private static CardDeck createCardDeck(Map<Player, CardList> playerHands,
-			CardList skat) {
+	/**
+	 * Simulates a card distribution
+	 * 
+	 * @param playerPosition
+	 *            Player position
+	 * @param playerHand
+	 *            Cards on players hand
+	 * @param rand
+	 *            Random generator
+	 * @return Simulated card distribution
+	 */
+	public static CardDeck simulateUnknownCards(Player playerPosition,
+			CardList playerHand, Random rand) {
 
-		CardList cards = new CardList();
+		return new DealSampler(playerPosition, playerHand).sampleCardDeck(rand);
+	}
 
-		// Simulate card dealing
-		for (int i = 0; i < 3; i++) {
-			// FIXME (jan 17.01.2011) code duplication with SimpleSkatGame#dealCards()
-			// deal three rounds of cards
-			switch (i) {
-			case 0:
-				// deal three cards
-				dealCards(cards, playerHands, 3);
-				// and put two cards into the skat
-				cards.add(skat.get(0));
-				cards.add(skat.get(1));
-				break;
-			case 1:
-				// deal four cards
-				dealCards(cards, playerHands, 4);
-				break;
-			case 2:
-				// deal three cards
-				dealCards(cards, playerHands, 3);
-				break;
-			}
-		}
+	/**
+	 * Simulates a card distribution that is consistent with everything the
+	 * player knows about the game so far, the cards already played are dealt
+	 * to the players who played them
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 * @return Simulated card distribution
+	 */
+	public static CardDeck simulateUnknownCards(PlayerKnowledge knowledge) {
 
-		return new CardDeck(cards);
+		return simulateUnknownCards(knowledge, randoms.get());
 	}
 
-	private static void dealCards(CardList result,
-			Map<Player, CardList> playerHands, int cardCount) {
+	/**
+	 * Simulates a card distribution that is consistent with everything the
+	 * player knows about the game so far
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 * @param rand
+	 *            Random generator
+	 * @return Simulated card distribution
+	 */
+	public static CardDeck simulateUnknownCards(PlayerKnowledge knowledge,
+			Random rand) {
 
-		for (Player player : Player.values()) {
-			for (int i = 0; i < cardCount; i++) {
-				result.add(playerHands.get(player).remove(0));
-			}
-		}
+		return new DealSampler(knowledge).sampleCardDeck(rand);
 	}
 }
@@ -0,0 +1,623 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jskat.player.KnowledgeSnapshot;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples card distributions that are consistent with the knowledge of a
+ * player<br>
+ * All card sets are held as bit masks with one bit per {@link Card} ordinal.
+ * The unknown cards are grouped by the locations they could be at. For every
+ * group the number of cards per location is chosen by the number of deals
+ * that complete the choice, so every consistent deal is equally likely and no
+ * sampled deal has to be rejected.<br>
+ * Sampling reuses internal buffers, an instance must only be used by one
+ * thread at a time.
+ */
+public class DealSampler {
+
+	private static Logger log = LoggerFactory.getLogger(DealSampler.class);
+
+	/**
+	 * Index of the skat in the location arrays, the players are indexed by
+	 * their order
+	 */
+	static final int SKAT = 3;
+
+	private static final int LOCATIONS = 4;
+
+	/**
+	 * Binomial coefficients for up to 32 cards
+	 */
+	private static final long[][] BINOMIALS = new long[33][33];
+
+	static {
+		for (int n = 0; n < BINOMIALS.length; n++) {
+			BINOMIALS[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+			}
+		}
+	}
+
+	/**
+	 * Cards known to be at a location, including the cards played from there
+	 */
+	private final int[] knownCards = new int[LOCATIONS];
+	/**
+	 * Unknown cards that could be at a location
+	 */
+	private final int[] possibleCards = new int[LOCATIONS];
+	/**
+	 * Number of unknown cards for every location
+	 */
+	private final int[] unknownCardCount = new int[LOCATIONS];
+	/**
+	 * Unknown card ordinals and the locations they could be at
+	 */
+	private int[] unknownCards;
+	private int[] cardLocations;
+
+	/**
+	 * Possible locations and number of the unknown cards of every card type,
+	 * the cards of a type can be at the same locations
+	 */
+	private int[] typeLocations;
+	private int[] typeSizes;
+	private int[] cardTypes;
+
+	/**
+	 * The free places of all locations are encoded in one state number
+	 */
+	private final int[] stateStrides = new int[LOCATIONS];
+	private int initialState;
+	/**
+	 * Number of deals for the card types from an index on, by state of the
+	 * free places, -1 if not counted yet
+	 */
+	private long[][] completions;
+
+	// buffers for sampling
+	private int[] order;
+	private int[] splits;
+	private long pick;
+	private int pickedState;
+	private final int[] distribution = new int[LOCATIONS];
+
+	private boolean consistent;
+	/**
+	 * TRUE if every unknown card could be at every location with free places
+	 */
+	private boolean unconstrained;
+
+	/**
+	 * Constructor for a sampler that only knows the cards of one player
+	 * 
+	 * @param playerPosition
+	 *            Player position
+	 * @param playerHand
+	 *            Cards on players hand
+	 */
+	public DealSampler(final Player playerPosition, final CardList playerHand) {
+
+		int handMask = CardSet.getMask(playerHand);
+		for (int i = 0; i < LOCATIONS; i++) {
+			possibleCards[i] = CardSet.ALL;
+		}
+		knownCards[playerPosition.getOrder()] = handMask;
+
+		initialize();
+	}
+
+	/**
+	 * Constructor for a sampler that uses everything a player knows about the
+	 * current game, it can be used at any time during the game
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 */
+	public DealSampler(final PlayerKnowledge knowledge) {
+
+		this(new KnowledgeSnapshot(knowledge));
+	}
+
+	/**
+	 * Constructor for a sampler that uses a snapshot of the player knowledge,
+	 * it can be used at any time during the game
+	 * 
+	 * @param knowledge
+	 *            Knowledge snapshot
+	 */
+	public DealSampler(final KnowledgeSnapshot knowledge) {
+
+		Player playerPosition = knowledge.getPlayerPosition();
+
+		for (Player player : Player.values()) {
+			int playedCards = knowledge.getPlayedCardMask(player);
+			knownCards[player.getOrder()] |= playedCards;
+			if (player != playerPosition) {
+				possibleCards[player.getOrder()] |= knowledge
+						.getPossibleCardMask(player) & ~playedCards;
+			}
+		}
+		possibleCards[SKAT] |= knowledge.getPossibleSkatCardMask();
+		knownCards[playerPosition.getOrder()] |= knowledge.getOwnCardMask();
+
+		Player declarer = knowledge.getDeclarer();
+		if (knowledge.getOpenCardMask() != 0) {
+			// the open cards of the declarer are known
+			knownCards[declarer.getOrder()] |= knowledge.getOpenCardMask();
+			possibleCards[declarer.getOrder()] = 0;
+		}
+
+		initialize();
+	}
+
+	/**
+	 * Constructor for a sampler with given card masks
+	 * 
+	 * @param knownCards
+	 *            Cards known to be at a location, by player order and skat
+	 * @param possibleCards
+	 *            Unknown cards that could be at a location
+	 */
+	DealSampler(final int[] knownCards, final int[] possibleCards) {
+
+		System.arraycopy(knownCards, 0, this.knownCards, 0, LOCATIONS);
+		System.arraycopy(possibleCards, 0, this.possibleCards, 0, LOCATIONS);
+
+		initialize();
+	}
+
+	private void initialize() {
+
+		int known = 0;
+		int playerCards = 0;
+		for (int i = 0; i < LOCATIONS; i++) {
+			known |= knownCards[i];
+		}
+		for (int i = 0; i < SKAT; i++) {
+			unknownCardCount[i] = Math.max(0,
+					10 - Integer.bitCount(knownCards[i]));
+			playerCards += unknownCardCount[i]
+					+ Integer.bitCount(knownCards[i]);
+		}
+		// the skat takes all remaining cards, e.g. while the declarer holds
+		// twelve cards before discarding
+		unknownCardCount[SKAT] = Math.max(0, 32 - playerCards
+				- Integer.bitCount(knownCards[SKAT]));
+
+		int unknown = ~known;
+		unknownCards = new int[Integer.bitCount(unknown)];
+		cardLocations = new int[unknownCards.length];
+
+		int index = 0;
+		for (Card card : Card.values()) {
+			int bit = CardSet.getMask(card);
+			if ((unknown & bit) != 0) {
+				unknownCards[index] = card.ordinal();
+				cardLocations[index] = getLocations(bit);
+				if (cardLocations[index] == 0) {
+					// knowledge contradicts itself, the card could be anywhere
+					cardLocations[index] = getFreeLocations();
+				}
+				index++;
+			}
+		}
+
+		consistent = isSolvable(getLocationTypeCounts(0), unknownCardCount);
+		if (!consistent) {
+			log.warn("Player knowledge is inconsistent, sampling without constraints."); //$NON-NLS-1$
+			for (int i = 0; i < cardLocations.length; i++) {
+				cardLocations[i] = getFreeLocations();
+			}
+		}
+		order = new int[unknownCards.length];
+
+		unconstrained = true;
+		for (int i = 0; i < cardLocations.length; i++) {
+			if (cardLocations[i] != getFreeLocations()) {
+				unconstrained = false;
+			}
+		}
+		if (!unconstrained) {
+			initializeCardTypes();
+		}
+	}
+
+	/**
+	 * Groups the unknown cards by their possible locations and prepares the
+	 * counting of deals
+	 */
+	private void initializeCardTypes() {
+
+		int[] typeCounts = getLocationTypeCounts(0);
+		int[] typeIndices = new int[typeCounts.length];
+		int typeCount = 0;
+		for (int locations = 1; locations < typeCounts.length; locations++) {
+			if (typeCounts[locations] > 0) {
+				typeIndices[locations] = typeCount++;
+			}
+		}
+
+		typeLocations = new int[typeCount];
+		typeSizes = new int[typeCount];
+		for (int locations = 1; locations < typeCounts.length; locations++) {
+			if (typeCounts[locations] > 0) {
+				typeLocations[typeIndices[locations]] = locations;
+				typeSizes[typeIndices[locations]] = typeCounts[locations];
+			}
+		}
+		cardTypes = new int[cardLocations.length];
+		for (int i = 0; i < cardLocations.length; i++) {
+			cardTypes[i] = typeIndices[cardLocations[i]];
+		}
+
+		int stateCount = 1;
+		for (int i = 0; i < LOCATIONS; i++) {
+			stateStrides[i] = stateCount;
+			stateCount *= unknownCardCount[i] + 1;
+		}
+		// all places are free
+		initialState = stateCount - 1;
+
+		completions = new long[typeCount][stateCount];
+		for (long[] typeCompletions : completions) {
+			Arrays.fill(typeCompletions, -1L);
+		}
+		splits = new int[typeCount * LOCATIONS];
+	}
+
+	private int getLocations(final int cardBit) {
+
+		int locations = 0;
+		for (int i = 0; i < LOCATIONS; i++) {
+			if ((possibleCards[i] & cardBit) != 0 && unknownCardCount[i] > 0) {
+				locations |= 1 << i;
+			}
+		}
+		return locations;
+	}
+
+	private int getFreeLocations() {
+
+		int locations = 0;
+		for (int i = 0; i < LOCATIONS; i++) {
+			if (unknownCardCount[i] > 0) {
+				locations |= 1 << i;
+			}
+		}
+		return locations;
+	}
+
+	/**
+	 * Counts the unknown cards for every combination of possible locations
+	 * 
+	 * @param firstCard
+	 *            Index of the first unknown card to be counted
+	 * @return Card counts indexed by location combination
+	 */
+	private int[] getLocationTypeCounts(final int firstCard) {
+
+		int[] typeCounts = new int[1 << LOCATIONS];
+		for (int i = firstCard; i < cardLocations.length; i++) {
+			typeCounts[cardLocations[i]]++;
+		}
+		return typeCounts;
+	}
+
+	/**
+	 * Checks Hall's condition: for every set of locations the cards that can
+	 * only go there must fit into the free places
+	 */
+	private static boolean isSolvable(final int[] typeCounts,
+			final int[] freePlaces) {
+
+		for (int locations = 1; locations < (1 << LOCATIONS); locations++) {
+
+			int cards = 0;
+			for (int type = locations; type > 0; type = (type - 1) & locations) {
+				cards += typeCounts[type];
+			}
+
+			int places = 0;
+			for (int i = 0; i < LOCATIONS; i++) {
+				if ((locations & (1 << i)) != 0) {
+					places += freePlaces[i];
+				}
+			}
+
+			if (cards > places) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the knowledge allowed a consistent card distribution
+	 * 
+	 * @return TRUE if the sampled deals respect all constraints
+	 */
+	public boolean isConsistent() {
+		return consistent;
+	}
+
+	/**
+	 * Samples a card distribution
+	 * 
+	 * @param rand
+	 *            Random generator
+	 * @param result
+	 *            Card masks for the three players (by player order) and the
+	 *            skat, including the known cards
+	 */
+	public void sample(final Random rand, final int[] result) {
+
+		int cardCount = unknownCards.length;
+		for (int i = 0; i < cardCount; i++) {
+			int j = rand.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+
+		for (int i = 0; i < LOCATIONS; i++) {
+			result[i] = knownCards[i];
+		}
+
+		if (unconstrained) {
+			// a random order of the cards is a random deal already
+			int next = 0;
+			for (int location = 0; location < LOCATIONS; location++) {
+				for (int i = 0; i < unknownCardCount[location]; i++) {
+					result[location] |= 1 << unknownCards[order[next++]];
+				}
+			}
+			return;
+		}
+
+		// the number of cards per location for every card type, weighted by
+		// the number of deals that complete the choice
+		int state = initialState;
+		for (int type = 0; type < typeLocations.length; type++) {
+			pick = nextLong(rand, getCompletions(type, state));
+			pickSplit(type, state, 0, typeSizes[type], 1L);
+			state = pickedState;
+		}
+
+		// the cards of a type are dealt in random order
+		for (int i = 0; i < cardCount; i++) {
+			int card = order[i];
+			int split = cardTypes[card] * LOCATIONS;
+			int location = 0;
+			while (splits[split + location] == 0) {
+				location++;
+			}
+			splits[split + location]--;
+			result[location] |= 1 << unknownCards[card];
+		}
+	}
+
+	/**
+	 * Counts the deals of the card types from an index on
+	 * 
+	 * @param type
+	 *            Index of the first card type
+	 * @param state
+	 *            Free places of all locations
+	 * @return Number of deals
+	 */
+	private long getCompletions(final int type, final int state) {
+
+		if (type == typeLocations.length) {
+			return 1L;
+		}
+		long result = completions[type][state];
+		if (result < 0) {
+			result = countSplits(type, state, 0, typeSizes[type], 1L);
+			completions[type][state] = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the deals for all splits of the remaining cards of a type among
+	 * its locations, starting at a location
+	 * 
+	 * @param ways
+	 *            Number of ways to choose the cards for the former locations
+	 */
+	private long countSplits(final int type, final int state,
+			final int location, final int cards, final long ways) {
+
+		if (location == LOCATIONS) {
+			return cards == 0 ? ways * getCompletions(type + 1, state) : 0L;
+		}
+
+		long result = 0L;
+		int maxCards = getMaxCards(type, state, location, cards);
+		for (int n = 0; n <= maxCards; n++) {
+			result += countSplits(type, state - n * stateStrides[location],
+					location + 1, cards - n, ways * BINOMIALS[cards][n]);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the split of a card type that contains the picked deal, the
+	 * picked deal is counted down by the deals of the splits before
+	 * 
+	 * @return TRUE if the split was found
+	 */
+	private boolean pickSplit(final int type, final int state,
+			final int location, final int cards, final long ways) {
+
+		if (location == LOCATIONS) {
+			if (cards > 0) {
+				return false;
+			}
+			long deals = ways * getCompletions(type + 1, state);
+			if (pick < deals) {
+				pickedState = state;
+				return true;
+			}
+			pick -= deals;
+			return false;
+		}
+
+		int maxCards = getMaxCards(type, state, location, cards);
+		for (int n = 0; n <= maxCards; n++) {
+			splits[type * LOCATIONS + location] = n;
+			if (pickSplit(type, state - n * stateStrides[location],
+					location + 1, cards - n, ways * BINOMIALS[cards][n])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getMaxCards(final int type, final int state,
+			final int location, final int cards) {
+
+		if ((typeLocations[type] & (1 << location)) == 0) {
+			return 0;
+		}
+		int freePlaces = state / stateStrides[location]
+				% (unknownCardCount[location] + 1);
+		return Math.min(cards, freePlaces);
+	}
+
+	/**
+	 * Draws a uniform random number from 0 (inclusive) to a bound (exclusive)
+	 */
+	private static long nextLong(final Random rand, final long bound) {
+
+		long bits;
+		long result;
+		do {
+			bits = rand.nextLong() >>> 1;
+			result = bits % bound;
+		} while (bits - result + (bound - 1) < 0);
+		return result;
+	}
+
+	/**
+	 * Samples a complete card deck in dealing order, the cards already played
+	 * are dealt to the players who played them
+	 * 
+	 * @param rand
+	 *            Random generator
+	 * @return Card deck
+	 */
+	public CardDeck sampleCardDeck(final Random rand) {
+
+		CardDeck result = new CardDeck(new CardList());
+		sampleCardDeck(rand, result);
+		return result;
+	}
+
+	/**
+	 * Samples a complete card deck in dealing order into an existing deck,
+	 * the cards already played are dealt to the players who played them
+	 * 
+	 * @param rand
+	 *            Random generator
+	 * @param deck
+	 *            Card deck to be refilled
+	 */
+	public void sampleCardDeck(final Random rand, final CardDeck deck) {
+
+		sample(rand, distribution);
+		fillCardDeck(distribution, deck);
+	}
+
+	/**
+	 * Creates a card deck in dealing order from a card distribution
+	 * 
+	 * @param distribution
+	 *            Card masks by player order and skat
+	 * @return Card deck
+	 */
+	static CardDeck toCardDeck(final int[] distribution) {
+
+		CardDeck result = new CardDeck(new CardList());
+		fillCardDeck(distribution, result);
+		return result;
+	}
+
+	/**
+	 * Refills a card deck in dealing order from a card distribution
+	 * 
+	 * @param distribution
+	 *            Card masks by player order and skat
+	 * @param deck
+	 *            Card deck to be refilled
+	 */
+	static void fillCardDeck(final int[] distribution,
+			final CardDeck deck) {
+
+		deck.clear();
+
+		int foreHand = distribution[Player.FOREHAND.getOrder()];
+		int middleHand = distribution[Player.MIDDLEHAND.getOrder()];
+		int rearHand = distribution[Player.REARHAND.getOrder()];
+
+		// deal three cards, put two cards into the skat, deal four cards and
+		// deal three cards again
+		foreHand = dealCards(deck, foreHand, 3);
+		middleHand = dealCards(deck, middleHand, 3);
+		rearHand = dealCards(deck, rearHand, 3);
+		dealCards(deck, distribution[SKAT], 2);
+		foreHand = dealCards(deck, foreHand, 4);
+		middleHand = dealCards(deck, middleHand, 4);
+		rearHand = dealCards(deck, rearHand, 4);
+		dealCards(deck, foreHand, 3);
+		dealCards(deck, middleHand, 3);
+		dealCards(deck, rearHand, 3);
+	}
+
+	/**
+	 * Adds the cards with the lowest ordinals of a card mask to a deck
+	 * 
+	 * @return Remaining cards
+	 */
+	private static int dealCards(final CardDeck deck, final int cards,
+			final int cardCount) {
+
+		int remaining = cards;
+		for (int i = 0; i < cardCount; i++) {
+			deck.add(CardSet.getFirstCard(remaining));
+			remaining &= remaining - 1;
+		}
+		return remaining;
+	}
+}
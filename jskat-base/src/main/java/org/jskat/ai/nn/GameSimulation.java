@@ -0,0 +1,309 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.jskat.control.SkatGameEngine;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.GameVariant;
+import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Helper class for simulating games<br>
+ * An instance must only be used by one thread at a time, {@link GameSimulator}
+ * holds one instance per worker thread. Players, game engine, game data, deal
+ * sampler and card deck are reused for all episodes.
+ */
+class GameSimulation {
+
+	private static Logger log = LoggerFactory.getLogger(GameSimulation.class);
+
+	/**
+	 * Deadline value for simulations without time limit
+	 */
+	static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private final SkatGameEngine gameEngine;
+	private final AIPlayerNN[] players = new AIPlayerNN[3];
+	private final Random defaultRand = new SkatRandom();
+	private final Map<GameType, GameAnnouncement> announcements = new HashMap<GameType, GameAnnouncement>();
+
+	private final CardDeck deck = new CardDeck(new CardList());
+	private final int[] distribution = new int[DealSampler.SKAT + 1];
+	private DealSampler sampler;
+	private Player samplerPosition;
+	private int samplerCards;
+
+	/**
+	 * FALSE as soon as the allocated memory can't be measured on this
+	 * platform
+	 */
+	private static volatile boolean measuringAllocations = true;
+
+	GameSimulation() {
+
+		for (int i = 0; i < players.length; i++) {
+			players[i] = createPlayer();
+		}
+		gameEngine = new SkatGameEngine("table", GameVariant.STANDARD, //$NON-NLS-1$
+				players[0], players[1], players[2]);
+		gameEngine.setLogger(NOPLogger.NOP_LOGGER);
+	}
+
+	private static AIPlayerNN createPlayer() {
+
+		AIPlayerNN player = new AIPlayerNN();
+		player.setIsLearning(false);
+		player.setLogger(NOPLogger.NOP_LOGGER);
+		return player;
+	}
+
+	/**
+	 * Simulates a number of games
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param position
+	 *            Position of the declarer
+	 * @param cards
+	 *            Cards of the declarer
+	 * @param episodes
+	 *            Number of games to simulate
+	 * @return Number of games won by the declarer
+	 */
+	long simulateGames(final GameType gameType, final Player position,
+			final CardList cards, final long episodes) {
+
+		return simulateGames(gameType, position, cards, episodes, NO_DEADLINE)[1];
+	}
+
+	/**
+	 * Simulates a number of games until a deadline is reached
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param position
+	 *            Position of the declarer
+	 * @param cards
+	 *            Cards of the declarer
+	 * @param maxEpisodes
+	 *            Maximum number of games to simulate
+	 * @param deadline
+	 *            Deadline in nano seconds as returned by
+	 *            {@link System#nanoTime()} or {@link #NO_DEADLINE}
+	 * @return Number of simulated games and number of games won by the
+	 *         declarer
+	 */
+	long[] simulateGames(final GameType gameType, final Player position,
+			final CardList cards, final long maxEpisodes, final long deadline) {
+
+		return simulateGames(gameType, position, cards, maxEpisodes, deadline,
+				defaultRand);
+	}
+
+	/**
+	 * Simulates a number of games until a deadline is reached, all random
+	 * decisions are taken from the given generator
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param position
+	 *            Position of the declarer
+	 * @param cards
+	 *            Cards of the declarer
+	 * @param maxEpisodes
+	 *            Maximum number of games to simulate
+	 * @param deadline
+	 *            Deadline in nano seconds as returned by
+	 *            {@link System#nanoTime()} or {@link #NO_DEADLINE}
+	 * @param rand
+	 *            Random generator for the deals and the simulated players
+	 * @return Number of simulated games, number of games won by the declarer
+	 *         and bytes allocated by the simulation or -1 if the JVM can't
+	 *         measure it
+	 */
+	long[] simulateGames(final GameType gameType, final Player position,
+			final CardList cards, final long maxEpisodes, final long deadline,
+			final Random rand) {
+
+		long allocatedBytes = getAllocatedBytes();
+
+		for (AIPlayerNN player : players) {
+			player.setRandom(rand);
+		}
+
+		long episodes = 0;
+		long wonGames = 0;
+
+		while (episodes < maxEpisodes
+				&& (deadline == NO_DEADLINE || deadline - System.nanoTime() > 0)) {
+			if (simulateGame(gameType, position, cards, rand)) {
+				wonGames++;
+			}
+			episodes++;
+		}
+
+		if (allocatedBytes >= 0) {
+			allocatedBytes = getAllocatedBytes() - allocatedBytes;
+		}
+
+		return new long[] { episodes, wonGames, allocatedBytes };
+	}
+
+	/**
+	 * Simulates a game type for one hand on a chunk of common worlds<br>
+	 * The worlds only depend on the seed and the known cards, so all hands
+	 * taken from the known cards are played on the same deals. The known
+	 * cards that are not part of the hand lie in the skat.
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param position
+	 *            Position of the declarer
+	 * @param knownCards
+	 *            Cards known to the declarer
+	 * @param hand
+	 *            Hand of the declarer, taken from the known cards
+	 * @param worlds
+	 *            Number of worlds, at most 64
+	 * @param deadline
+	 *            Deadline in nano seconds as returned by
+	 *            {@link System#nanoTime()} or {@link #NO_DEADLINE}
+	 * @param seed
+	 *            Seed that defines the worlds
+	 * @return Number of simulated worlds, bit mask of the worlds won by the
+	 *         declarer and bytes allocated by the simulation or -1 if the JVM
+	 *         can't measure it
+	 */
+	long[] simulateWorlds(final GameType gameType, final Player position,
+			final CardList knownCards, final CardList hand, final int worlds,
+			final long deadline, final long seed) {
+
+		if (worlds > Long.SIZE) {
+			throw new IllegalArgumentException(
+					"At most 64 worlds can be simulated at once."); //$NON-NLS-1$
+		}
+
+		long allocatedBytes = getAllocatedBytes();
+
+		SkatRandom worldRand = new SkatRandom(seed);
+		// the players must not use up the random numbers of the worlds
+		Random playerRand = worldRand.split();
+		for (AIPlayerNN player : players) {
+			player.setRandom(playerRand);
+		}
+
+		DealSampler worldSampler = getSampler(position, knownCards);
+		int knownCardMask = CardSet.getMask(knownCards);
+		int handMask = CardSet.getMask(hand);
+
+		int world = 0;
+		long wonWorlds = 0;
+		while (world < worlds
+				&& (deadline == NO_DEADLINE || deadline - System.nanoTime() > 0)) {
+
+			worldSampler.sample(worldRand, distribution);
+			distribution[position.getOrder()] = handMask;
+			distribution[DealSampler.SKAT] |= knownCardMask & ~handMask;
+			DealSampler.fillCardDeck(distribution, deck);
+
+			gameEngine.play(deck, position, getAnnouncement(gameType));
+			if (gameEngine.isGameWon()) {
+				wonWorlds |= 1L << world;
+			}
+			world++;
+		}
+
+		if (allocatedBytes >= 0) {
+			allocatedBytes = getAllocatedBytes() - allocatedBytes;
+		}
+
+		return new long[] { world, wonWorlds, allocatedBytes };
+	}
+
+	private boolean simulateGame(final GameType gameType,
+			final Player position, final CardList cards, final Random rand) {
+
+		getSampler(position, cards).sampleCardDeck(rand, deck);
+		if (log.isDebugEnabled()) {
+			log.debug("Card deck: " + deck); //$NON-NLS-1$
+		}
+
+		// the game is played on this thread, no thread per game needed
+		gameEngine.play(deck, position, getAnnouncement(gameType));
+
+		return gameEngine.isGameWon();
+	}
+
+	private DealSampler getSampler(final Player position, final CardList cards) {
+
+		int cardMask = CardSet.getMask(cards);
+		if (sampler == null || position != samplerPosition
+				|| cardMask != samplerCards) {
+			sampler = new DealSampler(position, cards);
+			samplerPosition = position;
+			samplerCards = cardMask;
+		}
+		return sampler;
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far
+	 * 
+	 * @return Allocated bytes or -1 if the JVM can't measure it
+	 */
+	static long getAllocatedBytes() {
+
+		if (!measuringAllocations) {
+			return -1L;
+		}
+		try {
+			return AllocationMeter.getAllocatedBytes();
+		} catch (LinkageError e) {
+			// java.lang.management is missing, e.g. on Android
+			measuringAllocations = false;
+			return -1L;
+		}
+	}
+
+	private GameAnnouncement getAnnouncement(final GameType gameType) {
+
+		GameAnnouncement announcement = announcements.get(gameType);
+		if (announcement == null) {
+			GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+			factory.setGameType(gameType);
+			announcement = factory.getAnnouncement();
+			announcements.put(gameType, announcement);
+		}
+		return announcement;
+	}
+}
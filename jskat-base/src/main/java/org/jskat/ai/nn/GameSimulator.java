@@ -19,54 +19,667 @@
  */
 package org.jskat.ai.nn;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jskat.util.CardList;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Simulates games for {@link AIPlayerNN}
+ * Simulates games for {@link AIPlayerNN}<br>
+ * The episodes of all game types are split into small tasks that are run by a
+ * pool of worker threads shared by all players
  */
 class GameSimulator {
 
-	Map<GameType, GameSimulationThread> simThreads;
+	private static Logger log = LoggerFactory.getLogger(GameSimulator.class);
 
-	GameSimulator() {
-		simThreads = new HashMap<GameType, GameSimulationThread>();
+	/**
+	 * Number of episodes simulated by one task
+	 */
+	static final long EPISODES_PER_TASK = 5;
+
+	/**
+	 * Seconds a worker thread may be idle before it ends
+	 */
+	private static final long IDLE_SECONDS = 60;
+
+	private static int parallelism = Runtime.getRuntime().availableProcessors();
+	private static ExecutorService executor;
+
+	private static final ThreadLocal<GameSimulation> simulations = new ThreadLocal<GameSimulation>() {
+		@Override
+		protected GameSimulation initialValue() {
+			return new GameSimulation();
+		}
+	};
+
+	private GameSimulator() {
+		// only static methods
+	}
+
+	/**
+	 * Simulates several hands of the same player at once, e.g. all possible
+	 * discards
+	 * 
+	 * @param newGameTypes
+	 *            Game types to simulate for every hand
+	 * @param position
+	 *            Player position
+	 * @param hands
+	 *            Player hands
+	 * @param maxEpisodes
+	 *            Episodes per game type and hand
+	 * @return Simulation results in the order of the hands
+	 */
+	static List<SimulationResults> simulateMaxEpisodes(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final Long maxEpisodes) {
+
+		return simulateMaxEpisodes(newGameTypes, position, hands, maxEpisodes,
+				new SkatRandom());
+	}
+
+	/**
+	 * Simulates several hands of the same player at once<br>
+	 * Every task gets its own generator seeded from the given generator, so
+	 * the results only depend on its state and not on the worker threads
+	 * 
+	 * @param newGameTypes
+	 *            Game types to simulate for every hand
+	 * @param position
+	 *            Player position
+	 * @param hands
+	 *            Player hands
+	 * @param maxEpisodes
+	 *            Episodes per game type and hand
+	 * @param rand
+	 *            Random generator for seeding the simulation tasks
+	 * @return Simulation results in the order of the hands
+	 */
+	static List<SimulationResults> simulateMaxEpisodes(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final Long maxEpisodes,
+			final Random rand) {
+
+		return simulateMaxEpisodes(newGameTypes, position, hands, maxEpisodes,
+				rand, null);
 	}
 
-	void resetGameSimulator(List<GameType> gameTypes, Player playerPosition,
-			CardList playerCards) {
-		
-		simThreads.clear();
-		for (GameType gameType : gameTypes) {
-			simThreads.put(gameType, new GameSimulationThread(gameType, playerPosition,
-				playerCards));
+	/**
+	 * Simulates games until the results of every hand and game type hold a
+	 * number of episodes, former results are refined
+	 * 
+	 * @param newGameTypes
+	 *            Game types
+	 * @param position
+	 *            Position of the declarer
+	 * @param hands
+	 *            Hands of the declarer
+	 * @param maxEpisodes
+	 *            Number of episodes per hand and game type
+	 * @param rand
+	 *            Random generator for the seeds of the simulation tasks
+	 * @param formerResults
+	 *            Results of former simulations by hand, NULL to start new
+	 *            results
+	 * @return Simulation results by hand
+	 */
+	static List<SimulationResults> simulateMaxEpisodes(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final Long maxEpisodes,
+			final Random rand, final List<SimulationResults> formerResults) {
+
+		List<SimulationResults> results = getResults(newGameTypes, hands,
+				formerResults);
+		List<SimulationTask> tasks = new ArrayList<SimulationTask>();
+
+		for (int i = 0; i < hands.size(); i++) {
+			SimulationResults handResults = results.get(i);
+			for (GameType gameType : newGameTypes) {
+				long missingEpisodes = maxEpisodes.longValue()
+						- handResults.getEpisodes(gameType);
+				for (long episodes = 0; episodes < missingEpisodes; episodes += EPISODES_PER_TASK) {
+					tasks.add(new SimulationTask(handResults, gameType,
+							position, hands.get(i), Math.min(
+									EPISODES_PER_TASK, missingEpisodes
+											- episodes),
+							GameSimulation.NO_DEADLINE, rand.nextLong()));
+				}
+			}
 		}
+
+		runTasks(tasks);
+
+		return results;
 	}
 
-	SimulationResults simulateMaxEpisodes(Long maxEpisodes) {
+	/**
+	 * Simulates several hands of the same player until a time budget is used
+	 * up or the decision is clear enough
+	 * 
+	 * @param newGameTypes
+	 *            Game types to simulate for every hand
+	 * @param position
+	 *            Player position
+	 * @param hands
+	 *            Player hands
+	 * @param timeBudget
+	 *            Time budget in milliseconds
+	 * @param threshold
+	 *            Won rate the decision depends on, if NULL the simulation
+	 *            stops when the best game type and hand is separated from the
+	 *            rest
+	 * @return Simulation results in the order of the hands
+	 */
+	static List<SimulationResults> simulateWithTimeBudget(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final long timeBudget,
+			final Double threshold) {
 
-		SimulationResults results = new SimulationResults();
+		return simulateWithTimeBudget(newGameTypes, position, hands,
+				timeBudget, threshold, new SkatRandom());
+	}
 
-		for (GameSimulationThread thread : simThreads.values()) {
-			thread.startSimulationWithMaxEpidodes(maxEpisodes);
+	/**
+	 * Simulates several hands of the same player until a time budget is used
+	 * up or the decision is clear enough, the simulation tasks are seeded from
+	 * the given generator
+	 * 
+	 * @param newGameTypes
+	 *            Game types to simulate for every hand
+	 * @param position
+	 *            Player position
+	 * @param hands
+	 *            Player hands
+	 * @param timeBudget
+	 *            Time budget in milliseconds
+	 * @param threshold
+	 *            Won rate the decision depends on or NULL
+	 * @param rand
+	 *            Random generator for seeding the simulation tasks
+	 * @return Simulation results in the order of the hands
+	 */
+	static List<SimulationResults> simulateWithTimeBudget(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final long timeBudget,
+			final Double threshold, final Random rand) {
+
+		return simulateWithTimeBudget(newGameTypes, position, hands,
+				timeBudget, threshold, rand, null);
+	}
+
+	/**
+	 * Simulates games until the time budget is used up or the decision is
+	 * clear enough, former results are refined
+	 * 
+	 * @param newGameTypes
+	 *            Game types
+	 * @param position
+	 *            Position of the declarer
+	 * @param hands
+	 *            Hands of the declarer
+	 * @param timeBudget
+	 *            Time budget in milliseconds
+	 * @param threshold
+	 *            Threshold for the won rate, NULL if the best result has to be
+	 *            separated from all others
+	 * @param rand
+	 *            Random generator for the seeds of the simulation tasks
+	 * @param formerResults
+	 *            Results of former simulations by hand, NULL to start new
+	 *            results
+	 * @return Simulation results by hand
+	 */
+	static List<SimulationResults> simulateWithTimeBudget(
+			final List<GameType> newGameTypes, final Player position,
+			final List<CardList> hands, final long timeBudget,
+			final Double threshold, final Random rand,
+			final List<SimulationResults> formerResults) {
+
+		long start = System.nanoTime();
+		long deadline = start + timeBudget * 1000000L;
+
+		List<SimulationResults> results = getResults(newGameTypes, hands,
+				formerResults);
+
+		int candidates = hands.size() * newGameTypes.size();
+		if (candidates == 0) {
+			return results;
 		}
-		for (GameSimulationThread thread : simThreads.values()) {
-			try {
-				thread.join();
-			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+		// every round keeps all worker threads busy
+		int tasksPerRound = Math.max(candidates, getParallelism());
+
+		int rounds = 0;
+		// former results might decide already
+		boolean decided = isSimulated(results, newGameTypes)
+				&& isDecided(results, newGameTypes, threshold);
+		while (!decided && deadline - System.nanoTime() > 0) {
+
+			List<SimulationTask> tasks = new ArrayList<SimulationTask>();
+			for (int i = 0; i < tasksPerRound; i++) {
+				int candidate = i % candidates;
+				tasks.add(new SimulationTask(results.get(candidate
+						/ newGameTypes.size()), newGameTypes.get(candidate
+						% newGameTypes.size()), position, hands.get(candidate
+						/ newGameTypes.size()), EPISODES_PER_TASK, deadline,
+						rand.nextLong()));
 			}
+			runTasks(tasks);
+			rounds++;
+
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			decided = isDecided(results, newGameTypes, threshold);
+		}
+
+		if (log.isDebugEnabled()) {
+			long episodes = 0;
+			for (SimulationResults handResults : results) {
+				episodes += handResults.getTotalEpisodes();
+			}
+			log.debug("Simulated " + episodes + " episodes in " + rounds //$NON-NLS-1$ //$NON-NLS-2$
+					+ " rounds and " + (System.nanoTime() - start) / 1000000L //$NON-NLS-1$
+					+ " ms, decided early: " + decided); //$NON-NLS-1$
 		}
-		for (GameSimulationThread thread : simThreads.values()) {
-			results.setWonRate(thread.getGameType(), thread.getWonRate());
+
+		return results;
+	}
+
+	/**
+	 * Simulates all candidates on the same sampled worlds until every
+	 * candidate was played on a number of worlds, the worlds of former
+	 * simulations are reused
+	 * 
+	 * @param newGameTypes
+	 *            Game types
+	 * @param hands
+	 *            Hands of the declarer, taken from the known cards of the
+	 *            results
+	 * @param maxEpisodes
+	 *            Number of worlds per hand and game type
+	 * @param rand
+	 *            Random generator for the seeds of the worlds
+	 * @param results
+	 *            Results of the common worlds
+	 * @return Simulation results
+	 */
+	static PairedSimulationResults simulateCommonWorlds(
+			final List<GameType> newGameTypes, final List<CardList> hands,
+			final Long maxEpisodes, final Random rand,
+			final PairedSimulationResults results) {
+
+		int chunks = (int) ((maxEpisodes.longValue() + EPISODES_PER_TASK - 1) / EPISODES_PER_TASK);
+		addChunks(results, chunks, rand);
+
+		runTasks(getWorldTasks(results, newGameTypes, hands, 0, chunks,
+				maxEpisodes.longValue(), GameSimulation.NO_DEADLINE));
+
+		return results;
+	}
+
+	/**
+	 * Simulates all candidates on the same sampled worlds until the time
+	 * budget is used up or the decision is clear enough, the worlds of former
+	 * simulations are reused
+	 * 
+	 * @param newGameTypes
+	 *            Game types
+	 * @param hands
+	 *            Hands of the declarer, taken from the known cards of the
+	 *            results
+	 * @param timeBudget
+	 *            Time budget in milliseconds
+	 * @param threshold
+	 *            Threshold for the won rate, NULL if the best candidate has to
+	 *            win more often than all others on the same worlds
+	 * @param rand
+	 *            Random generator for the seeds of the worlds
+	 * @param results
+	 *            Results of the common worlds
+	 * @return Simulation results
+	 */
+	static PairedSimulationResults simulateCommonWorldsWithTimeBudget(
+			final List<GameType> newGameTypes, final List<CardList> hands,
+			final long timeBudget, final Double threshold, final Random rand,
+			final PairedSimulationResults results) {
+
+		long start = System.nanoTime();
+		long deadline = start + timeBudget * 1000000L;
+
+		int candidates = hands.size() * newGameTypes.size();
+		if (candidates == 0) {
+			return results;
+		}
+		// every round keeps all worker threads busy
+		int chunksPerRound = (getParallelism() + candidates - 1) / candidates;
+
+		int chunk = 0;
+		int rounds = 0;
+		// former worlds might decide already
+		boolean decided = isSimulated(results, newGameTypes, hands)
+				&& isDecided(results, newGameTypes, hands, threshold);
+		while (!decided && deadline - System.nanoTime() > 0) {
+
+			int endChunk = chunk + chunksPerRound;
+			addChunks(results, endChunk, rand);
+			// chunks that were simulated before are skipped
+			runTasks(getWorldTasks(results, newGameTypes, hands, chunk,
+					endChunk, Long.MAX_VALUE, deadline));
+			chunk = endChunk;
+			rounds++;
+
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			decided = isSimulated(results, newGameTypes, hands)
+					&& isDecided(results, newGameTypes, hands, threshold);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Simulated " + results.getTotalEpisodes() //$NON-NLS-1$
+					+ " episodes on common worlds in " + rounds + " rounds and " //$NON-NLS-1$ //$NON-NLS-2$
+					+ (System.nanoTime() - start) / 1000000L
+					+ " ms, decided early: " + decided); //$NON-NLS-1$
+		}
+
+		return results;
+	}
+
+	private static void addChunks(final PairedSimulationResults results,
+			final int chunks, final Random rand) {
+
+		int missingChunks = chunks - results.getChunkCount();
+		if (missingChunks > 0) {
+			results.addChunks(missingChunks, rand);
+		}
+	}
+
+	private static List<WorldTask> getWorldTasks(
+			final PairedSimulationResults results,
+			final List<GameType> newGameTypes, final List<CardList> hands,
+			final int firstChunk, final int endChunk, final long maxEpisodes,
+			final long deadline) {
+
+		List<WorldTask> tasks = new ArrayList<WorldTask>();
+		// all candidates of a chunk first, so a deadline cuts all of them
+		// at the same world
+		for (int chunk = firstChunk; chunk < endChunk; chunk++) {
+			int worlds = (int) Math.min(EPISODES_PER_TASK, maxEpisodes - chunk
+					* EPISODES_PER_TASK);
+			for (CardList hand : hands) {
+				for (GameType gameType : newGameTypes) {
+					if (!results.isSimulated(hand, gameType, chunk, worlds)) {
+						tasks.add(new WorldTask(results, gameType, hand,
+								chunk, worlds, deadline));
+					}
+				}
+			}
+		}
+		return tasks;
+	}
+
+	private static boolean isSimulated(final PairedSimulationResults results,
+			final List<GameType> newGameTypes, final List<CardList> hands) {
+
+		for (CardList hand : hands) {
+			for (GameType gameType : newGameTypes) {
+				if (results.getEpisodes(hand, gameType) == 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDecided(final PairedSimulationResults results,
+			final List<GameType> newGameTypes, final List<CardList> hands,
+			final Double threshold) {
+
+		if (threshold == null) {
+			return results.isBestSeparated(hands, newGameTypes);
 		}
+		return SimulationResults.isThresholdDecided(
+				results.getResults(hands, newGameTypes), newGameTypes,
+				threshold.doubleValue());
+	}
+
+	private static List<SimulationResults> getResults(
+			final List<GameType> newGameTypes, final List<CardList> hands,
+			final List<SimulationResults> formerResults) {
 
+		List<SimulationResults> results = new ArrayList<SimulationResults>();
+		for (int i = 0; i < hands.size(); i++) {
+			SimulationResults handResults = formerResults == null ? new SimulationResults()
+					: formerResults.get(i);
+			for (GameType gameType : newGameTypes) {
+				// always report a result for every game type
+				handResults.addEpisodes(gameType, 0, 0);
+			}
+			results.add(handResults);
+		}
 		return results;
 	}
+
+	private static boolean isSimulated(final List<SimulationResults> results,
+			final List<GameType> newGameTypes) {
+
+		for (SimulationResults handResults : results) {
+			for (GameType gameType : newGameTypes) {
+				if (handResults.getEpisodes(gameType) == 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDecided(final List<SimulationResults> results,
+			final List<GameType> newGameTypes, final Double threshold) {
+
+		if (threshold == null) {
+			return SimulationResults.isBestSeparated(results, newGameTypes);
+		}
+		return SimulationResults.isThresholdDecided(results, newGameTypes,
+				threshold.doubleValue());
+	}
+
+	private static void runTasks(final List<? extends AbstractTask> tasks) {
+
+		if (Thread.currentThread() instanceof SimulationWorker) {
+			// a simulated player must not wait for its own pool
+			for (AbstractTask task : tasks) {
+				task.call();
+			}
+			return;
+		}
+
+		List<Future<Long>> futures = new ArrayList<Future<Long>>();
+		synchronized (GameSimulator.class) {
+			// setParallelism() must not shut the pool down during a submit,
+			// the task could be queued on a pool that starts no more threads
+			ExecutorService currentExecutor = getExecutor();
+			for (AbstractTask task : tasks) {
+				futures.add(currentExecutor.submit(task));
+			}
+		}
+
+		try {
+			for (Future<Long> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			log.warn("Simulation was interrupted"); //$NON-NLS-1$
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// decisions must not be based on incomplete results
+			throw new IllegalStateException("Simulation failed", e.getCause()); //$NON-NLS-1$
+		} finally {
+			for (Future<Long> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+
+		if (executor == null) {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism,
+					parallelism, IDLE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(),
+					new SimulationThreadFactory());
+			// the threads of an unused pool end when idle
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * Sets the number of worker threads for all simulations<br>
+	 * The former pool is shut down, tasks that were submitted already finish
+	 * on it. Later tasks, also of running simulations, use the new pool.
+	 * 
+	 * @param newParallelism
+	 *            Number of worker threads
+	 */
+	static synchronized void setParallelism(final int newParallelism) {
+
+		if (newParallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be at least 1."); //$NON-NLS-1$
+		}
+
+		if (newParallelism != parallelism) {
+			parallelism = newParallelism;
+			if (executor != null) {
+				// tasks that were submitted already finish on the former pool
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of worker threads for all simulations
+	 * 
+	 * @return Number of worker threads
+	 */
+	static synchronized int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Task that returns the number of won games and throws no checked
+	 * exceptions
+	 */
+	private abstract static class AbstractTask implements Callable<Long> {
+
+		@Override
+		public abstract Long call();
+	}
+
+	private static class SimulationTask extends AbstractTask {
+
+		private final SimulationResults results;
+		private final GameType gameType;
+		private final Player position;
+		private final CardList cards;
+		private final long episodes;
+		private final long deadline;
+		private final long seed;
+
+		SimulationTask(final SimulationResults simResults,
+				final GameType simGameType, final Player simPosition,
+				final CardList simCards, final long simEpisodes,
+				final long simDeadline, final long simSeed) {
+			results = simResults;
+			gameType = simGameType;
+			position = simPosition;
+			cards = simCards;
+			episodes = simEpisodes;
+			deadline = simDeadline;
+			seed = simSeed;
+		}
+
+		@Override
+		public Long call() {
+
+			long[] episodesAndWins = simulations.get().simulateGames(gameType,
+					position, cards, episodes, deadline, new SkatRandom(seed));
+			results.addEpisodes(gameType, episodesAndWins[0],
+					episodesAndWins[1]);
+			results.addAllocatedBytes(episodesAndWins[0], episodesAndWins[2]);
+
+			return Long.valueOf(episodesAndWins[1]);
+		}
+	}
+
+	private static class WorldTask extends AbstractTask {
+
+		private final PairedSimulationResults results;
+		private final GameType gameType;
+		private final CardList hand;
+		private final int chunk;
+		private final int worlds;
+		private final long deadline;
+
+		WorldTask(final PairedSimulationResults simResults,
+				final GameType simGameType, final CardList simHand,
+				final int simChunk, final int simWorlds, final long simDeadline) {
+			results = simResults;
+			gameType = simGameType;
+			hand = simHand;
+			chunk = simChunk;
+			worlds = simWorlds;
+			deadline = simDeadline;
+		}
+
+		@Override
+		public Long call() {
+
+			long[] worldsAndWins = simulations.get().simulateWorlds(gameType,
+					results.getPosition(), results.getKnownCards(), hand,
+					worlds, deadline, results.getChunkSeed(chunk));
+			results.addOutcomes(hand, gameType, chunk, (int) worldsAndWins[0],
+					worldsAndWins[1]);
+			results.addAllocatedBytes(worldsAndWins[0], worldsAndWins[2]);
+
+			return Long.valueOf(Long.bitCount(worldsAndWins[1]));
+		}
+	}
+
+	private static class SimulationWorker extends Thread {
+
+		SimulationWorker(final Runnable runnable, final String name) {
+			super(runnable, name);
+			setDaemon(true);
+		}
+	}
+
+	private static class SimulationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			return new SimulationWorker(runnable,
+					"GameSimulator-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+		}
+	}
 }
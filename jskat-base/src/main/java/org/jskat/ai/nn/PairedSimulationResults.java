@@ -0,0 +1,419 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.Confidence;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+
+/**
+ * Holds the results of simulations that play all candidates on the same
+ * sampled worlds (common random numbers)<br>
+ * A world is a deal of all cards the declarer doesn't know. The worlds are
+ * sampled in chunks of {@link GameSimulator#EPISODES_PER_TASK}, every chunk is
+ * defined by a seed, so candidates added later are played on the same worlds
+ * again. The outcome of every candidate is kept per world, two candidates are
+ * compared by the differences of their outcomes on the same worlds.
+ */
+class PairedSimulationResults {
+
+	private final Player position;
+	private final CardList knownCards;
+	private final int knownCardMask;
+
+	private final List<Long> chunkSeeds = new ArrayList<Long>();
+	/**
+	 * Simulated worlds and won worlds by candidate
+	 */
+	private final Map<Long, BitSet[]> outcomes = new HashMap<Long, BitSet[]>();
+
+	private long allocatedBytes;
+	private long measuredEpisodes;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newPosition
+	 *            Position of the declarer
+	 * @param newKnownCards
+	 *            Cards known to the declarer, all candidate hands are taken
+	 *            from these cards, the rest of them lies in the skat
+	 */
+	PairedSimulationResults(Player newPosition, CardList newKnownCards) {
+
+		position = newPosition;
+		knownCards = newKnownCards;
+		knownCardMask = CardSet.getMask(newKnownCards);
+	}
+
+	Player getPosition() {
+		return position;
+	}
+
+	CardList getKnownCards() {
+		return knownCards;
+	}
+
+	/**
+	 * Gets the number of sampled world chunks
+	 * 
+	 * @return Number of chunks
+	 */
+	synchronized int getChunkCount() {
+		return chunkSeeds.size();
+	}
+
+	/**
+	 * Gets the seed that defines the worlds of a chunk
+	 * 
+	 * @param chunk
+	 *            Chunk index
+	 * @return Seed
+	 */
+	synchronized long getChunkSeed(int chunk) {
+		return chunkSeeds.get(chunk).longValue();
+	}
+
+	/**
+	 * Samples seeds for more world chunks
+	 * 
+	 * @param count
+	 *            Number of new chunks
+	 * @param rand
+	 *            Random generator for the seeds
+	 */
+	synchronized void addChunks(int count, Random rand) {
+
+		for (int i = 0; i < count; i++) {
+			chunkSeeds.add(Long.valueOf(rand.nextLong()));
+		}
+	}
+
+	/**
+	 * Checks whether the first worlds of a chunk were simulated for a
+	 * candidate
+	 * 
+	 * @param hand
+	 *            Hand of the declarer
+	 * @param gameType
+	 *            Game type
+	 * @param chunk
+	 *            Chunk index
+	 * @param worlds
+	 *            Number of worlds from the start of the chunk
+	 * @return TRUE if all these worlds were simulated
+	 */
+	synchronized boolean isSimulated(CardList hand, GameType gameType,
+			int chunk, int worlds) {
+
+		BitSet[] candidate = outcomes.get(getKey(hand, gameType));
+		if (candidate == null) {
+			return false;
+		}
+		int first = chunk * (int) GameSimulator.EPISODES_PER_TASK;
+		return candidate[0].nextClearBit(first) >= first + worlds;
+	}
+
+	/**
+	 * Adds the outcomes of some worlds of a chunk
+	 * 
+	 * @param hand
+	 *            Hand of the declarer
+	 * @param gameType
+	 *            Game type
+	 * @param chunk
+	 *            Chunk index
+	 * @param worlds
+	 *            Number of simulated worlds from the start of the chunk
+	 * @param wonWorlds
+	 *            Bit mask of the won worlds, bit 0 is the first world of the
+	 *            chunk
+	 */
+	synchronized void addOutcomes(CardList hand, GameType gameType, int chunk,
+			int worlds, long wonWorlds) {
+
+		BitSet[] candidate = getOutcomes(hand, gameType);
+		int first = chunk * (int) GameSimulator.EPISODES_PER_TASK;
+		for (int i = 0; i < worlds; i++) {
+			candidate[0].set(first + i);
+			candidate[1].set(first + i, (wonWorlds & (1L << i)) != 0);
+		}
+	}
+
+	/**
+	 * Adds the memory allocated while simulating some episodes
+	 * 
+	 * @param episodes
+	 *            Number of simulated episodes
+	 * @param bytes
+	 *            Allocated bytes, negative if they couldn't be measured
+	 */
+	synchronized void addAllocatedBytes(long episodes, long bytes) {
+
+		if (bytes >= 0) {
+			measuredEpisodes += episodes;
+			allocatedBytes += bytes;
+		}
+	}
+
+	/**
+	 * Gets the number of simulated games over all candidates
+	 * 
+	 * @return Number of simulated games
+	 */
+	synchronized long getTotalEpisodes() {
+
+		long result = 0;
+		for (BitSet[] candidate : outcomes.values()) {
+			result += candidate[0].cardinality();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of worlds a candidate was simulated on
+	 * 
+	 * @param hand
+	 *            Hand of the declarer
+	 * @param gameType
+	 *            Game type
+	 * @return Number of simulated worlds
+	 */
+	synchronized long getEpisodes(CardList hand, GameType gameType) {
+
+		BitSet[] candidate = outcomes.get(getKey(hand, gameType));
+		if (candidate == null) {
+			return 0;
+		}
+		return candidate[0].cardinality();
+	}
+
+	/**
+	 * Gets the results of some candidates in the format of independent
+	 * simulations
+	 * 
+	 * @param hands
+	 *            Hands of the declarer
+	 * @param gameTypes
+	 *            Game types
+	 * @return Simulation results by hand
+	 */
+	synchronized List<SimulationResults> getResults(List<CardList> hands,
+			List<GameType> gameTypes) {
+
+		List<SimulationResults> results = new ArrayList<SimulationResults>();
+		for (CardList hand : hands) {
+			SimulationResults handResults = new SimulationResults();
+			for (GameType gameType : gameTypes) {
+				BitSet[] candidate = outcomes.get(getKey(hand, gameType));
+				if (candidate == null) {
+					handResults.addEpisodes(gameType, 0, 0);
+				} else {
+					handResults.addEpisodes(gameType,
+							candidate[0].cardinality(),
+							candidate[1].cardinality());
+				}
+			}
+			results.add(handResults);
+		}
+		if (!results.isEmpty()) {
+			results.get(0).addAllocatedBytes(measuredEpisodes, allocatedBytes);
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the mean difference of the outcomes of two candidates on the
+	 * worlds both were simulated on
+	 * 
+	 * @param hand
+	 *            Hand of the first candidate
+	 * @param gameType
+	 *            Game type of the first candidate
+	 * @param otherHand
+	 *            Hand of the second candidate
+	 * @param otherGameType
+	 *            Game type of the second candidate
+	 * @return Difference of the won rates
+	 */
+	synchronized double getWonRateDifference(CardList hand, GameType gameType,
+			CardList otherHand, GameType otherGameType) {
+
+		long[] counts = getPairedCounts(outcomes.get(getKey(hand, gameType)),
+				outcomes.get(getKey(otherHand, otherGameType)));
+		if (counts[0] == 0) {
+			return 0.0;
+		}
+		return ((double) counts[1] - counts[2]) / counts[0];
+	}
+
+	/**
+	 * Gets the lower bound of the confidence interval for the difference of
+	 * the outcomes of two candidates on the same worlds
+	 * 
+	 * @param hand
+	 *            Hand of the first candidate
+	 * @param gameType
+	 *            Game type of the first candidate
+	 * @param otherHand
+	 *            Hand of the second candidate
+	 * @param otherGameType
+	 *            Game type of the second candidate
+	 * @return Lower bound of the difference of the won rates
+	 */
+	synchronized double getLowerBoundOfDifference(CardList hand,
+			GameType gameType, CardList otherHand, GameType otherGameType) {
+
+		return getLowerBound(getPairedCounts(
+				outcomes.get(getKey(hand, gameType)),
+				outcomes.get(getKey(otherHand, otherGameType))));
+	}
+
+	/**
+	 * Checks whether the best candidate wins more often than every other
+	 * candidate on the same worlds with enough confidence
+	 * 
+	 * @param hands
+	 *            Hands of the declarer
+	 * @param gameTypes
+	 *            Game types
+	 * @return TRUE if the lower bound of every paired difference to the best
+	 *         candidate is above zero
+	 */
+	synchronized boolean isBestSeparated(List<CardList> hands,
+			List<GameType> gameTypes) {
+
+		BitSet[] best = null;
+		double bestWonRate = -1.0;
+		for (CardList hand : hands) {
+			for (GameType gameType : gameTypes) {
+				BitSet[] candidate = outcomes.get(getKey(hand, gameType));
+				double wonRate = getWonRate(candidate);
+				if (wonRate > bestWonRate) {
+					bestWonRate = wonRate;
+					best = candidate;
+				}
+			}
+		}
+
+		if (best == null) {
+			return true;
+		}
+
+		for (CardList hand : hands) {
+			for (GameType gameType : gameTypes) {
+				BitSet[] candidate = outcomes.get(getKey(hand, gameType));
+				if (candidate != best
+						&& getLowerBound(getPairedCounts(best, candidate)) <= 0.0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static double getWonRate(BitSet[] candidate) {
+
+		if (candidate == null || candidate[0].isEmpty()) {
+			return 0.0;
+		}
+		return ((double) candidate[1].cardinality())
+				/ candidate[0].cardinality();
+	}
+
+	/**
+	 * Counts the worlds both candidates were simulated on, the worlds only
+	 * the first candidate won and the worlds only the second candidate won
+	 */
+	private static long[] getPairedCounts(BitSet[] first, BitSet[] second) {
+
+		if (first == null || second == null) {
+			return new long[3];
+		}
+
+		BitSet common = (BitSet) first[0].clone();
+		common.and(second[0]);
+
+		BitSet firstOnly = (BitSet) first[1].clone();
+		firstOnly.andNot(second[1]);
+		firstOnly.and(common);
+
+		BitSet secondOnly = (BitSet) second[1].clone();
+		secondOnly.andNot(first[1]);
+		secondOnly.and(common);
+
+		return new long[] { common.cardinality(), firstOnly.cardinality(),
+				secondOnly.cardinality() };
+	}
+
+	/**
+	 * Lower bound of the confidence interval for the mean of the paired
+	 * differences, every difference is -1, 0 or 1<br>
+	 * One additional world won by each candidate keeps a few worlds from
+	 * looking certain.
+	 */
+	private static double getLowerBound(long[] counts) {
+
+		if (counts[0] == 0) {
+			return -1.0;
+		}
+
+		double n = counts[0] + 2;
+		double firstOnly = counts[1] + 1;
+		double secondOnly = counts[2] + 1;
+		double mean = (firstOnly - secondOnly) / n;
+		// sample variance of the differences
+		double variance = ((firstOnly + secondOnly) / n - mean * mean) * n
+				/ (n - 1);
+
+		return mean - Confidence.Z_95 * Math.sqrt(variance / n);
+	}
+
+	private BitSet[] getOutcomes(CardList hand, GameType gameType) {
+
+		Long key = getKey(hand, gameType);
+		BitSet[] candidate = outcomes.get(key);
+		if (candidate == null) {
+			candidate = new BitSet[] { new BitSet(), new BitSet() };
+			outcomes.put(key, candidate);
+		}
+		return candidate;
+	}
+
+	private Long getKey(CardList hand, GameType gameType) {
+
+		int handMask = CardSet.getMask(hand);
+		if ((handMask & ~knownCardMask) != 0) {
+			throw new IllegalArgumentException(
+					"Hand contains cards that are not known: " + hand); //$NON-NLS-1$
+		}
+		return Long.valueOf(((handMask & 0xFFFFFFFFL) << 8)
+				| gameType.ordinal());
+	}
+}
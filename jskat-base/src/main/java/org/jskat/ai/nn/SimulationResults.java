@@ -19,30 +19,287 @@
  */
 package org.jskat.ai.nn;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.jskat.util.Confidence;
 import org.jskat.util.GameType;
 
 /**
- * Holds the results of all game simulations
+ * Holds the results of all game simulations<br>
+ * Results of several simulation tasks for the same game type are merged
  */
 public class SimulationResults {
 
-	private Map<GameType, Double> wonRates = new HashMap<GameType, Double>();
+	private final Map<GameType, long[]> episodesAndWins = new HashMap<GameType, long[]>();
 
-	Double getWonRate(GameType gameType) {
+	/**
+	 * Bytes allocated by the simulations and the number of episodes they were
+	 * measured for
+	 */
+	private long allocatedBytes;
+	private long measuredEpisodes;
 
-		return wonRates.get(gameType);
+	synchronized Double getWonRate(GameType gameType) {
+
+		long[] counts = episodesAndWins.get(gameType);
+		if (counts == null) {
+			return null;
+		}
+		return Double.valueOf(getWonRate(counts));
+	}
+
+	private static double getWonRate(long[] counts) {
+
+		if (counts[0] == 0) {
+			return 0.0;
+		}
+		return ((double) counts[1]) / counts[0];
+	}
+
+	synchronized long getEpisodes(GameType gameType) {
+
+		long[] counts = episodesAndWins.get(gameType);
+		if (counts == null) {
+			return 0;
+		}
+		return counts[0];
+	}
+
+	synchronized void addEpisodes(GameType gameType, long episodes,
+			long wonGames) {
+
+		long[] counts = episodesAndWins.get(gameType);
+		if (counts == null) {
+			counts = new long[2];
+			episodesAndWins.put(gameType, counts);
+		}
+		counts[0] += episodes;
+		counts[1] += wonGames;
+	}
+
+	/**
+	 * Adds the memory allocated while simulating some episodes
+	 * 
+	 * @param episodes
+	 *            Number of simulated episodes
+	 * @param bytes
+	 *            Allocated bytes, negative if they couldn't be measured
+	 */
+	synchronized void addAllocatedBytes(long episodes, long bytes) {
+
+		if (bytes >= 0) {
+			measuredEpisodes += episodes;
+			allocatedBytes += bytes;
+		}
+	}
+
+	/**
+	 * Gets the average memory allocated per simulated episode
+	 * 
+	 * @param results
+	 *            Simulation results
+	 * @return Allocated bytes per episode or -1 if nothing was measured
+	 */
+	static long getAllocatedBytesPerEpisode(List<SimulationResults> results) {
+
+		long bytes = 0;
+		long episodes = 0;
+		for (SimulationResults currResults : results) {
+			synchronized (currResults) {
+				bytes += currResults.allocatedBytes;
+				episodes += currResults.measuredEpisodes;
+			}
+		}
+		if (episodes == 0) {
+			return -1L;
+		}
+		return bytes / episodes;
 	}
 
-	void setWonRate(GameType gameType, Double wonRate) {
+	/**
+	 * Gets the number of simulated games over all game types
+	 * 
+	 * @return Number of simulated games
+	 */
+	synchronized long getTotalEpisodes() {
 
-		wonRates.put(gameType, wonRate);
+		long result = 0;
+		for (long[] counts : episodesAndWins.values()) {
+			result += counts[0];
+		}
+		return result;
 	}
 
-	Collection<Double> getAllWonRates() {
-		return wonRates.values();
+	/**
+	 * Gets the lower bound of the confidence interval for the won rate
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Lower bound of the Wilson score interval
+	 */
+	synchronized double getLowerBound(GameType gameType) {
+		return getBound(episodesAndWins.get(gameType), -1.0);
+	}
+
+	/**
+	 * Gets the upper bound of the confidence interval for the won rate
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Upper bound of the Wilson score interval
+	 */
+	synchronized double getUpperBound(GameType gameType) {
+		return getBound(episodesAndWins.get(gameType), 1.0);
+	}
+
+	private static double getBound(long[] counts, double direction) {
+
+		if (counts == null) {
+			return direction < 0 ? 0.0 : 1.0;
+		}
+		if (direction < 0) {
+			return Confidence.getWilsonLowerBound(counts[1], counts[0]);
+		}
+		return Confidence.getWilsonUpperBound(counts[1], counts[0]);
+	}
+
+	synchronized Collection<GameType> getGameTypes() {
+		return new ArrayList<GameType>(episodesAndWins.keySet());
+	}
+
+	/**
+	 * Gets the simulated game types
+	 * 
+	 * @param filter
+	 *            Game types of interest, NULL for all game types
+	 * @return Simulated game types that are contained in the filter
+	 */
+	synchronized Collection<GameType> getGameTypes(
+			Collection<GameType> filter) {
+
+		List<GameType> result = new ArrayList<GameType>(
+				episodesAndWins.keySet());
+		if (filter != null) {
+			result.retainAll(filter);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether the best won rate of all results is better than all
+	 * other won rates with enough confidence
+	 * 
+	 * @param results
+	 *            Simulation results
+	 * @return TRUE if the confidence interval of the best result doesn't
+	 *         overlap with any other confidence interval
+	 */
+	static boolean isBestSeparated(List<SimulationResults> results) {
+
+		return isBestSeparated(results, null);
+	}
+
+	/**
+	 * Checks whether the best won rate of some game types is better than all
+	 * other won rates of these game types with enough confidence
+	 * 
+	 * @param results
+	 *            Simulation results
+	 * @param gameTypes
+	 *            Game types to compare, NULL for all game types
+	 * @return TRUE if the confidence interval of the best result doesn't
+	 *         overlap with any other confidence interval
+	 */
+	static boolean isBestSeparated(List<SimulationResults> results,
+			Collection<GameType> gameTypes) {
+
+		SimulationResults bestResults = null;
+		GameType bestGameType = null;
+		double bestWonRate = -1.0;
+		for (SimulationResults currResults : results) {
+			for (GameType gameType : currResults.getGameTypes(gameTypes)) {
+				double wonRate = currResults.getWonRate(gameType).doubleValue();
+				if (wonRate > bestWonRate) {
+					bestWonRate = wonRate;
+					bestResults = currResults;
+					bestGameType = gameType;
+				}
+			}
+		}
+
+		if (bestResults == null) {
+			return true;
+		}
+
+		double bestLowerBound = bestResults.getLowerBound(bestGameType);
+		for (SimulationResults currResults : results) {
+			for (GameType gameType : currResults.getGameTypes(gameTypes)) {
+				if ((currResults != bestResults || gameType != bestGameType)
+						&& currResults.getUpperBound(gameType) >= bestLowerBound) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether it is known with enough confidence if any won rate is
+	 * above a threshold
+	 * 
+	 * @param results
+	 *            Simulation results
+	 * @param threshold
+	 *            Threshold for the won rate
+	 * @return TRUE if any lower bound is above the threshold or all upper
+	 *         bounds are below the threshold
+	 */
+	static boolean isThresholdDecided(List<SimulationResults> results,
+			double threshold) {
+
+		return isThresholdDecided(results, null, threshold);
+	}
+
+	/**
+	 * Checks whether it is known with enough confidence if any won rate of
+	 * some game types is above a threshold
+	 * 
+	 * @param results
+	 *            Simulation results
+	 * @param gameTypes
+	 *            Game types to check, NULL for all game types
+	 * @param threshold
+	 *            Threshold for the won rate
+	 * @return TRUE if any lower bound is above the threshold or all upper
+	 *         bounds are below the threshold
+	 */
+	static boolean isThresholdDecided(List<SimulationResults> results,
+			Collection<GameType> gameTypes, double threshold) {
+
+		boolean allBelow = true;
+		for (SimulationResults currResults : results) {
+			for (GameType gameType : currResults.getGameTypes(gameTypes)) {
+				if (currResults.getLowerBound(gameType) > threshold) {
+					return true;
+				}
+				if (currResults.getUpperBound(gameType) >= threshold) {
+					allBelow = false;
+				}
+			}
+		}
+		return allBelow;
+	}
+
+	synchronized Collection<Double> getAllWonRates() {
+
+		List<Double> result = new ArrayList<Double>();
+		for (long[] counts : episodesAndWins.values()) {
+			result.add(Double.valueOf(getWonRate(counts)));
+		}
+		return result;
 	}
 }
@@ -26,7 +26,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
-import org.jskat.ai.nn.util.EncogNetworkWrapper;
+import org.jskat.ai.nn.util.ArrayNeuralNetwork;
 import org.jskat.ai.nn.util.INeuralNetwork;
 import org.jskat.ai.nn.util.NetworkTopology;
 import org.jskat.util.GameType;
@@ -107,7 +107,7 @@ public class SkatNetworks {
 			for (PlayerParty playerParty : PlayerParty.values()) {
 				List<INeuralNetwork> partyNets = new ArrayList<INeuralNetwork>();
 				for (int i = 0; i < 10; i++) {
-					partyNets.add(new EncogNetworkWrapper(topo, USE_BIAS));
+					partyNets.add(new ArrayNeuralNetwork(topo, USE_BIAS));
 				}
 				networks.get(gameType).put(playerParty, partyNets);
 			}
@@ -169,6 +169,31 @@ public class SkatNetworks {
 		}
 	}
 
+	/**
+	 * Sets the parameters for adjusting the weights of all networks sample by
+	 * sample, see {@link INeuralNetwork#setTrainingParameters(int, int, double)}
+	 * 
+	 * @param batchSize
+	 *            Number of new samples per weight adjustment
+	 * @param replayBufferSize
+	 *            Number of latest samples the batches are drawn from
+	 * @param learningRate
+	 *            Learning rate
+	 */
+	public static void setTrainingParameters(final int batchSize,
+			final int replayBufferSize, final double learningRate) {
+
+		for (Map<PlayerParty, List<INeuralNetwork>> gameTypeNets : networks
+				.values()) {
+			for (List<INeuralNetwork> playerPartyNets : gameTypeNets.values()) {
+				for (INeuralNetwork net : playerPartyNets) {
+					net.setTrainingParameters(batchSize, replayBufferSize,
+							learningRate);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Resets neural networks
 	 */
@@ -19,9 +19,42 @@
  */
 package org.jskat.ai.nn.input;
 
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+
 public abstract class AbstractInputStrategy implements InputStrategy {
 
 	protected double[] getEmptyInputs() {
 		return new double[getNeuronCount()];
 	}
+
+	/**
+	 * Creates the network input for strategies that write their neurons in
+	 * {@link #setNetworkInput(PlayerKnowledge, Card, double[], int)}
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 * @param cardToPlay
+	 *            Next card to play
+	 * @return Network input
+	 */
+	protected final double[] createNetworkInput(
+			final PlayerKnowledge knowledge, final Card cardToPlay) {
+
+		double[] result = getEmptyInputs();
+		setNetworkInput(knowledge, cardToPlay, result, 0);
+		return result;
+	}
+
+	/**
+	 * Copies the result of {@link #getNetworkInput(PlayerKnowledge, Card)},
+	 * strategies used for fast inference override this method
+	 */
+	@Override
+	public void setNetworkInput(final PlayerKnowledge knowledge,
+			final Card cardToPlay, final double[] inputs, final int offset) {
+
+		double[] networkInput = getNetworkInput(knowledge, cardToPlay);
+		System.arraycopy(networkInput, 0, inputs, offset, getNeuronCount());
+	}
 }
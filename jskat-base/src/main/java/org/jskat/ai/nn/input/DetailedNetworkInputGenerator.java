@@ -44,6 +44,14 @@ class DetailedNetworkInputGenerator implements NetworkInputGenerator {
 	public static double ACTIVE = 1.0d;
 	public static double INACTIVE = 0.0d;
 
+	@Override
+	public void setNetInputs(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] netInputs) {
+
+		System.arraycopy(getNetInputs(knowledge, cardToPlay), 0, netInputs, 0,
+				INPUT_LENGTH);
+	}
+
 	/**
 	 * Creates the net input attributes
 	 * 
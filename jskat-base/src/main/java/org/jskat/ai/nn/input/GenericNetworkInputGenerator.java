@@ -20,6 +20,7 @@
 package org.jskat.ai.nn.input;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jskat.player.PlayerKnowledge;
@@ -28,6 +29,7 @@ import org.jskat.util.Card;
 public class GenericNetworkInputGenerator implements NetworkInputGenerator {
 
 	private static final List<InputStrategy> strategies = new ArrayList<InputStrategy>();
+	private static final int NEURON_COUNT;
 
 	static {
 		strategies.add(new DeclarerPositionInputStrategy());
@@ -36,24 +38,34 @@ public class GenericNetworkInputGenerator implements NetworkInputGenerator {
 		strategies.add(new OpponentPartyMadeCardsAndNextCardStrategy());
 		strategies.add(new UnplayedCardsForPlayerAndNextCardInputStrategy());
 		strategies.add(new TrickCardAndNextCardInputStrategy());
+
+		int count = 0;
+		for (InputStrategy strategy : strategies) {
+			count += strategy.getNeuronCount();
+		}
+		NEURON_COUNT = count;
 	}
 
 	@Override
 	public double[] getNetInputs(PlayerKnowledge knowledge, Card cardToPlay) {
 
-		double[] result = new double[getNeuronCountForAllStrategies()];
-		int index = 0;
+		double[] result = new double[NEURON_COUNT];
+		setNetInputs(knowledge, cardToPlay, result);
+		return result;
+	}
+
+	@Override
+	public void setNetInputs(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] netInputs) {
+
+		Arrays.fill(netInputs, 0, NEURON_COUNT, 0.0);
+
+		int offset = 0;
 		for (int strategyCount = 0; strategyCount < strategies.size(); strategyCount++) {
 			InputStrategy strategy = strategies.get(strategyCount);
-			double[] networkInput = strategy.getNetworkInput(knowledge,
-					cardToPlay);
-			for (int i = 0; i < strategy.getNeuronCount(); i++) {
-				result[index] = networkInput[i];
-				index++;
-			}
+			strategy.setNetworkInput(knowledge, cardToPlay, netInputs, offset);
+			offset += strategy.getNeuronCount();
 		}
-
-		return result;
 	}
 
 	/**
@@ -62,12 +74,6 @@ public class GenericNetworkInputGenerator implements NetworkInputGenerator {
 	 * @return Neuron count
 	 */
 	public static int getNeuronCountForAllStrategies() {
-		int result = 0;
-
-		for (InputStrategy strategy : strategies) {
-			result += strategy.getNeuronCount();
-		}
-
-		return result;
+		return NEURON_COUNT;
 	}
 }
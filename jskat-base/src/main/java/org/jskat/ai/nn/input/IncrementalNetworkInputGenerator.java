@@ -0,0 +1,281 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.input;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.player.PlayerKnowledgeListener;
+import org.jskat.util.Card;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+
+/**
+ * Creates the same network inputs as {@link GenericNetworkInputGenerator}, but
+ * keeps them in sync with the changes of one {@link PlayerKnowledge}<br>
+ * The inputs that don't depend on the next card are maintained as bit masks
+ * and one input vector, creating the inputs for a card only copies this vector
+ * and patches the neurons of the next card.
+ */
+public class IncrementalNetworkInputGenerator implements NetworkInputGenerator,
+		PlayerKnowledgeListener {
+
+	private static final int DECLARER_OFFSET = 0;
+	private static final int PLAYER_POSITION_OFFSET = 3;
+	private static final int PLAYER_PARTY_OFFSET = 6;
+	private static final int OPPONENT_PARTY_OFFSET = 38;
+	private static final int OWN_CARDS_OFFSET = 70;
+	private static final int TRICK_OFFSET = 102;
+	private static final int TRICK_NEURONS = 3 + 3 * 32;
+	private static final int NEURON_COUNT = TRICK_OFFSET + 10 * TRICK_NEURONS;
+
+	/**
+	 * Network input index for every card ordinal
+	 */
+	private static final int[] CARD_INDEX = new int[Card.values().length];
+
+	static {
+		for (Card card : Card.values()) {
+			CARD_INDEX[card.ordinal()] = card.getSuit().getSuitOrder() * 8
+					+ card.getNullOrder();
+		}
+	}
+
+	private final PlayerKnowledge knowledge;
+	private final NetworkInputGenerator fallbackGenerator = new GenericNetworkInputGenerator();
+
+	/**
+	 * Inputs of the tricks, all other neurons stay zero
+	 */
+	private final double[] trickInputs = new double[NEURON_COUNT];
+	/**
+	 * Network input indices of the own cards as bit mask
+	 */
+	private int ownCards;
+	/**
+	 * Network input indices of the cards won by each player as bit masks, the
+	 * last entry holds the cards of tricks without winner
+	 */
+	private final int[] wonCards = new int[Player.values().length + 1];
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newKnowledge
+	 *            Player knowledge to keep the inputs in sync with
+	 */
+	public IncrementalNetworkInputGenerator(final PlayerKnowledge newKnowledge) {
+
+		knowledge = newKnowledge;
+		synchronize();
+		knowledge.addListener(this);
+	}
+
+	/**
+	 * Rebuilds all maintained inputs from the knowledge
+	 */
+	public final void synchronize() {
+
+		knowledgeReset(knowledge);
+
+		for (Card card : knowledge.getOwnCards()) {
+			ownCardAdded(card);
+		}
+		List<Trick> tricks = knowledge.getCompletedTricks();
+		for (int i = 0; i < tricks.size(); i++) {
+			trickAdded(tricks.get(i));
+		}
+		if (knowledge.getCurrentTrick() != null) {
+			currentTrickSet(knowledge.getCurrentTrick());
+		}
+	}
+
+	@Override
+	public double[] getNetInputs(final PlayerKnowledge playerKnowledge,
+			final Card cardToPlay) {
+
+		double[] result = new double[NEURON_COUNT];
+		setNetInputs(playerKnowledge, cardToPlay, result);
+		return result;
+	}
+
+	@Override
+	public void setNetInputs(final PlayerKnowledge playerKnowledge,
+			final Card cardToPlay, final double[] netInputs) {
+
+		if (playerKnowledge != knowledge) {
+			// inputs are only maintained for one knowledge
+			fallbackGenerator.setNetInputs(playerKnowledge, cardToPlay,
+					netInputs);
+			return;
+		}
+
+		System.arraycopy(trickInputs, 0, netInputs, 0, NEURON_COUNT);
+
+		netInputs[DECLARER_OFFSET + knowledge.getDeclarer().getOrder()] = 1.0;
+		netInputs[PLAYER_POSITION_OFFSET
+				+ knowledge.getPlayerPosition().getOrder()] = 1.0;
+
+		int playerPartyCards = 0;
+		int opponentPartyCards = wonCards[Player.values().length];
+		for (Player player : Player.values()) {
+			if (PlayerPartyMadeCardsStrategy.isPartyMember(knowledge, player)) {
+				playerPartyCards |= wonCards[player.ordinal()];
+			} else {
+				opponentPartyCards |= wonCards[player.ordinal()];
+			}
+		}
+
+		int cardIndex = CARD_INDEX[cardToPlay.ordinal()];
+		Trick trick = knowledge.getCurrentTrick();
+		int trickCardCount = getTrickCardCount(trick);
+
+		if (trickCardCount == 2) {
+			// the next card completes the trick
+			Player trickWinner = RuleTables.calculateTrickWinner(
+					knowledge.getGameType(), trick.getForeHand(),
+					trick.getFirstCard(), trick.getSecondCard(), cardToPlay);
+			int trickCards = getIndexMask(trick.getFirstCard())
+					| getIndexMask(trick.getSecondCard()) | 1 << cardIndex;
+			if (PlayerPartyMadeCardsStrategy.isPartyMember(knowledge,
+					trickWinner)) {
+				playerPartyCards |= trickCards;
+			} else {
+				opponentPartyCards |= trickCards;
+			}
+		}
+
+		setCardInputs(netInputs, PLAYER_PARTY_OFFSET, playerPartyCards);
+		setCardInputs(netInputs, OPPONENT_PARTY_OFFSET, opponentPartyCards);
+		setCardInputs(netInputs, OWN_CARDS_OFFSET, ownCards & ~(1 << cardIndex));
+
+		if (trickCardCount < 3) {
+			netInputs[getTrickOffset(trick) + 3 + trickCardCount * 32
+					+ cardIndex] = 1.0;
+		}
+	}
+
+	@Override
+	public void knowledgeReset(final PlayerKnowledge playerKnowledge) {
+
+		Arrays.fill(trickInputs, 0.0);
+		ownCards = 0;
+		Arrays.fill(wonCards, 0);
+	}
+
+	@Override
+	public void ownCardAdded(final Card card) {
+
+		ownCards |= getIndexMask(card);
+	}
+
+	@Override
+	public void ownCardRemoved(final Card card) {
+
+		ownCards &= ~getIndexMask(card);
+	}
+
+	@Override
+	public void currentTrickSet(final Trick trick) {
+
+		setTrickInputs(trick);
+	}
+
+	@Override
+	public void cardPlayed(final Player player, final Card card,
+			final Trick trick) {
+
+		trickInputs[getTrickOffset(trick) + 3
+				+ (getTrickCardCount(trick) - 1) * 32
+				+ CARD_INDEX[card.ordinal()]] = 1.0;
+	}
+
+	@Override
+	public void trickAdded(final Trick trick) {
+
+		setTrickInputs(trick);
+
+		int trickCards = getIndexMask(trick.getFirstCard())
+				| getIndexMask(trick.getSecondCard())
+				| getIndexMask(trick.getThirdCard());
+		if (trick.getTrickWinner() == null) {
+			wonCards[Player.values().length] |= trickCards;
+		} else {
+			wonCards[trick.getTrickWinner().ordinal()] |= trickCards;
+		}
+	}
+
+	private void setTrickInputs(final Trick trick) {
+
+		int trickOffset = getTrickOffset(trick);
+
+		trickInputs[trickOffset + trick.getForeHand().getOrder()] = 1.0;
+		if (trick.getFirstCard() != null) {
+			trickInputs[trickOffset + 3
+					+ CARD_INDEX[trick.getFirstCard().ordinal()]] = 1.0;
+		}
+		if (trick.getSecondCard() != null) {
+			trickInputs[trickOffset + 3 + 32
+					+ CARD_INDEX[trick.getSecondCard().ordinal()]] = 1.0;
+		}
+		if (trick.getThirdCard() != null) {
+			trickInputs[trickOffset + 3 + 64
+					+ CARD_INDEX[trick.getThirdCard().ordinal()]] = 1.0;
+		}
+	}
+
+	private static void setCardInputs(final double[] netInputs,
+			final int offset, final int cardMask) {
+
+		int mask = cardMask;
+		while (mask != 0) {
+			int index = Integer.numberOfTrailingZeros(mask);
+			netInputs[offset + index] = 1.0;
+			mask &= mask - 1;
+		}
+	}
+
+	private static int getIndexMask(final Card card) {
+
+		if (card == null) {
+			return 0;
+		}
+		return 1 << CARD_INDEX[card.ordinal()];
+	}
+
+	private static int getTrickOffset(final Trick trick) {
+
+		return TRICK_OFFSET + trick.getTrickNumberInGame() * TRICK_NEURONS;
+	}
+
+	private static int getTrickCardCount(final Trick trick) {
+
+		if (trick.getFirstCard() == null) {
+			return 0;
+		} else if (trick.getSecondCard() == null) {
+			return 1;
+		} else if (trick.getThirdCard() == null) {
+			return 2;
+		}
+		return 3;
+	}
+}
@@ -41,4 +41,20 @@ public interface InputStrategy {
 	 * @return Network input
 	 */
 	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay);
+
+	/**
+	 * Writes the network input into an input buffer without creating new
+	 * arrays, the neurons of the strategy must be zero before
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 * @param cardToPlay
+	 *            Next card to play
+	 * @param inputs
+	 *            Input buffer
+	 * @param offset
+	 *            Index of the first neuron of the strategy in the buffer
+	 */
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset);
 }
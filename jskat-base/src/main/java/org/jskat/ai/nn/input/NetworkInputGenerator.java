@@ -24,4 +24,17 @@ import org.jskat.util.Card;
 
 public interface NetworkInputGenerator {
 	double[] getNetInputs(PlayerKnowledge knowledge, Card cardToPlay);
+
+	/**
+	 * Writes the net inputs into an input buffer
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 * @param cardToPlay
+	 *            Card to be played
+	 * @param netInputs
+	 *            Input buffer, must be at least as long as the net inputs
+	 */
+	void setNetInputs(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] netInputs);
 }
\ No newline at end of file
@@ -19,49 +19,35 @@
  */
 package org.jskat.ai.nn.input;
 
-import java.util.Set;
-
 import org.jskat.data.Trick;
 import org.jskat.player.PlayerKnowledge;
 import org.jskat.util.Card;
 import org.jskat.util.Player;
-import org.jskat.util.rule.SkatRule;
-import org.jskat.util.rule.SkatRuleFactory;
+import org.jskat.util.rule.RuleTables;
 
 public class OpponentPartyMadeCardsAndNextCardStrategy extends
 		OpponentPartyMadeCardsStrategy {
 
 	@Override
-	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		double[] result = super.getNetworkInput(knowledge, cardToPlay);
+		super.setNetworkInput(knowledge, cardToPlay, inputs, offset);
 
-		Trick trick = null;
-		try {
-			trick = (Trick) knowledge.getCurrentTrick().clone();
-		} catch (CloneNotSupportedException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		Trick trick = knowledge.getCurrentTrick();
 
 		if (trick.getFirstCard() != null && trick.getSecondCard() != null
 				&& trick.getThirdCard() == null) {
 
-			trick.setThirdCard(cardToPlay);
+			Player trickWinner = RuleTables.calculateTrickWinner(
+					knowledge.getGameType(), trick.getForeHand(),
+					trick.getFirstCard(), trick.getSecondCard(), cardToPlay);
 
-			SkatRule rule = SkatRuleFactory.getSkatRules(knowledge
-					.getGameType());
-			Set<Player> partyMembers = getPartyMembers(knowledge);
-
-			if (!partyMembers.contains(rule.calculateTrickWinner(
-					knowledge.getGameType(), trick))) {
+			if (!isPartyMember(knowledge, trickWinner)) {
 				// trick was won by opponent party
-				for (Card card : trick.getCardList()) {
-					result[getNetworkInputIndex(card)] = 1.0;
-				}
+				setTrickCards(inputs, offset, trick.getFirstCard(),
+						trick.getSecondCard(), cardToPlay);
 			}
 		}
-
-		return result;
 	}
 }
@@ -19,8 +19,7 @@
  */
 package org.jskat.ai.nn.input;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 import org.jskat.data.Trick;
 import org.jskat.player.PlayerKnowledge;
@@ -39,34 +38,50 @@ public class OpponentPartyMadeCardsStrategy extends AbstractInputStrategy
 	@Override
 	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
 
-		double[] result = getEmptyInputs();
+		return createNetworkInput(knowledge, cardToPlay);
+	}
 
-		Set<Player> partyMembers = getPartyMembers(knowledge);
+	@Override
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		for (Trick trick : knowledge.getCompletedTricks()) {
-			if (!partyMembers.contains(trick.getTrickWinner())) {
+		List<Trick> tricks = knowledge.getCompletedTricks();
+		for (int i = 0; i < tricks.size(); i++) {
+			Trick trick = tricks.get(i);
+			if (!isPartyMember(knowledge, trick.getTrickWinner())) {
 				// trick was won by opponent's party
-				for (Card card : trick.getCardList()) {
-					result[getNetworkInputIndex(card)] = 1.0;
-				}
+				setTrickCards(inputs, offset, trick.getFirstCard(),
+						trick.getSecondCard(), trick.getThirdCard());
 			}
 		}
+	}
+
+	protected static void setTrickCards(double[] inputs, int offset,
+			Card firstCard, Card secondCard, Card thirdCard) {
 
-		return result;
+		if (firstCard != null) {
+			inputs[offset + getNetworkInputIndex(firstCard)] = 1.0;
+		}
+		if (secondCard != null) {
+			inputs[offset + getNetworkInputIndex(secondCard)] = 1.0;
+		}
+		if (thirdCard != null) {
+			inputs[offset + getNetworkInputIndex(thirdCard)] = 1.0;
+		}
 	}
 
-	protected Set<Player> getPartyMembers(PlayerKnowledge knowledge) {
+	protected static boolean isPartyMember(PlayerKnowledge knowledge,
+			Player player) {
 
-		Set<Player> result = new HashSet<Player>();
+		if (player == null) {
+			return false;
+		}
 		if (knowledge.getDeclarer().equals(knowledge.getPlayerPosition())) {
 			// player is declarer
-			result.add(knowledge.getPlayerPosition());
-		} else {
-			// player is opponent
-			result.add(knowledge.getDeclarer().getLeftNeighbor());
-			result.add(knowledge.getDeclarer().getRightNeighbor());
+			return player == knowledge.getPlayerPosition();
 		}
-		return result;
+		// player is opponent
+		return player != knowledge.getDeclarer();
 	}
 
 	protected static int getNetworkInputIndex(final Card card) {
@@ -30,23 +30,26 @@ public class PlayerPositionInputStrategy extends AbstractInputStrategy {
 	@Override
 	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
 
-		double[] result = getEmptyInputs();
+		return createNetworkInput(knowledge, cardToPlay);
+	}
+
+	@Override
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
 		switch (knowledge.getPlayerPosition()) {
 		case FOREHAND:
-			result[0] = 1.0;
+			inputs[offset] = 1.0;
 			break;
 		case MIDDLEHAND:
-			result[1] = 1.0;
+			inputs[offset + 1] = 1.0;
 			break;
 		case REARHAND:
-			result[2] = 1.0;
+			inputs[offset + 2] = 1.0;
 			break;
 		default:
 			throw new IllegalArgumentException("Player position is unknown.");
 		}
-
-		return result;
 	}
 
 	@Override
@@ -47,6 +47,14 @@ public class SimpleNetworkInputGenerator implements NetworkInputGenerator {
 	final static double HAS_CARD = 1.0d;
 	final static double COULD_HAVE_CARD = 1.0d;
 
+	@Override
+	public void setNetInputs(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] netInputs) {
+
+		System.arraycopy(getNetInputs(knowledge, cardToPlay), 0, netInputs, 0,
+				INPUT_LENGTH);
+	}
+
 	@Override
 	public double[] getNetInputs(PlayerKnowledge knowledge, Card cardToPlay) {
 		double[] netInputs = new double[INPUT_LENGTH];
@@ -29,23 +29,21 @@ import org.jskat.util.Card;
 public class TrickCardAndNextCardInputStrategy extends TrickCardInputStrategy {
 
 	@Override
-	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		double[] result = super.getNetworkInput(knowledge, cardToPlay);
+		super.setNetworkInput(knowledge, cardToPlay, inputs, offset);
 
 		Trick trick = knowledge.getCurrentTrick();
+		int trickOffset = offset + getTrickOffset(trick);
 
 		// set next card to play
 		if (trick.getFirstCard() == null) {
-			result[getTrickOffset(trick) + 3 + getNetworkInputIndex(cardToPlay)] = 1.0;
+			inputs[trickOffset + 3 + getNetworkInputIndex(cardToPlay)] = 1.0;
 		} else if (trick.getSecondCard() == null) {
-			result[getTrickOffset(trick) + 3 + 32
-					+ getNetworkInputIndex(cardToPlay)] = 1.0;
+			inputs[trickOffset + 3 + 32 + getNetworkInputIndex(cardToPlay)] = 1.0;
 		} else if (trick.getThirdCard() == null) {
-			result[getTrickOffset(trick) + 3 + 64
-					+ getNetworkInputIndex(cardToPlay)] = 1.0;
+			inputs[trickOffset + 3 + 64 + getNetworkInputIndex(cardToPlay)] = 1.0;
 		}
-
-		return result;
 	}
 }
@@ -19,6 +19,8 @@
  */
 package org.jskat.ai.nn.input;
 
+import java.util.List;
+
 import org.jskat.data.Trick;
 import org.jskat.player.PlayerKnowledge;
 import org.jskat.util.Card;
@@ -39,32 +41,37 @@ public class TrickCardInputStrategy extends AbstractInputStrategy {
 	@Override
 	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
 
-		double[] result = getEmptyInputs();
+		return createNetworkInput(knowledge, cardToPlay);
+	}
 
-		for (Trick trick : knowledge.getCompletedTricks()) {
-			setTrickInputs(result, trick);
-		}
-		setTrickInputs(result, knowledge.getCurrentTrick());
+	@Override
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		return result;
+		List<Trick> tricks = knowledge.getCompletedTricks();
+		for (int i = 0; i < tricks.size(); i++) {
+			setTrickInputs(inputs, offset, tricks.get(i));
+		}
+		setTrickInputs(inputs, offset, knowledge.getCurrentTrick());
 	}
 
-	private void setTrickInputs(double[] result, Trick trick) {
+	private void setTrickInputs(double[] inputs, int offset, Trick trick) {
+
+		int trickOffset = offset + getTrickOffset(trick);
 
 		// set trick forehand position
-		result[getTrickOffset(trick) + getTrickForehand(trick.getForeHand())] = 1.0;
+		inputs[trickOffset + getTrickForehand(trick.getForeHand())] = 1.0;
 
 		// set already played cards
 		if (trick.getFirstCard() != null) {
-			result[getTrickOffset(trick) + 3
-					+ getNetworkInputIndex(trick.getFirstCard())] = 1.0;
+			inputs[trickOffset + 3 + getNetworkInputIndex(trick.getFirstCard())] = 1.0;
 		}
 		if (trick.getSecondCard() != null) {
-			result[getTrickOffset(trick) + 3 + 32
+			inputs[trickOffset + 3 + 32
 					+ getNetworkInputIndex(trick.getSecondCard())] = 1.0;
 		}
 		if (trick.getThirdCard() != null) {
-			result[getTrickOffset(trick) + 3 + 64
+			inputs[trickOffset + 3 + 64
 					+ getNetworkInputIndex(trick.getThirdCard())] = 1.0;
 		}
 	}
@@ -30,12 +30,11 @@ public class UnplayedCardsForPlayerAndNextCardInputStrategy extends
 		UnplayedCardsForPlayerInputStrategy {
 
 	@Override
-	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		double[] result = super.getNetworkInput(knowledge, cardToPlay);
+		super.setNetworkInput(knowledge, cardToPlay, inputs, offset);
 
-		result[getNetworkInputIndex(cardToPlay)] = 0.0;
-
-		return result;
+		inputs[offset + getNetworkInputIndex(cardToPlay)] = 0.0;
 	}
 }
@@ -21,6 +21,7 @@ package org.jskat.ai.nn.input;
 
 import org.jskat.player.PlayerKnowledge;
 import org.jskat.util.Card;
+import org.jskat.util.CardList;
 
 /**
  * Gets network inputs for unplayed cards by the player
@@ -31,14 +32,16 @@ public class UnplayedCardsForPlayerInputStrategy extends
 	@Override
 	public double[] getNetworkInput(PlayerKnowledge knowledge, Card cardToPlay) {
 
-		double[] result = getEmptyInputs();
+		return createNetworkInput(knowledge, cardToPlay);
+	}
 
-		for (Card card : Card.values()) {
-			if (knowledge.isOwnCard(card)) {
-				result[getNetworkInputIndex(card)] = 1.0;
-			}
-		}
+	@Override
+	public void setNetworkInput(PlayerKnowledge knowledge, Card cardToPlay,
+			double[] inputs, int offset) {
 
-		return result;
+		CardList ownCards = knowledge.getOwnCards();
+		for (int i = 0; i < ownCards.size(); i++) {
+			inputs[offset + getNetworkInputIndex(ownCards.get(i))] = 1.0;
+		}
 	}
 }
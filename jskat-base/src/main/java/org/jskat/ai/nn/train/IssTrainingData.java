@@ -0,0 +1,252 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.control.iss.IssGameAnalysis;
+import org.jskat.control.iss.IssGameExtractor;
+import org.jskat.data.SkatGameData;
+import org.jskat.util.SkatRandom;
+
+/**
+ * Collects the training samples of the games of an ISS game database, see
+ * {@link IssGameExtractor}<br>
+ * The samples are grouped by the network that learns them, i.e. by game type,
+ * player party and trick. If a network has more samples than the maximum, a
+ * uniform random selection is kept: every sample gets a random key derived
+ * from the seed and the game number, the samples with the smallest keys are
+ * kept. The selection doesn't depend on the order the games are analyzed and
+ * merged in.
+ */
+public class IssTrainingData implements IssGameAnalysis {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int TRICKS = 10;
+
+	private final int maxSamplesPerNetwork;
+	private final RecordedGameSampleGenerator sampleGenerator = new RecordedGameSampleGenerator();
+	/**
+	 * Kept samples of every network, the sample with the largest key first
+	 */
+	private final Map<INeuralNetwork, PriorityQueue<KeyedSample>> samples = new IdentityHashMap<INeuralNetwork, PriorityQueue<KeyedSample>>();
+	private long seed = new SkatRandom().nextLong();
+	private long games;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newMaxSamplesPerNetwork
+	 *            Maximum number of samples per network, a random selection is
+	 *            kept if there are more samples
+	 */
+	public IssTrainingData(final int newMaxSamplesPerNetwork) {
+
+		if (newMaxSamplesPerNetwork < 1) {
+			throw new IllegalArgumentException(
+					"Maximum sample count must be positive."); //$NON-NLS-1$
+		}
+		maxSamplesPerNetwork = newMaxSamplesPerNetwork;
+	}
+
+	/**
+	 * Sets the seed for selecting the samples of networks with too many
+	 * samples, must be called before the games are analyzed
+	 * 
+	 * @param newSeed
+	 *            Seed
+	 */
+	public void setSeed(final long newSeed) {
+		seed = newSeed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IssGameAnalysis createPartial() {
+
+		IssTrainingData result = new IssTrainingData(maxSamplesPerNetwork);
+		result.seed = seed;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void analyze(final long gameNo, final String gameSummary,
+			final SkatGameData gameData) {
+
+		List<TrainingSample> gameSamples = sampleGenerator
+				.createSamples(gameData);
+		if (!gameSamples.isEmpty()) {
+			games++;
+		}
+		Random rand = SkatRandom.forIndex(seed, gameNo);
+		for (TrainingSample sample : gameSamples) {
+			addSample(sample.getNetwork(), new KeyedSample(rand.nextLong(),
+					sample));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void merge(final IssGameAnalysis partial) {
+
+		IssTrainingData other = (IssTrainingData) partial;
+		games += other.games;
+		for (Entry<INeuralNetwork, PriorityQueue<KeyedSample>> entry : other.samples
+				.entrySet()) {
+			for (KeyedSample sample : entry.getValue()) {
+				addSample(entry.getKey(), sample);
+			}
+		}
+	}
+
+	private void addSample(final INeuralNetwork network,
+			final KeyedSample sample) {
+
+		PriorityQueue<KeyedSample> queue = samples.get(network);
+		if (queue == null) {
+			queue = new PriorityQueue<KeyedSample>(INITIAL_CAPACITY,
+					Collections.reverseOrder());
+			samples.put(network, queue);
+		}
+		if (queue.size() < maxSamplesPerNetwork) {
+			queue.add(sample);
+		} else if (sample.compareTo(queue.peek()) < 0) {
+			queue.poll();
+			queue.add(sample);
+		}
+	}
+
+	/**
+	 * Gets the number of games that gave training samples
+	 * 
+	 * @return Number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the networks that have training samples
+	 * 
+	 * @return Networks, ordered by game type, player party and trick
+	 */
+	public List<INeuralNetwork> getNetworks() {
+
+		List<KeyedSample> firstSamples = new ArrayList<KeyedSample>();
+		for (PriorityQueue<KeyedSample> queue : samples.values()) {
+			firstSamples.add(queue.peek());
+		}
+		Collections.sort(firstSamples, new Comparator<KeyedSample>() {
+			@Override
+			public int compare(final KeyedSample first,
+					final KeyedSample second) {
+				return getNetworkIndex(first.sample)
+						- getNetworkIndex(second.sample);
+			}
+		});
+
+		List<INeuralNetwork> result = new ArrayList<INeuralNetwork>();
+		for (KeyedSample sample : firstSamples) {
+			result.add(sample.sample.getNetwork());
+		}
+		return result;
+	}
+
+	private static int getNetworkIndex(final TrainingSample sample) {
+		return (sample.getGameType().ordinal()
+				* PlayerParty.values().length + sample.getPlayerParty()
+				.ordinal()) * TRICKS + sample.getTrickNoInGame();
+	}
+
+	/**
+	 * Gets the training samples of a network
+	 * 
+	 * @param network
+	 *            Network
+	 * @return Training samples, all of the same game type, player party and
+	 *         trick, in the same order for the same seed
+	 */
+	public List<TrainingSample> getSamples(final INeuralNetwork network) {
+
+		List<TrainingSample> result = new ArrayList<TrainingSample>();
+		PriorityQueue<KeyedSample> queue = samples.get(network);
+		if (queue != null) {
+			List<KeyedSample> sorted = new ArrayList<KeyedSample>(queue);
+			Collections.sort(sorted);
+			for (KeyedSample sample : sorted) {
+				result.add(sample.sample);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of all training samples
+	 * 
+	 * @return Number of samples
+	 */
+	public long getSampleCount() {
+
+		long result = 0;
+		for (PriorityQueue<KeyedSample> queue : samples.values()) {
+			result += queue.size();
+		}
+		return result;
+	}
+
+	/**
+	 * Training sample with its random selection key
+	 */
+	private static class KeyedSample implements Comparable<KeyedSample> {
+
+		private final long key;
+		private final TrainingSample sample;
+
+		KeyedSample(final long newKey, final TrainingSample newSample) {
+			key = newKey;
+			sample = newSample;
+		}
+
+		@Override
+		public int compareTo(final KeyedSample other) {
+			if (key < other.key) {
+				return -1;
+			}
+			return key == other.key ? 0 : 1;
+		}
+	}
+}
@@ -28,17 +28,18 @@ import java.util.Set;
 import org.jskat.ai.nn.AIPlayerNN;
 import org.jskat.control.JSkatMaster;
 import org.jskat.control.JSkatThread;
-import org.jskat.control.SkatGame;
+import org.jskat.control.SkatGameEngine;
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
 import org.jskat.data.GameSummary;
 import org.jskat.data.SkatGameData.GameState;
-import org.jskat.gui.NullView;
+import org.jskat.player.AbstractJSkatPlayer;
 import org.jskat.player.JSkatPlayer;
 import org.jskat.util.CardDeck;
 import org.jskat.util.GameType;
 import org.jskat.util.GameVariant;
 import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.NOPLogger;
@@ -54,7 +55,7 @@ public class NNTrainer extends JSkatThread {
 
 	private final JSkatMaster jskat;
 
-	private final Random rand;
+	private Random rand;
 
 	private GameType gameType;
 
@@ -67,7 +68,19 @@ public class NNTrainer extends JSkatThread {
 
 		jskat = JSkatMaster.instance();
 
-		rand = new Random();
+		rand = new SkatRandom();
+	}
+
+	/**
+	 * Sets the random generator for dealing and for the players, a seeded
+	 * generator makes the training reproducible
+	 * 
+	 * @param newRand
+	 *            Random generator
+	 */
+	public void setRandom(final Random newRand) {
+
+		rand = newRand;
 	}
 
 	/**
@@ -143,12 +156,13 @@ public class NNTrainer extends JSkatThread {
 					JSkatPlayer player3 = createPlayer(playerConstellation
 							.get(2));
 
-					SkatGame game = prepareGame(player1, player2, player3,
-							declarer, null);
-					// SkatGame game = prepareGame(player1, player2, player3,
-					// Player.FOREHAND, getPerfectDistribution());
+					SkatGameEngine game = prepareGame(player1, player2,
+							player3, declarer, null);
+					// SkatGameEngine game = prepareGame(player1, player2,
+					// player3, Player.FOREHAND, getPerfectDistribution());
 
-					runGame(game);
+					// game is played synchronously on the trainer thread
+					game.run();
 
 					if (isGameWon(declarer, game)) {
 						log.debug("Game won.");
@@ -206,6 +220,9 @@ public class NNTrainer extends JSkatThread {
 	private JSkatPlayer createPlayer(String playerType) {
 
 		JSkatPlayer player = JSkatMaster.instance().createPlayer(playerType);
+		if (player instanceof AbstractJSkatPlayer) {
+			((AbstractJSkatPlayer) player).setRandom(rand);
+		}
 
 		if (NEURAL_NETWORK_PLAYER_CLASS.equals(playerType)) {
 			AIPlayerNN nnPlayer = (AIPlayerNN) player;
@@ -216,7 +233,8 @@ public class NNTrainer extends JSkatThread {
 		return player;
 	}
 
-	private boolean isGameWon(final Player currPlayer, final SkatGame game) {
+	private boolean isGameWon(final Player currPlayer,
+			final SkatGameEngine game) {
 
 		// FIXME (jansch 28.06.2011) have to call getGameResult() to get
 		// the result
@@ -231,32 +249,18 @@ public class NNTrainer extends JSkatThread {
 		return gameWon;
 	}
 
-	private void runGame(final SkatGame game) {
-		game.start();
-		try {
-			game.join();
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-	}
-
-	private SkatGame prepareGame(final JSkatPlayer player1,
+	private SkatGameEngine prepareGame(final JSkatPlayer player1,
 			final JSkatPlayer player2, final JSkatPlayer player3,
 			final Player declarer, final CardDeck cardDeck) {
-		player1.newGame(Player.FOREHAND);
-		player2.newGame(Player.MIDDLEHAND);
-		player3.newGame(Player.REARHAND);
-		SkatGame game = new SkatGame("table", GameVariant.STANDARD, player1,
-				player2, player3);
-		game.setView(new NullView());
+		SkatGameEngine game = new SkatGameEngine("table", GameVariant.STANDARD, //$NON-NLS-1$
+				player1, player2, player3);
 		game.setLogger(NOPLogger.NOP_LOGGER);
 
 		if (cardDeck != null) {
 			game.setCardDeck(cardDeck);
 		} else {
 			CardDeck newCardDeck = new CardDeck();
-			newCardDeck.shuffle();
+			newCardDeck.shuffle(rand);
 			log.debug("Card deck: " + newCardDeck); //$NON-NLS-1$
 			game.setCardDeck(newCardDeck);
 		}
@@ -0,0 +1,366 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jskat.ai.nn.AIPlayerNN;
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.control.JSkatMaster;
+import org.jskat.control.SkatGameEngine;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.util.CardDeck;
+import org.jskat.util.GameType;
+import org.jskat.util.GameVariant;
+import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Trains the neural networks by self play on several tables in parallel<br>
+ * Every worker table plays games with three learning {@link AIPlayerNN}s and
+ * puts their training samples into a bounded queue. One learner thread takes
+ * the samples in batches and adjusts the networks, one step per network and
+ * batch. The players predict with the shared networks without locking while
+ * the learner adjusts them.
+ */
+public class ParallelNNTrainer {
+
+	private static Logger log = LoggerFactory.getLogger(ParallelNNTrainer.class);
+
+	/**
+	 * Default number of samples per learning step
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final int QUEUE_CAPACITY = 10000;
+	private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+
+	private final List<GameType> gameTypes;
+	private final int tableCount;
+	private final int batchSize;
+	private final JSkatMaster jskat;
+
+	private final BlockingQueue<TrainingSample> samples = new ArrayBlockingQueue<TrainingSample>(
+			QUEUE_CAPACITY);
+	private final TrainingStatistics statistics = new TrainingStatistics();
+
+	private long seed = new SkatRandom().nextLong();
+
+	private volatile boolean stopTables = false;
+	private volatile boolean stopLearner = false;
+	private ExecutorService tables;
+	private Thread learner;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newGameTypes
+	 *            Game types to learn
+	 * @param newTableCount
+	 *            Number of tables playing in parallel
+	 * @param newBatchSize
+	 *            Number of samples per learning step
+	 * @param newJSkat
+	 *            JSkat master the training results are reported to, can be
+	 *            NULL
+	 */
+	public ParallelNNTrainer(final List<GameType> newGameTypes,
+			final int newTableCount, final int newBatchSize,
+			final JSkatMaster newJSkat) {
+
+		if (newGameTypes.isEmpty() || newGameTypes.contains(GameType.PASSED_IN)) {
+			throw new IllegalArgumentException("Invalid game types to learn."); //$NON-NLS-1$
+		}
+		if (newTableCount < 1 || newBatchSize < 1) {
+			throw new IllegalArgumentException(
+					"Table count and batch size must be positive."); //$NON-NLS-1$
+		}
+
+		gameTypes = new ArrayList<GameType>(newGameTypes);
+		tableCount = newTableCount;
+		batchSize = newBatchSize;
+		jskat = newJSkat;
+	}
+
+	/**
+	 * Sets the seed for dealing and for the players, every table gets its own
+	 * random generator derived from the seed and the table number<br>
+	 * The deals of every table are reproducible, the learned weights still
+	 * depend on the timing of the learner
+	 * 
+	 * @param newSeed
+	 *            Seed
+	 */
+	public synchronized void setSeed(final long newSeed) {
+
+		if (tables != null) {
+			throw new IllegalStateException("Training was already started."); //$NON-NLS-1$
+		}
+		seed = newSeed;
+	}
+
+	/**
+	 * Starts the tables and the learner
+	 */
+	public synchronized void start() {
+
+		if (tables != null) {
+			throw new IllegalStateException("Training was already started."); //$NON-NLS-1$
+		}
+
+		tables = Executors.newFixedThreadPool(tableCount,
+				new TrainerThreadFactory());
+		for (int i = 0; i < tableCount; i++) {
+			tables.execute(new TrainingTable(i));
+		}
+
+		learner = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				learn();
+			}
+		}, "ParallelNNTrainer-learner"); //$NON-NLS-1$
+		learner.setDaemon(true);
+		learner.start();
+	}
+
+	/**
+	 * Stops the tables after their current games, the learner trains all
+	 * remaining samples before it stops
+	 * 
+	 * @throws InterruptedException
+	 *             If the waiting thread was interrupted
+	 */
+	public synchronized void stopTraining() throws InterruptedException {
+
+		if (tables == null) {
+			return;
+		}
+
+		stopTables = true;
+		tables.shutdown();
+		while (!tables.awaitTermination(1, TimeUnit.SECONDS)) {
+			log.debug("Waiting for training tables..."); //$NON-NLS-1$
+		}
+
+		stopLearner = true;
+		learner.join();
+
+		report();
+	}
+
+	/**
+	 * Gets the statistics of the training
+	 * 
+	 * @return Training statistics
+	 */
+	public TrainingStatistics getStatistics() {
+		return statistics;
+	}
+
+	private void learn() {
+
+		List<TrainingSample> batch = new ArrayList<TrainingSample>(batchSize);
+		long nextReport = System.nanoTime() + REPORT_INTERVAL;
+
+		while (!stopLearner || !samples.isEmpty()) {
+
+			try {
+				TrainingSample sample = samples.poll(100,
+						TimeUnit.MILLISECONDS);
+				if (sample != null) {
+					batch.add(sample);
+					samples.drainTo(batch, batchSize - 1);
+					trainBatch(batch);
+					batch.clear();
+				}
+			} catch (InterruptedException e) {
+				log.warn("Learner was interrupted."); //$NON-NLS-1$
+				return;
+			}
+
+			if (System.nanoTime() - nextReport > 0) {
+				report();
+				nextReport = System.nanoTime() + REPORT_INTERVAL;
+			}
+		}
+	}
+
+	private void trainBatch(final List<TrainingSample> batch) {
+
+		// every network learns its samples in one step
+		Map<INeuralNetwork, List<TrainingSample>> networkSamples = new IdentityHashMap<INeuralNetwork, List<TrainingSample>>();
+		for (TrainingSample sample : batch) {
+			INeuralNetwork network = sample.getNetwork();
+			List<TrainingSample> list = networkSamples.get(network);
+			if (list == null) {
+				list = new ArrayList<TrainingSample>();
+				networkSamples.put(network, list);
+			}
+			list.add(sample);
+		}
+
+		for (Entry<INeuralNetwork, List<TrainingSample>> entry : networkSamples
+				.entrySet()) {
+
+			List<TrainingSample> list = entry.getValue();
+			List<double[]> inputs = new ArrayList<double[]>(list.size());
+			List<double[]> outputs = new ArrayList<double[]>(list.size());
+			for (TrainingSample sample : list) {
+				inputs.add(sample.getInputs());
+				outputs.add(new double[] { sample.getOutput() });
+			}
+
+			double error = entry.getKey().adjustWeights(inputs, outputs);
+
+			TrainingSample first = list.get(0);
+			statistics.addTrainedSamples(first.getGameType(),
+					first.getPlayerParty(), error, list.size());
+		}
+	}
+
+	private void report() {
+
+		log.info("Training: " + statistics); //$NON-NLS-1$
+
+		if (jskat != null) {
+			for (GameType gameType : gameTypes) {
+				jskat.addTrainingResult(gameType, statistics.getGames(gameType),
+						statistics.getWonGames(gameType), statistics
+								.getAverageError(gameType,
+										PlayerParty.DECLARER), statistics
+								.getAverageError(gameType,
+										PlayerParty.OPPONENT));
+			}
+		}
+	}
+
+	/**
+	 * Plays games on its own thread and hands the samples to the learner
+	 */
+	private class TrainingTable implements Runnable, TrainingSampleConsumer {
+
+		private final int tableNo;
+		private final SkatRandom rand;
+		private final SkatGameEngine gameEngine;
+		private final List<GameAnnouncement> announcements = new ArrayList<GameAnnouncement>();
+
+		TrainingTable(final int newTableNo) {
+
+			tableNo = newTableNo;
+			rand = SkatRandom.forIndex(seed, tableNo);
+			gameEngine = new SkatGameEngine("training table " + tableNo, //$NON-NLS-1$
+					GameVariant.STANDARD, createPlayer(), createPlayer(),
+					createPlayer());
+			gameEngine.setLogger(NOPLogger.NOP_LOGGER);
+
+			for (GameType gameType : gameTypes) {
+				GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+				factory.setGameType(gameType);
+				announcements.add(factory.getAnnouncement());
+			}
+		}
+
+		private AIPlayerNN createPlayer() {
+
+			AIPlayerNN player = new AIPlayerNN();
+			player.setIsLearning(true);
+			player.setTrainingSampleConsumer(this);
+			player.setLogger(NOPLogger.NOP_LOGGER);
+			player.setRandom(rand.split());
+			return player;
+		}
+
+		@Override
+		public void run() {
+
+			// the tables start with different game types and declarers
+			long gameNo = tableNo;
+			while (!stopTables) {
+
+				int gameTypeIndex = (int) (gameNo % gameTypes.size());
+				GameType gameType = gameTypes.get(gameTypeIndex);
+				Player declarer = null;
+				if (gameType != GameType.RAMSCH) {
+					declarer = Player.values()[(int) (gameNo
+							/ gameTypes.size() % Player.values().length)];
+				}
+
+				CardDeck deck = new CardDeck();
+				deck.shuffle(rand);
+				try {
+					gameEngine.play(deck, declarer,
+							announcements.get(gameTypeIndex));
+					statistics.addGame(gameType, gameEngine.isGameWon());
+				} catch (RuntimeException e) {
+					// one broken game must not stop the table
+					log.error("Game " + gameNo + " on training table " //$NON-NLS-1$ //$NON-NLS-2$
+							+ tableNo + " failed, deck: " + deck, e); //$NON-NLS-1$
+					statistics.addFailedGame(gameType);
+				}
+				gameNo++;
+			}
+		}
+
+		@Override
+		public void addSamples(final List<TrainingSample> newSamples) {
+
+			try {
+				for (TrainingSample sample : newSamples) {
+					// blocks while the learner is behind
+					samples.put(sample);
+				}
+				statistics.addGeneratedSamples(newSamples.size());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static class TrainerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+
+			Thread thread = new Thread(runnable, "ParallelNNTrainer-table-" //$NON-NLS-1$
+					+ threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jskat.ai.nn.AIPlayerNN;
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
+import org.jskat.ai.nn.input.NetworkInputGenerator;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.SkatGameData;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+
+/**
+ * Creates training samples from recorded games, e.g. games parsed from the ISS
+ * game database<br>
+ * Every game is replayed through the {@link PlayerKnowledge} of all three
+ * players the same way the game engine informs the players. Every played card
+ * gives one sample with the net inputs before the card was played and the game
+ * outcome for the party of the player, like the samples of a learning
+ * {@link AIPlayerNN}.
+ */
+public class RecordedGameSampleGenerator {
+
+	private final NetworkInputGenerator inputGenerator = new GenericNetworkInputGenerator();
+
+	/**
+	 * Creates the training samples of a recorded game
+	 * 
+	 * @param gameData
+	 *            Recorded game
+	 * @return Training samples of all players, empty for passed in and ramsch
+	 *         games
+	 */
+	public List<TrainingSample> createSamples(final SkatGameData gameData) {
+
+		List<TrainingSample> result = new ArrayList<TrainingSample>();
+
+		GameType gameType = gameData.getGameType();
+		Player declarer = gameData.getDeclarer();
+		if (gameType == null || declarer == null
+				|| GameType.PASSED_IN.equals(gameType)
+				|| GameType.RAMSCH.equals(gameType)) {
+			return result;
+		}
+
+		for (Player player : Player.values()) {
+			replayGame(gameData, player, result);
+		}
+
+		return result;
+	}
+
+	private void replayGame(final SkatGameData gameData,
+			final Player playerPosition, final List<TrainingSample> samples) {
+
+		GameAnnouncement announcement = gameData.getAnnoucement();
+		Player declarer = gameData.getDeclarer();
+
+		PlayerKnowledge knowledge = new PlayerKnowledge();
+		knowledge.initializeVariables();
+		knowledge.setPlayerPosition(playerPosition);
+		knowledge.addOwnCards(gameData.getDealtCards().get(playerPosition));
+
+		for (Player player : Player.values()) {
+			int bid = gameData.getMaxPlayerBid(player);
+			if (bid > 0) {
+				knowledge.setHighestBid(player, Integer.valueOf(bid));
+			}
+		}
+
+		knowledge.setDeclarer(declarer);
+		knowledge.setGame(announcement);
+
+		if (playerPosition == declarer && !announcement.isHand()) {
+			CardList discarded = getDiscardedCards(gameData);
+			if (discarded != null) {
+				knowledge.setSkat(gameData.getDealtSkat());
+				knowledge.addOwnCards(gameData.getDealtSkat());
+				knowledge.removeOwnCards(discarded);
+				knowledge.setDiscardedCards(discarded);
+			}
+		}
+		if (announcement.isOuvert() && playerPosition != declarer) {
+			knowledge.getSinglePlayerCards().addAll(
+					gameData.getCardsAfterDiscard().get(declarer));
+		}
+
+		PlayerParty playerParty = playerPosition == declarer ? PlayerParty.DECLARER
+				: PlayerParty.OPPONENT;
+		double output = gameData.isGameWon() == (playerParty == PlayerParty.DECLARER) ? AIPlayerNN.WON
+				: AIPlayerNN.LOST;
+
+		for (Trick trick : gameData.getTricks()) {
+
+			knowledge.setCurrentTrick(new Trick(trick.getTrickNumberInGame(),
+					trick.getForeHand()));
+
+			CardList trickCards = trick.getCardList();
+			Player player = trick.getForeHand();
+			for (int i = 0; i < trickCards.size(); i++) {
+
+				Card card = trickCards.get(i);
+				if (player == playerPosition) {
+					samples.add(new TrainingSample(gameData.getGameType(),
+							playerParty, trick.getTrickNumberInGame(),
+							inputGenerator.getNetInputs(knowledge, card),
+							output));
+				}
+
+				knowledge.setCardPlayed(player, card);
+				if (player == playerPosition) {
+					knowledge.removeOwnCard(card);
+				} else {
+					knowledge.removeCard(card);
+				}
+				player = player.getLeftNeighbor();
+			}
+
+			if (trickCards.size() < 3) {
+				// the game ended before the trick was complete
+				break;
+			}
+
+			try {
+				knowledge.addTrick((Trick) trick.clone());
+			} catch (CloneNotSupportedException e) {
+				knowledge.addTrick(trick);
+			}
+			knowledge.clearTrickCards();
+		}
+	}
+
+	private static CardList getDiscardedCards(final SkatGameData gameData) {
+
+		CardList discarded = gameData.getAnnoucement().getDiscardedCards();
+		if (discarded == null || discarded.size() != 2) {
+			discarded = gameData.getSkat();
+		}
+		return discarded.size() == 2 ? discarded : null;
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.PropertyConfigurator;
+import org.jskat.ai.nn.data.SkatNetworks;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.control.iss.IssGameExtractor;
+import org.jskat.util.SkatRandom;
+
+/**
+ * Trains the neural networks supervised with the games of the ISS game
+ * database<br>
+ * The games are replayed by an {@link IssGameExtractor} into
+ * {@link IssTrainingData}. Every network passes over all of its samples in
+ * shuffled mini-batches, only the inputs of the current batch are expanded.
+ * The networks are trained in parallel.<br>
+ * Usage: SupervisedNNTrainer [-threads &lt;count&gt;] [-iterations
+ * &lt;count&gt;] [-batch-size &lt;count&gt;] [-max-samples &lt;count&gt;]
+ * [-seed &lt;seed&gt;] [-reset] &lt;ISS game file&gt; &lt;network
+ * directory&gt;
+ */
+public class SupervisedNNTrainer {
+
+	/**
+	 * Default number of passes over the samples of a network
+	 */
+	public static final int DEFAULT_ITERATIONS = 100;
+	/**
+	 * Default number of samples per learning step
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	/**
+	 * Default maximum number of samples per network
+	 */
+	public static final int DEFAULT_MAX_SAMPLES = 100000;
+
+	private final int threadCount;
+	private final int iterations;
+	private final int batchSize;
+	private final TrainingStatistics statistics = new TrainingStatistics();
+
+	private long seed = new SkatRandom().nextLong();
+
+	/**
+	 * Main method
+	 * 
+	 * @param args
+	 *            Command line arguments
+	 * @throws Exception
+	 *             If the game file can't be read
+	 */
+	public static void main(final String args[]) throws Exception {
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		int iterations = DEFAULT_ITERATIONS;
+		int batchSize = DEFAULT_BATCH_SIZE;
+		int maxSamples = DEFAULT_MAX_SAMPLES;
+		Long seed = null;
+		boolean reset = false;
+
+		int argIndex = 0;
+		while (argIndex < args.length - 2) {
+			String option = args[argIndex++];
+			if ("-reset".equals(option)) { //$NON-NLS-1$
+				reset = true;
+			} else if ("-threads".equals(option)) { //$NON-NLS-1$
+				threads = Integer.parseInt(args[argIndex++]);
+			} else if ("-iterations".equals(option)) { //$NON-NLS-1$
+				iterations = Integer.parseInt(args[argIndex++]);
+			} else if ("-batch-size".equals(option)) { //$NON-NLS-1$
+				batchSize = Integer.parseInt(args[argIndex++]);
+			} else if ("-max-samples".equals(option)) { //$NON-NLS-1$
+				maxSamples = Integer.parseInt(args[argIndex++]);
+			} else if ("-seed".equals(option)) { //$NON-NLS-1$
+				seed = Long.valueOf(args[argIndex++]);
+			} else {
+				argIndex = args.length;
+			}
+		}
+		if (argIndex != args.length - 2) {
+			System.err
+					.println("Usage: SupervisedNNTrainer [-threads <count>] [-iterations <count>] [-batch-size <count>] [-max-samples <count>] [-seed <seed>] [-reset] <ISS game file> <network directory>"); //$NON-NLS-1$
+			System.exit(1);
+		}
+
+		PropertyConfigurator.configure(ClassLoader
+				.getSystemResource("org/jskat/config/log4j.properties")); //$NON-NLS-1$
+
+		IssTrainingData trainingData = new IssTrainingData(maxSamples);
+		if (seed != null) {
+			trainingData.setSeed(seed.longValue());
+		}
+		IssGameExtractor extractor = new IssGameExtractor(threads,
+				trainingData);
+		extractor.extract(new File(args[argIndex]));
+
+		System.out.println(String.format(
+				"Replayed %d games, %d samples", //$NON-NLS-1$
+				Long.valueOf(trainingData.getGames()),
+				Long.valueOf(trainingData.getSampleCount())));
+
+		if (reset) {
+			SkatNetworks.resetNeuralNetworks();
+		}
+
+		SupervisedNNTrainer trainer = new SupervisedNNTrainer(threads,
+				iterations, batchSize);
+		if (seed != null) {
+			trainer.setSeed(seed.longValue());
+		}
+		trainer.train(trainingData);
+		System.out.println(trainer.getStatistics());
+
+		String path = args[argIndex + 1];
+		if (!path.endsWith(File.separator)) {
+			path = path.concat(File.separator);
+		}
+		SkatNetworks.saveNetworks(path);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newThreadCount
+	 *            Number of networks trained in parallel
+	 * @param newIterations
+	 *            Number of passes over the samples of a network
+	 * @param newBatchSize
+	 *            Number of samples per learning step
+	 */
+	public SupervisedNNTrainer(final int newThreadCount,
+			final int newIterations, final int newBatchSize) {
+
+		if (newThreadCount < 1 || newIterations < 1 || newBatchSize < 1) {
+			throw new IllegalArgumentException(
+					"Thread count, iterations and batch size must be positive."); //$NON-NLS-1$
+		}
+		threadCount = newThreadCount;
+		iterations = newIterations;
+		batchSize = newBatchSize;
+	}
+
+	/**
+	 * Sets the seed for shuffling the samples, every network gets its own
+	 * random generator derived from the seed and the network number
+	 * 
+	 * @param newSeed
+	 *            Seed
+	 */
+	public void setSeed(final long newSeed) {
+		seed = newSeed;
+	}
+
+	/**
+	 * Trains all networks that have samples in the training data
+	 * 
+	 * @param trainingData
+	 *            Training data
+	 * @throws InterruptedException
+	 *             If the training was interrupted
+	 */
+	public void train(final IssTrainingData trainingData)
+			throws InterruptedException {
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			List<INeuralNetwork> networks = trainingData.getNetworks();
+			for (int i = 0; i < networks.size(); i++) {
+				INeuralNetwork network = networks.get(i);
+				futures.add(executor.submit(new NetworkTask(network,
+						trainingData.getSamples(network), SkatRandom.forIndex(
+								seed, i))));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(
+					"Training of a network failed.", e.getCause()); //$NON-NLS-1$
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the statistics of the training
+	 * 
+	 * @return Training statistics
+	 */
+	public TrainingStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Trains one network on all of its samples
+	 */
+	private class NetworkTask implements Runnable {
+
+		private final INeuralNetwork network;
+		private final List<TrainingSample> samples;
+		private final Random rand;
+
+		NetworkTask(final INeuralNetwork newNetwork,
+				final List<TrainingSample> newSamples, final Random newRand) {
+			network = newNetwork;
+			samples = newSamples;
+			rand = newRand;
+		}
+
+		@Override
+		public void run() {
+
+			if (samples.isEmpty()) {
+				return;
+			}
+
+			// all batches have the same size, so the network reuses its
+			// trainer, the last batch of a pass is filled up from its start
+			int size = Math.min(batchSize, samples.size());
+			List<double[]> inputs = new ArrayList<double[]>(size);
+			List<double[]> outputs = new ArrayList<double[]>(size);
+			for (int i = 0; i < size; i++) {
+				inputs.add(new double[samples.get(0).getInputCount()]);
+				outputs.add(new double[1]);
+			}
+
+			List<TrainingSample> order = new ArrayList<TrainingSample>(samples);
+			double errorSum = 0.0;
+			int batches = 0;
+			for (int iteration = 0; iteration < iterations; iteration++) {
+
+				Collections.shuffle(order, rand);
+				errorSum = 0.0;
+				batches = 0;
+				for (int first = 0; first < order.size(); first += size) {
+					for (int i = 0; i < size; i++) {
+						TrainingSample sample = order.get((first + i)
+								% order.size());
+						sample.copyInputs(inputs.get(i));
+						outputs.get(i)[0] = sample.getOutput();
+					}
+					errorSum += network.adjustWeights(inputs, outputs);
+					batches++;
+				}
+			}
+
+			TrainingSample first = samples.get(0);
+			statistics.addTrainedSamples(first.getGameType(),
+					first.getPlayerParty(), errorSum / batches, samples.size());
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.Arrays;
+
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.ai.nn.data.SkatNetworks;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.util.GameType;
+
+/**
+ * Experience of a learning player for one trick of a game<br>
+ * Only the non zero network inputs are kept, most inputs of the input
+ * generators are zero and large sets of samples are held in memory.
+ */
+public class TrainingSample {
+
+	private final GameType gameType;
+	private final PlayerParty playerParty;
+	private final int trickNoInGame;
+	private final int inputCount;
+	/**
+	 * Indices of the non zero inputs
+	 */
+	private final int[] activeInputs;
+	/**
+	 * Values of the non zero inputs, NULL if all of them are 1.0
+	 */
+	private final double[] activeValues;
+	private final double output;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newGameType
+	 *            Game type
+	 * @param newPlayerParty
+	 *            Party of the player
+	 * @param newTrickNoInGame
+	 *            Trick number in the game
+	 * @param newInputs
+	 *            Network inputs for the played card
+	 * @param newOutput
+	 *            Desired network output
+	 */
+	public TrainingSample(final GameType newGameType,
+			final PlayerParty newPlayerParty, final int newTrickNoInGame,
+			final double[] newInputs, final double newOutput) {
+
+		gameType = newGameType;
+		playerParty = newPlayerParty;
+		trickNoInGame = newTrickNoInGame;
+		output = newOutput;
+
+		inputCount = newInputs.length;
+		int activeCount = 0;
+		boolean binary = true;
+		for (double input : newInputs) {
+			if (input != 0.0) {
+				activeCount++;
+				binary &= input == 1.0;
+			}
+		}
+		activeInputs = new int[activeCount];
+		activeValues = binary ? null : new double[activeCount];
+		int index = 0;
+		for (int i = 0; i < newInputs.length; i++) {
+			if (newInputs[i] != 0.0) {
+				activeInputs[index] = i;
+				if (activeValues != null) {
+					activeValues[index] = newInputs[i];
+				}
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Gets the network that learns the sample
+	 * 
+	 * @return Neural network
+	 */
+	public INeuralNetwork getNetwork() {
+		return SkatNetworks.getNetwork(gameType,
+				playerParty == PlayerParty.DECLARER, trickNoInGame);
+	}
+
+	/**
+	 * @return the game type
+	 */
+	public GameType getGameType() {
+		return gameType;
+	}
+
+	/**
+	 * @return the player party
+	 */
+	public PlayerParty getPlayerParty() {
+		return playerParty;
+	}
+
+	/**
+	 * @return the trick number in the game
+	 */
+	public int getTrickNoInGame() {
+		return trickNoInGame;
+	}
+
+	/**
+	 * @return the number of network inputs
+	 */
+	public int getInputCount() {
+		return inputCount;
+	}
+
+	/**
+	 * Gets the network inputs, the array is created for every call
+	 * 
+	 * @return the network inputs
+	 */
+	public double[] getInputs() {
+
+		double[] result = new double[inputCount];
+		copyInputs(result);
+		return result;
+	}
+
+	/**
+	 * Copies the network inputs into an array, e.g. a reused batch buffer
+	 * 
+	 * @param target
+	 *            Array with at least {@link #getInputCount()} elements, all
+	 *            other inputs are set to zero
+	 */
+	public void copyInputs(final double[] target) {
+
+		Arrays.fill(target, 0, inputCount, 0.0);
+		for (int i = 0; i < activeInputs.length; i++) {
+			target[activeInputs[i]] = activeValues == null ? 1.0
+					: activeValues[i];
+		}
+	}
+
+	/**
+	 * @return the desired network output
+	 */
+	public double getOutput() {
+		return output;
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.List;
+
+/**
+ * Receives the training samples of learning players instead of adjusting the
+ * networks directly
+ */
+public interface TrainingSampleConsumer {
+
+	/**
+	 * Adds the samples of a finished game
+	 * 
+	 * @param samples
+	 *            Training samples
+	 */
+	void addSamples(List<TrainingSample> samples);
+}
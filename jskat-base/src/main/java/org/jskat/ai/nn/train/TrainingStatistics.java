@@ -0,0 +1,244 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.util.GameType;
+
+/**
+ * Throughput and network error of a running training, all methods are thread
+ * safe
+ */
+public class TrainingStatistics {
+
+	private final long startTime = System.nanoTime();
+
+	private final Map<GameType, long[]> games = new EnumMap<GameType, long[]>(
+			GameType.class);
+	private final Map<GameType, double[]> errors = new EnumMap<GameType, double[]>(
+			GameType.class);
+
+	private long totalGames;
+	private long failedGames;
+	private long generatedSamples;
+	private long trainedSamples;
+
+	/**
+	 * Adds a finished game
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param won
+	 *            TRUE if the declarer won the game
+	 */
+	public synchronized void addGame(final GameType gameType,
+			final boolean won) {
+
+		long[] gameCounts = getGameCounts(gameType);
+		gameCounts[0]++;
+		if (won) {
+			gameCounts[1]++;
+		}
+		totalGames++;
+	}
+
+	/**
+	 * Adds a game that failed with an exception
+	 * 
+	 * @param gameType
+	 *            Game type
+	 */
+	public synchronized void addFailedGame(final GameType gameType) {
+
+		getGameCounts(gameType)[2]++;
+		failedGames++;
+	}
+
+	/**
+	 * Adds generated training samples
+	 * 
+	 * @param count
+	 *            Number of samples
+	 */
+	public synchronized void addGeneratedSamples(final int count) {
+		generatedSamples += count;
+	}
+
+	/**
+	 * Adds the network error of trained samples
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param playerParty
+	 *            Player party
+	 * @param error
+	 *            Network error of the batch
+	 * @param count
+	 *            Number of samples in the batch
+	 */
+	public synchronized void addTrainedSamples(final GameType gameType,
+			final PlayerParty playerParty, final double error, final int count) {
+
+		double[] errorSums = errors.get(gameType);
+		if (errorSums == null) {
+			errorSums = new double[2 * PlayerParty.values().length];
+			errors.put(gameType, errorSums);
+		}
+		errorSums[2 * playerParty.ordinal()] += error * count;
+		errorSums[2 * playerParty.ordinal() + 1] += count;
+		trainedSamples += count;
+	}
+
+	/**
+	 * Gets the number of played games
+	 * 
+	 * @return Number of games
+	 */
+	public synchronized long getGames() {
+		return totalGames;
+	}
+
+	/**
+	 * Gets the number of played games of a game type
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Number of games
+	 */
+	public synchronized long getGames(final GameType gameType) {
+		return getGameCounts(gameType)[0];
+	}
+
+	/**
+	 * Gets the number of games of a game type won by the declarer
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Number of won games
+	 */
+	public synchronized long getWonGames(final GameType gameType) {
+		return getGameCounts(gameType)[1];
+	}
+
+	/**
+	 * Gets the number of games that failed with an exception, they are not
+	 * counted as played games
+	 * 
+	 * @return Number of failed games
+	 */
+	public synchronized long getFailedGames() {
+		return failedGames;
+	}
+
+	/**
+	 * Gets the number of failed games of a game type
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Number of failed games
+	 */
+	public synchronized long getFailedGames(final GameType gameType) {
+		return getGameCounts(gameType)[2];
+	}
+
+	/**
+	 * Gets the number of generated training samples
+	 * 
+	 * @return Number of samples
+	 */
+	public synchronized long getGeneratedSamples() {
+		return generatedSamples;
+	}
+
+	/**
+	 * Gets the number of trained samples
+	 * 
+	 * @return Number of samples
+	 */
+	public synchronized long getTrainedSamples() {
+		return trainedSamples;
+	}
+
+	/**
+	 * Gets the average network error of a game type and player party
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param playerParty
+	 *            Player party
+	 * @return Average network error, 0.0 if nothing was trained yet
+	 */
+	public synchronized double getAverageError(final GameType gameType,
+			final PlayerParty playerParty) {
+
+		double[] errorSums = errors.get(gameType);
+		if (errorSums == null || errorSums[2 * playerParty.ordinal() + 1] == 0) {
+			return 0.0;
+		}
+		return errorSums[2 * playerParty.ordinal()]
+				/ errorSums[2 * playerParty.ordinal() + 1];
+	}
+
+	/**
+	 * Gets the played games per second since the start of the training
+	 * 
+	 * @return Games per second
+	 */
+	public synchronized double getGamesPerSecond() {
+		return totalGames / getElapsedSeconds();
+	}
+
+	/**
+	 * Gets the trained samples per second since the start of the training
+	 * 
+	 * @return Samples per second
+	 */
+	public synchronized double getSamplesPerSecond() {
+		return trainedSamples / getElapsedSeconds();
+	}
+
+	private double getElapsedSeconds() {
+		return Math.max(System.nanoTime() - startTime, 1L) / 1000000000.0;
+	}
+
+	private long[] getGameCounts(final GameType gameType) {
+
+		long[] gameCounts = games.get(gameType);
+		if (gameCounts == null) {
+			gameCounts = new long[3];
+			games.put(gameType, gameCounts);
+		}
+		return gameCounts;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format(
+				"%d games (%.1f/s), %d failed games, %d samples (%.1f/s)", //$NON-NLS-1$
+				totalGames, getGamesPerSecond(), failedGames, trainedSamples,
+				getSamplesPerSecond());
+	}
+}
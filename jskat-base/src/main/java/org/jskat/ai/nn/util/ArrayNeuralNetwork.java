@@ -0,0 +1,347 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.util;
+
+import java.util.List;
+
+import org.encog.engine.network.activation.ActivationSigmoid;
+import org.encog.neural.flat.FlatNetwork;
+
+/**
+ * Neural network that predicts with its weights in flat arrays<br>
+ * The forward pass is specialized for feed forward networks with sigmoid
+ * activation. The weights of the first layer are stored input by input, so
+ * inputs with the value 0 are skipped. Most inputs of the skat networks are 0.
+ * <br>
+ * Training, loading and saving are done by an {@link EncogNetworkWrapper}, the
+ * .nnet files stay the same. The weights are converted after every change of
+ * the published weights of the wrapper.
+ */
+public class ArrayNeuralNetwork implements INeuralNetwork {
+
+	private final EncogNetworkWrapper encogNetwork;
+
+	/**
+	 * Converted weights, replaced after the weights of the Encog network have
+	 * changed
+	 */
+	private volatile Weights weights;
+	/**
+	 * Neuron outputs of every predicting thread
+	 */
+	private final ThreadLocal<double[][]> localOutputs = new ThreadLocal<double[][]>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param topo
+	 *            Network topology
+	 * @param useBias
+	 *            TRUE, if the layers have bias neurons
+	 */
+	public ArrayNeuralNetwork(final NetworkTopology topo, final boolean useBias) {
+		encogNetwork = new EncogNetworkWrapper(topo, useBias);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAvgDiff() {
+		return encogNetwork.getAvgDiff();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double adjustWeights(final double[] inputs, final double[] outputs) {
+		return encogNetwork.adjustWeights(inputs, outputs);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setTrainingParameters(final int batchSize,
+			final int replayBufferSize, final double learningRate) {
+		encogNetwork.setTrainingParameters(batchSize, replayBufferSize,
+				learningRate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double adjustWeights(final List<double[]> inputs,
+			final List<double[]> outputs) {
+		return encogNetwork.adjustWeights(inputs, outputs);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double train(final List<double[]> inputs,
+			final List<double[]> outputs, final int iterations) {
+		return encogNetwork.train(inputs, outputs, iterations);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetNetwork() {
+		encogNetwork.resetNetwork();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPredictedOutcome(final double[] inputs) {
+
+		Weights currentWeights = getWeights();
+		return currentWeights.compute(inputs, getOutputs(currentWeights));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void getPredictedOutcomes(final double[][] inputs, final int count,
+			final double[] outcomes) {
+
+		Weights currentWeights = getWeights();
+		double[][] outputs = getOutputs(currentWeights);
+		for (int i = 0; i < count; i++) {
+			outcomes[i] = currentWeights.compute(inputs[i], outputs);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getInputNeuronCount() {
+		return getWeights().inputCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIterations() {
+		return encogNetwork.getIterations();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean saveNetwork(final String fileName) {
+		return encogNetwork.saveNetwork(fileName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void loadNetwork(final String fileName, final int inputNeurons,
+			final int hiddenNeurons, final int outputNeurons) {
+		encogNetwork.loadNetwork(fileName, inputNeurons, hiddenNeurons,
+				outputNeurons);
+	}
+
+	private Weights getWeights() {
+
+		FlatNetwork snapshot = encogNetwork.getSnapshot();
+		Weights currentWeights = weights;
+		if (currentWeights == null || currentWeights.source != snapshot) {
+			// several threads might convert the same snapshot, the results
+			// are equal
+			currentWeights = new Weights(snapshot);
+			weights = currentWeights;
+		}
+		return currentWeights;
+	}
+
+	private double[][] getOutputs(final Weights currentWeights) {
+
+		double[][] outputs = localOutputs.get();
+		if (outputs == null || !currentWeights.fits(outputs)) {
+			outputs = new double[currentWeights.neuronCounts.length][];
+			for (int i = 0; i < outputs.length; i++) {
+				outputs[i] = new double[currentWeights.neuronCounts[i]];
+			}
+			localOutputs.set(outputs);
+		}
+		return outputs;
+	}
+
+	/**
+	 * Weights of a network snapshot, never changed after the conversion
+	 */
+	private static final class Weights {
+
+		private final FlatNetwork source;
+		private final int inputCount;
+		/**
+		 * Number of neurons of every layer after the input layer
+		 */
+		private final int[] neuronCounts;
+		/**
+		 * Weights of every layer after the input layer, the first layer is
+		 * stored input by input, the other layers neuron by neuron
+		 */
+		private final double[][] layerWeights;
+		/**
+		 * Bias weight times bias activation of every neuron
+		 */
+		private final double[][] layerBiases;
+
+		Weights(final FlatNetwork flat) {
+
+			source = flat;
+
+			for (int i = 0; i < flat.getActivationFunctions().length - 1; i++) {
+				if (!(flat.getActivationFunctions()[i] instanceof ActivationSigmoid)) {
+					throw new IllegalArgumentException(
+							"Only sigmoid activation is supported."); //$NON-NLS-1$
+				}
+			}
+			if (flat.getHasContext()) {
+				throw new IllegalArgumentException(
+						"Context neurons are not supported."); //$NON-NLS-1$
+			}
+
+			// Encog stores the layers from the output to the input layer
+			int[] layerCounts = flat.getLayerCounts();
+			int[] feedCounts = flat.getLayerFeedCounts();
+			int[] weightIndex = flat.getWeightIndex();
+			double[] biasActivation = flat.getBiasActivation();
+			double[] flatWeights = flat.getWeights();
+			int layers = layerCounts.length - 1;
+
+			inputCount = feedCounts[layers];
+			neuronCounts = new int[layers];
+			layerWeights = new double[layers][];
+			layerBiases = new double[layers][];
+
+			for (int layer = 0; layer < layers; layer++) {
+
+				int inputLayer = layers - layer;
+				int outputLayer = inputLayer - 1;
+				int inputs = feedCounts[inputLayer];
+				int inputsWithBias = layerCounts[inputLayer];
+				int neurons = feedCounts[outputLayer];
+				int offset = weightIndex[outputLayer];
+
+				neuronCounts[layer] = neurons;
+				layerWeights[layer] = new double[neurons * inputs];
+				layerBiases[layer] = new double[neurons];
+
+				for (int neuron = 0; neuron < neurons; neuron++) {
+					for (int input = 0; input < inputs; input++) {
+						double weight = flatWeights[offset + neuron
+								* inputsWithBias + input];
+						if (layer == 0) {
+							layerWeights[layer][input * neurons + neuron] = weight;
+						} else {
+							layerWeights[layer][neuron * inputs + input] = weight;
+						}
+					}
+					if (inputsWithBias > inputs) {
+						layerBiases[layer][neuron] = flatWeights[offset
+								+ neuron * inputsWithBias + inputs]
+								* biasActivation[inputLayer];
+					}
+				}
+			}
+		}
+
+		boolean fits(final double[][] outputs) {
+
+			if (outputs.length != neuronCounts.length) {
+				return false;
+			}
+			for (int i = 0; i < outputs.length; i++) {
+				if (outputs[i].length != neuronCounts[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Computes the output of the network
+		 * 
+		 * @param inputs
+		 *            Input values
+		 * @param outputs
+		 *            Buffers for the neuron outputs of every layer
+		 * @return Value of the first output neuron
+		 */
+		double compute(final double[] inputs, final double[][] outputs) {
+
+			// first layer, inputs with the value 0 are skipped
+			double[] firstOutputs = outputs[0];
+			double[] firstWeights = layerWeights[0];
+			int neurons = neuronCounts[0];
+			System.arraycopy(layerBiases[0], 0, firstOutputs, 0, neurons);
+			for (int input = 0; input < inputCount; input++) {
+				double value = inputs[input];
+				if (value != 0.0) {
+					int offset = input * neurons;
+					for (int neuron = 0; neuron < neurons; neuron++) {
+						firstOutputs[neuron] += value
+								* firstWeights[offset + neuron];
+					}
+				}
+			}
+			sigmoid(firstOutputs);
+
+			for (int layer = 1; layer < neuronCounts.length; layer++) {
+				double[] layerInputs = outputs[layer - 1];
+				double[] layerOutputs = outputs[layer];
+				double[] weights = layerWeights[layer];
+				double[] biases = layerBiases[layer];
+				int layerInputCount = layerInputs.length;
+				for (int neuron = 0; neuron < layerOutputs.length; neuron++) {
+					double sum = biases[neuron];
+					int offset = neuron * layerInputCount;
+					for (int input = 0; input < layerInputCount; input++) {
+						sum += weights[offset + input] * layerInputs[input];
+					}
+					layerOutputs[neuron] = sum;
+				}
+				sigmoid(layerOutputs);
+			}
+
+			return outputs[outputs.length - 1][0];
+		}
+
+		private static void sigmoid(final double[] values) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = 1.0 / (1.0 + Math.exp(-values[i]));
+			}
+		}
+	}
+}
@@ -21,33 +21,91 @@ package org.jskat.ai.nn.util;
 
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.encog.engine.network.activation.ActivationSigmoid;
-import org.encog.ml.data.MLData;
 import org.encog.ml.data.MLDataPair;
 import org.encog.ml.data.MLDataSet;
 import org.encog.ml.data.basic.BasicMLData;
 import org.encog.ml.data.basic.BasicMLDataPair;
 import org.encog.ml.data.basic.BasicMLDataSet;
-import org.encog.ml.train.BasicTraining;
+import org.encog.neural.flat.FlatNetwork;
 import org.encog.neural.networks.BasicNetwork;
 import org.encog.neural.networks.PersistBasicNetwork;
 import org.encog.neural.networks.layers.BasicLayer;
 import org.encog.neural.networks.training.propagation.back.Backpropagation;
+import org.encog.neural.networks.training.propagation.resilient.ResilientPropagation;
+import org.jskat.util.SkatRandom;
 
 /**
- * Wraps the Encog network to fulfill the interface {@link INeuralNetwork}
+ * Wraps the Encog network to fulfill the interface {@link INeuralNetwork}<br>
+ * Predictions don't lock the network. Training, resetting and loading change
+ * the network under the monitor of the wrapper and publish a copy of the new
+ * weights before they release it. Predictions only read the published
+ * snapshot, every thread computes on its own copy of it.<br>
+ * Single samples are stored in a replay buffer, the weights are adjusted with
+ * batches drawn from the buffer. The batches and trainers are reused.
  */
 public class EncogNetworkWrapper implements INeuralNetwork {
 
+	/**
+	 * Default number of new samples per weight adjustment
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1;
+	/**
+	 * Default number of latest samples the batches are drawn from
+	 */
+	public static final int DEFAULT_REPLAY_BUFFER_SIZE = 1;
+	/**
+	 * Default learning rate
+	 */
+	public static final double DEFAULT_LEARNING_RATE = 0.7;
+
 	private BasicNetwork network;
 	private final PersistBasicNetwork networkPersister;
 
-	private final List<MLDataPair> dataPairList = new ArrayList<MLDataPair>();
-	private final int MAX_SIZE = 10;
-	private final int currentIndex = -1;
+	/**
+	 * Published weights for predictions, replaced after every change of the
+	 * weights, the snapshot itself is never changed
+	 */
+	private volatile FlatNetwork snapshot;
+	/**
+	 * Network copy of every predicting thread
+	 */
+	private final ThreadLocal<LocalNetwork> localNetworks = new ThreadLocal<LocalNetwork>() {
+		@Override
+		protected LocalNetwork initialValue() {
+			return new LocalNetwork();
+		}
+	};
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private double learningRate = DEFAULT_LEARNING_RATE;
+
+	/**
+	 * Latest samples, the oldest sample is overwritten when the buffer is full
+	 */
+	private MLDataPair[] replayBuffer = new MLDataPair[DEFAULT_REPLAY_BUFFER_SIZE];
+	private int replayCount;
+	private int replayIndex;
+	private int newSamples;
+	private final Random rand = new SkatRandom();
+
+	/**
+	 * Batch of samples drawn from the replay buffer, the pairs are overwritten
+	 * for every weight adjustment and learned by the same trainer
+	 */
+	private MLDataPair[] sampleBatch;
+	private Backpropagation sampleTrainer;
+	/**
+	 * Batch and trainer for {@link #adjustWeights(List, List)}, reused while
+	 * the batches have the same size
+	 */
+	private MLDataPair[] listBatch;
+	private Backpropagation listTrainer;
+	private double lastError;
 
 	/**
 	 * Constructor
@@ -68,6 +126,7 @@ public class EncogNetworkWrapper implements INeuralNetwork {
 		network.reset();
 
 		networkPersister = new PersistBasicNetwork();
+		publishSnapshot();
 	}
 
 	/**
@@ -85,24 +144,175 @@ public class EncogNetworkWrapper implements INeuralNetwork {
 	public synchronized double adjustWeights(final double[] inputValues,
 			final double[] outputValues) {
 
-		// if (dataPairList.size() < MAX_SIZE) {
-		// dataPairList.add(new BasicMLDataPair(new BasicMLData(inputValues),
-		// new BasicMLData(outputValues)));
-		// currentIndex++;
-		// } else {
-		// currentIndex = (currentIndex + 1) % MAX_SIZE;
-		// dataPairList.set(currentIndex, new BasicMLDataPair(new BasicMLData(
-		// inputValues), new BasicMLData(outputValues)));
-		// }
-		List<MLDataPair> data = new ArrayList<MLDataPair>();
-		data.add(new BasicMLDataPair(new BasicMLData(inputValues),
-				new BasicMLData(outputValues)));
-		MLDataSet trainingSet = new BasicMLDataSet(data);
-
-		// BasicTraining trainer = new ResilientPropagation(network,
-		// trainingSet);
-		BasicTraining trainer = new Backpropagation(network, trainingSet);
-		trainer.iteration();
+		replayBuffer[replayIndex] = copySample(replayBuffer[replayIndex],
+				inputValues, outputValues);
+		replayIndex = (replayIndex + 1) % replayBuffer.length;
+		replayCount = Math.min(replayCount + 1, replayBuffer.length);
+		newSamples++;
+
+		if (newSamples >= batchSize) {
+			newSamples = 0;
+
+			if (sampleTrainer == null
+					|| !hasSize(sampleBatch[0], inputValues, outputValues)) {
+				sampleBatch = createBatch(batchSize, inputValues.length,
+						outputValues.length);
+				sampleTrainer = createTrainer(sampleBatch);
+			}
+			for (int i = 0; i < batchSize; i++) {
+				// a full batch from the buffer is learned as it is
+				MLDataPair sample = replayCount == batchSize ? replayBuffer[i]
+						: replayBuffer[rand.nextInt(replayCount)];
+				copySample(sampleBatch[i], sample.getInputArray(),
+						sample.getIdealArray());
+			}
+
+			sampleTrainer.iteration();
+			publishSnapshot();
+			lastError = sampleTrainer.getError();
+		}
+		return lastError;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized double adjustWeights(final List<double[]> inputs,
+			final List<double[]> outputs) {
+
+		if (listTrainer == null || listBatch.length != inputs.size()
+				|| !hasSize(listBatch[0], inputs.get(0), outputs.get(0))) {
+			listBatch = createBatch(inputs.size(), inputs.get(0).length,
+					outputs.get(0).length);
+			listTrainer = createTrainer(listBatch);
+		}
+		for (int i = 0; i < inputs.size(); i++) {
+			copySample(listBatch[i], inputs.get(i), outputs.get(i));
+		}
+
+		listTrainer.iteration();
+		publishSnapshot();
+		lastError = listTrainer.getError();
+		return lastError;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void setTrainingParameters(final int newBatchSize,
+			final int newReplayBufferSize, final double newLearningRate) {
+
+		if (newBatchSize < 1 || newReplayBufferSize < newBatchSize) {
+			throw new IllegalArgumentException(
+					"Batch size must be positive and not larger than the replay buffer."); //$NON-NLS-1$
+		}
+		if (newLearningRate <= 0.0) {
+			throw new IllegalArgumentException(
+					"Learning rate must be positive."); //$NON-NLS-1$
+		}
+
+		batchSize = newBatchSize;
+		learningRate = newLearningRate;
+		replayBuffer = new MLDataPair[newReplayBufferSize];
+		resetTraining();
+	}
+
+	/**
+	 * Discards the replay buffer and the trainers, they refer to the network
+	 * and its last weight changes
+	 */
+	private void resetTraining() {
+
+		Arrays.fill(replayBuffer, null);
+		replayCount = 0;
+		replayIndex = 0;
+		newSamples = 0;
+		sampleBatch = null;
+		sampleTrainer = null;
+		listBatch = null;
+		listTrainer = null;
+	}
+
+	private Backpropagation createTrainer(final MLDataPair[] batch) {
+
+		// no momentum, the weights were adjusted by a new trainer for every
+		// sample before
+		Backpropagation trainer = new Backpropagation(network,
+				new BasicMLDataSet(Arrays.asList(batch)), learningRate, 0.0);
+		// the batches are too small to be split between threads
+		trainer.setThreadCount(1);
+		return trainer;
+	}
+
+	private static MLDataPair[] createBatch(final int size,
+			final int inputCount, final int outputCount) {
+
+		MLDataPair[] result = new MLDataPair[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = new BasicMLDataPair(new BasicMLData(inputCount),
+					new BasicMLData(outputCount));
+		}
+		return result;
+	}
+
+	private static boolean hasSize(final MLDataPair pair,
+			final double[] inputValues, final double[] outputValues) {
+
+		return pair.getInputArray().length == inputValues.length
+				&& pair.getIdealArray().length == outputValues.length;
+	}
+
+	/**
+	 * Copies a sample into a data pair
+	 * 
+	 * @param pair
+	 *            Data pair, a new pair is created if it is NULL or has other
+	 *            sizes
+	 * @param inputValues
+	 *            Input values
+	 * @param outputValues
+	 *            Output values
+	 * @return Data pair with the sample
+	 */
+	private static MLDataPair copySample(final MLDataPair pair,
+			final double[] inputValues, final double[] outputValues) {
+
+		MLDataPair result = pair;
+		if (result == null || !hasSize(result, inputValues, outputValues)) {
+			result = new BasicMLDataPair(new BasicMLData(inputValues.length),
+					new BasicMLData(outputValues.length));
+		}
+		System.arraycopy(inputValues, 0, result.getInputArray(), 0,
+				inputValues.length);
+		System.arraycopy(outputValues, 0, result.getIdealArray(), 0,
+				outputValues.length);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized double train(final List<double[]> inputs,
+			final List<double[]> outputs, final int iterations) {
+
+		MLDataSet trainingSet = new BasicMLDataSet();
+		for (int i = 0; i < inputs.size(); i++) {
+			trainingSet.add(new BasicMLDataPair(new BasicMLData(inputs.get(i)),
+					new BasicMLData(outputs.get(i))));
+		}
+
+		ResilientPropagation trainer = new ResilientPropagation(network,
+				trainingSet);
+		// callers train several networks in parallel
+		trainer.setThreadCount(1);
+		for (int i = 0; i < iterations; i++) {
+			trainer.iteration();
+		}
+		trainer.finishTraining();
+		publishSnapshot();
 		return trainer.getError();
 	}
 
@@ -112,15 +322,84 @@ public class EncogNetworkWrapper implements INeuralNetwork {
 	@Override
 	public synchronized void resetNetwork() {
 		network.reset();
+		resetTraining();
+		publishSnapshot();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPredictedOutcome(final double[] inputValues) {
+		LocalNetwork local = getLocalNetwork();
+		local.network.compute(inputValues, local.output);
+		return local.output[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void getPredictedOutcomes(final double[][] inputs,
+			final int count, final double[] outcomes) {
+
+		LocalNetwork local = getLocalNetwork();
+		for (int i = 0; i < count; i++) {
+			local.network.compute(inputs[i], local.output);
+			outcomes[i] = local.output[0];
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized double getPredictedOutcome(final double[] inputValues) {
-		MLData output = network.compute(new BasicMLData(inputValues));
-		return output.getData(0);
+	public int getInputNeuronCount() {
+		return getLocalNetwork().network.getInputCount();
+	}
+
+	/**
+	 * Gets the network copy of the current thread with the latest published
+	 * weights
+	 * 
+	 * @return Network copy
+	 */
+	private LocalNetwork getLocalNetwork() {
+
+		FlatNetwork currentSnapshot = getSnapshot();
+
+		LocalNetwork local = localNetworks.get();
+		if (local.source != currentSnapshot) {
+			if (local.network != null
+					&& Arrays.equals(local.network.getLayerCounts(),
+							currentSnapshot.getLayerCounts())) {
+				System.arraycopy(currentSnapshot.getWeights(), 0,
+						local.network.getWeights(), 0,
+						currentSnapshot.getWeights().length);
+			} else {
+				local.network = currentSnapshot.clone();
+			}
+			local.source = currentSnapshot;
+		}
+		return local;
+	}
+
+	/**
+	 * Gets the published weights, a new snapshot is published after the
+	 * weights have changed
+	 * 
+	 * @return Snapshot of the network, must not be changed
+	 */
+	FlatNetwork getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Publishes a copy of the current weights, must be called while holding
+	 * the monitor after the weights have changed
+	 */
+	private void publishSnapshot() {
+		snapshot = network.getFlat().clone();
 	}
 
 	/**
@@ -154,5 +433,19 @@ public class EncogNetworkWrapper implements INeuralNetwork {
 			final int outputNeurons) {
 		network = (BasicNetwork) networkPersister.read(getClass()
 				.getResourceAsStream(fileName));
+		resetTraining();
+		publishSnapshot();
+	}
+
+	/**
+	 * Network copy of a predicting thread
+	 */
+	private static class LocalNetwork {
+		/**
+		 * Snapshot the weights were copied from
+		 */
+		private FlatNetwork source;
+		private FlatNetwork network;
+		private final double[] output = new double[1];
 	}
 }
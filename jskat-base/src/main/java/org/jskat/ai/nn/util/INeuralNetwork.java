@@ -19,6 +19,8 @@
  */
 package org.jskat.ai.nn.util;
 
+import java.util.List;
+
 public interface INeuralNetwork {
 
 	/**
@@ -29,16 +31,61 @@ public interface INeuralNetwork {
 	public abstract double getAvgDiff();
 
 	/**
-	 * Adjusts the weights of the net according inputs and desired outputs
+	 * Adjusts the weights of the net according inputs and desired outputs<br>
+	 * The sample is stored in the replay buffer of the net, the weights are
+	 * adjusted after every batch of samples, see
+	 * {@link #setTrainingParameters(int, int, double)}
 	 * 
 	 * @param inputs
 	 *            Input attributes
 	 * @param outputs
 	 *            Output attributes
-	 * @return Average diff
+	 * @return Network error of the last weight adjustment
 	 */
 	public abstract double adjustWeights(double[] inputs, double[] outputs);
 
+	/**
+	 * Sets the parameters for adjusting the weights sample by sample
+	 * 
+	 * @param batchSize
+	 *            Number of new samples per weight adjustment
+	 * @param replayBufferSize
+	 *            Number of latest samples the batches are drawn from, at
+	 *            least the batch size
+	 * @param learningRate
+	 *            Learning rate
+	 */
+	public abstract void setTrainingParameters(int batchSize,
+			int replayBufferSize, double learningRate);
+
+	/**
+	 * Adjusts the weights of the net in one step for a batch of inputs and
+	 * desired outputs
+	 * 
+	 * @param inputs
+	 *            Input attributes
+	 * @param outputs
+	 *            Output attributes
+	 * @return Network error of the batch
+	 */
+	public abstract double adjustWeights(List<double[]> inputs,
+			List<double[]> outputs);
+
+	/**
+	 * Trains the net on a complete data set with resilient propagation, every
+	 * iteration is one batch step over all inputs
+	 * 
+	 * @param inputs
+	 *            Input attributes
+	 * @param outputs
+	 *            Output attributes
+	 * @param iterations
+	 *            Number of iterations
+	 * @return Network error of the last iteration
+	 */
+	public abstract double train(List<double[]> inputs, List<double[]> outputs,
+			int iterations);
+
 	/**
 	 * Resets the network, sets random values for all weights
 	 */
@@ -53,6 +100,27 @@ public interface INeuralNetwork {
 	 */
 	public abstract double getPredictedOutcome(double[] inputs);
 
+	/**
+	 * Gets the predicted outcomes of several inputs in one pass, no arrays are
+	 * created
+	 * 
+	 * @param inputs
+	 *            Input attributes, one array per prediction
+	 * @param count
+	 *            Number of predictions
+	 * @param outcomes
+	 *            Buffer for the predicted outcomes
+	 */
+	public abstract void getPredictedOutcomes(double[][] inputs, int count,
+			double[] outcomes);
+
+	/**
+	 * Gets the number of input neurons
+	 * 
+	 * @return Number of input neurons
+	 */
+	public abstract int getInputNeuronCount();
+
 	/**
 	 * Gets the number of iterations the NeuralNetwork was trained so far
 	 * 
@@ -19,8 +19,6 @@
  */
 package org.jskat.ai.rnd;
 
-import java.util.Random;
-
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
 import org.jskat.player.AbstractJSkatPlayer;
@@ -38,11 +36,6 @@ public class AIPlayerRND extends AbstractJSkatPlayer {
 
 	private static Logger log = LoggerFactory.getLogger(AIPlayerRND.class);
 
-	/**
-	 * Random generator
-	 */
-	private final Random rand = new Random();
-
 	/**
 	 * Creates a new instance of AIPlayerRND
 	 */
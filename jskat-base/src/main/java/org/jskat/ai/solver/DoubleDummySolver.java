@@ -0,0 +1,680 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.solver;
+
+import java.util.Random;
+
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.Suit;
+import org.jskat.util.rule.RuleTables;
+
+/**
+ * Solves the card play of a skat game with all cards open (double dummy)<br>
+ * The search is an alpha-beta search over the single cards. The declarer
+ * maximizes, the opponents minimize the declarer points of the remaining
+ * tricks. Null games are solved for win or loss only. Positions at trick
+ * boundaries are stored in a Zobrist hashed transposition table, cards of a
+ * player that are next to each other in the rank order of the remaining
+ * cards and have the same points are only searched once.
+ */
+public class DoubleDummySolver {
+
+	/**
+	 * Value of a won null game
+	 */
+	public static final int NULL_GAME_WON = 1;
+	/**
+	 * Value of a lost null game
+	 */
+	public static final int NULL_GAME_LOST = 0;
+
+	private static final int PLAYERS = 3;
+	private static final int NO_CARD = 63;
+	private static final int DEFAULT_TABLE_SIZE_BITS = 20;
+
+	private static final int EXACT = 1;
+	private static final int LOWER_BOUND = 2;
+	private static final int UPPER_BOUND = 3;
+
+	private static final Card[] CARDS = Card.values();
+	private static final int[] POINTS = new int[CARDS.length];
+
+	private static final long[][] HAND_KEYS = new long[PLAYERS][CARDS.length];
+	private static final long[] FORE_HAND_KEYS = new long[PLAYERS];
+	private static final long[] DECLARER_KEYS = new long[PLAYERS];
+	private static final long[] GAME_TYPE_KEYS = new long[GameType.values().length];
+
+	/**
+	 * Cards of every trump and suit class ordered by increasing strength,
+	 * indexed by game type
+	 */
+	private static final int[][][] RANK_ORDERS = new int[GameType.values().length][][];
+
+	static {
+		for (Card card : CARDS) {
+			POINTS[card.ordinal()] = card.getPoints();
+		}
+
+		// fixed seed, the keys only have to be distinct
+		Random rand = new Random(20130510L);
+		for (int player = 0; player < PLAYERS; player++) {
+			for (int card = 0; card < CARDS.length; card++) {
+				HAND_KEYS[player][card] = rand.nextLong();
+			}
+			FORE_HAND_KEYS[player] = rand.nextLong();
+			DECLARER_KEYS[player] = rand.nextLong();
+		}
+		for (GameType gameType : GameType.values()) {
+			GAME_TYPE_KEYS[gameType.ordinal()] = rand.nextLong();
+			if (isSupported(gameType)) {
+				RANK_ORDERS[gameType.ordinal()] = calculateRankOrders(gameType);
+			}
+		}
+	}
+
+	private final long[] tableKeys;
+	private final int[] tableEntries;
+	private final int tableMask;
+
+	private GameType gameType;
+	private boolean nullGame;
+	private int declarer;
+	private long gameKey;
+	private int[][] rankOrders;
+	private final int[] beatingCards = new int[CARDS.length];
+
+	private final int[] hands = new int[PLAYERS];
+	private final int[] trickCards = new int[PLAYERS];
+	private int trickSize;
+	private int trickForeHand;
+	private long handKey;
+
+	/**
+	 * Move buffers indexed by the number of cards left in the hands
+	 */
+	private final int[][] moveBuffers = new int[CARDS.length + 1][];
+	private final int[][] scoreBuffers = new int[CARDS.length + 1][];
+
+	private long nodes;
+
+	/**
+	 * Constructor
+	 */
+	public DoubleDummySolver() {
+		this(DEFAULT_TABLE_SIZE_BITS);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tableSizeBits
+	 *            Size of the transposition table as power of two
+	 */
+	public DoubleDummySolver(final int tableSizeBits) {
+
+		if (tableSizeBits < 1 || tableSizeBits > 26) {
+			throw new IllegalArgumentException(
+					"Table size bits must be between 1 and 26."); //$NON-NLS-1$
+		}
+
+		int tableSize = 1 << tableSizeBits;
+		tableKeys = new long[tableSize];
+		tableEntries = new int[tableSize];
+		tableMask = tableSize - 1;
+
+		for (int i = 0; i < moveBuffers.length; i++) {
+			moveBuffers[i] = new int[CARDS.length];
+			scoreBuffers[i] = new int[CARDS.length];
+		}
+	}
+
+	/**
+	 * Checks whether a game type can be solved
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return TRUE for suit, grand and null games
+	 */
+	public static boolean isSupported(final GameType gameType) {
+		return gameType != null && gameType != GameType.RAMSCH
+				&& gameType != GameType.PASSED_IN;
+	}
+
+	/**
+	 * Solves a game from the first trick on
+	 * 
+	 * @param newGameType
+	 *            Game type
+	 * @param newDeclarer
+	 *            Declarer
+	 * @param foreHand
+	 *            Cards of the fore hand
+	 * @param middleHand
+	 *            Cards of the middle hand
+	 * @param rearHand
+	 *            Cards of the rear hand
+	 * @return Card points the declarer gets in the tricks, for null games
+	 *         {@link #NULL_GAME_WON} or {@link #NULL_GAME_LOST}
+	 */
+	public int solve(final GameType newGameType, final Player newDeclarer,
+			final CardList foreHand, final CardList middleHand,
+			final CardList rearHand) {
+
+		int[] handMasks = new int[PLAYERS];
+		handMasks[Player.FOREHAND.getOrder()] = CardSet.getMask(foreHand);
+		handMasks[Player.MIDDLEHAND.getOrder()] = CardSet.getMask(middleHand);
+		handMasks[Player.REARHAND.getOrder()] = CardSet.getMask(rearHand);
+
+		return solve(newGameType, newDeclarer, handMasks, Player.FOREHAND,
+				new CardList());
+	}
+
+	/**
+	 * Solves a game position
+	 * 
+	 * @param newGameType
+	 *            Game type
+	 * @param newDeclarer
+	 *            Declarer
+	 * @param handMasks
+	 *            Card masks of the remaining cards on the hands, indexed by
+	 *            player order
+	 * @param trickForeHand
+	 *            Fore hand of the current trick
+	 * @param currentTrickCards
+	 *            Cards already played in the current trick
+	 * @return Card points the declarer gets in the current and all following
+	 *         tricks, for null games {@link #NULL_GAME_WON} or
+	 *         {@link #NULL_GAME_LOST}
+	 */
+	public int solve(final GameType newGameType, final Player newDeclarer,
+			final int[] handMasks, final Player trickForeHand,
+			final CardList currentTrickCards) {
+
+		setPosition(newGameType, newDeclarer, handMasks, trickForeHand,
+				currentTrickCards);
+
+		return search(getMinValue(), getMaxValue());
+	}
+
+	/**
+	 * Solves a game position for every card the player to move is allowed to
+	 * play
+	 * 
+	 * @param newGameType
+	 *            Game type
+	 * @param newDeclarer
+	 *            Declarer
+	 * @param handMasks
+	 *            Card masks of the remaining cards on the hands, indexed by
+	 *            player order
+	 * @param trickForeHand
+	 *            Fore hand of the current trick
+	 * @param currentTrickCards
+	 *            Cards already played in the current trick
+	 * @return Values of the position after playing a card, indexed by card
+	 *         ordinal, -1 for cards that can't be played
+	 */
+	public int[] solveCards(final GameType newGameType,
+			final Player newDeclarer, final int[] handMasks,
+			final Player trickForeHand, final CardList currentTrickCards) {
+
+		setPosition(newGameType, newDeclarer, handMasks, trickForeHand,
+				currentTrickCards);
+
+		int[] result = new int[CARDS.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = -1;
+		}
+
+		int player = getPlayerToMove();
+		int moves = getLegalMoves(player);
+		while (moves != CardSet.EMPTY) {
+			int card = Integer.numberOfTrailingZeros(moves);
+			moves &= moves - 1;
+			result[card] = playCard(player, card, getMinValue(), getMaxValue());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the best card for the player to move
+	 * 
+	 * @param newGameType
+	 *            Game type
+	 * @param newDeclarer
+	 *            Declarer
+	 * @param handMasks
+	 *            Card masks of the remaining cards on the hands, indexed by
+	 *            player order
+	 * @param trickForeHand
+	 *            Fore hand of the current trick
+	 * @param currentTrickCards
+	 *            Cards already played in the current trick
+	 * @return Best card
+	 */
+	public Card getBestCard(final GameType newGameType,
+			final Player newDeclarer, final int[] handMasks,
+			final Player trickForeHand, final CardList currentTrickCards) {
+
+		int[] values = solveCards(newGameType, newDeclarer, handMasks,
+				trickForeHand, currentTrickCards);
+		boolean maximizing = getPlayerToMove() == declarer;
+
+		Card result = null;
+		int bestValue = 0;
+		for (int card = 0; card < values.length; card++) {
+			if (values[card] < 0) {
+				continue;
+			}
+			if (result == null || maximizing && values[card] > bestValue
+					|| !maximizing && values[card] < bestValue) {
+				result = CARDS[card];
+				bestValue = values[card];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of searched positions since the creation of the solver
+	 * 
+	 * @return Number of searched positions
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Clears the transposition table
+	 */
+	public void clear() {
+		for (int i = 0; i < tableKeys.length; i++) {
+			tableKeys[i] = 0L;
+			tableEntries[i] = 0;
+		}
+	}
+
+	private void setPosition(final GameType newGameType,
+			final Player newDeclarer, final int[] handMasks,
+			final Player newTrickForeHand, final CardList currentTrickCards) {
+
+		if (!isSupported(newGameType)) {
+			throw new IllegalArgumentException("Game type " + newGameType //$NON-NLS-1$
+					+ " can't be solved."); //$NON-NLS-1$
+		}
+		if (currentTrickCards.size() >= PLAYERS) {
+			throw new IllegalArgumentException(
+					"The current trick is already complete."); //$NON-NLS-1$
+		}
+
+		if (newGameType != gameType) {
+			gameType = newGameType;
+			nullGame = newGameType == GameType.NULL;
+			rankOrders = RANK_ORDERS[newGameType.ordinal()];
+			for (Card card : CARDS) {
+				beatingCards[card.ordinal()] = RuleTables.getBeatingCards(
+						newGameType, card);
+			}
+		}
+		declarer = newDeclarer.getOrder();
+		gameKey = GAME_TYPE_KEYS[newGameType.ordinal()]
+				^ DECLARER_KEYS[declarer];
+
+		trickForeHand = newTrickForeHand.getOrder();
+		trickSize = 0;
+		int usedCards = CardSet.EMPTY;
+		for (Card card : currentTrickCards) {
+			trickCards[trickSize++] = card.ordinal();
+			usedCards |= CardSet.getMask(card);
+		}
+
+		handKey = 0L;
+		for (int player = 0; player < PLAYERS; player++) {
+			hands[player] = handMasks[player];
+			if ((usedCards & handMasks[player]) != 0) {
+				throw new IllegalArgumentException(
+						"A card is held twice in the position."); //$NON-NLS-1$
+			}
+			usedCards |= handMasks[player];
+
+			int cards = handMasks[player];
+			while (cards != CardSet.EMPTY) {
+				handKey ^= HAND_KEYS[player][Integer
+						.numberOfTrailingZeros(cards)];
+				cards &= cards - 1;
+			}
+		}
+
+		// players who already played to the trick hold one card less
+		int cardCount = CardSet.size(hands[getPlayerToMove()]);
+		for (int i = 0; i < PLAYERS; i++) {
+			int player = (trickForeHand + i) % PLAYERS;
+			int expected = i < trickSize ? cardCount - 1 : cardCount;
+			if (CardSet.size(hands[player]) != expected
+					|| trickSize > 0 && cardCount == 0) {
+				throw new IllegalArgumentException(
+						"The players hold an invalid number of cards."); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private int getMinValue() {
+		return nullGame ? NULL_GAME_LOST : 0;
+	}
+
+	private int getMaxValue() {
+		return nullGame ? NULL_GAME_WON : CardSet.getTotalValue(CardSet.ALL);
+	}
+
+	private int getPlayerToMove() {
+		return (trickForeHand + trickSize) % PLAYERS;
+	}
+
+	private int getLegalMoves(final int player) {
+
+		Card initialCard = trickSize == 0 ? null : CARDS[trickCards[0]];
+		return RuleTables.legalMoves(hands[player], initialCard, gameType);
+	}
+
+	private int search(final int alpha, final int beta) {
+
+		nodes++;
+
+		int player = getPlayerToMove();
+		if (hands[player] == CardSet.EMPTY) {
+			// all cards are played
+			return nullGame ? NULL_GAME_WON : 0;
+		}
+
+		long key = 0L;
+		int tableIndex = 0;
+		int tableCard = NO_CARD;
+		if (trickSize == 0) {
+			key = handKey ^ FORE_HAND_KEYS[trickForeHand] ^ gameKey;
+			tableIndex = (int) key & tableMask;
+			int entry = tableEntries[tableIndex];
+			if (entry != 0 && tableKeys[tableIndex] == key) {
+				int value = entry & 0xFF;
+				int bound = (entry >>> 8) & 0x3;
+				if (bound == EXACT || bound == LOWER_BOUND && value >= beta
+						|| bound == UPPER_BOUND && value <= alpha) {
+					return value;
+				}
+				tableCard = (entry >>> 10) & 0x3F;
+			}
+		}
+
+		int cardsLeft = CardSet.size(hands[0] | hands[1] | hands[2]);
+		int[] moves = moveBuffers[cardsLeft];
+		int moveCount = orderMoves(player,
+				removeEquivalentCards(getLegalMoves(player)), tableCard, moves,
+				scoreBuffers[cardsLeft]);
+
+		boolean maximizing = player == declarer;
+		int currentAlpha = alpha;
+		int currentBeta = beta;
+		int bestValue = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		int bestCard = NO_CARD;
+
+		for (int i = 0; i < moveCount; i++) {
+
+			int card = moves[i];
+			int value = playCard(player, card, currentAlpha, currentBeta);
+
+			if (maximizing) {
+				if (value > bestValue) {
+					bestValue = value;
+					bestCard = card;
+				}
+				if (bestValue > currentAlpha) {
+					currentAlpha = bestValue;
+				}
+			} else {
+				if (value < bestValue) {
+					bestValue = value;
+					bestCard = card;
+				}
+				if (bestValue < currentBeta) {
+					currentBeta = bestValue;
+				}
+			}
+
+			if (currentAlpha >= currentBeta) {
+				break;
+			}
+		}
+
+		if (trickSize == 0) {
+			int bound = EXACT;
+			if (bestValue <= alpha) {
+				bound = UPPER_BOUND;
+			} else if (bestValue >= beta) {
+				bound = LOWER_BOUND;
+			}
+			tableKeys[tableIndex] = key;
+			tableEntries[tableIndex] = bestValue | bound << 8 | bestCard << 10;
+		}
+
+		return bestValue;
+	}
+
+	private int playCard(final int player, final int card, final int alpha,
+			final int beta) {
+
+		hands[player] ^= 1 << card;
+		handKey ^= HAND_KEYS[player][card];
+		trickCards[trickSize++] = card;
+
+		int value;
+		if (trickSize < PLAYERS) {
+			value = search(alpha, beta);
+		} else {
+			value = finishTrick(alpha, beta);
+		}
+
+		trickSize--;
+		handKey ^= HAND_KEYS[player][card];
+		hands[player] ^= 1 << card;
+
+		return value;
+	}
+
+	private int finishTrick(final int alpha, final int beta) {
+
+		int firstCard = trickCards[0];
+		int secondCard = trickCards[1];
+		int thirdCard = trickCards[2];
+		int foreHand = trickForeHand;
+
+		int winner = getTrickWinner();
+		if (nullGame && winner == declarer) {
+			return NULL_GAME_LOST;
+		}
+
+		int points = 0;
+		if (!nullGame && winner == declarer) {
+			points = POINTS[firstCard] + POINTS[secondCard] + POINTS[thirdCard];
+		}
+
+		trickSize = 0;
+		trickForeHand = winner;
+		int value = points + search(alpha - points, beta - points);
+		trickForeHand = foreHand;
+		trickSize = PLAYERS;
+		trickCards[0] = firstCard;
+		trickCards[1] = secondCard;
+		trickCards[2] = thirdCard;
+
+		return value;
+	}
+
+	private int getTrickWinner() {
+
+		int winnerIndex = getWinnerIndex(trickSize);
+		return (trickForeHand + winnerIndex) % PLAYERS;
+	}
+
+	private int getWinnerIndex(final int cardCount) {
+
+		int winnerIndex = 0;
+		for (int i = 1; i < cardCount; i++) {
+			if ((beatingCards[trickCards[winnerIndex]] & 1 << trickCards[i]) != 0) {
+				winnerIndex = i;
+			}
+		}
+		return winnerIndex;
+	}
+
+	/**
+	 * Removes cards that lead to the same result as a card next to them
+	 * 
+	 * @param moves
+	 *            Mask of the allowed cards
+	 * @return Mask of the cards to be searched
+	 */
+	private int removeEquivalentCards(final int moves) {
+
+		int remainingCards = hands[0] | hands[1] | hands[2];
+		for (int i = 0; i < trickSize; i++) {
+			remainingCards |= 1 << trickCards[i];
+		}
+
+		int result = moves;
+		for (int[] rankOrder : rankOrders) {
+			int previousCard = NO_CARD;
+			for (int card : rankOrder) {
+				if ((remainingCards & 1 << card) == 0) {
+					// cards of finished tricks don't separate other cards
+					continue;
+				}
+				if (previousCard != NO_CARD && (moves & 1 << card) != 0
+						&& (moves & 1 << previousCard) != 0
+						&& (nullGame || POINTS[card] == POINTS[previousCard])) {
+					result &= ~(1 << previousCard);
+				}
+				previousCard = card;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Orders the moves, the card from the transposition table first, then
+	 * cards that are likely to be good
+	 */
+	private int orderMoves(final int player, final int moveMask,
+			final int tableCard, final int[] moves, final int[] scores) {
+
+		boolean winningSide = false;
+		int winningCard = NO_CARD;
+		if (trickSize > 0) {
+			int winnerIndex = getWinnerIndex(trickSize);
+			winningCard = trickCards[winnerIndex];
+			int winner = (trickForeHand + winnerIndex) % PLAYERS;
+			winningSide = (winner == declarer) == (player == declarer);
+		}
+
+		int moveCount = 0;
+		int remaining = moveMask;
+		while (remaining != CardSet.EMPTY) {
+			int card = Integer.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+
+			int score;
+			if (trickSize == 0) {
+				score = POINTS[card];
+			} else if (winningSide) {
+				// give points to the partner
+				score = POINTS[card];
+			} else if ((beatingCards[winningCard] & 1 << card) != 0) {
+				score = 100 + POINTS[card];
+			} else {
+				score = -POINTS[card];
+			}
+			if (nullGame && player == declarer && trickSize > 0) {
+				// the declarer tries to stay below the winning card
+				score = (beatingCards[winningCard] & 1 << card) == 0 ? 100 + card
+						: -card;
+			}
+			if (card == tableCard) {
+				score = Integer.MAX_VALUE;
+			}
+
+			// insertion sort, there are ten cards at most
+			int i = moveCount++;
+			while (i > 0 && scores[i - 1] < score) {
+				moves[i] = moves[i - 1];
+				scores[i] = scores[i - 1];
+				i--;
+			}
+			moves[i] = card;
+			scores[i] = score;
+		}
+		return moveCount;
+	}
+
+	private static int[][] calculateRankOrders(final GameType gameType) {
+
+		int[] classMasks = new int[Suit.values().length + 1];
+		int classCount = 0;
+		int trumps = CardSet.getTrumpMask(gameType);
+		if (trumps != CardSet.EMPTY) {
+			classMasks[classCount++] = trumps;
+		}
+		for (Suit suit : Suit.values()) {
+			int suitCards = CardSet.getSuitMask(gameType, suit);
+			if (suitCards != CardSet.EMPTY) {
+				classMasks[classCount++] = suitCards;
+			}
+		}
+
+		int[][] result = new int[classCount][];
+		for (int i = 0; i < classCount; i++) {
+			int classMask = classMasks[i];
+			int[] cards = new int[CardSet.size(classMask)];
+			int[] beaters = new int[cards.length];
+			int count = 0;
+			int remaining = classMask;
+			while (remaining != CardSet.EMPTY) {
+				int card = Integer.numberOfTrailingZeros(remaining);
+				remaining &= remaining - 1;
+				// weaker cards are beaten by more cards of their class
+				int beaterCount = CardSet.size(RuleTables.getBeatingCards(
+						gameType, CARDS[card]) & classMask);
+				int j = count++;
+				while (j > 0 && beaters[j - 1] < beaterCount) {
+					cards[j] = cards[j - 1];
+					beaters[j] = beaters[j - 1];
+					j--;
+				}
+				cards[j] = card;
+				beaters[j] = beaterCount;
+			}
+			result[i] = cards;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,195 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.solver;
+
+import java.util.Random;
+
+import org.jskat.ai.nn.DealSampler;
+import org.jskat.player.KnowledgeSnapshot;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+
+/**
+ * Chooses cards by perfect information Monte Carlo simulation<br>
+ * The unknown cards are dealt several times consistent with the knowledge of
+ * the player, every deal is solved by the {@link DoubleDummySolver} for every
+ * card the player can play. The card with the best sum over all deals is
+ * chosen.
+ */
+public class PerfectInformationSimulator {
+
+	private static final int LOCATIONS = 4;
+
+	private final DoubleDummySolver solver;
+	private final Random rand;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newRand
+	 *            Random generator for dealing the unknown cards
+	 */
+	public PerfectInformationSimulator(final Random newRand) {
+		this(new DoubleDummySolver(), newRand);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newSolver
+	 *            Solver for the single deals
+	 * @param newRand
+	 *            Random generator for dealing the unknown cards
+	 */
+	public PerfectInformationSimulator(final DoubleDummySolver newSolver,
+			final Random newRand) {
+		solver = newSolver;
+		rand = newRand;
+	}
+
+	/**
+	 * Gets the card with the best result over several deals
+	 * 
+	 * @param knowledge
+	 *            Player knowledge, the player has to be on turn
+	 * @param deals
+	 *            Number of deals to be solved
+	 * @return Best card or NULL if the game type can't be solved
+	 */
+	public Card getBestCard(final PlayerKnowledge knowledge, final int deals) {
+
+		return getBestCard(new KnowledgeSnapshot(knowledge), deals);
+	}
+
+	/**
+	 * Gets the card with the best result over several deals
+	 * 
+	 * @param knowledge
+	 *            Knowledge snapshot, the player has to be on turn
+	 * @param deals
+	 *            Number of deals to be solved
+	 * @return Best card or NULL if the game type can't be solved
+	 */
+	public Card getBestCard(final KnowledgeSnapshot knowledge, final int deals) {
+
+		long[] values = getCardValues(knowledge, deals);
+		if (values == null) {
+			return null;
+		}
+
+		boolean maximizing = knowledge.getPlayerPosition() == knowledge
+				.getDeclarer();
+		Card result = null;
+		long bestValue = 0L;
+		for (Card card : CardSet.toCardList(knowledge.getOwnCardMask())) {
+			long value = values[card.ordinal()];
+			if (value < 0) {
+				continue;
+			}
+			if (result == null || maximizing && value > bestValue
+					|| !maximizing && value < bestValue) {
+				result = card;
+				bestValue = value;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sums up the solved values of all playable cards over several deals
+	 * 
+	 * @param knowledge
+	 *            Player knowledge, the player has to be on turn
+	 * @param deals
+	 *            Number of deals to be solved
+	 * @return Summed declarer points (or won null games) after playing a card,
+	 *         indexed by card ordinal, -1 for cards that can't be played, NULL
+	 *         if the game type can't be solved
+	 */
+	public long[] getCardValues(final PlayerKnowledge knowledge,
+			final int deals) {
+
+		return getCardValues(new KnowledgeSnapshot(knowledge), deals);
+	}
+
+	/**
+	 * Sums up the solved values of all playable cards over several deals
+	 * 
+	 * @param knowledge
+	 *            Knowledge snapshot, the player has to be on turn
+	 * @param deals
+	 *            Number of deals to be solved
+	 * @return Summed declarer points (or won null games) after playing a card,
+	 *         indexed by card ordinal, -1 for cards that can't be played, NULL
+	 *         if the game type can't be solved
+	 */
+	public long[] getCardValues(final KnowledgeSnapshot knowledge,
+			final int deals) {
+
+		GameType gameType = knowledge.getGameType();
+		if (!DoubleDummySolver.isSupported(gameType)) {
+			return null;
+		}
+
+		Player position = knowledge.getPlayerPosition();
+
+		CardList trickCards = knowledge.getTrickCards();
+		Player trickForeHand = position;
+		if (trickCards.size() > 0) {
+			trickForeHand = knowledge.getTrickForeHand();
+		}
+
+		long[] result = new long[Card.values().length];
+		int ownCards = knowledge.getOwnCardMask();
+		int playableCards = knowledge.getPlayableCardMask();
+		for (int card = 0; card < result.length; card++) {
+			if ((playableCards & 1 << card) == 0) {
+				result[card] = -1L;
+			}
+		}
+
+		DealSampler sampler = new DealSampler(knowledge);
+		int[] distribution = new int[LOCATIONS];
+		int[] hands = new int[3];
+		for (int deal = 0; deal < deals; deal++) {
+
+			sampler.sample(rand, distribution);
+			for (Player player : Player.values()) {
+				hands[player.getOrder()] = distribution[player.getOrder()]
+						& ~knowledge.getPlayedCardMask(player);
+			}
+			hands[position.getOrder()] = ownCards;
+
+			int[] values = solver.solveCards(gameType,
+					knowledge.getDeclarer(), hands, trickForeHand, trickCards);
+			for (int card = 0; card < result.length; card++) {
+				if (result[card] >= 0) {
+					result[card] += values[card];
+				}
+			}
+		}
+
+		return result;
+	}
+}
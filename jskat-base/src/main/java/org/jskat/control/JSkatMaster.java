@@ -19,12 +19,12 @@
  */
 package org.jskat.control;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import org.jskat.ai.nn.data.SkatNetworks;
-import org.jskat.ai.nn.train.NNTrainer;
+import org.jskat.ai.nn.train.ParallelNNTrainer;
 import org.jskat.control.iss.IssController;
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.JSkatApplicationData;
@@ -61,7 +61,7 @@ public class JSkatMaster {
 	private JSkatView view;
 	private final IssController issControl;
 
-	private final List<NNTrainer> runningNNTrainers;
+	private ParallelNNTrainer runningNNTrainer;
 
 	/**
 	 * Gets the instance of the JSkat master controller
@@ -88,7 +88,6 @@ public class JSkatMaster {
 
 		issControl = new IssController(this);
 
-		runningNNTrainers = new ArrayList<NNTrainer>();
 	}
 
 	/**
@@ -424,41 +423,31 @@ public class JSkatMaster {
 
 		view.showTrainingOverview();
 
-		NNTrainer nullTrainer = new NNTrainer();
-		nullTrainer.setGameType(GameType.NULL);
-		nullTrainer.start();
-		runningNNTrainers.add(nullTrainer);
-		NNTrainer grandTrainer = new NNTrainer();
-		grandTrainer.setGameType(GameType.GRAND);
-		grandTrainer.start();
-		runningNNTrainers.add(grandTrainer);
-		NNTrainer clubsTrainer = new NNTrainer();
-		clubsTrainer.setGameType(GameType.CLUBS);
-		clubsTrainer.start();
-		runningNNTrainers.add(clubsTrainer);
-		NNTrainer spadesTrainer = new NNTrainer();
-		spadesTrainer.setGameType(GameType.SPADES);
-		spadesTrainer.start();
-		runningNNTrainers.add(spadesTrainer);
-		NNTrainer heartsTrainer = new NNTrainer();
-		heartsTrainer.setGameType(GameType.HEARTS);
-		heartsTrainer.start();
-		runningNNTrainers.add(heartsTrainer);
-		NNTrainer diamondsTrainer = new NNTrainer();
-		diamondsTrainer.setGameType(GameType.DIAMONDS);
-		diamondsTrainer.start();
-		runningNNTrainers.add(diamondsTrainer);
-		NNTrainer ramschTrainer = new NNTrainer();
-		ramschTrainer.setGameType(GameType.RAMSCH);
-		ramschTrainer.start();
-		runningNNTrainers.add(ramschTrainer);
+		if (runningNNTrainer == null) {
+			List<GameType> gameTypes = Arrays.asList(GameType.NULL,
+					GameType.GRAND, GameType.CLUBS, GameType.SPADES,
+					GameType.HEARTS, GameType.DIAMONDS, GameType.RAMSCH);
+			int tables = Math.max(1,
+					Runtime.getRuntime().availableProcessors() - 1);
+			runningNNTrainer = new ParallelNNTrainer(gameTypes, tables,
+					ParallelNNTrainer.DEFAULT_BATCH_SIZE, this);
+			runningNNTrainer.start();
+		}
 	}
 
+	/**
+	 * Stops the training of the neural networks
+	 */
 	public void stopTrainNeuralNetworks() {
-		for (NNTrainer trainer : runningNNTrainers) {
-			trainer.stopTraining(true);
+		if (runningNNTrainer != null) {
+			try {
+				runningNNTrainer.stopTraining();
+			} catch (InterruptedException e) {
+				log.warn("Stopping the training was interrupted."); //$NON-NLS-1$
+				Thread.currentThread().interrupt();
+			}
+			runningNNTrainer = null;
 		}
-		runningNNTrainers.clear();
 	}
 
 	/**
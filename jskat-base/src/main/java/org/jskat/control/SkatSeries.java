@@ -35,6 +35,7 @@ import org.jskat.util.CardDeck;
 import org.jskat.util.CardList;
 import org.jskat.util.GameVariant;
 import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +53,7 @@ public class SkatSeries extends JSkatThread {
 	private boolean onlyPlayRamsch = false;
 	private final Map<Player, JSkatPlayer> player;
 	private SkatGame currSkatGame;
+	private Random rand = new SkatRandom();
 
 	private JSkatView view;
 
@@ -70,6 +72,18 @@ public class SkatSeries extends JSkatThread {
 		player = new HashMap<Player, JSkatPlayer>();
 	}
 
+	/**
+	 * Sets the random generator for the seating and the deals of the series,
+	 * must be called before the players are set
+	 * 
+	 * @param newRand
+	 *            Random generator
+	 */
+	public void setRandom(final Random newRand) {
+
+		rand = newRand;
+	}
+
 	/**
 	 * Sets the skat players
 	 * 
@@ -93,7 +107,6 @@ public class SkatSeries extends JSkatThread {
 		// set players in random order
 		// simple Collection.shuffle doesn't work here, because the order of
 		// players should be the same like in start skat series dialog
-		Random rand = new Random();
 		int startPlayer = rand.nextInt(3);
 		player.put(Player.FOREHAND, newPlayer.get(startPlayer));
 		player.put(Player.MIDDLEHAND, newPlayer.get((startPlayer + 1) % 3));
@@ -180,6 +193,7 @@ public class SkatSeries extends JSkatThread {
 
 				currSkatGame.setView(view);
 				currSkatGame.setMaxSleep(maxSleep);
+				currSkatGame.setRandom(rand);
 
 				log.debug("Playing game " + (j + 1)); //$NON-NLS-1$
 
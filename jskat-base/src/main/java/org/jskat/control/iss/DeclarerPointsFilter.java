@@ -0,0 +1,99 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jskat.data.SkatGameData;
+
+/**
+ * Collects the games with final declarer points in a range, e.g. the close
+ * games with 61 to 64 points
+ */
+public class DeclarerPointsFilter implements IssGameAnalysis {
+
+	private final int minPoints;
+	private final int maxPoints;
+	private final SortedMap<Long, String> games = new TreeMap<Long, String>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newMinPoints
+	 *            Minimum declarer points
+	 * @param newMaxPoints
+	 *            Maximum declarer points
+	 */
+	public DeclarerPointsFilter(final int newMinPoints, final int newMaxPoints) {
+
+		minPoints = newMinPoints;
+		maxPoints = newMaxPoints;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IssGameAnalysis createPartial() {
+		return new DeclarerPointsFilter(minPoints, maxPoints);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void analyze(final long gameNo, final String gameSummary,
+			final SkatGameData gameData) {
+
+		int points = gameData.getGameResult().getFinalDeclarerPoints();
+		if (points >= minPoints && points <= maxPoints) {
+			games.put(Long.valueOf(gameNo), gameSummary);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void merge(final IssGameAnalysis partial) {
+
+		games.putAll(((DeclarerPointsFilter) partial).games);
+	}
+
+	/**
+	 * Gets the matching games
+	 * 
+	 * @return Game summaries by game number
+	 */
+	public SortedMap<Long, String> getGames() {
+		return games;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+
+		return "Games with " + minPoints + " to " + maxPoints //$NON-NLS-1$ //$NON-NLS-2$
+				+ " declarer points: " + games.size(); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import org.jskat.data.SkatGameData;
+import org.jskat.util.GameType;
+
+/**
+ * Histogram of the final declarer points of all played suit and grand games
+ */
+public class DeclarerPointsHistogram implements IssGameAnalysis {
+
+	private final long[] games = new long[121];
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IssGameAnalysis createPartial() {
+		return new DeclarerPointsHistogram();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void analyze(final long gameNo, final String gameSummary,
+			final SkatGameData gameData) {
+
+		GameType gameType = gameData.getGameType();
+		if (gameType == GameType.PASSED_IN || gameType == GameType.NULL
+				|| gameType == GameType.RAMSCH) {
+			return;
+		}
+		int points = gameData.getGameResult().getFinalDeclarerPoints();
+		if (points >= 0 && points < games.length) {
+			games[points]++;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void merge(final IssGameAnalysis partial) {
+
+		long[] partialGames = ((DeclarerPointsHistogram) partial).games;
+		for (int i = 0; i < games.length; i++) {
+			games[i] += partialGames[i];
+		}
+	}
+
+	/**
+	 * Gets the number of games with the given declarer points
+	 * 
+	 * @param points
+	 *            Declarer points from 0 to 120
+	 * @return Number of games
+	 */
+	public long getGames(final int points) {
+		return games[points];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder result = new StringBuilder("Declarer points:"); //$NON-NLS-1$
+		for (int points = 0; points < games.length; points += 10) {
+			long sum = 0;
+			for (int i = points; i < Math.min(points + 10, games.length); i++) {
+				sum += games[i];
+			}
+			result.append(String.format("%n%3d-%3d: %d", //$NON-NLS-1$
+					Integer.valueOf(points),
+					Integer.valueOf(Math.min(points + 9, games.length - 1)),
+					Long.valueOf(sum)));
+		}
+		return result.toString();
+	}
+}
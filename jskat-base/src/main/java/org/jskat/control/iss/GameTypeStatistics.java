@@ -0,0 +1,123 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import org.jskat.data.SkatGameData;
+import org.jskat.util.GameType;
+
+/**
+ * Number of games, won games and the average game value per game type
+ */
+public class GameTypeStatistics implements IssGameAnalysis {
+
+	private final long[] games = new long[GameType.values().length];
+	private final long[] wonGames = new long[GameType.values().length];
+	private final long[] gameValues = new long[GameType.values().length];
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IssGameAnalysis createPartial() {
+		return new GameTypeStatistics();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void analyze(final long gameNo, final String gameSummary,
+			final SkatGameData gameData) {
+
+		int index = gameData.getGameType().ordinal();
+		games[index]++;
+		if (gameData.getGameResult().isWon()) {
+			wonGames[index]++;
+		}
+		gameValues[index] += gameData.getGameResult().getGameValue();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void merge(final IssGameAnalysis partial) {
+
+		GameTypeStatistics other = (GameTypeStatistics) partial;
+		for (int i = 0; i < games.length; i++) {
+			games[i] += other.games[i];
+			wonGames[i] += other.wonGames[i];
+			gameValues[i] += other.gameValues[i];
+		}
+	}
+
+	/**
+	 * Gets the number of games of a game type
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Number of games
+	 */
+	public long getGames(final GameType gameType) {
+		return games[gameType.ordinal()];
+	}
+
+	/**
+	 * Gets the number of won games of a game type
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Number of won games
+	 */
+	public long getWonGames(final GameType gameType) {
+		return wonGames[gameType.ordinal()];
+	}
+
+	/**
+	 * Gets the average game value of a game type
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Average game value, lost games count negative
+	 */
+	public double getAverageGameValue(final GameType gameType) {
+
+		long gameCount = games[gameType.ordinal()];
+		return gameCount == 0 ? 0.0 : (double) gameValues[gameType.ordinal()]
+				/ gameCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder result = new StringBuilder("Game types:"); //$NON-NLS-1$
+		for (GameType gameType : GameType.values()) {
+			result.append(String.format(
+					"%n%-10s games: %d, won: %d, average value: %.1f", //$NON-NLS-1$
+					gameType, Long.valueOf(getGames(gameType)),
+					Long.valueOf(getWonGames(gameType)),
+					Double.valueOf(getAverageGameValue(gameType))));
+		}
+		return result.toString();
+	}
+}
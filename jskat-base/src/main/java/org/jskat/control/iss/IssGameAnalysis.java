@@ -0,0 +1,58 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import org.jskat.data.SkatGameData;
+
+/**
+ * Filter or aggregation over the games of an ISS game database, see
+ * {@link IssGameExtractor}<br>
+ * Instances don't need to be thread safe: every worker fills its own partial
+ * analysis which is merged into the result afterwards.
+ */
+public interface IssGameAnalysis {
+
+	/**
+	 * Creates an empty analysis of the same kind for a worker
+	 * 
+	 * @return Empty analysis
+	 */
+	IssGameAnalysis createPartial();
+
+	/**
+	 * Analyzes a game
+	 * 
+	 * @param gameNo
+	 *            Number of the game in the database, starting with 1
+	 * @param gameSummary
+	 *            Game summary as found in the database
+	 * @param gameData
+	 *            Parsed game
+	 */
+	void analyze(long gameNo, String gameSummary, SkatGameData gameData);
+
+	/**
+	 * Merges a partial analysis that was created by {@link #createPartial()}
+	 * 
+	 * @param partial
+	 *            Partial analysis
+	 */
+	void merge(IssGameAnalysis partial);
+}
@@ -20,10 +20,17 @@
 package org.jskat.control.iss;
 
 import java.io.BufferedReader;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.PropertyConfigurator;
 import org.jskat.data.SkatGameData;
@@ -32,69 +39,242 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class helps in finding interesting games from the game library provided
- * by the ISS team.
+ * by the ISS team.<br>
+ * The library is read in chunks of lines that are parsed on a pool of worker
+ * threads, every chunk is analyzed by partial {@link IssGameAnalysis}
+ * instances that are merged into the results.<br>
+ * Usage: IssGameExtractor [-threads &lt;count&gt;] &lt;ISS game file&gt;
  */
 public class IssGameExtractor {
 	/**
 	 * Logger.
 	 */
 	private static Logger log = LoggerFactory.getLogger(IssGameExtractor.class);
+
 	/**
-	 * Path to the file with the game informations.
+	 * Number of lines parsed by one task
 	 */
-	private static String filePath;
+	static final int CHUNK_SIZE = 1000;
+
+	private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+	private final int threadCount;
+	private final List<IssGameAnalysis> analyses;
+
+	private final AtomicLong parsedGames = new AtomicLong();
+	private final AtomicLong failedGames = new AtomicLong();
 
+	/**
+	 * Main method
+	 * 
+	 * @param args
+	 *            Command line arguments
+	 * @throws Exception
+	 *             If the game file can't be read
+	 */
 	public static void main(final String args[]) throws Exception {
 
+		int threads = Runtime.getRuntime().availableProcessors();
+		int argIndex = 0;
+		if (args.length == 3 && "-threads".equals(args[0])) { //$NON-NLS-1$
+			threads = Integer.parseInt(args[1]);
+			argIndex = 2;
+		}
+		if (args.length != argIndex + 1) {
+			System.err
+					.println("Usage: IssGameExtractor [-threads <count>] <ISS game file>"); //$NON-NLS-1$
+			System.exit(1);
+		}
+
 		PropertyConfigurator.configure(ClassLoader
 				.getSystemResource("org/jskat/config/log4j.properties")); //$NON-NLS-1$
-		IssGameExtractor gameExtractor = new IssGameExtractor();
-		gameExtractor
-				.setFilePath("/home/jan/Projekte/jskat/iss/issgames-1-2012.sgf"); //$NON-NLS-1$
 
-		filterGameDatabase();
+		DeclarerPointsFilter closeGames = new DeclarerPointsFilter(61, 64);
+		GameTypeStatistics gameTypes = new GameTypeStatistics();
+		DeclarerPointsHistogram histogram = new DeclarerPointsHistogram();
+
+		IssGameExtractor gameExtractor = new IssGameExtractor(threads,
+				closeGames, gameTypes, histogram);
+		long start = System.nanoTime();
+		gameExtractor.extract(new File(args[argIndex]));
+		double seconds = (System.nanoTime() - start) / 1000000000.0;
+
+		System.out.println(gameTypes);
+		System.out.println(histogram);
+		System.out.println(closeGames);
+		System.out.println(String.format(
+				"Parsed %d games, %d failed, %.1f s", //$NON-NLS-1$
+				Long.valueOf(gameExtractor.getParsedGames()),
+				Long.valueOf(gameExtractor.getFailedGames()),
+				Double.valueOf(seconds)));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newThreadCount
+	 *            Number of worker threads
+	 * @param newAnalyses
+	 *            Analyses that get all games
+	 */
+	public IssGameExtractor(final int newThreadCount,
+			final IssGameAnalysis... newAnalyses) {
+
+		if (newThreadCount < 1) {
+			throw new IllegalArgumentException(
+					"Thread count must be positive."); //$NON-NLS-1$
+		}
+		threadCount = newThreadCount;
+		analyses = Arrays.asList(newAnalyses);
 	}
 
-	private static void filterGameDatabase() throws Exception {
-		FileInputStream inputStream = new FileInputStream(new File(filePath));
-		DataInputStream in = new DataInputStream(inputStream);
-		BufferedReader br = new BufferedReader(new InputStreamReader(in));
-		String strLine;
-
-		long gameNo = 1;
-
-		// Read File Line By Line
-		while ((strLine = br.readLine()) != null) {
-			try {
-				SkatGameData gameData = MessageParser.parseGameSummary(strLine);
-				int declarerPoints = gameData.getGameResult()
-						.getFinalDeclarerPoints();
-				if (declarerPoints > 60 && declarerPoints < 65) {
-					log.warn("Game no. " + gameNo + ": " + strLine); //$NON-NLS-1$//$NON-NLS-2$
-					// log.debug("Game type: " + gameData.getGameType());
+	/**
+	 * Analyzes all games of a game database file
+	 * 
+	 * @param file
+	 *            Game database with one game summary per line
+	 * @throws IOException
+	 *             If the file can't be read
+	 * @throws InterruptedException
+	 *             If the extraction was interrupted
+	 */
+	public void extract(final File file) throws IOException,
+			InterruptedException {
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), "UTF-8")); //$NON-NLS-1$
+		try {
+			extract(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Analyzes all games of a reader
+	 * 
+	 * @param in
+	 *            Reader with one game summary per line
+	 * @throws IOException
+	 *             If the reader fails
+	 * @throws InterruptedException
+	 *             If the extraction was interrupted
+	 */
+	public void extract(final BufferedReader in) throws IOException,
+			InterruptedException {
+
+		// the bounded queue lets the reading thread parse a chunk itself when
+		// the workers are busy, so the chunks in memory are limited
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount,
+				threadCount, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(2 * threadCount),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		try {
+			long gameNo = 1;
+			long nextProgress = System.nanoTime() + PROGRESS_INTERVAL;
+			List<String> lines = new ArrayList<String>(CHUNK_SIZE);
+			String line;
+			while ((line = in.readLine()) != null) {
+				lines.add(line);
+				if (lines.size() == CHUNK_SIZE) {
+					executor.execute(new ChunkTask(gameNo, lines));
+					gameNo += lines.size();
+					lines = new ArrayList<String>(CHUNK_SIZE);
+				}
+				if (System.nanoTime() - nextProgress > 0) {
+					reportProgress();
+					nextProgress = System.nanoTime() + PROGRESS_INTERVAL;
 				}
-			} catch (Exception except) {
-				log.error("Failed reading game no. " + gameNo + ": " + strLine); //$NON-NLS-1$ //$NON-NLS-2$
-				log.error(except.toString());
 			}
-
-			if (gameNo % 10000 == 0) {
-				log.error("Read " + gameNo + " games."); //$NON-NLS-1$//$NON-NLS-2$
+			if (!lines.isEmpty()) {
+				executor.execute(new ChunkTask(gameNo, lines));
 			}
 
-			gameNo++;
+			executor.shutdown();
+			while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+				reportProgress();
+			}
+		} finally {
+			executor.shutdownNow();
 		}
-		// Close the input stream
-		in.close();
+		reportProgress();
+	}
+
+	private void reportProgress() {
+
+		log.info("Parsed " + parsedGames.get() + " games, " //$NON-NLS-1$ //$NON-NLS-2$
+				+ failedGames.get() + " failed."); //$NON-NLS-1$
 	}
 
 	/**
-	 * Sets the path to the game database.
+	 * Gets the number of parsed games
 	 * 
-	 * @param newFilePath
-	 *            File path
+	 * @return Number of parsed games
+	 */
+	public long getParsedGames() {
+		return parsedGames.get();
+	}
+
+	/**
+	 * Gets the number of games that could not be parsed
+	 * 
+	 * @return Number of failed games
+	 */
+	public long getFailedGames() {
+		return failedGames.get();
+	}
+
+	/**
+	 * Parses and analyzes a chunk of lines
 	 */
-	public static void setFilePath(final String newFilePath) {
-		filePath = newFilePath;
+	private class ChunkTask implements Runnable {
+
+		private final long firstGameNo;
+		private final List<String> lines;
+
+		ChunkTask(final long newFirstGameNo, final List<String> newLines) {
+			firstGameNo = newFirstGameNo;
+			lines = newLines;
+		}
+
+		@Override
+		public void run() {
+
+			List<IssGameAnalysis> partials = new ArrayList<IssGameAnalysis>();
+			for (IssGameAnalysis analysis : analyses) {
+				partials.add(analysis.createPartial());
+			}
+
+			long parsed = 0;
+			long failed = 0;
+			for (int i = 0; i < lines.size(); i++) {
+				long gameNo = firstGameNo + i;
+				String gameSummary = lines.get(i);
+				if (gameSummary.trim().length() == 0) {
+					continue;
+				}
+				try {
+					SkatGameData gameData = MessageParser
+							.parseGameSummary(gameSummary);
+					for (IssGameAnalysis partial : partials) {
+						partial.analyze(gameNo, gameSummary, gameData);
+					}
+					parsed++;
+				} catch (Exception except) {
+					log.error("Failed reading game no. " + gameNo + ": " + gameSummary); //$NON-NLS-1$ //$NON-NLS-2$
+					log.error(except.toString());
+					failed++;
+				}
+			}
+
+			for (int i = 0; i < analyses.size(); i++) {
+				IssGameAnalysis analysis = analyses.get(i);
+				synchronized (analysis) {
+					analysis.merge(partials.get(i));
+				}
+			}
+			parsedGames.addAndGet(parsed);
+			failedGames.addAndGet(failed);
+		}
 	}
 }
@@ -0,0 +1,155 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.apache.log4j.PropertyConfigurator;
+import org.jskat.data.SkatGameData;
+import org.jskat.data.record.GameRecord;
+import org.jskat.data.record.GameRecordWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts the game library provided by the ISS team into a binary game record
+ * file, see {@link GameRecord}<br>
+ * Usage: IssGameRecordConverter &lt;ISS game file&gt; &lt;record file&gt;
+ */
+public class IssGameRecordConverter {
+
+	private static Logger log = LoggerFactory
+			.getLogger(IssGameRecordConverter.class);
+
+	private long convertedGames;
+	private long failedGames;
+
+	/**
+	 * Main method
+	 * 
+	 * @param args
+	 *            ISS game file and record file
+	 * @throws IOException
+	 *             If a file can't be read or written
+	 */
+	public static void main(final String[] args) throws IOException {
+
+		if (args.length != 2) {
+			System.err
+					.println("Usage: IssGameRecordConverter <ISS game file> <record file>"); //$NON-NLS-1$
+			System.exit(1);
+		}
+
+		PropertyConfigurator.configure(ClassLoader
+				.getSystemResource("org/jskat/config/log4j.properties")); //$NON-NLS-1$
+
+		IssGameRecordConverter converter = new IssGameRecordConverter();
+		BufferedReader in = new BufferedReader(new InputStreamReader(
+				new FileInputStream(new File(args[0])), "UTF-8")); //$NON-NLS-1$
+		try {
+			GameRecordWriter out = new GameRecordWriter(new File(args[1]));
+			try {
+				converter.convert(in, out);
+			} finally {
+				out.close();
+			}
+		} finally {
+			in.close();
+		}
+
+		System.out.println("Converted games: " + converter.getConvertedGames() //$NON-NLS-1$
+				+ ", failed games: " + converter.getFailedGames()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Converts all games of a reader, games that can't be parsed are skipped
+	 * 
+	 * @param in
+	 *            Reader with one ISS game summary per line
+	 * @param out
+	 *            Writer for the game records
+	 * @throws IOException
+	 *             If reading or writing fails
+	 */
+	public void convert(final BufferedReader in, final GameRecordWriter out)
+			throws IOException {
+
+		GameRecord record = new GameRecord();
+		String line;
+		long lineNo = 0;
+		while ((line = in.readLine()) != null) {
+			lineNo++;
+			if (line.trim().length() == 0) {
+				continue;
+			}
+			if (convert(line, record)) {
+				out.write(record);
+				convertedGames++;
+			} else {
+				log.warn("Failed converting game in line " + lineNo); //$NON-NLS-1$
+				failedGames++;
+			}
+		}
+	}
+
+	/**
+	 * Converts a single ISS game summary
+	 * 
+	 * @param gameSummary
+	 *            ISS game summary
+	 * @param record
+	 *            Record that is overwritten with the game
+	 * @return TRUE if the game could be converted
+	 */
+	public static boolean convert(final String gameSummary,
+			final GameRecord record) {
+
+		try {
+			SkatGameData gameData = MessageParser.parseGameSummary(gameSummary);
+			record.setGameData(gameData);
+			return true;
+		} catch (RuntimeException e) {
+			log.debug("Invalid game: " + gameSummary, e); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the number of converted games
+	 * 
+	 * @return Number of converted games
+	 */
+	public long getConvertedGames() {
+		return convertedGames;
+	}
+
+	/**
+	 * Gets the number of games that could not be converted
+	 * 
+	 * @return Number of failed games
+	 */
+	public long getFailedGames() {
+		return failedGames;
+	}
+}
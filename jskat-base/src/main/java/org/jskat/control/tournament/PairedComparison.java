@@ -0,0 +1,100 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import org.jskat.util.Confidence;
+
+/**
+ * Paired comparison of two player types over the same deals<br>
+ * For every deal the difference of the average scores of both players is
+ * added, so the card luck of the deal cancels out.
+ */
+public class PairedComparison {
+
+	private long deals;
+	private double differenceSum;
+	private double differenceSquareSum;
+
+	/**
+	 * Adds the score difference of one deal
+	 * 
+	 * @param difference
+	 *            Average score of the first player minus average score of the
+	 *            second player
+	 */
+	public void addDeal(final double difference) {
+
+		deals++;
+		differenceSum += difference;
+		differenceSquareSum += difference * difference;
+	}
+
+	/**
+	 * Adds the comparison of another worker
+	 * 
+	 * @param other
+	 *            Other comparison
+	 */
+	public void merge(final PairedComparison other) {
+
+		deals += other.deals;
+		differenceSum += other.differenceSum;
+		differenceSquareSum += other.differenceSquareSum;
+	}
+
+	/**
+	 * Gets the number of compared deals
+	 * 
+	 * @return Number of deals
+	 */
+	public long getDeals() {
+		return deals;
+	}
+
+	/**
+	 * Gets the average score difference per game
+	 * 
+	 * @return Average difference
+	 */
+	public double getAverageDifference() {
+
+		if (deals == 0) {
+			return 0.0;
+		}
+		return differenceSum / deals;
+	}
+
+	/**
+	 * Gets the half width of the 95% confidence interval of the average
+	 * difference
+	 * 
+	 * @return Half width of the confidence interval
+	 */
+	public double getAverageDifferenceConfidence() {
+
+		if (deals < 2) {
+			return 0.0;
+		}
+		double average = getAverageDifference();
+		double variance = (differenceSquareSum - deals * average * average)
+				/ (deals - 1);
+		return Confidence.Z_95 * Math.sqrt(Math.max(0.0, variance) / deals);
+	}
+}
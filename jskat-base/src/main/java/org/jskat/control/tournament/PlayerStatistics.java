@@ -0,0 +1,176 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import org.jskat.util.Confidence;
+
+/**
+ * Results of one player type in a tournament<br>
+ * Instances are not thread safe, every worker collects its own statistics
+ * that are merged at the end.
+ */
+public class PlayerStatistics {
+
+	private long games;
+	private long declarerGames;
+	private long wonGames;
+	private long scoreSum;
+	private double scoreSquareSum;
+
+	/**
+	 * Adds a game the player took part in
+	 * 
+	 * @param declarer
+	 *            TRUE, if the player was declarer
+	 * @param won
+	 *            TRUE, if the player won the game as declarer
+	 * @param score
+	 *            Score of the player, the game value for the declarer and 0
+	 *            for the opponents
+	 */
+	public void addGame(final boolean declarer, final boolean won,
+			final int score) {
+
+		games++;
+		if (declarer) {
+			declarerGames++;
+			if (won) {
+				wonGames++;
+			}
+		}
+		scoreSum += score;
+		scoreSquareSum += (double) score * score;
+	}
+
+	/**
+	 * Adds the statistics of another worker
+	 * 
+	 * @param other
+	 *            Other statistics
+	 */
+	public void merge(final PlayerStatistics other) {
+
+		games += other.games;
+		declarerGames += other.declarerGames;
+		wonGames += other.wonGames;
+		scoreSum += other.scoreSum;
+		scoreSquareSum += other.scoreSquareSum;
+	}
+
+	/**
+	 * Gets the number of games
+	 * 
+	 * @return Number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the number of games as declarer
+	 * 
+	 * @return Number of games as declarer
+	 */
+	public long getDeclarerGames() {
+		return declarerGames;
+	}
+
+	/**
+	 * Gets the number of games won as declarer
+	 * 
+	 * @return Number of won games
+	 */
+	public long getWonGames() {
+		return wonGames;
+	}
+
+	/**
+	 * Gets the rate of won games as declarer
+	 * 
+	 * @return Win rate between 0.0 and 1.0
+	 */
+	public double getWinRate() {
+
+		if (declarerGames == 0) {
+			return 0.0;
+		}
+		return (double) wonGames / declarerGames;
+	}
+
+	/**
+	 * Gets the lower bound of the 95% confidence interval of the win rate
+	 * 
+	 * @return Lower bound of the Wilson score interval
+	 */
+	public double getWinRateLowerBound() {
+		return Confidence.getWilsonLowerBound(wonGames, declarerGames);
+	}
+
+	/**
+	 * Gets the upper bound of the 95% confidence interval of the win rate
+	 * 
+	 * @return Upper bound of the Wilson score interval
+	 */
+	public double getWinRateUpperBound() {
+		return Confidence.getWilsonUpperBound(wonGames, declarerGames);
+	}
+
+	/**
+	 * Gets the average score per game
+	 * 
+	 * @return Average score
+	 */
+	public double getAverageScore() {
+
+		if (games == 0) {
+			return 0.0;
+		}
+		return (double) scoreSum / games;
+	}
+
+	/**
+	 * Gets the half width of the 95% confidence interval of the average score
+	 * 
+	 * @return Half width of the confidence interval
+	 */
+	public double getAverageScoreConfidence() {
+
+		if (games < 2) {
+			return 0.0;
+		}
+		double average = getAverageScore();
+		double variance = (scoreSquareSum - games * average * average)
+				/ (games - 1);
+		return Confidence.Z_95 * Math.sqrt(Math.max(0.0, variance) / games);
+	}
+
+	/**
+	 * Gets the average game value of the games as declarer
+	 * 
+	 * @return Average game value
+	 */
+	public double getAverageDeclarerGameValue() {
+
+		if (declarerGames == 0) {
+			return 0.0;
+		}
+		return (double) scoreSum / declarerGames;
+	}
+}
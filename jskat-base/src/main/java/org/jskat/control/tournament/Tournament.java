@@ -0,0 +1,358 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jskat.control.SkatGameEngine;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.player.AbstractJSkatPlayer;
+import org.jskat.util.CardDeck;
+import org.jskat.util.GameType;
+import org.jskat.util.GameVariant;
+import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Plays AI players against each other without GUI on several threads<br>
+ * Every deal is played with several seat line-ups, see {@link DealMode}. After
+ * every deal the average scores of all players in this deal are compared
+ * pairwise.
+ */
+public class Tournament {
+
+	/**
+	 * Line-ups a deal is played with
+	 */
+	public enum DealMode {
+		/**
+		 * The seats are taken by the players in the given order, if less than
+		 * three players are given the list is repeated. The deal is played
+		 * once for every rotation of the seats.
+		 */
+		ROTATION,
+		/**
+		 * The deal is played with every distinct line-up that seats every
+		 * player at least once, e.g. all six permutations of three players.
+		 * Every player gets every hand equally often.
+		 */
+		DUPLICATE
+	}
+
+	private static Logger log = LoggerFactory.getLogger(Tournament.class);
+
+	private static final long PROGRESS_INTERVAL = 10;
+
+	private final List<String> players = new ArrayList<String>();
+	private final List<String[]> lineUps;
+	private final long deals;
+	private final int threadCount;
+	private long seed = new SkatRandom().nextLong();
+
+	private final AtomicLong nextDeal = new AtomicLong();
+	private final AtomicLong playedGames = new AtomicLong();
+
+	/**
+	 * Constructor for a tournament with seat rotations
+	 * 
+	 * @param playerClasses
+	 *            Class names of the players
+	 * @param newDeals
+	 *            Number of deals, every deal is played three times
+	 * @param newThreadCount
+	 *            Number of threads
+	 */
+	public Tournament(final List<String> playerClasses, final long newDeals,
+			final int newThreadCount) {
+
+		this(playerClasses, newDeals, newThreadCount, DealMode.ROTATION);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param playerClasses
+	 *            Class names of the players
+	 * @param newDeals
+	 *            Number of deals
+	 * @param newThreadCount
+	 *            Number of threads
+	 * @param dealMode
+	 *            Line-ups every deal is played with
+	 */
+	public Tournament(final List<String> playerClasses, final long newDeals,
+			final int newThreadCount, final DealMode dealMode) {
+
+		if (playerClasses.isEmpty() || playerClasses.size() > 3) {
+			throw new IllegalArgumentException(
+					"A tournament needs one to three players."); //$NON-NLS-1$
+		}
+		if (newDeals < 1 || newThreadCount < 1) {
+			throw new IllegalArgumentException(
+					"Deals and thread count must be positive."); //$NON-NLS-1$
+		}
+
+		for (String playerClass : playerClasses) {
+			if (!players.contains(playerClass)) {
+				players.add(playerClass);
+			}
+		}
+		if (dealMode == DealMode.DUPLICATE) {
+			lineUps = createPermutations(players);
+		} else {
+			lineUps = createRotations(playerClasses);
+		}
+		deals = newDeals;
+		threadCount = newThreadCount;
+	}
+
+	/**
+	 * Creates the three rotations of the seats
+	 * 
+	 * @param playerClasses
+	 *            Players in seat order, repeated if less than three
+	 * @return Line-ups
+	 */
+	static List<String[]> createRotations(final List<String> playerClasses) {
+
+		List<String[]> result = new ArrayList<String[]>();
+		for (int rotation = 0; rotation < 3; rotation++) {
+			String[] lineUp = new String[3];
+			for (int seat = 0; seat < 3; seat++) {
+				lineUp[seat] = playerClasses.get((seat + rotation) % 3
+						% playerClasses.size());
+			}
+			result.add(lineUp);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates all line-ups that seat every player at least once
+	 * 
+	 * @param playerClasses
+	 *            Distinct players
+	 * @return Line-ups
+	 */
+	static List<String[]> createPermutations(final List<String> playerClasses) {
+
+		List<String[]> result = new ArrayList<String[]>();
+		for (String player1 : playerClasses) {
+			for (String player2 : playerClasses) {
+				for (String player3 : playerClasses) {
+					List<String> lineUp = Arrays.asList(player1, player2,
+							player3);
+					if (lineUp.containsAll(playerClasses)) {
+						result.add(lineUp.toArray(new String[3]));
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the seed of the tournament<br>
+	 * Every deal and every decision of the players in this deal is taken from
+	 * a random generator that only depends on the seed and the deal number,
+	 * so a tournament with the same seed gives the same games regardless of
+	 * the number of threads
+	 * 
+	 * @param newSeed
+	 *            Seed
+	 */
+	public void setSeed(final long newSeed) {
+		seed = newSeed;
+	}
+
+	/**
+	 * Gets the seed of the tournament
+	 * 
+	 * @return Seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Plays all games
+	 * 
+	 * @return Statistics of all players
+	 * @throws InterruptedException
+	 *             If the tournament was interrupted
+	 */
+	public TournamentStatistics play() throws InterruptedException {
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		List<Future<TournamentStatistics>> results = new ArrayList<Future<TournamentStatistics>>();
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				results.add(executor.submit(new Worker()));
+			}
+			executor.shutdown();
+
+			while (!executor.awaitTermination(PROGRESS_INTERVAL,
+					TimeUnit.SECONDS)) {
+				log.info("Played games: " + playedGames.get() + " of " //$NON-NLS-1$ //$NON-NLS-2$
+						+ deals * lineUps.size());
+			}
+
+			TournamentStatistics result = new TournamentStatistics();
+			for (String playerClass : players) {
+				result.getPlayerStatistics(playerClass);
+			}
+			for (Future<TournamentStatistics> future : results) {
+				result.merge(future.get());
+			}
+			return result;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Tournament failed.", e.getCause()); //$NON-NLS-1$
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the number of games played so far
+	 * 
+	 * @return Number of played games
+	 */
+	public long getPlayedGames() {
+		return playedGames.get();
+	}
+
+	/**
+	 * Plays deals until all deals are taken, with one table for every line-up
+	 */
+	private class Worker implements Callable<TournamentStatistics> {
+
+		private final TournamentStatistics statistics = new TournamentStatistics();
+		private final SkatGameEngine[] engines = new SkatGameEngine[lineUps
+				.size()];
+		private final AbstractJSkatPlayer[][] tablePlayers = new AbstractJSkatPlayer[lineUps
+				.size()][3];
+		private final double[] dealScores = new double[players.size()];
+		private final int[] dealSeats = new int[players.size()];
+
+		@Override
+		public TournamentStatistics call() throws Exception {
+
+			for (int table = 0; table < engines.length; table++) {
+				String[] lineUp = lineUps.get(table);
+				for (int seat = 0; seat < 3; seat++) {
+					tablePlayers[table][seat] = createPlayer(lineUp[seat]);
+				}
+				engines[table] = new SkatGameEngine(
+						"tournament table " + table, GameVariant.STANDARD, //$NON-NLS-1$
+						tablePlayers[table][0], tablePlayers[table][1],
+						tablePlayers[table][2]);
+				engines[table].setLogger(NOPLogger.NOP_LOGGER);
+				engines[table].setMaxSleep(0);
+			}
+
+			long deal;
+			while ((deal = nextDeal.getAndIncrement()) < deals) {
+				SkatRandom rand = SkatRandom.forIndex(seed, deal);
+				CardDeck deck = new CardDeck();
+				deck.shuffle(rand);
+
+				Arrays.fill(dealScores, 0.0);
+				Arrays.fill(dealSeats, 0);
+				for (int table = 0; table < engines.length; table++) {
+					for (AbstractJSkatPlayer player : tablePlayers[table]) {
+						player.setRandom(rand.split());
+					}
+					// the deck is emptied while dealing
+					playGame(engines[table], new CardDeck(deck),
+							lineUps.get(table));
+				}
+				addDealComparisons();
+			}
+
+			return statistics;
+		}
+
+		private void addDealComparisons() {
+
+			for (int i = 0; i < players.size(); i++) {
+				for (int j = i + 1; j < players.size(); j++) {
+					statistics.getComparison(players.get(i), players.get(j))
+							.addDeal(
+									dealScores[i] / dealSeats[i]
+											- dealScores[j] / dealSeats[j]);
+				}
+			}
+		}
+
+		private void playGame(final SkatGameEngine engine, final CardDeck deck,
+				final String[] lineUp) {
+
+			engine.newGame();
+			engine.setCardDeck(deck);
+			engine.run();
+
+			GameAnnouncement announcement = engine.getGameAnnouncement();
+			boolean passedIn = announcement == null
+					|| announcement.getGameType() == GameType.PASSED_IN;
+			statistics.addGame(passedIn);
+
+			Player declarer = engine.getDeclarer();
+			boolean won = !passedIn && engine.isGameWon();
+			int gameValue = passedIn ? 0 : engine.getGameResult()
+					.getGameValue();
+
+			for (Player seat : Player.values()) {
+				boolean isDeclarer = !passedIn && seat == declarer;
+				int score = isDeclarer ? gameValue : 0;
+				String playerClass = lineUp[seat.getOrder()];
+				statistics.getPlayerStatistics(playerClass).addGame(isDeclarer,
+						won, score);
+
+				int playerIndex = players.indexOf(playerClass);
+				dealScores[playerIndex] += score;
+				dealSeats[playerIndex]++;
+			}
+
+			playedGames.incrementAndGet();
+		}
+
+		private AbstractJSkatPlayer createPlayer(final String playerClass)
+				throws Exception {
+
+			AbstractJSkatPlayer player = (AbstractJSkatPlayer) Class.forName(
+					playerClass).newInstance();
+			player.setPlayerName(playerClass);
+			player.setLogger(NOPLogger.NOP_LOGGER);
+			return player;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.PropertyConfigurator;
+import org.jskat.control.tournament.Tournament.DealMode;
+import org.jskat.data.DesktopSavePathResolver;
+import org.jskat.data.JSkatOptions;
+import org.jskat.player.JSkatPlayerResolver;
+
+/**
+ * Runs a tournament from the command line<br>
+ * Usage: TournamentRunner [-threads &lt;count&gt;] [-duplicate] [-seed
+ * &lt;seed&gt;] &lt;deals&gt; &lt;player&gt; [&lt;player&gt; [&lt;player&gt;]]<br>
+ * Players are given by their class names with or without package names,
+ * e.g. AIPlayerNN. With -duplicate every deal is played with all player
+ * permutations instead of the seat rotations. A tournament is repeated
+ * exactly with the seed it printed.
+ */
+public class TournamentRunner {
+
+	private static final String USAGE = "Usage: TournamentRunner [-threads <count>] [-duplicate] [-seed <seed>] <deals> <player> [<player> [<player>]]"; //$NON-NLS-1$
+
+	/**
+	 * Main method
+	 * 
+	 * @param args
+	 *            Command line arguments
+	 * @throws InterruptedException
+	 *             If the tournament was interrupted
+	 */
+	public static void main(final String[] args) throws InterruptedException {
+
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+		DealMode dealMode = DealMode.ROTATION;
+		Long seed = null;
+		int argIndex = 0;
+		while (argIndex < args.length && args[argIndex].startsWith("-")) { //$NON-NLS-1$
+			if ("-threads".equals(args[argIndex]) && argIndex + 1 < args.length) { //$NON-NLS-1$
+				threads = Integer.parseInt(args[argIndex + 1]);
+				argIndex += 2;
+			} else if ("-duplicate".equals(args[argIndex])) { //$NON-NLS-1$
+				dealMode = DealMode.DUPLICATE;
+				argIndex++;
+			} else if ("-seed".equals(args[argIndex]) && argIndex + 1 < args.length) { //$NON-NLS-1$
+				seed = Long.valueOf(args[argIndex + 1]);
+				argIndex += 2;
+			} else {
+				System.err.println(USAGE);
+				System.exit(1);
+			}
+		}
+
+		if (args.length - argIndex < 2) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+
+		long deals = Long.parseLong(args[argIndex++]);
+		List<String> players = new ArrayList<String>();
+		while (argIndex < args.length) {
+			players.add(JSkatPlayerResolver
+					.resolvePlayerClass(args[argIndex++]));
+		}
+
+		PropertyConfigurator.configure(ClassLoader
+				.getSystemResource("org/jskat/config/log4j.properties")); //$NON-NLS-1$
+		JSkatOptions.instance(new DesktopSavePathResolver());
+
+		Tournament tournament = new Tournament(players, deals, threads,
+				dealMode);
+		if (seed != null) {
+			tournament.setSeed(seed.longValue());
+		}
+		System.out.println("Seed: " + tournament.getSeed()); //$NON-NLS-1$
+		long start = System.nanoTime();
+		TournamentStatistics statistics = tournament.play();
+		double seconds = (System.nanoTime() - start) / 1000000000.0;
+
+		System.out.println(statistics);
+		System.out.println(String.format("%.1f s, %.1f games/s", seconds, //$NON-NLS-1$
+				statistics.getGames() / seconds));
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Results of a tournament for all player types<br>
+ * Instances are not thread safe, every worker collects its own statistics
+ * that are merged at the end.
+ */
+public class TournamentStatistics {
+
+	private final Map<String, PlayerStatistics> playerStatistics = new LinkedHashMap<String, PlayerStatistics>();
+	private final Map<List<String>, PairedComparison> comparisons = new LinkedHashMap<List<String>, PairedComparison>();
+	private long games;
+	private long passedInGames;
+
+	/**
+	 * Gets the statistics of a player type
+	 * 
+	 * @param playerClass
+	 *            Class name of the player
+	 * @return Player statistics
+	 */
+	public PlayerStatistics getPlayerStatistics(final String playerClass) {
+
+		PlayerStatistics result = playerStatistics.get(playerClass);
+		if (result == null) {
+			result = new PlayerStatistics();
+			playerStatistics.put(playerClass, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the statistics of all player types
+	 * 
+	 * @return Player statistics by class name
+	 */
+	public Map<String, PlayerStatistics> getAllPlayerStatistics() {
+		return playerStatistics;
+	}
+
+	/**
+	 * Gets the paired comparison of two player types
+	 * 
+	 * @param playerClass
+	 *            Class name of the first player
+	 * @param otherPlayerClass
+	 *            Class name of the second player
+	 * @return Paired comparison, the differences are scores of the first
+	 *         player minus scores of the second player
+	 */
+	public PairedComparison getComparison(final String playerClass,
+			final String otherPlayerClass) {
+
+		List<String> key = Arrays.asList(playerClass, otherPlayerClass);
+		PairedComparison result = comparisons.get(key);
+		if (result == null) {
+			result = new PairedComparison();
+			comparisons.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds a played game
+	 * 
+	 * @param passedIn
+	 *            TRUE, if all players passed
+	 */
+	public void addGame(final boolean passedIn) {
+
+		games++;
+		if (passedIn) {
+			passedInGames++;
+		}
+	}
+
+	/**
+	 * Gets the number of games
+	 * 
+	 * @return Number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the number of passed in games
+	 * 
+	 * @return Number of passed in games
+	 */
+	public long getPassedInGames() {
+		return passedInGames;
+	}
+
+	/**
+	 * Adds the statistics of another worker
+	 * 
+	 * @param other
+	 *            Other statistics
+	 */
+	public void merge(final TournamentStatistics other) {
+
+		games += other.games;
+		passedInGames += other.passedInGames;
+		for (Entry<String, PlayerStatistics> entry : other.playerStatistics
+				.entrySet()) {
+			getPlayerStatistics(entry.getKey()).merge(entry.getValue());
+		}
+		for (Entry<List<String>, PairedComparison> entry : other.comparisons
+				.entrySet()) {
+			getComparison(entry.getKey().get(0), entry.getKey().get(1)).merge(
+					entry.getValue());
+		}
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder result = new StringBuilder();
+		result.append("Games: ").append(games) //$NON-NLS-1$
+				.append(", passed in: ").append(passedInGames).append('\n'); //$NON-NLS-1$
+		result.append(String.format("%-32s %10s %10s %23s %20s %12s%n", //$NON-NLS-1$
+				"Player", "Games", "Declarer", "Win rate", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				"Score/game", "Value/decl")); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Entry<String, PlayerStatistics> entry : playerStatistics
+				.entrySet()) {
+			PlayerStatistics statistics = entry.getValue();
+			result.append(String.format(
+					"%-32s %10d %10d %6.2f%% [%6.2f,%6.2f] %9.2f +/-%6.2f %12.2f%n", //$NON-NLS-1$
+					getSimpleName(entry.getKey()), statistics.getGames(),
+					statistics.getDeclarerGames(),
+					statistics.getWinRate() * 100.0,
+					statistics.getWinRateLowerBound() * 100.0,
+					statistics.getWinRateUpperBound() * 100.0,
+					statistics.getAverageScore(),
+					statistics.getAverageScoreConfidence(),
+					statistics.getAverageDeclarerGameValue()));
+		}
+		for (Entry<List<String>, PairedComparison> entry : comparisons
+				.entrySet()) {
+			PairedComparison comparison = entry.getValue();
+			result.append(String.format(
+					"%s vs. %s: %.2f +/-%.2f score/game over %d deals%n", //$NON-NLS-1$
+					getSimpleName(entry.getKey().get(0)),
+					getSimpleName(entry.getKey().get(1)),
+					comparison.getAverageDifference(),
+					comparison.getAverageDifferenceConfidence(),
+					comparison.getDeals()));
+		}
+		return result.toString();
+	}
+
+	private static String getSimpleName(final String className) {
+
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+}
@@ -200,17 +200,47 @@ public class SkatGameData {
 		log.debug("Game created"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Resets the game data in place for a new game, the card lists of the
+	 * former game are reused
+	 */
+	public void reset() {
+
+		gameState = null;
+		ispaRules = true;
+		rules = null;
+		declarer = null;
+		dealer = null;
+		activePlayer = null;
+		geschoben = 0;
+
+		for (final Player player : Player.values()) {
+			playerHands.get(player).clear();
+			dealtCards.get(player).clear();
+			playerBids.get(player).clear();
+		}
+		tricks.clear();
+		skat.clear();
+		dealtSkat.clear();
+		ramschLoosers.clear();
+
+		intializeVariables();
+	}
+
 	private void intializeVariables() {
 
 		announcement = GameAnnouncement.getFactory().getEmptyAnnouncement();
+		// the result is referenced by game summaries of former games
 		result = new SkatGameResult();
 
 		for (final Player player : Player.values()) {
 			playerNames.put(player, ""); //$NON-NLS-1$
-			playerHands.put(player, new CardList());
-			dealtCards.put(player, new CardList());
+			if (!playerHands.containsKey(player)) {
+				playerHands.put(player, new CardList());
+				dealtCards.put(player, new CardList());
+				playerBids.put(player, new ArrayList<Integer>());
+			}
 			playerPoints.put(player, 0);
-			playerBids.put(player, new ArrayList<Integer>());
 			playerPasses.put(player, Boolean.FALSE);
 		}
 	}
@@ -557,8 +587,10 @@ public class SkatGameData {
 	 */
 	public void setTrickCard(final Player player, final Card card) {
 
-		log.debug(this + ".setTrickCard(" + player + ", " //$NON-NLS-1$ //$NON-NLS-2$
-				+ card + ")"); //$NON-NLS-1$
+		if (log.isDebugEnabled()) {
+			log.debug(this + ".setTrickCard(" + player + ", " //$NON-NLS-1$ //$NON-NLS-2$
+					+ card + ")"); //$NON-NLS-1$
+		}
 
 		final Trick currentTrick = getCurrentTrick();
 		final Player trickForeHand = currentTrick.getForeHand();
@@ -691,6 +723,20 @@ public class SkatGameData {
 		return playerHands.get(player).getImmutableCopy();
 	}
 
+	/**
+	 * Checks whether a player holds a card, without copying the hand
+	 * 
+	 * @param player
+	 *            Player
+	 * @param card
+	 *            Card to check
+	 * @return TRUE if the card is on the player's hand
+	 */
+	public boolean hasPlayerCard(final Player player, final Card card) {
+
+		return playerHands.get(player).contains(card);
+	}
+
 	/**
 	 * Gets a reference to the skat for the game
 	 * 
@@ -0,0 +1,588 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import java.util.Arrays;
+
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.SkatGameData;
+import org.jskat.data.SkatGameData.GameState;
+import org.jskat.data.SkatGameResult;
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.SkatConstants;
+import org.jskat.util.rule.SkatRule;
+import org.jskat.util.rule.SkatRuleFactory;
+
+/**
+ * Compact binary record of a complete skat game<br>
+ * A record has a fixed size of {@link #RECORD_SIZE} bytes, the fields are bit
+ * packed:
+ * <ul>
+ * <li>deal: 32 cards with 5 bits each, ten cards for fore hand, middle hand
+ * and rear hand followed by the skat</li>
+ * <li>card plays: up to 30 cards with 5 bits each and the number of played
+ * cards, the players follow from the trick winners</li>
+ * <li>discarded skat, highest bid and pass of every player</li>
+ * <li>announcement: game type, hand, ouvert, schneider and schwarz</li>
+ * <li>declarer and result: won, overbid, schneider, schwarz, game value and
+ * declarer points</li>
+ * </ul>
+ * Player names and the bidding sequence are not recorded.
+ */
+public class GameRecord {
+
+	/**
+	 * Size of a record in bytes
+	 */
+	public static final int RECORD_SIZE = 48;
+
+	private static final int CARD_BITS = 5;
+	private static final int DEAL_OFFSET = 0;
+	private static final int PLAYS_OFFSET = DEAL_OFFSET + 32 * CARD_BITS;
+	private static final int PLAY_COUNT_OFFSET = PLAYS_OFFSET + 30 * CARD_BITS;
+	private static final int DISCARD_OFFSET = PLAY_COUNT_OFFSET + 5;
+	private static final int BIDS_OFFSET = DISCARD_OFFSET + 2 * CARD_BITS;
+	private static final int BID_BITS = 6;
+	private static final int PASSES_OFFSET = BIDS_OFFSET + 3 * BID_BITS;
+	private static final int GAME_TYPE_OFFSET = PASSES_OFFSET + 3;
+	private static final int HAND_BIT = GAME_TYPE_OFFSET + 4;
+	private static final int OUVERT_BIT = HAND_BIT + 1;
+	private static final int SCHNEIDER_ANNOUNCED_BIT = OUVERT_BIT + 1;
+	private static final int SCHWARZ_ANNOUNCED_BIT = SCHNEIDER_ANNOUNCED_BIT + 1;
+	private static final int DECLARER_OFFSET = SCHWARZ_ANNOUNCED_BIT + 1;
+	private static final int WON_BIT = DECLARER_OFFSET + 2;
+	private static final int OVERBID_BIT = WON_BIT + 1;
+	private static final int SCHNEIDER_BIT = OVERBID_BIT + 1;
+	private static final int SCHWARZ_BIT = SCHNEIDER_BIT + 1;
+	private static final int GAME_VALUE_OFFSET = SCHWARZ_BIT + 1;
+	private static final int DECLARER_POINTS_OFFSET = GAME_VALUE_OFFSET + 16;
+	private static final int DISCARDED_BIT = DECLARER_POINTS_OFFSET + 7;
+
+	private static final int NO_DECLARER = 3;
+
+	private static final Card[] CARDS = Card.values();
+	private static final GameType[] GAME_TYPES = GameType.values();
+	private static final Player[] PLAYERS = Player.values();
+
+	final byte[] data = new byte[RECORD_SIZE];
+
+	/**
+	 * Creates a record of a game
+	 * 
+	 * @param gameData
+	 *            Game data with all dealt cards
+	 * @return Game record
+	 */
+	public static GameRecord fromGameData(final SkatGameData gameData) {
+
+		GameRecord result = new GameRecord();
+		result.setGameData(gameData);
+		return result;
+	}
+
+	/**
+	 * Overwrites the record with a game, this allows to reuse the record when
+	 * converting many games
+	 * 
+	 * @param gameData
+	 *            Game data with all dealt cards
+	 */
+	public void setGameData(final SkatGameData gameData) {
+
+		Arrays.fill(data, (byte) 0);
+
+		int position = 0;
+		for (Player player : PLAYERS) {
+			CardList cards = gameData.getDealtCards().get(player);
+			if (cards.size() != 10) {
+				throw new IllegalArgumentException(
+						"Dealt cards are incomplete for " + player + "."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			for (Card card : cards) {
+				setCard(DEAL_OFFSET, position++, card);
+			}
+		}
+		CardList skat = gameData.getDealtSkat();
+		if (skat.size() != 2) {
+			throw new IllegalArgumentException("Dealt skat is incomplete."); //$NON-NLS-1$
+		}
+		setCard(DEAL_OFFSET, position++, skat.get(0));
+		setCard(DEAL_OFFSET, position, skat.get(1));
+
+		for (Player player : PLAYERS) {
+			int bid = gameData.getMaxPlayerBid(player);
+			int bidIndex = 0;
+			if (bid > 0) {
+				bidIndex = SkatConstants.bidOrder.indexOf(Integer.valueOf(bid)) + 1;
+				if (bidIndex == 0) {
+					throw new IllegalArgumentException("Invalid bid value " //$NON-NLS-1$
+							+ bid + "."); //$NON-NLS-1$
+				}
+			}
+			setBits(BIDS_OFFSET + player.getOrder() * BID_BITS, BID_BITS,
+					bidIndex);
+			setBit(PASSES_OFFSET + player.getOrder(),
+					gameData.isPlayerPass(player));
+		}
+
+		Player declarer = gameData.getDeclarer();
+		setBits(DECLARER_OFFSET, 2, declarer == null ? NO_DECLARER : declarer
+				.getOrder());
+
+		GameAnnouncement announcement = gameData.getAnnoucement();
+		if (announcement != null && announcement.getGameType() != null) {
+			setBits(GAME_TYPE_OFFSET, 4,
+					announcement.getGameType().ordinal() + 1);
+			setBit(HAND_BIT, announcement.isHand());
+			setBit(OUVERT_BIT, announcement.isOuvert());
+			setBit(SCHNEIDER_ANNOUNCED_BIT, announcement.isSchneider());
+			setBit(SCHWARZ_ANNOUNCED_BIT, announcement.isSchwarz());
+
+			CardList discarded = announcement.getDiscardedCards();
+			if ((discarded == null || discarded.size() != 2)
+					&& !announcement.isHand() && declarer != null) {
+				discarded = gameData.getSkat();
+			}
+			if (discarded != null && discarded.size() == 2) {
+				setBit(DISCARDED_BIT, true);
+				setCard(DISCARD_OFFSET, 0, discarded.get(0));
+				setCard(DISCARD_OFFSET, 1, discarded.get(1));
+			}
+		}
+
+		int plays = 0;
+		for (Trick trick : gameData.getTricks()) {
+			for (Card card : Arrays.asList(trick.getFirstCard(),
+					trick.getSecondCard(), trick.getThirdCard())) {
+				if (card != null) {
+					setCard(PLAYS_OFFSET, plays++, card);
+				}
+			}
+		}
+		setBits(PLAY_COUNT_OFFSET, 5, plays);
+
+		SkatGameResult result = gameData.getResult();
+		setBit(WON_BIT, result.isWon());
+		setBit(OVERBID_BIT, result.isOverBidded());
+		setBit(SCHNEIDER_BIT, result.isSchneider());
+		setBit(SCHWARZ_BIT, result.isSchwarz());
+		setBits(GAME_VALUE_OFFSET, 16, result.getGameValue() & 0xffff);
+		setBits(DECLARER_POINTS_OFFSET, 7,
+				Math.max(0, Math.min(120, result.getFinalDeclarerPoints())));
+	}
+
+	/**
+	 * Converts the record back to game data
+	 * 
+	 * @return Game data
+	 */
+	public SkatGameData toGameData() {
+
+		SkatGameData result = new SkatGameData();
+
+		for (Player player : PLAYERS) {
+			result.addDealtCards(player, getDealtCards(player));
+		}
+		result.setDealtSkatCards(getDealtSkat());
+
+		for (Player player : PLAYERS) {
+			int bid = getMaxBid(player);
+			if (bid > 0) {
+				result.addPlayerBid(player, bid);
+			}
+			result.setPlayerPass(player, isPass(player));
+		}
+
+		Player declarer = getDeclarer();
+		if (declarer != null) {
+			result.setDeclarer(declarer);
+		}
+
+		GameType gameType = getGameType();
+		if (gameType != null) {
+			GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+			factory.setGameType(gameType);
+			if (gameType != GameType.RAMSCH && gameType != GameType.PASSED_IN) {
+				factory.setHand(Boolean.valueOf(isHand()));
+				factory.setOuvert(Boolean.valueOf(isOuvert()));
+				factory.setSchneider(Boolean.valueOf(isSchneiderAnnounced()));
+				factory.setSchwarz(Boolean.valueOf(isSchwarzAnnounced()));
+				if (!isHand() && isSkatDiscarded()) {
+					factory.setDiscardedCards(getDiscardedCards());
+				}
+			}
+			GameAnnouncement announcement = factory.getAnnouncement();
+			if (announcement == null) {
+				throw new IllegalStateException(
+						"Record contains an invalid game announcement."); //$NON-NLS-1$
+			}
+
+			if (declarer != null && !isHand() && isSkatDiscarded()) {
+				result.addSkatToPlayer(declarer);
+				result.setDiscardedSkat(declarer, getDiscardedCards());
+			}
+			result.setAnnouncement(announcement);
+
+			addTricks(result, gameType);
+		}
+
+		int declarerPoints = getDeclarerPoints();
+		if (declarer != null) {
+			result.setDeclarerScore(declarerPoints);
+		}
+		SkatGameResult gameResult = result.getResult();
+		gameResult.setWon(isWon());
+		gameResult.setOverBidded(isOverBidded());
+		gameResult.setSchneider(isSchneider());
+		gameResult.setSchwarz(isSchwarz());
+		gameResult.setGameValue(getGameValue());
+		gameResult.setFinalDeclarerPoints(declarerPoints);
+		gameResult.setFinalOpponentPoints(120 - declarerPoints);
+		result.setGameState(GameState.GAME_OVER);
+
+		return result;
+	}
+
+	private void addTricks(final SkatGameData result, final GameType gameType) {
+
+		int plays = getCardPlayCount();
+		if (plays == 0) {
+			return;
+		}
+
+		SkatRule rules = SkatRuleFactory.getSkatRules(gameType);
+		Player trickForeHand = Player.FOREHAND;
+		Player player = trickForeHand;
+		for (int i = 0; i < plays; i++) {
+			if (i % 3 == 0) {
+				result.addTrick(new Trick(i / 3, trickForeHand));
+				player = trickForeHand;
+			}
+			result.setTrickCard(player, getPlayedCard(i));
+			player = player.getLeftNeighbor();
+			if (i % 3 == 2) {
+				trickForeHand = rules.calculateTrickWinner(gameType,
+						result.getCurrentTrick());
+				result.setTrickWinner(i / 3, trickForeHand);
+			}
+		}
+	}
+
+	/**
+	 * Gets the cards dealt to a player
+	 * 
+	 * @param player
+	 *            Player
+	 * @return Dealt cards
+	 */
+	public CardList getDealtCards(final Player player) {
+
+		CardList result = new CardList();
+		for (int i = 0; i < 10; i++) {
+			result.add(getCard(DEAL_OFFSET, player.getOrder() * 10 + i));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the dealt skat
+	 * 
+	 * @return Dealt skat
+	 */
+	public CardList getDealtSkat() {
+
+		return new CardList(getCard(DEAL_OFFSET, 30), getCard(DEAL_OFFSET, 31));
+	}
+
+	/**
+	 * Gets the highest bid of a player
+	 * 
+	 * @param player
+	 *            Player
+	 * @return Highest bid or 0 if the player did not bid
+	 */
+	public int getMaxBid(final Player player) {
+
+		int bidIndex = getBits(BIDS_OFFSET + player.getOrder() * BID_BITS,
+				BID_BITS);
+		return bidIndex == 0 ? 0 : SkatConstants.bidOrder.get(bidIndex - 1)
+				.intValue();
+	}
+
+	/**
+	 * Checks whether a player passed
+	 * 
+	 * @param player
+	 *            Player
+	 * @return TRUE if the player passed
+	 */
+	public boolean isPass(final Player player) {
+
+		return getBit(PASSES_OFFSET + player.getOrder());
+	}
+
+	/**
+	 * Gets the declarer
+	 * 
+	 * @return Declarer or NULL if there was no declarer
+	 */
+	public Player getDeclarer() {
+
+		int declarer = getBits(DECLARER_OFFSET, 2);
+		return declarer == NO_DECLARER ? null : PLAYERS[declarer];
+	}
+
+	/**
+	 * Gets the game type
+	 * 
+	 * @return Game type or NULL if no game was announced
+	 */
+	public GameType getGameType() {
+
+		int gameType = getBits(GAME_TYPE_OFFSET, 4);
+		return gameType == 0 ? null : GAME_TYPES[gameType - 1];
+	}
+
+	/**
+	 * Checks whether a hand game was announced
+	 * 
+	 * @return TRUE for a hand game
+	 */
+	public boolean isHand() {
+
+		return getBit(HAND_BIT);
+	}
+
+	/**
+	 * Checks whether an ouvert game was announced
+	 * 
+	 * @return TRUE for an ouvert game
+	 */
+	public boolean isOuvert() {
+
+		return getBit(OUVERT_BIT);
+	}
+
+	/**
+	 * Checks whether schneider was announced
+	 * 
+	 * @return TRUE if schneider was announced
+	 */
+	public boolean isSchneiderAnnounced() {
+
+		return getBit(SCHNEIDER_ANNOUNCED_BIT);
+	}
+
+	/**
+	 * Checks whether schwarz was announced
+	 * 
+	 * @return TRUE if schwarz was announced
+	 */
+	public boolean isSchwarzAnnounced() {
+
+		return getBit(SCHWARZ_ANNOUNCED_BIT);
+	}
+
+	/**
+	 * Checks whether the declarer discarded a skat
+	 * 
+	 * @return TRUE if the discarded cards are recorded
+	 */
+	public boolean isSkatDiscarded() {
+
+		return getBit(DISCARDED_BIT);
+	}
+
+	/**
+	 * Gets the discarded cards
+	 * 
+	 * @return Discarded cards, empty if no skat was discarded
+	 */
+	public CardList getDiscardedCards() {
+
+		if (!isSkatDiscarded()) {
+			return new CardList();
+		}
+		return new CardList(getCard(DISCARD_OFFSET, 0), getCard(
+				DISCARD_OFFSET, 1));
+	}
+
+	/**
+	 * Gets the number of played cards
+	 * 
+	 * @return Number of played cards
+	 */
+	public int getCardPlayCount() {
+
+		return getBits(PLAY_COUNT_OFFSET, 5);
+	}
+
+	/**
+	 * Gets a played card
+	 * 
+	 * @param index
+	 *            Index of the card play
+	 * @return Played card
+	 */
+	public Card getPlayedCard(final int index) {
+
+		if (index < 0 || index >= getCardPlayCount()) {
+			throw new IndexOutOfBoundsException("Card play " + index //$NON-NLS-1$
+					+ " was not recorded."); //$NON-NLS-1$
+		}
+		return getCard(PLAYS_OFFSET, index);
+	}
+
+	/**
+	 * Checks whether the game was won
+	 * 
+	 * @return TRUE if the game was won
+	 */
+	public boolean isWon() {
+
+		return getBit(WON_BIT);
+	}
+
+	/**
+	 * Checks whether the game was overbid
+	 * 
+	 * @return TRUE if the game was overbid
+	 */
+	public boolean isOverBidded() {
+
+		return getBit(OVERBID_BIT);
+	}
+
+	/**
+	 * Checks whether the game was played schneider
+	 * 
+	 * @return TRUE if the game was schneider
+	 */
+	public boolean isSchneider() {
+
+		return getBit(SCHNEIDER_BIT);
+	}
+
+	/**
+	 * Checks whether the game was played schwarz
+	 * 
+	 * @return TRUE if the game was schwarz
+	 */
+	public boolean isSchwarz() {
+
+		return getBit(SCHWARZ_BIT);
+	}
+
+	/**
+	 * Gets the game value
+	 * 
+	 * @return Game value, negative for lost games
+	 */
+	public int getGameValue() {
+
+		return (short) getBits(GAME_VALUE_OFFSET, 16);
+	}
+
+	/**
+	 * Gets the card points of the declarer
+	 * 
+	 * @return Declarer points
+	 */
+	public int getDeclarerPoints() {
+
+		return getBits(DECLARER_POINTS_OFFSET, 7);
+	}
+
+	private Card getCard(final int offset, final int index) {
+
+		return CARDS[getBits(offset + index * CARD_BITS, CARD_BITS)];
+	}
+
+	private void setCard(final int offset, final int index, final Card card) {
+
+		setBits(offset + index * CARD_BITS, CARD_BITS, card.ordinal());
+	}
+
+	private boolean getBit(final int offset) {
+
+		return (data[offset >>> 3] & (1 << (offset & 7))) != 0;
+	}
+
+	private void setBit(final int offset, final boolean value) {
+
+		if (value) {
+			data[offset >>> 3] |= 1 << (offset & 7);
+		} else {
+			data[offset >>> 3] &= ~(1 << (offset & 7));
+		}
+	}
+
+	/**
+	 * Reads up to 16 bits, they span at most three bytes
+	 */
+	private int getBits(final int offset, final int width) {
+
+		int byteIndex = offset >>> 3;
+		int window = data[byteIndex] & 0xff;
+		if (byteIndex + 1 < RECORD_SIZE) {
+			window |= (data[byteIndex + 1] & 0xff) << 8;
+		}
+		if (byteIndex + 2 < RECORD_SIZE) {
+			window |= (data[byteIndex + 2] & 0xff) << 16;
+		}
+		return (window >>> (offset & 7)) & ((1 << width) - 1);
+	}
+
+	private void setBits(final int offset, final int width, final int value) {
+
+		for (int i = 0; i < width; i++) {
+			setBit(offset + i, (value & (1 << i)) != 0);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameRecord)) {
+			return false;
+		}
+		return Arrays.equals(data, ((GameRecord) obj).data);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+
+		return Arrays.hashCode(data);
+	}
+}
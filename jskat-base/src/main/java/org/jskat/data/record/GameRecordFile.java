@@ -0,0 +1,126 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Memory mapped random access to a game record file<br>
+ * Files larger than 2 GB are mapped in several chunks. Reading is thread
+ * safe, every thread has to use its own {@link GameRecord} instance.
+ */
+public class GameRecordFile implements Closeable {
+
+	/**
+	 * Records per mapped chunk, a chunk must not exceed 2 GB
+	 */
+	static final int RECORDS_PER_CHUNK = Integer.MAX_VALUE
+			/ GameRecord.RECORD_SIZE;
+
+	private final RandomAccessFile file;
+	private final MappedByteBuffer[] chunks;
+	private final long recordCount;
+
+	/**
+	 * Constructor, maps the whole file
+	 * 
+	 * @param recordFile
+	 *            Game record file
+	 * @throws IOException
+	 *             If the file can't be read or is no game record file
+	 */
+	public GameRecordFile(final File recordFile) throws IOException {
+
+		file = new RandomAccessFile(recordFile, "r"); //$NON-NLS-1$
+		try {
+			GameRecordFormat.readHeader(file);
+
+			long dataSize = file.length() - GameRecordFormat.HEADER_SIZE;
+			if (dataSize % GameRecord.RECORD_SIZE != 0) {
+				throw new IOException("Last game record is truncated."); //$NON-NLS-1$
+			}
+			recordCount = dataSize / GameRecord.RECORD_SIZE;
+
+			FileChannel channel = file.getChannel();
+			chunks = new MappedByteBuffer[(int) ((recordCount
+					+ RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK)];
+			for (int i = 0; i < chunks.length; i++) {
+				long firstRecord = (long) i * RECORDS_PER_CHUNK;
+				long records = Math.min(RECORDS_PER_CHUNK, recordCount
+						- firstRecord);
+				chunks[i] = channel.map(MapMode.READ_ONLY,
+						GameRecordFormat.HEADER_SIZE + firstRecord
+								* GameRecord.RECORD_SIZE, records
+								* GameRecord.RECORD_SIZE);
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the number of records in the file
+	 * 
+	 * @return Number of records
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Reads a record
+	 * 
+	 * @param index
+	 *            Index of the record
+	 * @param record
+	 *            Record that is overwritten with the game
+	 */
+	public void read(final long index, final GameRecord record) {
+
+		if (index < 0 || index >= recordCount) {
+			throw new IndexOutOfBoundsException("Record " + index //$NON-NLS-1$
+					+ " is not in the file with " + recordCount + " records."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		MappedByteBuffer chunk = chunks[(int) (index / RECORDS_PER_CHUNK)];
+		int offset = (int) (index % RECORDS_PER_CHUNK) * GameRecord.RECORD_SIZE;
+		// absolute reads don't change the buffer position, so several threads
+		// can share the buffer
+		for (int i = 0; i < GameRecord.RECORD_SIZE; i++) {
+			record.data[i] = chunk.get(offset + i);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+
+		file.close();
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * File header of game record files<br>
+ * A file starts with a magic number, the format version and the record size,
+ * followed by the records without any separators
+ */
+final class GameRecordFormat {
+
+	/**
+	 * Magic number "JSGR"
+	 */
+	static final int MAGIC = 0x4a534752;
+	static final short VERSION = 1;
+	/**
+	 * Size of the header in bytes
+	 */
+	static final int HEADER_SIZE = 8;
+
+	private GameRecordFormat() {
+		// only static methods
+	}
+
+	static void writeHeader(final DataOutput out) throws IOException {
+
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeShort(GameRecord.RECORD_SIZE);
+	}
+
+	static void checkHeader(final int magic, final int version,
+			final int recordSize) throws IOException {
+
+		if (magic != MAGIC) {
+			throw new IOException("Not a game record file."); //$NON-NLS-1$
+		}
+		if (version != VERSION || recordSize != GameRecord.RECORD_SIZE) {
+			throw new IOException("Unsupported game record version " //$NON-NLS-1$
+					+ version + " with record size " + recordSize + "."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	static void readHeader(final DataInput in) throws IOException {
+
+		checkHeader(in.readInt(), in.readShort(), in.readShort());
+	}
+}
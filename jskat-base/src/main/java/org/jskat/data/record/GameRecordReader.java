@@ -0,0 +1,99 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads game records sequentially from a stream
+ */
+public class GameRecordReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final DataInputStream in;
+
+	/**
+	 * Constructor, reads the file header
+	 * 
+	 * @param file
+	 *            Game record file
+	 * @throws IOException
+	 *             If the file can't be read or is no game record file
+	 */
+	public GameRecordReader(final File file) throws IOException {
+
+		this(new FileInputStream(file));
+	}
+
+	/**
+	 * Constructor, reads the file header
+	 * 
+	 * @param stream
+	 *            Input stream, it is buffered by the reader
+	 * @throws IOException
+	 *             If the stream can't be read or contains no game records
+	 */
+	public GameRecordReader(final InputStream stream) throws IOException {
+
+		in = new DataInputStream(new BufferedInputStream(stream, BUFFER_SIZE));
+		GameRecordFormat.readHeader(in);
+	}
+
+	/**
+	 * Reads the next record
+	 * 
+	 * @param record
+	 *            Record that is overwritten with the next game
+	 * @return TRUE if a record was read, FALSE at the end of the stream
+	 * @throws IOException
+	 *             If the stream can't be read or ends within a record
+	 */
+	public boolean read(final GameRecord record) throws IOException {
+
+		int first = in.read();
+		if (first < 0) {
+			return false;
+		}
+		record.data[0] = (byte) first;
+		try {
+			in.readFully(record.data, 1, GameRecord.RECORD_SIZE - 1);
+		} catch (EOFException e) {
+			throw new IOException("Last game record is truncated."); //$NON-NLS-1$
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+
+		in.close();
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes game records to a stream
+ */
+public class GameRecordWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final DataOutputStream out;
+	private long recordCount;
+
+	/**
+	 * Constructor, writes the file header
+	 * 
+	 * @param file
+	 *            File to write, an existing file is overwritten
+	 * @throws IOException
+	 *             If the file can't be written
+	 */
+	public GameRecordWriter(final File file) throws IOException {
+
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * Constructor, writes the file header
+	 * 
+	 * @param stream
+	 *            Output stream, it is buffered by the writer
+	 * @throws IOException
+	 *             If the stream can't be written
+	 */
+	public GameRecordWriter(final OutputStream stream) throws IOException {
+
+		out = new DataOutputStream(new BufferedOutputStream(stream,
+				BUFFER_SIZE));
+		GameRecordFormat.writeHeader(out);
+	}
+
+	/**
+	 * Writes a record
+	 * 
+	 * @param record
+	 *            Game record
+	 * @throws IOException
+	 *             If the record can't be written
+	 */
+	public void write(final GameRecord record) throws IOException {
+
+		out.write(record.data);
+		recordCount++;
+	}
+
+	/**
+	 * Gets the number of records written so far
+	 * 
+	 * @return Number of records
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Flushes the buffered records
+	 * 
+	 * @throws IOException
+	 *             If the records can't be written
+	 */
+	public void flush() throws IOException {
+
+		out.flush();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+
+		out.close();
+	}
+}
@@ -19,13 +19,18 @@
  */
 package org.jskat.player;
 
+import java.util.Random;
+
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.GameSummary;
 import org.jskat.data.Trick;
 import org.jskat.util.Card;
 import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.jskat.util.rule.RuleTables;
 import org.jskat.util.rule.SkatRule;
 import org.jskat.util.rule.SkatRuleFactory;
 import org.slf4j.Logger;
@@ -48,6 +53,8 @@ public abstract class AbstractJSkatPlayer implements JSkatPlayer {
 	protected SkatRule rules;
 	/** Summary of the skat game */
 	protected GameSummary gameSummary;
+	/** Random generator for all random decisions of the player */
+	protected Random rand = new SkatRandom();
 
 	/**
 	 * {@inheritDoc}
@@ -122,7 +129,7 @@ public abstract class AbstractJSkatPlayer implements JSkatPlayer {
 		knowledge.setGame(game);
 
 		rules = SkatRuleFactory.getSkatRules(game.getGameType());
-		if (!GameType.PASSED_IN.equals(game.getGameType())) {
+		if (!GameType.PASSED_IN.equals(game.getGameType()) && log.isDebugEnabled()) {
 			log.debug("Starting game for " + getPlayerName() + ": " + game.getGameType() + " (rules=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 					+ rules.getClass() + ")"); //$NON-NLS-1$
 		}
@@ -178,31 +185,25 @@ public abstract class AbstractJSkatPlayer implements JSkatPlayer {
 	 */
 	protected final CardList getPlayableCards(final CardList trick) {
 
-		boolean isCardAllowed = false;
 		CardList result = new CardList();
 
-		log.debug("game type: " + knowledge.getGameType()); //$NON-NLS-1$
-		log.debug("player cards (" + knowledge.getOwnCards().size() + "): " + knowledge.getOwnCards()); //$NON-NLS-1$ //$NON-NLS-2$
-		log.debug("trick size: " + trick.size()); //$NON-NLS-1$
-
-		for (Card card : knowledge.getOwnCards()) {
-
-			if (trick.size() > 0
-					&& rules.isCardAllowed(knowledge.getGameType(),
-							trick.get(0), knowledge.getOwnCards(), card)) {
-
-				log.debug("initial card: " + trick.get(0)); //$NON-NLS-1$
-				isCardAllowed = true;
-			} else if (trick.size() == 0) {
-
-				isCardAllowed = true;
-			} else {
+		if (log.isDebugEnabled()) {
+			log.debug("game type: " + knowledge.getGameType()); //$NON-NLS-1$
+			log.debug("player cards (" + knowledge.getOwnCards().size() + "): " + knowledge.getOwnCards()); //$NON-NLS-1$ //$NON-NLS-2$
+			log.debug("trick size: " + trick.size()); //$NON-NLS-1$
+		}
 
-				isCardAllowed = false;
-			}
+		Card initialCard = null;
+		if (trick.size() > 0) {
+			initialCard = trick.get(0);
+		}
 
-			if (isCardAllowed) {
+		int allowedCards = RuleTables.legalMoves(
+				CardSet.getMask(knowledge.getOwnCards()), initialCard,
+				knowledge.getGameType());
 
+		for (Card card : knowledge.getOwnCards()) {
+			if ((allowedCards & CardSet.getMask(card)) != 0) {
 				result.add(card);
 			}
 		}
@@ -292,6 +293,7 @@ public abstract class AbstractJSkatPlayer implements JSkatPlayer {
 		result.addAll(getCardsToDiscard());
 
 		knowledge.removeOwnCards(result.getImmutableCopy());
+		knowledge.setDiscardedCards(result);
 
 		log.debug("Player cards after discarding: " + knowledge.getOwnCards()); //$NON-NLS-1$
 
@@ -309,6 +311,17 @@ public abstract class AbstractJSkatPlayer implements JSkatPlayer {
 		this.gameSummary = gameSummary;
 	}
 
+	/**
+	 * Sets the random generator for all random decisions of the player, a
+	 * seeded generator makes the decisions reproducible
+	 * 
+	 * @param newRand
+	 *            Random generator
+	 */
+	public void setRandom(final Random newRand) {
+		rand = newRand;
+	}
+
 	/**
 	 * Sets a new logger for the abstract skat player
 	 * 
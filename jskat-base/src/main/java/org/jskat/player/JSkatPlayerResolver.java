@@ -67,6 +67,37 @@ public class JSkatPlayerResolver {
 		return result;
 	}
 
+	/**
+	 * Resolves the class name of a player implementation, the human player is
+	 * not resolved
+	 * 
+	 * @param playerName
+	 *            Class name with or without package name
+	 * @return Class name including package name
+	 * @throws IllegalArgumentException
+	 *             If no or more than one implementation matches the name
+	 */
+	public static String resolvePlayerClass(final String playerName) {
+
+		String result = null;
+		for (String playerClass : getAllImplementations()) {
+			if (playerClass.equals(playerName)
+					|| playerClass.endsWith("." + playerName)) { //$NON-NLS-1$
+				if (result != null) {
+					throw new IllegalArgumentException(
+							"Player name is ambiguous: " + playerName); //$NON-NLS-1$
+				}
+				result = playerClass;
+			}
+		}
+
+		if (result == null) {
+			throw new IllegalArgumentException("Unknown player: " + playerName); //$NON-NLS-1$
+		}
+
+		return result;
+	}
+
 	private static Set<String> getAllImplementations() {
 		Set<String> result = new HashSet<String>();
 		Reflections reflections = new Reflections("org.jskat");
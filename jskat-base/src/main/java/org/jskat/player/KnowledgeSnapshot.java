@@ -0,0 +1,516 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.player;
+
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+
+/**
+ * Compact copy of the card knowledge of a player during the card play<br>
+ * All card sets are held as masks, see {@link CardSet}. A snapshot can be
+ * forked cheaply and updated with {@link #playCard(Player, Card)} and
+ * {@link #undoCard(long)}, so look-ahead searches can branch from the current
+ * information state without copying a {@link PlayerKnowledge}.
+ */
+public final class KnowledgeSnapshot {
+
+	/**
+	 * Maximum number of cards in the play history, two cards of the trick at
+	 * creation time and all cards of the remaining game
+	 */
+	private static final int MAX_HISTORY = 32;
+
+	private static final int PLAYER_SHIFT = 5;
+	private static final int CARD_BITS = (1 << PLAYER_SHIFT) - 1;
+
+	// layout of the undo information returned by playCard()
+	private static final int LOCATION_SHIFT = 32;
+	private static final int SKAT_LOCATION = 3;
+	private static final long OWN_CARD = 1L << 36;
+	private static final long OPEN_CARD = 1L << 37;
+	private static final int FORE_HAND_SHIFT = 38;
+
+	private static final Card[] CARDS = Card.values();
+	private static final Player[] PLAYERS = Player.values();
+
+	private final Player playerPosition;
+	private final Player declarer;
+	private final GameType gameType;
+
+	private final int[] playedCards = new int[PLAYERS.length];
+	private final int[] possibleCards = new int[PLAYERS.length];
+	private int possibleSkatCards;
+	private int ownCards;
+	/**
+	 * Open cards of the declarer in ouvert games
+	 */
+	private int openCards;
+
+	/**
+	 * Played cards in play order starting with the current trick at creation
+	 * time, every entry holds the card ordinal and the player order
+	 */
+	private final byte[] history = new byte[MAX_HISTORY];
+	private int historySize;
+	/**
+	 * Number of history entries that can't be undone
+	 */
+	private int baseHistorySize;
+	private Player trickForeHand;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 */
+	public KnowledgeSnapshot(final PlayerKnowledge knowledge) {
+
+		playerPosition = knowledge.getPlayerPosition();
+		declarer = knowledge.getDeclarer();
+		gameType = knowledge.getGameType();
+
+		for (Player player : PLAYERS) {
+			playedCards[player.getOrder()] = knowledge
+					.getPlayedCardMask(player);
+			possibleCards[player.getOrder()] = knowledge
+					.getPossibleCardMask(player);
+		}
+		possibleSkatCards = knowledge.getPossibleSkatCardMask();
+		ownCards = CardSet.getMask(knowledge.getOwnCards());
+		if (knowledge.isOuvertGame() && declarer != null
+				&& declarer != playerPosition) {
+			openCards = CardSet.getMask(knowledge.getSinglePlayerCards())
+					& ~playedCards[declarer.getOrder()];
+		}
+
+		Trick trick = knowledge.getCurrentTrick();
+		if (trick != null) {
+			trickForeHand = trick.getForeHand();
+			Player player = trick.getForeHand();
+			for (Card card : trick.getCardList()) {
+				addHistory(player, card);
+				player = player.getLeftNeighbor();
+			}
+			if (historySize == 3) {
+				trickForeHand = getTrickWinner();
+			}
+		} else {
+			trickForeHand = playerPosition;
+		}
+		baseHistorySize = historySize;
+	}
+
+	private KnowledgeSnapshot(final KnowledgeSnapshot snapshot) {
+
+		playerPosition = snapshot.playerPosition;
+		declarer = snapshot.declarer;
+		gameType = snapshot.gameType;
+		copyFrom(snapshot);
+	}
+
+	/**
+	 * Creates an independent copy of the snapshot
+	 * 
+	 * @return Copy of the snapshot
+	 */
+	public KnowledgeSnapshot fork() {
+
+		return new KnowledgeSnapshot(this);
+	}
+
+	/**
+	 * Overwrites the state with the state of another snapshot of the same
+	 * player and game, this allows to reuse snapshots without allocation
+	 * 
+	 * @param snapshot
+	 *            Snapshot to copy
+	 */
+	public void copyFrom(final KnowledgeSnapshot snapshot) {
+
+		if (snapshot.playerPosition != playerPosition
+				|| snapshot.declarer != declarer
+				|| snapshot.gameType != gameType) {
+			throw new IllegalArgumentException(
+					"Snapshot belongs to another player or game."); //$NON-NLS-1$
+		}
+		System.arraycopy(snapshot.playedCards, 0, playedCards, 0,
+				playedCards.length);
+		System.arraycopy(snapshot.possibleCards, 0, possibleCards, 0,
+				possibleCards.length);
+		possibleSkatCards = snapshot.possibleSkatCards;
+		ownCards = snapshot.ownCards;
+		openCards = snapshot.openCards;
+		System.arraycopy(snapshot.history, 0, history, 0, snapshot.historySize);
+		historySize = snapshot.historySize;
+		// the copy can't be undone behind the state it was created from
+		baseHistorySize = snapshot.historySize;
+		trickForeHand = snapshot.trickForeHand;
+	}
+
+	/**
+	 * Plays a card and updates the knowledge like
+	 * {@link PlayerKnowledge#setCardPlayed(Player, Card)}
+	 * 
+	 * @param player
+	 *            Player who plays the card
+	 * @param card
+	 *            Card played
+	 * @return Undo information for {@link #undoCard(long)}
+	 */
+	public long playCard(final Player player, final Card card) {
+
+		int cardMask = CardSet.getMask(card);
+		if ((getPlayedCardMask() & cardMask) != 0) {
+			throw new IllegalArgumentException("Card was already played: " //$NON-NLS-1$
+					+ card);
+		}
+		if (historySize == MAX_HISTORY) {
+			throw new IllegalArgumentException("Too many cards played."); //$NON-NLS-1$
+		}
+
+		long undo = (long) trickForeHand.getOrder() << FORE_HAND_SHIFT;
+		for (int i = 0; i < possibleCards.length; i++) {
+			if ((possibleCards[i] & cardMask) != 0) {
+				undo |= 1L << LOCATION_SHIFT + i;
+				possibleCards[i] &= ~cardMask;
+			}
+		}
+		if ((possibleSkatCards & cardMask) != 0) {
+			undo |= 1L << LOCATION_SHIFT + SKAT_LOCATION;
+			possibleSkatCards &= ~cardMask;
+		}
+		if (player == playerPosition && (ownCards & cardMask) != 0) {
+			undo |= OWN_CARD;
+			ownCards &= ~cardMask;
+		}
+		if (player == declarer && (openCards & cardMask) != 0) {
+			undo |= OPEN_CARD;
+			openCards &= ~cardMask;
+		}
+		playedCards[player.getOrder()] |= cardMask;
+
+		int trickSize = getTrickSize();
+		if (trickSize > 0) {
+			// a player that doesn't follow has none of the following cards
+			int followingCards = RuleTables.getFollowingCards(gameType,
+					getTrickCard(0));
+			if ((followingCards & cardMask) == 0) {
+				int removedCards = possibleCards[player.getOrder()]
+						& followingCards;
+				possibleCards[player.getOrder()] &= ~followingCards;
+				undo |= removedCards & 0xFFFFFFFFL;
+			}
+		}
+
+		addHistory(player, card);
+		if (trickSize == 2) {
+			trickForeHand = getTrickWinner();
+		}
+
+		return undo;
+	}
+
+	/**
+	 * Takes back the last card played with {@link #playCard(Player, Card)}
+	 * 
+	 * @param undo
+	 *            Undo information returned when the card was played
+	 */
+	public void undoCard(final long undo) {
+
+		if (historySize == baseHistorySize) {
+			throw new IllegalArgumentException("No card to be taken back."); //$NON-NLS-1$
+		}
+
+		historySize--;
+		int entry = history[historySize];
+		int cardMask = 1 << (entry & CARD_BITS);
+		Player player = PLAYERS[entry >> PLAYER_SHIFT];
+
+		playedCards[player.getOrder()] &= ~cardMask;
+		possibleCards[player.getOrder()] |= (int) undo;
+		for (int i = 0; i < possibleCards.length; i++) {
+			if ((undo & 1L << LOCATION_SHIFT + i) != 0) {
+				possibleCards[i] |= cardMask;
+			}
+		}
+		if ((undo & 1L << LOCATION_SHIFT + SKAT_LOCATION) != 0) {
+			possibleSkatCards |= cardMask;
+		}
+		if ((undo & OWN_CARD) != 0) {
+			ownCards |= cardMask;
+		}
+		if ((undo & OPEN_CARD) != 0) {
+			openCards |= cardMask;
+		}
+		trickForeHand = PLAYERS[(int) (undo >>> FORE_HAND_SHIFT) & 3];
+	}
+
+	private void addHistory(final Player player, final Card card) {
+
+		history[historySize] = (byte) (card.ordinal() | player.getOrder() << PLAYER_SHIFT);
+		historySize++;
+	}
+
+	private Player getTrickWinner() {
+
+		if (gameType == null) {
+			return trickForeHand;
+		}
+		return RuleTables.calculateTrickWinner(gameType, trickForeHand,
+				getHistoryCard(historySize - 3), getHistoryCard(historySize - 2),
+				getHistoryCard(historySize - 1));
+	}
+
+	private Card getHistoryCard(final int index) {
+
+		return CARDS[history[index] & CARD_BITS];
+	}
+
+	/**
+	 * Gets the number of cards in the current trick
+	 * 
+	 * @return Number of cards
+	 */
+	public int getTrickSize() {
+
+		return historySize % 3;
+	}
+
+	/**
+	 * Gets a card of the current trick
+	 * 
+	 * @param index
+	 *            Index of the card in the trick
+	 * @return Card
+	 */
+	public Card getTrickCard(final int index) {
+
+		if (index < 0 || index >= getTrickSize()) {
+			throw new IllegalArgumentException("No trick card at index " //$NON-NLS-1$
+					+ index);
+		}
+		return getHistoryCard(historySize - getTrickSize() + index);
+	}
+
+	/**
+	 * Gets the cards of the current trick
+	 * 
+	 * @return Trick cards
+	 */
+	public CardList getTrickCards() {
+
+		CardList result = new CardList();
+		for (int i = 0; i < getTrickSize(); i++) {
+			result.add(getTrickCard(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the fore hand of the current trick, after a completed trick this
+	 * is the trick winner
+	 * 
+	 * @return Fore hand of the current trick
+	 */
+	public Player getTrickForeHand() {
+
+		return trickForeHand;
+	}
+
+	/**
+	 * Gets the player who plays the next card
+	 * 
+	 * @return Next player
+	 */
+	public Player getNextPlayer() {
+
+		Player result = trickForeHand;
+		for (int i = 0; i < getTrickSize(); i++) {
+			result = result.getLeftNeighbor();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the own cards that are allowed to be played in the current trick
+	 * 
+	 * @return Card mask
+	 */
+	public int getPlayableCardMask() {
+
+		Card initialCard = getTrickSize() > 0 ? getTrickCard(0) : null;
+		return RuleTables.legalMoves(ownCards, initialCard, gameType);
+	}
+
+	/**
+	 * Gets all cards played so far
+	 * 
+	 * @return Card mask
+	 */
+	public int getPlayedCardMask() {
+
+		return playedCards[0] | playedCards[1] | playedCards[2];
+	}
+
+	/**
+	 * Gets the cards played by a player
+	 * 
+	 * @param player
+	 *            Player
+	 * @return Card mask
+	 */
+	public int getPlayedCardMask(final Player player) {
+
+		return playedCards[player.getOrder()];
+	}
+
+	/**
+	 * Gets all cards a player could have
+	 * 
+	 * @param player
+	 *            Player
+	 * @return Card mask
+	 */
+	public int getPossibleCardMask(final Player player) {
+
+		return possibleCards[player.getOrder()];
+	}
+
+	/**
+	 * Gets all cards that could lie in the skat
+	 * 
+	 * @return Card mask
+	 */
+	public int getPossibleSkatCardMask() {
+
+		return possibleSkatCards;
+	}
+
+	/**
+	 * Gets the cards on the hand of the player
+	 * 
+	 * @return Card mask
+	 */
+	public int getOwnCardMask() {
+
+		return ownCards;
+	}
+
+	/**
+	 * Gets the open cards of the declarer in ouvert games that are not played
+	 * yet
+	 * 
+	 * @return Card mask, empty if the player is the declarer or the game is not
+	 *         ouvert
+	 */
+	public int getOpenCardMask() {
+
+		return openCards;
+	}
+
+	/**
+	 * Checks whether a card was played already
+	 * 
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card was played
+	 */
+	public boolean isCardPlayed(final Card card) {
+
+		return (getPlayedCardMask() & CardSet.getMask(card)) != 0;
+	}
+
+	/**
+	 * Checks whether a player could have a card
+	 * 
+	 * @param player
+	 *            Player
+	 * @param card
+	 *            Card
+	 * @return TRUE if the player could have the card
+	 */
+	public boolean couldHaveCard(final Player player, final Card card) {
+
+		return (possibleCards[player.getOrder()] & CardSet.getMask(card)) != 0;
+	}
+
+	/**
+	 * Checks whether a card could lie in the skat
+	 * 
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card could lie in the skat
+	 */
+	public boolean couldLieInSkat(final Card card) {
+
+		return (possibleSkatCards & CardSet.getMask(card)) != 0;
+	}
+
+	/**
+	 * Checks whether a player could have a trump card
+	 * 
+	 * @param player
+	 *            Player
+	 * @return TRUE if the player could have a trump card
+	 */
+	public boolean couldHaveTrump(final Player player) {
+
+		return gameType != null
+				&& (possibleCards[player.getOrder()] & CardSet
+						.getTrumpMask(gameType)) != 0;
+	}
+
+	/**
+	 * Gets the player position
+	 * 
+	 * @return Player position
+	 */
+	public Player getPlayerPosition() {
+
+		return playerPosition;
+	}
+
+	/**
+	 * Gets the declarer
+	 * 
+	 * @return Declarer
+	 */
+	public Player getDeclarer() {
+
+		return declarer;
+	}
+
+	/**
+	 * Gets the game type
+	 * 
+	 * @return Game type
+	 */
+	public GameType getGameType() {
+
+		return gameType;
+	}
+}
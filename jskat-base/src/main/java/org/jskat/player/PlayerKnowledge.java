@@ -20,18 +20,17 @@
 package org.jskat.player;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.jskat.data.GameAnnouncement;
 import org.jskat.data.Trick;
 import org.jskat.util.Card;
 import org.jskat.util.CardDeck;
 import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
 import org.jskat.util.Rank;
@@ -57,22 +56,21 @@ public class PlayerKnowledge {
 	private Player playerPosition;
 
 	/**
-	 * Contains all cards played by the players
+	 * Card masks of all cards played by the players, see {@link CardSet},
+	 * indexed by player order
 	 */
-	// FIXME (markus 07.11.11.) why is this a "Set<Card>" instead of "CardList"?
-	private final Map<Player, Set<Card>> playedCards = new HashMap<Player, Set<Card>>();
+	private final int[] playedCards = new int[Player.values().length];
 
 	/**
-	 * Contains all cards that could be on a certain position
+	 * Card masks of all cards that could be on a certain position, indexed by
+	 * player order
 	 */
-	// FIXME (markus 07.11.11.) why is this a "Set<Card>" instead of "CardList"?
-	private final Map<Player, Set<Card>> possiblePlayerCards = new HashMap<Player, Set<Card>>();
+	private final int[] possiblePlayerCards = new int[Player.values().length];
 
 	/**
-	 * Contains all cards that could be in the skat
+	 * Card mask of all cards that could be in the skat
 	 */
-	// FIXME (markus 07.11.11.) why is this a "Set<Card>" instead of "CardList"?
-	private final Set<Card> possibleSkatCards = new HashSet<Card>();
+	private int possibleSkatCards;
 
 	/**
 	 * Holds the highest bid every player has made during bidding
@@ -108,14 +106,16 @@ public class PlayerKnowledge {
 	private int trumpCount;
 
 	/**
-	 * Counts the number of cards on players hand for every card
+	 * Counts the number of cards on players hand for every suit, indexed by
+	 * suit ordinal
 	 */
-	private final Map<Suit, Integer> suitCount = new HashMap<Suit, Integer>();
+	private final int[] suitCount = new int[Suit.values().length];
 
 	/**
-	 * Counts the points for every suit on players hand
+	 * Counts the points for every suit on players hand, indexed by suit
+	 * ordinal
 	 */
-	private final Map<Suit, Integer> suitPoints = new HashMap<Suit, Integer>();
+	private final int[] suitPoints = new int[Suit.values().length];
 
 	/**
 	 * Holds trick information
@@ -137,6 +137,9 @@ public class PlayerKnowledge {
 	/** Flag for schwarz announced */
 	private boolean schwarzAnnounced;
 
+	/** Listeners informed about changes */
+	private final List<PlayerKnowledgeListener> listeners = new ArrayList<PlayerKnowledgeListener>();
+
 	/**
 	 * Constructor
 	 */
@@ -159,24 +162,46 @@ public class PlayerKnowledge {
 		ouvertGame = false;
 		for (Player player : Player.values()) {
 			highestBid.put(player, Integer.valueOf(0));
-
-			playedCards.put(player, EnumSet.noneOf(Card.class));
-			possiblePlayerCards.put(player, EnumSet.allOf(Card.class));
 		}
-		possibleSkatCards.clear();
-		possibleSkatCards.addAll(EnumSet.allOf(Card.class));
+		Arrays.fill(playedCards, CardSet.EMPTY);
+		Arrays.fill(possiblePlayerCards, CardSet.ALL);
+		possibleSkatCards = CardSet.ALL;
 
 		leftPlayerTrickCard = null;
 		rightPlayerTrickCard = null;
 
 		trumpCount = 0;
 
-		for (Suit suit : Suit.values()) {
-			suitCount.put(suit, Integer.valueOf(0));
-			suitPoints.put(suit, Integer.valueOf(0));
-		}
+		Arrays.fill(suitCount, 0);
+		Arrays.fill(suitPoints, 0);
 
 		tricks.clear();
+
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).knowledgeReset(this);
+		}
+	}
+
+	/**
+	 * Adds a listener that gets informed about changes of the knowledge
+	 * 
+	 * @param listener
+	 *            Listener
+	 */
+	public void addListener(final PlayerKnowledgeListener listener) {
+
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener
+	 * 
+	 * @param listener
+	 *            Listener
+	 */
+	public void removeListener(final PlayerKnowledgeListener listener) {
+
+		listeners.remove(listener);
 	}
 
 	/**
@@ -188,9 +213,29 @@ public class PlayerKnowledge {
 	 */
 	public boolean isCardPlayed(final Card card) {
 
-		return playedCards.get(Player.FOREHAND).contains(card)
-				|| playedCards.get(Player.MIDDLEHAND).contains(card)
-				|| playedCards.get(Player.REARHAND).contains(card);
+		return (getPlayedCardMask() & CardSet.getMask(card)) != CardSet.EMPTY;
+	}
+
+	/**
+	 * Gets all cards played so far
+	 * 
+	 * @return Card mask, see {@link CardSet}
+	 */
+	public int getPlayedCardMask() {
+
+		return playedCards[0] | playedCards[1] | playedCards[2];
+	}
+
+	/**
+	 * Gets the cards played by a player
+	 * 
+	 * @param player
+	 *            Player
+	 * @return Card mask, see {@link CardSet}
+	 */
+	public int getPlayedCardMask(final Player player) {
+
+		return playedCards[player.getOrder()];
 	}
 
 	/**
@@ -204,7 +249,7 @@ public class PlayerKnowledge {
 	 */
 	public boolean isCardPlayedBy(final Player player, final Card card) {
 
-		return playedCards.get(player).contains(card);
+		return (playedCards[player.getOrder()] & CardSet.getMask(card)) != CardSet.EMPTY;
 	}
 
 	/**
@@ -214,6 +259,10 @@ public class PlayerKnowledge {
 	 */
 	public final void setCurrentTrick(final Trick trick) {
 		this.currentTrick = trick;
+
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).currentTrickSet(trick);
+		}
 	}
 
 	/**
@@ -235,17 +284,19 @@ public class PlayerKnowledge {
 	 */
 	public void setCardPlayed(final Player player, final Card card) {
 
-		playedCards.get(player).add(card);
+		int cardMask = CardSet.getMask(card);
+		playedCards[player.getOrder()] |= cardMask;
 
-		for (Player currPlayer : Player.values()) {
-			possiblePlayerCards.get(currPlayer).remove(card);
-		}
-		possibleSkatCards.remove(card);
+		removePossibleCards(cardMask);
 		if (card.isTrump(getGameType()) && player != playerPosition) {
 			trumpCount++;
 		}
 
 		setTrickCard(player, card);
+
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).cardPlayed(player, card, currentTrick);
+		}
 	}
 
 	/**
@@ -281,62 +332,46 @@ public class PlayerKnowledge {
 				cardToCheck = thirdCard;
 			}
 
-			if (GameType.NULL.equals(getGameType())) {
-				if (!firstCard.isSameSuit(cardToCheck)) {
-					// player has not followed suit
-					// this means he has no cards with this suit
-					// remove all cards from same suit from "could have" cards
-					for (Card currCard : Card.values()) {
-						if (currCard.isSameSuit(firstCard)) {
-							possiblePlayerCards.get(otherPlayer).remove(
-									currCard);
-						}
-					}
-				}
-			} else {
-				SkatRule skatRules = SkatRuleFactory
-						.getSkatRules(getGameType());
+			GameType gameType = getGameType();
+			int trumps = CardSet.getTrumpMask(gameType);
+			int firstCardMask = CardSet.getMask(firstCard);
+			int cardToCheckMask = CardSet.getMask(cardToCheck);
 
-				if (firstCard.isTrump(getGameType())
-						&& !cardToCheck.isTrump(getGameType())) {
+			if ((firstCardMask & trumps) != CardSet.EMPTY) {
+				if ((cardToCheckMask & trumps) == CardSet.EMPTY) {
 					// first card was a trump card, player card was not
-					// remove jacks from the "could have" cards
-					possiblePlayerCards.get(otherPlayer).remove(Card.CJ);
-					possiblePlayerCards.get(otherPlayer).remove(Card.SJ);
-					possiblePlayerCards.get(otherPlayer).remove(Card.HJ);
-					possiblePlayerCards.get(otherPlayer).remove(Card.DJ);
-					// remove other trump cards for suit games
-					if (GameType.CLUBS.equals(getGameType())
-							|| GameType.SPADES.equals(getGameType())
-							|| GameType.HEARTS.equals(getGameType())
-							|| GameType.DIAMONDS.equals(getGameType())) {
-						for (Card currCard : Card.values()) {
-							if (currCard.isSameSuit(firstCard)) {
-								possiblePlayerCards.get(otherPlayer).remove(
-										currCard);
-							}
-						}
-					}
-				} else {
-					// first card was not a trump card
-					if (!firstCard.isSameSuit(cardToCheck)) {
-						// player has not followed suit
-						// this means he has no cards with this suit
-						// remove all cards for that suit in "could have"
-						// cards, except of the jacks
-						for (Card currCard : Card.values()) {
-							if (currCard.isSameSuit(firstCard)
-									&& currCard.getRank() != Rank.JACK) {
-								possiblePlayerCards.get(otherPlayer).remove(
-										currCard);
-							}
-						}
-					}
+					// remove all trump cards from the "could have" cards
+					possiblePlayerCards[otherPlayer.getOrder()] &= ~trumps;
+				}
+			} else {
+				// first card was not a trump card
+				int suitCards = CardSet.getSuitMask(gameType,
+						firstCard.getSuit());
+				if ((cardToCheckMask & suitCards) == CardSet.EMPTY) {
+					// player has not followed suit
+					// this means he has no cards with this suit
+					// remove all cards for that suit in "could have"
+					// cards, except of the trump cards
+					possiblePlayerCards[otherPlayer.getOrder()] &= ~suitCards;
 				}
 			}
 		}
 	}
 
+	/**
+	 * Removes cards from the "could have" cards of all players and the skat
+	 * 
+	 * @param cardMask
+	 *            Card mask
+	 */
+	private void removePossibleCards(final int cardMask) {
+
+		for (int i = 0; i < possiblePlayerCards.length; i++) {
+			possiblePlayerCards[i] &= ~cardMask;
+		}
+		possibleSkatCards &= ~cardMask;
+	}
+
 	/**
 	 * Checks whether a card was played by another player in the current trick
 	 * 
@@ -401,17 +436,18 @@ public class PlayerKnowledge {
 	 */
 	public boolean hasCard(final Player player, final Card card) {
 
+		int cardMask = CardSet.getMask(card);
 		int possessionCount = 0;
 
 		if (couldHaveCard(player, card)) {
 
 			// check all players and the skat whether the card could be there
-			for (Set<Card> s : possiblePlayerCards.values()) {
-				if (s.contains(card)) {
+			for (int possibleCards : possiblePlayerCards) {
+				if ((possibleCards & cardMask) != CardSet.EMPTY) {
 					possessionCount++;
 				}
 			}
-			if (possibleSkatCards.contains(card)) {
+			if ((possibleSkatCards & cardMask) != CardSet.EMPTY) {
 				possessionCount++;
 			}
 		}
@@ -442,7 +478,29 @@ public class PlayerKnowledge {
 	 */
 	public boolean couldHaveCard(final Player player, final Card card) {
 
-		return possiblePlayerCards.get(player).contains(card);
+		return (possiblePlayerCards[player.getOrder()] & CardSet.getMask(card)) != CardSet.EMPTY;
+	}
+
+	/**
+	 * Gets all cards a player could have, this is an uncertain information
+	 * 
+	 * @param player
+	 *            Player ID
+	 * @return Card mask, see {@link CardSet}
+	 */
+	public int getPossibleCardMask(final Player player) {
+
+		return possiblePlayerCards[player.getOrder()];
+	}
+
+	/**
+	 * Gets all cards that could lie in the skat
+	 * 
+	 * @return Card mask, see {@link CardSet}
+	 */
+	public int getPossibleSkatCardMask() {
+
+		return possibleSkatCards;
 	}
 
 	/**
@@ -456,13 +514,9 @@ public class PlayerKnowledge {
 	 * @return TRUE if the player could have any card of the suit
 	 */
 	public boolean couldHaveSuit(final Player player, final Suit suit) {
-		for (Rank r : Rank.values()) {
-			if (r == Rank.JACK) {
-				continue;
-			}
-			return couldHaveCard(player, Card.getCard(suit, r));
-		}
-		return false;
+
+		return (possiblePlayerCards[player.getOrder()]
+				& CardSet.getSuitMask(suit) & ~CardSet.getJackMask()) != CardSet.EMPTY;
 	}
 
 	/**
@@ -477,20 +531,14 @@ public class PlayerKnowledge {
 	 */
 	public int getPotentialSuitCount(final Player player, final Suit suit,
 			final boolean isTrump, final boolean includeJacks) {
-		int result = 0;
-		for (Rank r : Rank.values()) {
-			if (r == Rank.JACK && !includeJacks) {
-				continue;
-			} else if (couldHaveCard(player, Card.getCard(suit, r))) {
-				result++;
-			}
+		int possibleCards = possiblePlayerCards[player.getOrder()];
+		int suitCards = CardSet.getSuitMask(suit);
+		if (!includeJacks) {
+			suitCards &= ~CardSet.getJackMask();
 		}
+		int result = CardSet.size(possibleCards & suitCards);
 		if (isTrump) {
-			for (Suit s : Suit.values()) {
-				if (couldHaveCard(player, Card.getCard(s, Rank.JACK))) {
-					result++;
-				}
-			}
+			result += CardSet.size(possibleCards & CardSet.getJackMask());
 		}
 		return result;
 	}
@@ -504,12 +552,8 @@ public class PlayerKnowledge {
 	 * @return TRUE if the player could have any trump card
 	 */
 	public boolean couldHaveTrump(final Player player) {
-		for (Card c : Card.values()) {
-			if (c.isTrump(getGameType()) && couldHaveCard(player, c)) {
-				return true;
-			}
-		}
-		return false;
+
+		return (possiblePlayerCards[player.getOrder()] & getTrumpMask()) != CardSet.EMPTY;
 	}
 
 	/**
@@ -519,20 +563,11 @@ public class PlayerKnowledge {
 	 */
 	public boolean couldOpponentsHaveTrump() {
 		if (playerPosition == declarer) {
+			int trumps = getTrumpMask();
 			for (Player p : Player.values()) {
-				if (p == declarer) {
-					continue;
-				}
-				for (Suit s : Suit.values()) {
-					if (couldHaveCard(p, Card.getCard(s, Rank.JACK))) {
-						return true;
-					}
-				}
-				for (Rank r : Rank.values()) {
-					if (couldHaveCard(p, Card.getCard(getGame().getGameType()
-							.getTrumpSuit(), r))) {
-						return true;
-					}
+				if (p != declarer
+						&& (possiblePlayerCards[p.getOrder()] & trumps) != CardSet.EMPTY) {
+					return true;
 				}
 			}
 		}
@@ -547,7 +582,14 @@ public class PlayerKnowledge {
 	 * @return TRUE if card could lie in the skat
 	 */
 	public boolean couldLieInSkat(final Card card) {
-		return possibleSkatCards.contains(card);
+		return (possibleSkatCards & CardSet.getMask(card)) != CardSet.EMPTY;
+	}
+
+	private int getTrumpMask() {
+
+		GameType gameType = getGameType();
+		return gameType == null ? CardSet.EMPTY : CardSet
+				.getTrumpMask(gameType);
 	}
 
 	/**
@@ -559,13 +601,28 @@ public class PlayerKnowledge {
 	 */
 	public void setMissingSuit(final Player player, final Suit suit) {
 
-		for (Rank rank : Rank.values()) {
-			if (rank != Rank.JACK || GameType.NULL.equals(getGameType())
-					|| GameType.RAMSCH.equals(getGameType())) {
-				possiblePlayerCards.get(player)
-						.remove(Card.getCard(suit, rank));
-			}
+		int suitCards = CardSet.getSuitMask(suit);
+		if (!GameType.NULL.equals(getGameType())
+				&& !GameType.RAMSCH.equals(getGameType())) {
+			suitCards &= ~CardSet.getJackMask();
 		}
+		possiblePlayerCards[player.getOrder()] &= ~suitCards;
+	}
+
+	/**
+	 * Sets the cards discarded by the declarer, these are the only cards that
+	 * could lie in the skat
+	 * 
+	 * @param discardedCards
+	 *            Discarded cards
+	 */
+	public void setDiscardedCards(final CardList discardedCards) {
+
+		int discardedMask = CardSet.getMask(discardedCards);
+		for (int i = 0; i < possiblePlayerCards.length; i++) {
+			possiblePlayerCards[i] &= ~discardedMask;
+		}
+		possibleSkatCards = discardedMask;
 	}
 
 	/**
@@ -656,15 +713,17 @@ public class PlayerKnowledge {
 		if (!ownCards.contains(card)) {
 			ownCards.add(card);
 
-			possiblePlayerCards.get(playerPosition.getLeftNeighbor()).remove(
-					card);
-			possiblePlayerCards.get(playerPosition.getRightNeighbor()).remove(
-					card);
-			possibleSkatCards.remove(card);
+			int cardMask = CardSet.getMask(card);
+			possiblePlayerCards[playerPosition.getLeftNeighbor().getOrder()] &= ~cardMask;
+			possiblePlayerCards[playerPosition.getRightNeighbor().getOrder()] &= ~cardMask;
+			possibleSkatCards &= ~cardMask;
+
+			suitCount[card.getSuit().ordinal()]++;
+			suitPoints[card.getSuit().ordinal()] += card.getRank().getPoints();
 
-			suitCount.put(card.getSuit(), suitCount.get(card.getSuit()) + 1);
-			suitPoints.put(card.getSuit(), suitCount.get(card.getSuit())
-					+ card.getRank().getPoints());
+			for (int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).ownCardAdded(card);
+			}
 		}
 	}
 
@@ -688,14 +747,17 @@ public class PlayerKnowledge {
 	 */
 	public void removeCard(final Card card) {
 
-		suitCount.put(card.getSuit(), suitCount.get(card.getSuit()) - 1);
-		suitPoints.put(card.getSuit(), suitCount.get(card.getSuit())
-				- card.getRank().getPoints());
+		suitCount[card.getSuit().ordinal()]--;
+		suitPoints[card.getSuit().ordinal()] -= card.getRank().getPoints();
 	}
 
 	public void removeOwnCard(final Card card) {
 		removeCard(card);
 		ownCards.remove(card);
+
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).ownCardRemoved(card);
+		}
 	}
 
 	public void removeOwnCards(final CardList cards) {
@@ -712,6 +774,7 @@ public class PlayerKnowledge {
 
 		StringBuffer result = new StringBuffer();
 
+		int allPlayedCards = getPlayedCardMask();
 		result.append("Played cards:\n"); //$NON-NLS-1$
 		for (Suit suit : Suit.values()) {
 
@@ -719,12 +782,7 @@ public class PlayerKnowledge {
 
 			for (Rank rank : Rank.values()) {
 
-				if (playedCards.get(Player.FOREHAND).contains(
-						Card.getCard(suit, rank))
-						|| playedCards.get(Player.MIDDLEHAND).contains(
-								Card.getCard(suit, rank))
-						|| playedCards.get(Player.REARHAND).contains(
-								Card.getCard(suit, rank))) {
+				if ((allPlayedCards & CardSet.getMask(Card.getCard(suit, rank))) != CardSet.EMPTY) {
 
 					result.append(suit.shortString())
 							.append(rank.shortString()).append(' ');
@@ -799,6 +857,10 @@ public class PlayerKnowledge {
 	public void addTrick(final Trick trick) {
 
 		tricks.add(trick);
+
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).trickAdded(trick);
+		}
 	}
 
 	/**
@@ -880,7 +942,7 @@ public class PlayerKnowledge {
 	 */
 	public int getSuitCount(final Suit suit) {
 
-		return suitCount.get(suit).intValue();
+		return suitCount[suit.ordinal()];
 	}
 
 	/**
@@ -892,7 +954,7 @@ public class PlayerKnowledge {
 	 */
 	public int getSuitPoints(final Suit suit) {
 
-		return suitPoints.get(suit).intValue();
+		return suitPoints[suit.ordinal()];
 	}
 
 	/**
@@ -914,8 +976,18 @@ public class PlayerKnowledge {
 	 *            the ownCards to set
 	 */
 	public void setOwnCards(final CardList newCards) {
+		for (int i = 0; i < listeners.size(); i++) {
+			for (Card card : ownCards) {
+				listeners.get(i).ownCardRemoved(card);
+			}
+		}
 		ownCards.clear();
 		ownCards.addAll(newCards);
+		for (int i = 0; i < listeners.size(); i++) {
+			for (Card card : ownCards) {
+				listeners.get(i).ownCardAdded(card);
+			}
+		}
 	}
 
 	/**
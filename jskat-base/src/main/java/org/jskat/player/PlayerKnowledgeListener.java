@@ -0,0 +1,83 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.player;
+
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.Player;
+
+/**
+ * Gets informed about changes of the {@link PlayerKnowledge}, allows to keep
+ * derived data in sync without recalculating it from the whole knowledge
+ */
+public interface PlayerKnowledgeListener {
+
+	/**
+	 * The knowledge was reset for a new game
+	 * 
+	 * @param knowledge
+	 *            Player knowledge
+	 */
+	public void knowledgeReset(PlayerKnowledge knowledge);
+
+	/**
+	 * A card was added to the own cards
+	 * 
+	 * @param card
+	 *            Card
+	 */
+	public void ownCardAdded(Card card);
+
+	/**
+	 * A card was removed from the own cards
+	 * 
+	 * @param card
+	 *            Card
+	 */
+	public void ownCardRemoved(Card card);
+
+	/**
+	 * A new trick was started
+	 * 
+	 * @param trick
+	 *            Current trick
+	 */
+	public void currentTrickSet(Trick trick);
+
+	/**
+	 * A card was played into the current trick
+	 * 
+	 * @param player
+	 *            Player who played the card
+	 * @param card
+	 *            Card
+	 * @param trick
+	 *            Current trick, already containing the card
+	 */
+	public void cardPlayed(Player player, Card card, Trick trick);
+
+	/**
+	 * A trick was completed
+	 * 
+	 * @param trick
+	 *            Completed trick
+	 */
+	public void trickAdded(Trick trick);
+}
@@ -19,8 +19,7 @@
  */
 package org.jskat.util;
 
-import org.jskat.util.rule.SkatRuleFactory;
-import org.jskat.util.rule.SuitGrandRamschRule;
+import org.jskat.util.rule.RuleTables;
 
 /**
  * All cards in a skat game
@@ -265,7 +264,7 @@ public enum Card {
 		boolean result = false;
 
 		if (gameType != GameType.PASSED_IN) {
-			result = SkatRuleFactory.getSkatRules(gameType).isCardAllowed(gameType, initialCard, hand, this);
+			result = RuleTables.isCardAllowed(gameType, initialCard, hand, this);
 		}
 
 		return result;
@@ -280,14 +279,7 @@ public enum Card {
 	 */
 	public boolean isTrump(final GameType gameType) {
 
-		boolean result = false;
-
-		if (gameType != GameType.NULL) {
-
-			result = ((SuitGrandRamschRule) SkatRuleFactory.getSkatRules(gameType)).isTrump(gameType, this);
-		}
-
-		return result;
+		return (CardSet.getTrumpMask(gameType) & CardSet.getMask(this)) != 0;
 	}
 
 	/**
@@ -302,7 +294,7 @@ public enum Card {
 	 */
 	public boolean beats(final GameType gameType, final Card cardToBeat) {
 
-		return SkatRuleFactory.getSkatRules(gameType).isCardBeatsCard(gameType, cardToBeat, this);
+		return RuleTables.isCardBeatsCard(gameType, cardToBeat, this);
 	}
 
 	/**
@@ -319,13 +311,7 @@ public enum Card {
 	public static CardList getBeatingCards(final GameType gameType, final Card cardToBeat) {
 		// TODO (mjl 23.08.2011) write unit tests for Card.getBeatingCards()
 		// FIXME (mjl 05.09.2011) is this supposed to consider trump cards?
-		CardList beatingCards = new CardList();
-		for (Card card : Card.values()) {
-			if (card.beats(gameType, cardToBeat)) {
-				beatingCards.add(card);
-			}
-		}
-		return beatingCards;
+		return CardSet.toCardList(RuleTables.getBeatingCards(gameType, cardToBeat));
 	}
 
 	/**
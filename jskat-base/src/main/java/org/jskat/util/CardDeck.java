@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Random;
 import java.util.StringTokenizer;
 
 /**
@@ -164,4 +165,15 @@ public class CardDeck extends CardList {
 		// Simple random shuffling
 		Collections.shuffle(cards);
 	}
+
+	/**
+	 * Shuffles the CardDeck with a given random generator, the same generator
+	 * state always gives the same card order
+	 * 
+	 * @param rand
+	 *            Random generator
+	 */
+	public void shuffle(final Random rand) {
+		Collections.shuffle(cards, rand);
+	}
 }
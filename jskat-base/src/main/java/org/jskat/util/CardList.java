@@ -499,6 +499,16 @@ public class CardList implements Iterable<Card> {
 		return result;
 	}
 
+	/**
+	 * Converts the CardList into a {@link CardSet}, duplicate cards are only
+	 * held once
+	 * 
+	 * @return Card set
+	 */
+	public CardSet toCardSet() {
+		return new CardSet(this);
+	}
+
 	/**
 	 * Counts the total points of this CardList
 	 * 
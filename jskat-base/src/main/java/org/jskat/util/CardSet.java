@@ -0,0 +1,485 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Holds a set of cards as a bit mask with one bit for every {@link Card}
+ * ordinal<br>
+ * Membership tests and counting are done with single bit operations. The
+ * static methods work directly on int masks and can be used in hot loops
+ * without creating any objects.
+ */
+public class CardSet implements Iterable<Card> {
+
+	/**
+	 * Mask without any cards
+	 */
+	public static final int EMPTY = 0;
+	/**
+	 * Mask with all 32 cards
+	 */
+	public static final int ALL = 0xFFFFFFFF;
+
+	private static final Card[] CARDS = Card.values();
+
+	private static final int[] SUIT_MASKS = new int[Suit.values().length];
+	private static final int JACK_MASK;
+	private static final int[] TRUMP_MASKS = new int[GameType.values().length];
+	/**
+	 * Masks of all cards with the same points, indexed by rank ordinal
+	 */
+	private static final int[] RANK_MASKS = new int[Rank.values().length];
+
+	static {
+		int jacks = EMPTY;
+		for (Card card : CARDS) {
+			SUIT_MASKS[card.getSuit().ordinal()] |= getMask(card);
+			RANK_MASKS[card.getRank().ordinal()] |= getMask(card);
+			if (card.getRank() == Rank.JACK) {
+				jacks |= getMask(card);
+			}
+		}
+		JACK_MASK = jacks;
+
+		for (GameType gameType : GameType.values()) {
+			int trumps = EMPTY;
+			if (gameType == GameType.GRAND || gameType == GameType.RAMSCH) {
+				trumps = JACK_MASK;
+			} else if (gameType.getTrumpSuit() != null) {
+				trumps = JACK_MASK
+						| SUIT_MASKS[gameType.getTrumpSuit().ordinal()];
+			}
+			TRUMP_MASKS[gameType.ordinal()] = trumps;
+		}
+	}
+
+	private int cards;
+
+	/**
+	 * Constructor for an empty card set
+	 */
+	public CardSet() {
+		this(EMPTY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param mask
+	 *            Card mask
+	 */
+	public CardSet(final int mask) {
+		cards = mask;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param newCards
+	 *            Cards
+	 */
+	public CardSet(final Card... newCards) {
+		for (Card card : newCards) {
+			add(card);
+		}
+	}
+
+	/**
+	 * Constructor, duplicate cards are only held once
+	 * 
+	 * @param newCards
+	 *            Cards
+	 */
+	public CardSet(final CardList newCards) {
+		this(getMask(newCards));
+	}
+
+	/**
+	 * Gets the mask of a single card
+	 * 
+	 * @param card
+	 *            Card
+	 * @return Card mask
+	 */
+	public static int getMask(final Card card) {
+		return 1 << card.ordinal();
+	}
+
+	/**
+	 * Gets the mask of a card list
+	 * 
+	 * @param cardList
+	 *            Card list
+	 * @return Card mask
+	 */
+	public static int getMask(final CardList cardList) {
+
+		int result = EMPTY;
+		for (Card card : cardList) {
+			result |= getMask(card);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the mask of all cards of a suit, including the jack
+	 * 
+	 * @param suit
+	 *            Suit
+	 * @return Card mask
+	 */
+	public static int getSuitMask(final Suit suit) {
+		return SUIT_MASKS[suit.ordinal()];
+	}
+
+	/**
+	 * Gets the mask of all cards that belong to a suit in a game, trump cards
+	 * don't belong to any suit
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param suit
+	 *            Suit
+	 * @return Card mask
+	 */
+	public static int getSuitMask(final GameType gameType, final Suit suit) {
+		return SUIT_MASKS[suit.ordinal()] & ~TRUMP_MASKS[gameType.ordinal()];
+	}
+
+	/**
+	 * Gets the mask of all jacks
+	 * 
+	 * @return Card mask
+	 */
+	public static int getJackMask() {
+		return JACK_MASK;
+	}
+
+	/**
+	 * Gets the mask of all trump cards in a game
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Card mask, empty for null games
+	 */
+	public static int getTrumpMask(final GameType gameType) {
+		return TRUMP_MASKS[gameType.ordinal()];
+	}
+
+	/**
+	 * Counts the cards of a mask
+	 * 
+	 * @param mask
+	 *            Card mask
+	 * @return Number of cards
+	 */
+	public static int size(final int mask) {
+		return Integer.bitCount(mask);
+	}
+
+	/**
+	 * Counts the points of all cards of a mask
+	 * 
+	 * @param mask
+	 *            Card mask
+	 * @return Points
+	 */
+	public static int getTotalValue(final int mask) {
+
+		int result = 0;
+		for (Rank rank : Rank.values()) {
+			result += Integer.bitCount(mask & RANK_MASKS[rank.ordinal()])
+					* rank.getPoints();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the card with the lowest ordinal of a mask
+	 * 
+	 * @param mask
+	 *            Card mask, must not be empty
+	 * @return Card
+	 */
+	public static Card getFirstCard(final int mask) {
+		return CARDS[Integer.numberOfTrailingZeros(mask)];
+	}
+
+	/**
+	 * Converts a mask into a card list ordered by card ordinal
+	 * 
+	 * @param mask
+	 *            Card mask
+	 * @return Card list
+	 */
+	public static CardList toCardList(final int mask) {
+
+		CardList result = new CardList();
+		int remaining = mask;
+		while (remaining != EMPTY) {
+			result.add(getFirstCard(remaining));
+			remaining &= remaining - 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the card mask
+	 * 
+	 * @return Card mask
+	 */
+	public int getMask() {
+		return cards;
+	}
+
+	/**
+	 * Adds a card
+	 * 
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card was not in the set before
+	 */
+	public boolean add(final Card card) {
+		int before = cards;
+		cards |= getMask(card);
+		return before != cards;
+	}
+
+	/**
+	 * Adds all cards of another set
+	 * 
+	 * @param cardSet
+	 *            Card set
+	 */
+	public void addAll(final CardSet cardSet) {
+		cards |= cardSet.cards;
+	}
+
+	/**
+	 * Removes a card
+	 * 
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card was in the set before
+	 */
+	public boolean remove(final Card card) {
+		int before = cards;
+		cards &= ~getMask(card);
+		return before != cards;
+	}
+
+	/**
+	 * Removes all cards of another set
+	 * 
+	 * @param cardSet
+	 *            Card set
+	 */
+	public void removeAll(final CardSet cardSet) {
+		cards &= ~cardSet.cards;
+	}
+
+	/**
+	 * Keeps only the cards that are in another set too
+	 * 
+	 * @param cardSet
+	 *            Card set
+	 */
+	public void retainAll(final CardSet cardSet) {
+		cards &= cardSet.cards;
+	}
+
+	/**
+	 * Removes all cards
+	 */
+	public void clear() {
+		cards = EMPTY;
+	}
+
+	/**
+	 * Checks whether a card is in the set
+	 * 
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card is in the set
+	 */
+	public boolean contains(final Card card) {
+		return (cards & getMask(card)) != EMPTY;
+	}
+
+	/**
+	 * Gets the number of cards
+	 * 
+	 * @return Number of cards
+	 */
+	public int size() {
+		return size(cards);
+	}
+
+	/**
+	 * Checks whether the set is empty
+	 * 
+	 * @return TRUE if there are no cards in the set
+	 */
+	public boolean isEmpty() {
+		return cards == EMPTY;
+	}
+
+	/**
+	 * Checks whether a card of a suit is in the set, trump cards don't belong
+	 * to any suit
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param suit
+	 *            Suit
+	 * @return TRUE if a card of the suit is in the set
+	 */
+	public boolean hasSuit(final GameType gameType, final Suit suit) {
+		return (cards & getSuitMask(gameType, suit)) != EMPTY;
+	}
+
+	/**
+	 * Checks whether a trump card is in the set
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return TRUE if a trump card is in the set
+	 */
+	public boolean hasTrump(final GameType gameType) {
+		return (cards & getTrumpMask(gameType)) != EMPTY;
+	}
+
+	/**
+	 * Checks whether the jack of a suit is in the set
+	 * 
+	 * @param suit
+	 *            Suit
+	 * @return TRUE if the jack is in the set
+	 */
+	public boolean hasJack(final Suit suit) {
+		return (cards & JACK_MASK & SUIT_MASKS[suit.ordinal()]) != EMPTY;
+	}
+
+	/**
+	 * Counts the cards of a suit
+	 * 
+	 * @param suit
+	 *            Suit
+	 * @param countJack
+	 *            TRUE if the jack of the suit should be counted
+	 * @return Number of cards
+	 */
+	public int getSuitCount(final Suit suit, final boolean countJack) {
+
+		int mask = SUIT_MASKS[suit.ordinal()];
+		if (!countJack) {
+			mask &= ~JACK_MASK;
+		}
+		return size(cards & mask);
+	}
+
+	/**
+	 * Counts the trump cards for a potential trump suit
+	 * 
+	 * @param trumpSuit
+	 *            Trump suit
+	 * @return Number of jacks and cards of the trump suit
+	 */
+	public int getTrumpCount(final Suit trumpSuit) {
+		return size(cards & (JACK_MASK | SUIT_MASKS[trumpSuit.ordinal()]));
+	}
+
+	/**
+	 * Counts the points of all cards
+	 * 
+	 * @return Points
+	 */
+	public int getTotalValue() {
+		return getTotalValue(cards);
+	}
+
+	/**
+	 * Converts the set into a card list ordered by card ordinal
+	 * 
+	 * @return Card list
+	 */
+	public CardList toCardList() {
+		return toCardList(cards);
+	}
+
+	/**
+	 * @see Iterable#iterator()
+	 */
+	@Override
+	public Iterator<Card> iterator() {
+
+		return new Iterator<Card>() {
+
+			private int remaining = cards;
+
+			@Override
+			public boolean hasNext() {
+				return remaining != EMPTY;
+			}
+
+			@Override
+			public Card next() {
+				if (remaining == EMPTY) {
+					throw new NoSuchElementException();
+				}
+				Card card = getFirstCard(remaining);
+				remaining &= remaining - 1;
+				return card;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		return cards;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CardSet)) {
+			return false;
+		}
+		return cards == ((CardSet) obj).cards;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return toCardList().toString();
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+/**
+ * Confidence intervals shared by the simulations and the tournament
+ * statistics
+ */
+public final class Confidence {
+
+	/**
+	 * Quantile of the standard normal distribution for 95% confidence
+	 */
+	public static final double Z_95 = 1.96;
+
+	private Confidence() {
+		// only static methods
+	}
+
+	/**
+	 * Gets the lower bound of the 95% Wilson score interval of a rate
+	 * 
+	 * @param successes
+	 *            Number of successes
+	 * @param trials
+	 *            Number of trials
+	 * @return Lower bound, 0.0 without trials
+	 */
+	public static double getWilsonLowerBound(final long successes,
+			final long trials) {
+		return getWilsonBound(successes, trials, -1.0);
+	}
+
+	/**
+	 * Gets the upper bound of the 95% Wilson score interval of a rate
+	 * 
+	 * @param successes
+	 *            Number of successes
+	 * @param trials
+	 *            Number of trials
+	 * @return Upper bound, 1.0 without trials
+	 */
+	public static double getWilsonUpperBound(final long successes,
+			final long trials) {
+		return getWilsonBound(successes, trials, 1.0);
+	}
+
+	private static double getWilsonBound(final long successes,
+			final long trials, final double direction) {
+
+		if (trials == 0) {
+			return direction < 0 ? 0.0 : 1.0;
+		}
+
+		double n = trials;
+		double p = successes / n;
+		double z2 = Z_95 * Z_95;
+		double center = p + z2 / (2 * n);
+		double spread = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+
+		return (center + direction * spread) / (1 + z2 / n);
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fast, seedable and splittable random generator (SplitMix64)<br>
+ * An instance must only be used by one thread at a time, parallel workers get
+ * their own instance by {@link #split()} or {@link #forIndex(long, long)}.
+ * Unlike {@link Random} the generator is not synchronized, so workers never
+ * contend on a shared generator.
+ */
+public class SkatRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static final AtomicLong seedUniquifier = new AtomicLong(
+			System.nanoTime());
+
+	/**
+	 * Generator state, set by {@link #setSeed(long)} from the constructor of
+	 * {@link Random}, so it must not have an initializer
+	 */
+	private long state;
+
+	/**
+	 * Constructor with a seed that differs for every instance
+	 */
+	public SkatRandom() {
+
+		this(mix64(seedUniquifier.addAndGet(GOLDEN_GAMMA)) ^ System.nanoTime());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param seed
+	 *            Seed, generators with the same seed produce the same numbers
+	 */
+	public SkatRandom(final long seed) {
+
+		super(seed);
+	}
+
+	/**
+	 * Creates a generator for an index of a seeded run, e.g. the deal number
+	 * of a tournament or the table number of a trainer<br>
+	 * The generator only depends on the seed and the index, not on the order
+	 * in which the indexes are processed
+	 * 
+	 * @param seed
+	 *            Seed of the run
+	 * @param index
+	 *            Index
+	 * @return Random generator
+	 */
+	public static SkatRandom forIndex(final long seed, final long index) {
+
+		return new SkatRandom(mix64(seed ^ mix64(index * GOLDEN_GAMMA + 1L)));
+	}
+
+	/**
+	 * Splits off a new independent generator, the state of this generator is
+	 * advanced
+	 * 
+	 * @return New random generator
+	 */
+	public SkatRandom split() {
+
+		return new SkatRandom(mix64(nextLong()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSeed(final long seed) {
+
+		state = seed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int next(final int bits) {
+
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long nextLong() {
+
+		state += GOLDEN_GAMMA;
+		return mix64(state);
+	}
+
+	private static long mix64(final long value) {
+
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -21,7 +21,6 @@ package org.jskat.util.rule;
 
 import org.jskat.data.SkatGameData;
 import org.jskat.data.Trick;
-import org.jskat.util.Card;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
 import org.slf4j.Logger;
@@ -53,35 +52,16 @@ public abstract class AbstractSkatRule implements SkatRule {
 	public Player calculateTrickWinner(final GameType gameType,
 			final Trick trick) {
 
-		Player trickWinner = null;
-		Card first = trick.getFirstCard();
-		Card second = trick.getSecondCard();
-		Card third = trick.getThirdCard();
 		Player trickForeHand = trick.getForeHand();
+		Player trickWinner = RuleTables.calculateTrickWinner(gameType,
+				trickForeHand, trick.getFirstCard(), trick.getSecondCard(),
+				trick.getThirdCard());
 
-		if (isCardBeatsCard(gameType, first, second)) {
-
-			if (isCardBeatsCard(gameType, second, third)) {
-				// trick winner is rear hand
-				trickWinner = trickForeHand.getRightNeighbor();
-			} else {
-				// trick winner is middle hand
-				trickWinner = trickForeHand.getLeftNeighbor();
-			}
-		} else {
-
-			if (isCardBeatsCard(gameType, first, third)) {
-				// trick winner is rear hand
-				trickWinner = trickForeHand.getRightNeighbor();
-			} else {
-				// trick winner is fore hand
-				trickWinner = trickForeHand;
-			}
+		if (log.isDebugEnabled()) {
+			log.debug("Trick fore hand: " + trickForeHand); //$NON-NLS-1$
+			log.debug("Trick winner: " + trickWinner); //$NON-NLS-1$
 		}
 
-		log.debug("Trick fore hand: " + trickForeHand); //$NON-NLS-1$
-		log.debug("Trick winner: " + trickWinner); //$NON-NLS-1$
-
 		return trickWinner;
 	}
 }
@@ -22,6 +22,7 @@ package org.jskat.util.rule;
 import org.jskat.data.SkatGameData;
 import org.jskat.util.Card;
 import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
 import org.jskat.util.GameType;
 import org.jskat.util.SkatConstants;
 import org.jskat.util.Suit;
@@ -62,21 +63,10 @@ public class NullRule extends AbstractSkatRule {
 	 * @see SkatRule#isCardBeatsCard(GameType, Card, Card)
 	 */
 	@Override
-	public boolean isCardBeatsCard(
-			@SuppressWarnings("unused") final GameType gameType,
+	public boolean isCardBeatsCard(final GameType gameType,
 			final Card cardToBeat, final Card card) {
 
-		boolean result = false;
-
-		if (cardToBeat.getSuit() == card.getSuit()) {
-
-			if (cardToBeat.getNullOrder() < card.getNullOrder()) {
-
-				result = true;
-			}
-		}
-
-		return result;
+		return RuleTables.isCardBeatsCard(gameType, cardToBeat, card);
 	}
 
 	/**
@@ -86,21 +76,7 @@ public class NullRule extends AbstractSkatRule {
 	public boolean isCardAllowed(final GameType gameType,
 			final Card initialCard, final CardList hand, final Card card) {
 
-		boolean result = false;
-
-		if (initialCard == null) {
-			// no intial card is given --> every card is allowed
-			result = true;
-		} else if (card.getSuit() == initialCard.getSuit()) {
-			// card must serve same suit
-			result = true;
-
-		} else if (!hand.hasSuit(gameType, initialCard.getSuit())) {
-			// hand has no card of same suit --> every card is allowed
-			result = true;
-		}
-
-		return result;
+		return RuleTables.isCardAllowed(gameType, initialCard, hand, card);
 	}
 
 	/**
@@ -120,20 +96,7 @@ public class NullRule extends AbstractSkatRule {
 	public boolean hasSuit(final GameType gameType, final CardList hand,
 			final Suit suit) {
 
-		boolean result = false;
-
-		int index = 0;
-		while (!result && index < hand.size()) {
-
-			if (hand.get(index).getSuit() == suit) {
-
-				result = true;
-			}
-
-			index++;
-		}
-
-		return result;
+		return (CardSet.getMask(hand) & CardSet.getSuitMask(gameType, suit)) != 0;
 	}
 
 	/**
@@ -0,0 +1,236 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util.rule;
+
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+
+/**
+ * Lookup tables for the card rules of all game types<br>
+ * For every game type and card the tables hold the mask of all cards that
+ * beat the card and the mask of all cards that follow the card when it is
+ * led. The tables are built once when the class is loaded and are used by all
+ * {@link SkatRule} implementations.
+ */
+public final class RuleTables {
+
+	private static final Card[] CARDS = Card.values();
+
+	/**
+	 * Cards beating a card, indexed by game type and card to beat
+	 */
+	private static final int[][] BEATING_CARDS = new int[GameType.values().length][CARDS.length];
+	/**
+	 * Cards following a led card, indexed by game type and led card
+	 */
+	private static final int[][] FOLLOWING_CARDS = new int[GameType.values().length][CARDS.length];
+
+	static {
+		for (GameType gameType : GameType.values()) {
+			if (gameType == GameType.PASSED_IN) {
+				continue;
+			}
+			for (Card cardToBeat : CARDS) {
+				for (Card card : CARDS) {
+					if (calculateBeats(gameType, cardToBeat, card)) {
+						BEATING_CARDS[gameType.ordinal()][cardToBeat.ordinal()] |= CardSet
+								.getMask(card);
+					}
+				}
+				FOLLOWING_CARDS[gameType.ordinal()][cardToBeat.ordinal()] = calculateFollowingCards(
+						gameType, cardToBeat);
+			}
+		}
+	}
+
+	private RuleTables() {
+		// only static methods
+	}
+
+	private static boolean isTrump(final GameType gameType, final Card card) {
+		return (CardSet.getTrumpMask(gameType) & CardSet.getMask(card)) != 0;
+	}
+
+	private static boolean calculateBeats(final GameType gameType,
+			final Card cardToBeat, final Card card) {
+
+		if (gameType == GameType.NULL) {
+			return cardToBeat.getSuit() == card.getSuit()
+					&& cardToBeat.getNullOrder() < card.getNullOrder();
+		}
+
+		if (isTrump(gameType, cardToBeat)) {
+			if (!isTrump(gameType, card)) {
+				return false;
+			}
+			if (cardToBeat.getSuitGrandOrder() == card.getSuitGrandOrder()) {
+				// only possible for two jacks
+				return cardToBeat.getSuit().getSuitOrder() < card.getSuit()
+						.getSuitOrder();
+			}
+			return cardToBeat.getSuitGrandOrder() < card.getSuitGrandOrder();
+		}
+
+		return isTrump(gameType, card)
+				|| cardToBeat.getSuit() == card.getSuit()
+				&& cardToBeat.getSuitGrandOrder() < card.getSuitGrandOrder();
+	}
+
+	private static int calculateFollowingCards(final GameType gameType,
+			final Card initialCard) {
+
+		if (isTrump(gameType, initialCard)) {
+			return CardSet.getTrumpMask(gameType);
+		}
+		return CardSet.getSuitMask(gameType, initialCard.getSuit());
+	}
+
+	/**
+	 * Gets all cards that beat a card
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param cardToBeat
+	 *            Card to beat
+	 * @return Mask of all beating cards
+	 */
+	public static int getBeatingCards(final GameType gameType,
+			final Card cardToBeat) {
+		return BEATING_CARDS[gameType.ordinal()][cardToBeat.ordinal()];
+	}
+
+	/**
+	 * Gets all cards that follow a led card
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param initialCard
+	 *            Led card
+	 * @return Mask of all cards that follow suit or trump
+	 */
+	public static int getFollowingCards(final GameType gameType,
+			final Card initialCard) {
+		return FOLLOWING_CARDS[gameType.ordinal()][initialCard.ordinal()];
+	}
+
+	/**
+	 * Checks whether a card beats another card
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param cardToBeat
+	 *            Card to beat
+	 * @param card
+	 *            Card
+	 * @return TRUE if the card beats the other card
+	 */
+	public static boolean isCardBeatsCard(final GameType gameType,
+			final Card cardToBeat, final Card card) {
+		return (getBeatingCards(gameType, cardToBeat) & CardSet.getMask(card)) != 0;
+	}
+
+	/**
+	 * Calculates the winner of a complete trick
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param trickForeHand
+	 *            Fore hand of the trick
+	 * @param firstCard
+	 *            First card of the trick
+	 * @param secondCard
+	 *            Second card of the trick
+	 * @param thirdCard
+	 *            Third card of the trick
+	 * @return Trick winner
+	 */
+	public static Player calculateTrickWinner(final GameType gameType,
+			final Player trickForeHand, final Card firstCard,
+			final Card secondCard, final Card thirdCard) {
+
+		if (isCardBeatsCard(gameType, firstCard, secondCard)) {
+			if (isCardBeatsCard(gameType, secondCard, thirdCard)) {
+				return trickForeHand.getRightNeighbor();
+			}
+			return trickForeHand.getLeftNeighbor();
+		}
+		if (isCardBeatsCard(gameType, firstCard, thirdCard)) {
+			return trickForeHand.getRightNeighbor();
+		}
+		return trickForeHand;
+	}
+
+	/**
+	 * Gets all cards of a hand that are allowed to be played
+	 * 
+	 * @param handMask
+	 *            Mask of the cards on the hand
+	 * @param initialCard
+	 *            Led card or NULL if the trick is empty
+	 * @param gameType
+	 *            Game type
+	 * @return Mask of all allowed cards
+	 */
+	public static int legalMoves(final int handMask, final Card initialCard,
+			final GameType gameType) {
+
+		if (initialCard == null) {
+			return handMask;
+		}
+
+		int followingCards = handMask
+				& getFollowingCards(gameType, initialCard);
+		if (followingCards != 0) {
+			return followingCards;
+		}
+		return handMask;
+	}
+
+	/**
+	 * Checks whether a card is allowed to be played
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @param initialCard
+	 *            Led card or NULL if the trick is empty
+	 * @param hand
+	 *            Cards on the hand
+	 * @param card
+	 *            Card to be played
+	 * @return TRUE if the card is allowed
+	 */
+	public static boolean isCardAllowed(final GameType gameType,
+			final Card initialCard, final CardList hand, final Card card) {
+
+		if (initialCard == null) {
+			return true;
+		}
+
+		int followingCards = getFollowingCards(gameType, initialCard);
+		if ((followingCards & CardSet.getMask(card)) != 0) {
+			return true;
+		}
+		// every card is allowed if the hand can't follow
+		return (CardSet.getMask(hand) & followingCards) == 0;
+	}
+}
@@ -76,7 +76,9 @@ public abstract class SuitGrandRule extends SuitGrandRamschRule {
 	public int getGameValueForWonGame(final SkatGameData gameData) {
 		int multiplier = getMultiplier(gameData);
 
-		log.debug("calcSuitResult: after Jacks and Trump: multiplier " + multiplier); //$NON-NLS-1$
+		if (log.isDebugEnabled()) {
+			log.debug("calcSuitResult: after Jacks and Trump: multiplier " + multiplier); //$NON-NLS-1$
+		}
 
 		// TODO add option: Hand game is only counted when game was not lost
 		// if (gameData.isHand() && !gameData.isGameLost()) {
@@ -93,7 +95,9 @@ public abstract class SuitGrandRule extends SuitGrandRamschRule {
 			if (gameData.isHand() && gameData.isSchneiderAnnounced()) {
 				multiplier++;
 			}
-			log.debug("calcSuitResult: Schneider: multiplier " + multiplier); //$NON-NLS-1$
+			if (log.isDebugEnabled()) {
+				log.debug("calcSuitResult: Schneider: multiplier " + multiplier); //$NON-NLS-1$
+			}
 		}
 
 		if (gameData.isSchwarz()) {
@@ -101,13 +105,17 @@ public abstract class SuitGrandRule extends SuitGrandRamschRule {
 			if (gameData.isHand() && gameData.isSchwarzAnnounced()) {
 				multiplier++;
 			}
-			log.debug("calcSuitResult: Schwarz: multiplier " + multiplier); //$NON-NLS-1$
+			if (log.isDebugEnabled()) {
+				log.debug("calcSuitResult: Schwarz: multiplier " + multiplier); //$NON-NLS-1$
+			}
 		}
 
 		int gameValue = SkatConstants.getGameBaseValue(gameData.getGameType(),
 				gameData.isHand(), gameData.isOuvert());
 
-		log.debug("gameValue" + gameValue); //$NON-NLS-1$
+		if (log.isDebugEnabled()) {
+			log.debug("gameValue" + gameValue); //$NON-NLS-1$
+		}
 
 		return gameValue * multiplier;
 	}
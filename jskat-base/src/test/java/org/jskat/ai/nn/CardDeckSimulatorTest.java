@@ -129,7 +129,7 @@ public class CardDeckSimulatorTest extends AbstractJSkatTest {
 		cards.add(Card.CJ);
 		cards.add(Card.SJ);
 		cards.add(Card.HJ);
-		cards.add(Card.SJ);
+		cards.add(Card.DJ);
 		cards.add(Card.CA);
 		cards.add(Card.CT);
 		cards.add(Card.CK);
@@ -0,0 +1,293 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.Suit;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DealSampler}
+ */
+public class DealSamplerTest extends AbstractJSkatTest {
+
+	private static final int SAMPLES = 500;
+
+	/**
+	 * Consistent deals of the small constrained case, samples and the
+	 * chi-square value for 26 degrees of freedom at p = 0.001
+	 */
+	private static final int UNIFORM_DEALS = 27;
+	private static final int UNIFORM_SAMPLES = 27000;
+	private static final double UNIFORM_CHI_SQUARE = 54.05;
+
+	private PlayerKnowledge knowledge;
+	private Random rand;
+
+	/**
+	 * Sets up the knowledge of the declarer in fore hand for a grand game
+	 */
+	@Before
+	public void setUp() {
+
+		rand = new Random(42);
+
+		knowledge = new PlayerKnowledge();
+		knowledge.setPlayerPosition(Player.FOREHAND);
+		knowledge.addOwnCards(new CardList(Card.CJ, Card.SJ, Card.CA, Card.CT,
+				Card.CK, Card.SA, Card.ST, Card.HA, Card.HT, Card.DA));
+		knowledge.setDeclarer(Player.FOREHAND);
+
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.GRAND);
+		knowledge.setGame(factory.getAnnouncement());
+		knowledge.setCurrentTrick(new Trick(0, Player.FOREHAND));
+	}
+
+	/**
+	 * Only the own cards are known
+	 */
+	@Test
+	public void sample_OwnCardsOnly() {
+
+		CardList hand = knowledge.getOwnCards();
+		DealSampler sampler = new DealSampler(Player.MIDDLEHAND, hand);
+		assertTrue(sampler.isConsistent());
+
+		int[] distribution = new int[4];
+		for (int i = 0; i < SAMPLES; i++) {
+			sampler.sample(rand, distribution);
+			assertCompleteDistribution(distribution);
+			assertEquals(CardSet.getMask(hand),
+					distribution[Player.MIDDLEHAND.getOrder()]);
+		}
+	}
+
+	/**
+	 * Players who didn't follow suit never get cards of that suit
+	 */
+	@Test
+	public void sample_MidGame() {
+
+		knowledge.setCardPlayed(Player.FOREHAND, Card.CA);
+		knowledge.removeOwnCard(Card.CA);
+		knowledge.setCardPlayed(Player.MIDDLEHAND, Card.HQ);
+		knowledge.setCardPlayed(Player.REARHAND, Card.C7);
+
+		DealSampler sampler = new DealSampler(knowledge);
+		assertTrue(sampler.isConsistent());
+
+		int middleHandClubs = CardSet.getMask(new CardList(Card.CQ,
+				Card.C9, Card.C8));
+
+		int[] distribution = new int[4];
+		for (int i = 0; i < SAMPLES; i++) {
+			sampler.sample(rand, distribution);
+			assertCompleteDistribution(distribution);
+			assertTrue(isSet(distribution[Player.FOREHAND.getOrder()], Card.CA));
+			assertTrue(isSet(distribution[Player.MIDDLEHAND.getOrder()],
+					Card.HQ));
+			assertTrue(isSet(distribution[Player.REARHAND.getOrder()], Card.C7));
+			assertEquals(0, distribution[Player.MIDDLEHAND.getOrder()]
+					& middleHandClubs);
+		}
+
+		CardDeck deck = sampler.sampleCardDeck(rand);
+		assertEquals(32, deck.size());
+		assertTrue(deck.get(0) == Card.CA || deck.get(1) == Card.CA
+				|| deck.get(2) == Card.CA || deck.get(11) == Card.CA
+				|| deck.get(12) == Card.CA || deck.get(13) == Card.CA
+				|| deck.get(14) == Card.CA || deck.get(23) == Card.CA
+				|| deck.get(24) == Card.CA || deck.get(25) == Card.CA);
+	}
+
+	/**
+	 * The declarer knows the skat after discarding
+	 */
+	@Test
+	public void sample_DiscardedCards() {
+
+		knowledge.setDiscardedCards(new CardList(Card.D7, Card.D8));
+
+		DealSampler sampler = new DealSampler(knowledge);
+		assertTrue(sampler.isConsistent());
+
+		int[] distribution = new int[4];
+		for (int i = 0; i < SAMPLES; i++) {
+			sampler.sample(rand, distribution);
+			assertCompleteDistribution(distribution);
+			assertEquals(CardSet.getMask(new CardList(Card.D7, Card.D8)),
+					distribution[DealSampler.SKAT]);
+		}
+	}
+
+	/**
+	 * Contradicting knowledge still leads to complete deals
+	 */
+	@Test
+	public void sample_InconsistentKnowledge() {
+
+		for (Suit suit : Suit.values()) {
+			knowledge.setMissingSuit(Player.MIDDLEHAND, suit);
+		}
+
+		DealSampler sampler = new DealSampler(knowledge);
+		assertFalse(sampler.isConsistent());
+
+		int[] distribution = new int[4];
+		sampler.sample(rand, distribution);
+		assertCompleteDistribution(distribution);
+	}
+
+	/**
+	 * Sampling into an existing deck gives the same deals as sampling new
+	 * decks
+	 */
+	@Test
+	public void sampleCardDeck_Reused() {
+
+		DealSampler sampler = new DealSampler(Player.FOREHAND, new CardList(
+				Card.CJ, Card.SJ, Card.CA, Card.CT, Card.CK, Card.SA, Card.ST,
+				Card.HA, Card.D7, Card.D8));
+
+		CardDeck deck = new CardDeck();
+		Random sameRand = new Random(42);
+		for (int i = 0; i < 10; i++) {
+			sampler.sampleCardDeck(rand, deck);
+			assertEquals(sampler.sampleCardDeck(sameRand), deck);
+		}
+	}
+
+	/**
+	 * All deals that respect the constraints are sampled equally often,
+	 * checked with a chi-square test over a small constrained case
+	 */
+	@Test
+	public void sample_Uniform() {
+
+		// middle hand can't hold the hearts, rear hand not the club
+		CardList unknown = new CardList(Card.H7, Card.H8, Card.C7, Card.C8,
+				Card.S7, Card.D7);
+		int unknownMask = CardSet.getMask(unknown);
+		int hearts = CardSet.getMask(new CardList(Card.H7, Card.H8));
+		int club = CardSet.getMask(new CardList(Card.C7));
+
+		// the other cards are known, two unknown cards for every location
+		int[] knownCards = new int[4];
+		int[] cardCounts = { 10, 8, 8, 0 };
+		int location = 0;
+		for (Card card : Card.values()) {
+			if (!isSet(unknownMask, card)) {
+				while (Integer.bitCount(knownCards[location]) == cardCounts[location]) {
+					location++;
+				}
+				knownCards[location] |= CardSet.getMask(card);
+			}
+		}
+		int[] possibleCards = { 0, unknownMask & ~hearts, unknownMask & ~club,
+				unknownMask };
+
+		DealSampler sampler = new DealSampler(knownCards, possibleCards);
+		assertTrue(sampler.isConsistent());
+
+		// deals by the unknown cards of middle hand and rear hand
+		Map<Long, Integer> dealCounts = new HashMap<Long, Integer>();
+		for (int middleHand : getPairs(unknownMask & ~hearts)) {
+			for (int rearHand : getPairs(unknownMask & ~club & ~middleHand)) {
+				dealCounts.put(getDeal(middleHand, rearHand),
+						Integer.valueOf(0));
+			}
+		}
+		assertEquals(UNIFORM_DEALS, dealCounts.size());
+
+		int[] distribution = new int[4];
+		for (int i = 0; i < UNIFORM_SAMPLES; i++) {
+			sampler.sample(rand, distribution);
+			Long deal = getDeal(distribution[1] & unknownMask,
+					distribution[2] & unknownMask);
+			Integer count = dealCounts.get(deal);
+			assertTrue("Deal breaks the constraints", count != null); //$NON-NLS-1$
+			dealCounts.put(deal, Integer.valueOf(count.intValue() + 1));
+		}
+
+		double expected = (double) UNIFORM_SAMPLES / UNIFORM_DEALS;
+		double chiSquare = 0.0;
+		for (Integer count : dealCounts.values()) {
+			double difference = count.intValue() - expected;
+			chiSquare += difference * difference / expected;
+		}
+		assertTrue("Chi-square: " + chiSquare, //$NON-NLS-1$
+				chiSquare < UNIFORM_CHI_SQUARE);
+	}
+
+	private static List<Integer> getPairs(final int mask) {
+
+		List<Integer> result = new ArrayList<Integer>();
+		for (int first = mask; first != 0; first &= first - 1) {
+			for (int second = first & (first - 1); second != 0; second &= second - 1) {
+				result.add(Integer.valueOf(Integer.lowestOneBit(first)
+						| Integer.lowestOneBit(second)));
+			}
+		}
+		return result;
+	}
+
+	private static Long getDeal(final int middleHand, final int rearHand) {
+		return Long.valueOf(((long) middleHand << 32) | (rearHand & 0xFFFFFFFFL));
+	}
+
+	private static boolean isSet(final int mask, final Card card) {
+		return (mask & (1 << card.ordinal())) != 0;
+	}
+
+	private static void assertCompleteDistribution(final int[] distribution) {
+
+		int allCards = 0;
+		for (int i = 0; i < 3; i++) {
+			assertEquals(10, Integer.bitCount(distribution[i]));
+			assertEquals(0, allCards & distribution[i]);
+			allCards |= distribution[i];
+		}
+		assertEquals(2, Integer.bitCount(distribution[DealSampler.SKAT]));
+		allCards |= distribution[DealSampler.SKAT];
+		assertEquals(0xFFFFFFFF, allCards);
+	}
+}
@@ -0,0 +1,428 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GameSimulator}
+ */
+public class GameSimulatorTest extends AbstractJSkatTest {
+
+	/**
+	 * Upper bound for the memory allocated by a simulated grand episode in
+	 * steady state, about 28 KB are measured. Trick copies for the players,
+	 * the networks' inputs, the checks of the played cards and the game
+	 * summary still allocate.
+	 */
+	private static final long MAX_BYTES_PER_EPISODE = 36 * 1024;
+
+	/**
+	 * Number of threads that simulate at the same time
+	 */
+	private static final int CALLERS = 4;
+	private static final int PARALLELISM_CHANGES = 20;
+
+	private final int defaultParallelism = GameSimulator.getParallelism();
+
+	/**
+	 * Restores the default number of simulation threads
+	 */
+	@After
+	public void restoreParallelism() {
+		GameSimulator.setParallelism(defaultParallelism);
+	}
+
+	/**
+	 * Episodes of all tasks are merged per hand and game type
+	 */
+	@Test
+	public void simulateMaxEpisodes_MergesTaskResults() {
+
+		GameSimulator.setParallelism(3);
+
+		List<GameType> gameTypes = Arrays.asList(GameType.GRAND,
+				GameType.CLUBS);
+		List<CardList> hands = Arrays.asList(getHand1(), getHand2());
+
+		long episodes = 2 * GameSimulator.EPISODES_PER_TASK + 1;
+		List<SimulationResults> results = GameSimulator.simulateMaxEpisodes(
+				gameTypes, Player.FOREHAND, hands, Long.valueOf(episodes));
+
+		assertEquals(2, results.size());
+		for (SimulationResults handResults : results) {
+			assertEquals(2, handResults.getAllWonRates().size());
+			for (GameType gameType : gameTypes) {
+				assertEquals(episodes, handResults.getEpisodes(gameType));
+				double wonRate = handResults.getWonRate(gameType).doubleValue();
+				assertTrue(wonRate >= 0.0 && wonRate <= 1.0);
+			}
+		}
+	}
+
+	/**
+	 * Simulations with the same seed give the same results, regardless of the
+	 * number of worker threads
+	 */
+	@Test
+	public void simulateMaxEpisodes_Seeded() {
+
+		List<GameType> gameTypes = Arrays.asList(GameType.GRAND,
+				GameType.CLUBS);
+		List<CardList> hands = Arrays.asList(getHand1(), getHand2());
+		Long episodes = Long.valueOf(3 * GameSimulator.EPISODES_PER_TASK);
+
+		GameSimulator.setParallelism(1);
+		List<SimulationResults> results = GameSimulator.simulateMaxEpisodes(
+				gameTypes, Player.FOREHAND, hands, episodes, new SkatRandom(
+						20130510L));
+		GameSimulator.setParallelism(3);
+		List<SimulationResults> sameResults = GameSimulator
+				.simulateMaxEpisodes(gameTypes, Player.FOREHAND, hands,
+						episodes, new SkatRandom(20130510L));
+
+		for (int i = 0; i < hands.size(); i++) {
+			assertEquals(results.get(i).getAllWonRates(), sameResults.get(i)
+					.getAllWonRates());
+		}
+	}
+
+	/**
+	 * Simulation for a single hand
+	 */
+	@Test
+	public void simulateMaxEpisodes_SingleHand() {
+
+		GameSimulator.setParallelism(1);
+
+		SimulationResults results = GameSimulator.simulateMaxEpisodes(
+				Arrays.asList(GameType.GRAND), Player.MIDDLEHAND,
+				Arrays.asList(getHand1()), Long.valueOf(3)).get(0);
+
+		assertEquals(3, results.getEpisodes(GameType.GRAND));
+		assertEquals(0, results.getEpisodes(GameType.NULL));
+	}
+
+	/**
+	 * Former results are only topped up to the requested number of episodes
+	 */
+	@Test
+	public void simulateMaxEpisodes_FormerResults() {
+
+		GameSimulator.setParallelism(1);
+
+		SimulationResults formerResults = new SimulationResults();
+		formerResults.addEpisodes(GameType.GRAND, 7, 7);
+
+		List<SimulationResults> results = GameSimulator.simulateMaxEpisodes(
+				Arrays.asList(GameType.GRAND, GameType.NULL), Player.FOREHAND,
+				Arrays.asList(getHand1()), Long.valueOf(10), new SkatRandom(),
+				Arrays.asList(formerResults));
+
+		assertSame(formerResults, results.get(0));
+		assertEquals(10, formerResults.getEpisodes(GameType.GRAND));
+		assertEquals(10, formerResults.getEpisodes(GameType.NULL));
+		assertTrue(formerResults.getWonRate(GameType.GRAND).doubleValue() >= 0.7);
+
+		// enough episodes already
+		GameSimulator.simulateMaxEpisodes(Arrays.asList(GameType.GRAND),
+				Player.FOREHAND, Arrays.asList(getHand1()), Long.valueOf(5),
+				new SkatRandom(), results);
+		assertEquals(10, formerResults.getEpisodes(GameType.GRAND));
+	}
+
+	/**
+	 * Former results that decide already need no further simulation
+	 */
+	@Test
+	public void simulateWithTimeBudget_FormerResultsDecided() {
+
+		SimulationResults formerResults = new SimulationResults();
+		formerResults.addEpisodes(GameType.GRAND, 200, 200);
+		formerResults.addEpisodes(GameType.NULL, 200, 0);
+
+		List<SimulationResults> results = GameSimulator.simulateWithTimeBudget(
+				Arrays.asList(GameType.GRAND, GameType.NULL), Player.FOREHAND,
+				Arrays.asList(getHand1()), 1000, null, new SkatRandom(),
+				Arrays.asList(formerResults));
+
+		assertEquals(400, results.get(0).getTotalEpisodes());
+	}
+
+	/**
+	 * Simulated games reuse players, game data and card deck, once the worker
+	 * thread is warmed up an episode only allocates little memory
+	 */
+	@Test
+	public void simulateMaxEpisodes_AllocatedBytes() {
+
+		// one worker thread, so all episodes run on the same simulation
+		GameSimulator.setParallelism(1);
+
+		List<GameType> gameTypes = Arrays.asList(GameType.GRAND);
+		List<CardList> hands = Arrays.asList(getHand1());
+
+		// loads the networks, fills all reused buffers and warms up the JIT
+		GameSimulator.simulateMaxEpisodes(gameTypes, Player.FOREHAND, hands,
+				Long.valueOf(200), new SkatRandom(1));
+
+		List<SimulationResults> results = GameSimulator.simulateMaxEpisodes(
+				gameTypes, Player.FOREHAND, hands, Long.valueOf(100),
+				new SkatRandom(2));
+
+		long allocatedBytes = SimulationResults
+				.getAllocatedBytesPerEpisode(results);
+		if (GameSimulation.getAllocatedBytes() < 0) {
+			assertEquals(-1L, allocatedBytes);
+		} else {
+			assertTrue("Allocated bytes per episode: " + allocatedBytes, //$NON-NLS-1$
+					allocatedBytes > 0
+							&& allocatedBytes < MAX_BYTES_PER_EPISODE);
+		}
+	}
+
+	/**
+	 * Simulation stops when the time budget is used up, candidates that can't
+	 * be separated are simulated until then
+	 */
+	@Test
+	public void simulateWithTimeBudget() {
+
+		List<SimulationResults> results = GameSimulator.simulateWithTimeBudget(
+				Arrays.asList(GameType.GRAND), Player.FOREHAND,
+				Arrays.asList(getHand1(), getHand1()), 100, null);
+
+		assertEquals(2, results.size());
+		assertTrue(results.get(0).getEpisodes(GameType.GRAND) > 0);
+		assertTrue(results.get(1).getEpisodes(GameType.GRAND) > 0);
+		// far more episodes than any machine simulates in the time budget
+		assertTrue(results.get(0).getTotalEpisodes()
+				+ results.get(1).getTotalEpisodes() < 100000);
+	}
+
+	/**
+	 * No episodes are simulated when the time budget is used up already
+	 */
+	@Test
+	public void simulateWithTimeBudget_NoTime() {
+
+		List<SimulationResults> results = GameSimulator.simulateWithTimeBudget(
+				Arrays.asList(GameType.GRAND, GameType.NULL), Player.FOREHAND,
+				Arrays.asList(getHand1()), 0, null);
+
+		assertEquals(0, results.get(0).getTotalEpisodes());
+	}
+
+	/**
+	 * Simulations stop at the deadline
+	 */
+	@Test
+	public void simulateGames_DeadlinePassed() {
+
+		GameSimulation simulation = new GameSimulation();
+		long deadline = System.nanoTime() - 1;
+
+		assertEquals(0, simulation.simulateGames(GameType.GRAND,
+				Player.FOREHAND, getHand1(), 10, deadline)[0]);
+		assertEquals(0, simulation.simulateWorlds(GameType.GRAND,
+				Player.FOREHAND, getHand1(), getHand1(), 5, deadline, 1L)[0]);
+		assertEquals(10, simulation.simulateGames(GameType.GRAND,
+				Player.FOREHAND, getHand1(), 10, GameSimulation.NO_DEADLINE)[0]);
+	}
+
+	/**
+	 * Simulation without candidates returns immediately
+	 */
+	@Test
+	public void simulateWithTimeBudget_NoGameTypes() {
+
+		List<SimulationResults> results = GameSimulator.simulateWithTimeBudget(
+				Arrays.<GameType> asList(), Player.FOREHAND,
+				Arrays.asList(getHand1()), 10000, null);
+
+		assertEquals(0, results.get(0).getTotalEpisodes());
+	}
+
+	/**
+	 * All candidates are simulated on the same worlds, candidates added later
+	 * are played on the former worlds
+	 */
+	@Test
+	public void simulateCommonWorlds() {
+
+		CardList knownCards = getHand1();
+		knownCards.add(Card.C7);
+		knownCards.add(Card.S7);
+		CardList discardedAces = getHand1();
+		discardedAces.removeAll(Arrays.asList(Card.HA, Card.DA));
+		discardedAces.addAll(Arrays.asList(Card.C7, Card.S7));
+		List<CardList> hands = Arrays.asList(getHand1(), discardedAces);
+
+		PairedSimulationResults results = new PairedSimulationResults(
+				Player.FOREHAND, knownCards);
+		GameSimulator.simulateCommonWorlds(
+				Arrays.asList(GameType.GRAND, GameType.NULL), hands,
+				Long.valueOf(12), new SkatRandom(), results);
+
+		assertEquals(3, results.getChunkCount());
+		for (CardList hand : hands) {
+			assertEquals(12, results.getEpisodes(hand, GameType.GRAND));
+			assertEquals(12, results.getEpisodes(hand, GameType.NULL));
+		}
+
+		GameSimulator.simulateCommonWorlds(
+				Arrays.asList(GameType.GRAND, GameType.CLUBS), hands,
+				Long.valueOf(12), new SkatRandom(), results);
+
+		assertEquals(3, results.getChunkCount());
+		assertEquals(72, results.getTotalEpisodes());
+		assertEquals(12, results.getEpisodes(getHand1(), GameType.CLUBS));
+	}
+
+	/**
+	 * Simulation on common worlds stops as soon as the best candidate is
+	 * separated
+	 */
+	@Test
+	public void simulateCommonWorldsWithTimeBudget_DecidesEarly() {
+
+		// one chunk of worlds per candidate and round
+		GameSimulator.setParallelism(2);
+
+		// the budget only guards against a hang, the seeded worlds decide
+		PairedSimulationResults results = new PairedSimulationResults(
+				Player.FOREHAND, getHand1());
+		GameSimulator.simulateCommonWorldsWithTimeBudget(
+				Arrays.asList(GameType.GRAND, GameType.NULL),
+				Arrays.asList(getHand1()), 60000, null, new SkatRandom(1),
+				results);
+
+		assertTrue(results.isBestSeparated(Arrays.asList(getHand1()),
+				Arrays.asList(GameType.GRAND, GameType.NULL)));
+		// a grand with four jacks and aces beats a null after the first
+		// round, one full chunk of worlds for both game types
+		assertEquals(2 * GameSimulator.EPISODES_PER_TASK,
+				results.getTotalEpisodes());
+	}
+
+	/**
+	 * A failing simulation task fails the whole simulation
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void simulateMaxEpisodes_FailingTask() {
+
+		// the simulated game can't be announced without game type
+		GameSimulator.simulateMaxEpisodes(Arrays.asList((GameType) null),
+				Player.FOREHAND, Arrays.asList(getHand1()), Long.valueOf(5));
+	}
+
+	/**
+	 * Running simulations finish when the parallelism is changed, the worker
+	 * threads of the former pools end
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void setParallelism_WhileSimulating() throws Exception {
+
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<Long>> futures = new ArrayList<Future<Long>>();
+			for (int i = 0; i < CALLERS; i++) {
+				futures.add(callers.submit(new Callable<Long>() {
+					@Override
+					public Long call() {
+						long episodes = 0;
+						// many short simulations get the pool many times
+						for (int j = 0; j < 50; j++) {
+							episodes += GameSimulator
+									.simulateMaxEpisodes(
+											Arrays.asList(GameType.GRAND,
+													GameType.NULL),
+											Player.FOREHAND,
+											Arrays.asList(getHand1()),
+											Long.valueOf(2)).get(0)
+									.getTotalEpisodes();
+						}
+						return Long.valueOf(episodes);
+					}
+				}));
+			}
+
+			for (int i = 0; i < PARALLELISM_CHANGES; i++) {
+				GameSimulator.setParallelism(1 + i % 3);
+				Thread.sleep(5);
+			}
+			for (Future<Long> future : futures) {
+				assertEquals(200, future.get().longValue());
+			}
+		} finally {
+			callers.shutdownNow();
+		}
+
+		// only the threads of the current pool are left
+		long timeout = System.currentTimeMillis() + 10000;
+		while (countSimulationThreads() > GameSimulator.getParallelism()
+				&& System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		assertTrue(countSimulationThreads() <= GameSimulator.getParallelism());
+	}
+
+	private static int countSimulationThreads() {
+
+		int result = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("GameSimulator-")) { //$NON-NLS-1$
+				result++;
+			}
+		}
+		return result;
+	}
+
+	private static CardList getHand1() {
+		return new CardList(Arrays.asList(Card.CJ, Card.SJ, Card.HJ, Card.DJ,
+				Card.CA, Card.CT, Card.SA, Card.ST, Card.HA, Card.DA));
+	}
+
+	private static CardList getHand2() {
+		return new CardList(Arrays.asList(Card.C7, Card.C8, Card.S7, Card.S8,
+				Card.H7, Card.H8, Card.H9, Card.D7, Card.D8, Card.D9));
+	}
+}
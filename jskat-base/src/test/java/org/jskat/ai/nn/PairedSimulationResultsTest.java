@@ -0,0 +1,192 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PairedSimulationResults}
+ */
+public class PairedSimulationResultsTest extends AbstractJSkatTest {
+
+	private static final int WORLDS = 200;
+
+	/**
+	 * Outcomes of the same worlds are counted once
+	 */
+	@Test
+	public void addOutcomes() {
+
+		PairedSimulationResults results = createResults();
+		results.addOutcomes(getHand1(), GameType.GRAND, 0, 5, 0x7L);
+		results.addOutcomes(getHand1(), GameType.GRAND, 1, 3, 0x1L);
+		// the same worlds again
+		results.addOutcomes(getHand1(), GameType.GRAND, 0, 5, 0x7L);
+
+		assertEquals(8, results.getEpisodes(getHand1(), GameType.GRAND));
+		assertEquals(0, results.getEpisodes(getHand2(), GameType.GRAND));
+		assertEquals(8, results.getTotalEpisodes());
+		assertTrue(results.isSimulated(getHand1(), GameType.GRAND, 0, 5));
+		assertTrue(results.isSimulated(getHand1(), GameType.GRAND, 1, 3));
+		assertFalse(results.isSimulated(getHand1(), GameType.GRAND, 1, 5));
+
+		List<SimulationResults> handResults = results.getResults(
+				Arrays.asList(getHand1(), getHand2()),
+				Arrays.asList(GameType.GRAND));
+		assertEquals(0.5, handResults.get(0).getWonRate(GameType.GRAND)
+				.doubleValue(), 0.0001);
+		assertEquals(0, handResults.get(1).getEpisodes(GameType.GRAND));
+	}
+
+	/**
+	 * A small difference on the same worlds separates the best candidate
+	 * although the independent confidence intervals overlap
+	 */
+	@Test
+	public void isBestSeparated_PairedDifference() {
+
+		PairedSimulationResults results = createResults();
+		addWorlds(results, getHand1(), GameType.GRAND, 110);
+		addWorlds(results, getHand2(), GameType.GRAND, 100);
+
+		List<CardList> hands = Arrays.asList(getHand1(), getHand2());
+		List<GameType> gameTypes = Arrays.asList(GameType.GRAND);
+
+		assertEquals(0.05, results.getWonRateDifference(getHand1(),
+				GameType.GRAND, getHand2(), GameType.GRAND), 0.0001);
+		assertTrue(results.getLowerBoundOfDifference(getHand1(),
+				GameType.GRAND, getHand2(), GameType.GRAND) > 0.0);
+		assertTrue(results.isBestSeparated(hands, gameTypes));
+		assertFalse(SimulationResults.isBestSeparated(results.getResults(
+				hands, gameTypes)));
+	}
+
+	/**
+	 * Candidates with the same outcomes on all worlds are not separated
+	 */
+	@Test
+	public void isBestSeparated_SameOutcomes() {
+
+		PairedSimulationResults results = createResults();
+		addWorlds(results, getHand1(), GameType.GRAND, 100);
+		addWorlds(results, getHand1(), GameType.CLUBS, 100);
+
+		assertFalse(results.isBestSeparated(Arrays.asList(getHand1()),
+				Arrays.asList(GameType.GRAND, GameType.CLUBS)));
+	}
+
+	/**
+	 * A few worlds don't separate the best candidate
+	 */
+	@Test
+	public void isBestSeparated_FewWorlds() {
+
+		PairedSimulationResults results = createResults();
+		results.addOutcomes(getHand1(), GameType.GRAND, 0, 2, 0x3L);
+		results.addOutcomes(getHand1(), GameType.NULL, 0, 2, 0x0L);
+
+		List<CardList> hands = Arrays.asList(getHand1());
+		assertFalse(results.isBestSeparated(hands,
+				Arrays.asList(GameType.GRAND, GameType.NULL)));
+
+		for (int chunk = 1; chunk < 10; chunk++) {
+			results.addOutcomes(getHand1(), GameType.GRAND, chunk, 5, 0x1FL);
+			results.addOutcomes(getHand1(), GameType.NULL, chunk, 5, 0x0L);
+		}
+		assertTrue(results.isBestSeparated(hands,
+				Arrays.asList(GameType.GRAND, GameType.NULL)));
+	}
+
+	/**
+	 * Candidates without simulated worlds are never beaten
+	 */
+	@Test
+	public void isBestSeparated_MissingCandidate() {
+
+		PairedSimulationResults results = createResults();
+		addWorlds(results, getHand1(), GameType.GRAND, WORLDS);
+
+		assertFalse(results.isBestSeparated(
+				Arrays.asList(getHand1(), getHand2()),
+				Arrays.asList(GameType.GRAND)));
+	}
+
+	/**
+	 * Hands must be taken from the known cards
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownHand() {
+
+		CardList hand = getHand1();
+		hand.remove(Card.CJ);
+		hand.add(Card.D7);
+
+		createResults().getEpisodes(hand, GameType.GRAND);
+	}
+
+	/**
+	 * Adds {@link #WORLDS} worlds, the first worlds are won
+	 */
+	private static void addWorlds(final PairedSimulationResults results,
+			final CardList hand, final GameType gameType, final int wonWorlds) {
+
+		int worldsPerChunk = (int) GameSimulator.EPISODES_PER_TASK;
+		for (int world = 0; world < WORLDS; world += worldsPerChunk) {
+			long wonMask = 0;
+			for (int i = 0; i < worldsPerChunk; i++) {
+				if (world + i < wonWorlds) {
+					wonMask |= 1L << i;
+				}
+			}
+			results.addOutcomes(hand, gameType, world / worldsPerChunk,
+					worldsPerChunk, wonMask);
+		}
+	}
+
+	private static PairedSimulationResults createResults() {
+
+		CardList knownCards = getHand1();
+		knownCards.add(Card.C7);
+		knownCards.add(Card.S7);
+		return new PairedSimulationResults(Player.FOREHAND, knownCards);
+	}
+
+	private static CardList getHand1() {
+		return new CardList(Arrays.asList(Card.CJ, Card.SJ, Card.HJ, Card.DJ,
+				Card.CA, Card.CT, Card.SA, Card.ST, Card.HA, Card.DA));
+	}
+
+	private static CardList getHand2() {
+		return new CardList(Arrays.asList(Card.CJ, Card.SJ, Card.HJ, Card.DJ,
+				Card.CA, Card.CT, Card.SA, Card.ST, Card.C7, Card.S7));
+	}
+}
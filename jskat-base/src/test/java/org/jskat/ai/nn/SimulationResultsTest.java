@@ -0,0 +1,132 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.util.GameType;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SimulationResults}
+ */
+public class SimulationResultsTest extends AbstractJSkatTest {
+
+	/**
+	 * Results of several tasks are merged
+	 */
+	@Test
+	public void addEpisodes() {
+
+		SimulationResults results = new SimulationResults();
+		results.addEpisodes(GameType.GRAND, 5, 2);
+		results.addEpisodes(GameType.GRAND, 5, 4);
+		results.addEpisodes(GameType.NULL, 10, 0);
+
+		assertEquals(0.6, results.getWonRate(GameType.GRAND).doubleValue(),
+				0.0001);
+		assertEquals(0.0, results.getWonRate(GameType.NULL).doubleValue(),
+				0.0001);
+		assertEquals(20, results.getTotalEpisodes());
+	}
+
+	/**
+	 * Confidence interval gets smaller with more episodes
+	 */
+	@Test
+	public void confidenceInterval() {
+
+		SimulationResults results = new SimulationResults();
+		results.addEpisodes(GameType.GRAND, 10, 5);
+		double width10 = results.getUpperBound(GameType.GRAND)
+				- results.getLowerBound(GameType.GRAND);
+
+		results.addEpisodes(GameType.GRAND, 990, 495);
+		double width1000 = results.getUpperBound(GameType.GRAND)
+				- results.getLowerBound(GameType.GRAND);
+
+		assertTrue(results.getLowerBound(GameType.GRAND) < 0.5);
+		assertTrue(results.getUpperBound(GameType.GRAND) > 0.5);
+		assertTrue(width1000 < width10);
+		assertEquals(0.062, width1000, 0.001);
+	}
+
+	/**
+	 * Best game type is separated from the others
+	 */
+	@Test
+	public void isBestSeparated() {
+
+		SimulationResults results = new SimulationResults();
+		results.addEpisodes(GameType.GRAND, 10, 9);
+		results.addEpisodes(GameType.CLUBS, 10, 6);
+		assertFalse(SimulationResults.isBestSeparated(Arrays.asList(results)));
+
+		results.addEpisodes(GameType.GRAND, 190, 180);
+		results.addEpisodes(GameType.CLUBS, 190, 100);
+		assertTrue(SimulationResults.isBestSeparated(Arrays.asList(results)));
+	}
+
+	/**
+	 * Only the given game types are compared
+	 */
+	@Test
+	public void isBestSeparated_GameTypes() {
+
+		SimulationResults results = new SimulationResults();
+		results.addEpisodes(GameType.GRAND, 200, 190);
+		results.addEpisodes(GameType.CLUBS, 200, 100);
+		results.addEpisodes(GameType.SPADES, 200, 105);
+
+		assertTrue(SimulationResults.isBestSeparated(Arrays.asList(results)));
+		assertFalse(SimulationResults.isBestSeparated(Arrays.asList(results),
+				Arrays.asList(GameType.CLUBS, GameType.SPADES)));
+		assertTrue(SimulationResults.isThresholdDecided(
+				Arrays.asList(results), 0.6));
+		assertFalse(SimulationResults.isThresholdDecided(
+				Arrays.asList(results), Arrays.asList(GameType.SPADES), 0.55));
+	}
+
+	/**
+	 * Decision based on a threshold
+	 */
+	@Test
+	public void isThresholdDecided() {
+
+		SimulationResults results = new SimulationResults();
+		results.addEpisodes(GameType.GRAND, 10, 6);
+		assertFalse(SimulationResults.isThresholdDecided(
+				Arrays.asList(results), 0.6));
+
+		results.addEpisodes(GameType.GRAND, 190, 190);
+		assertTrue(SimulationResults.isThresholdDecided(
+				Arrays.asList(results), 0.6));
+
+		SimulationResults badResults = new SimulationResults();
+		badResults.addEpisodes(GameType.NULL, 100, 5);
+		assertTrue(SimulationResults.isThresholdDecided(
+				Arrays.asList(badResults), 0.6));
+	}
+}
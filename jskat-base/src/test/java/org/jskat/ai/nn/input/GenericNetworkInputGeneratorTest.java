@@ -0,0 +1,119 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.input;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GenericNetworkInputGenerator}
+ */
+public class GenericNetworkInputGeneratorTest extends AbstractJSkatTest {
+
+	private PlayerKnowledge knowledge;
+	private NetworkInputGenerator generator;
+
+	/**
+	 * Sets up the knowledge of an opponent in the second trick
+	 */
+	@Before
+	public void setUp() {
+
+		knowledge = new PlayerKnowledge();
+		knowledge.setPlayerPosition(Player.MIDDLEHAND);
+		knowledge.setDeclarer(Player.FOREHAND);
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.CLUBS);
+		knowledge.setGame(factory.getAnnouncement());
+		knowledge.addOwnCards(new CardList(Card.SJ, Card.CA, Card.HA, Card.HK,
+				Card.D7, Card.D8, Card.D9, Card.S7, Card.S8));
+
+		Trick trick = new Trick(0, Player.FOREHAND);
+		trick.addCard(Card.HT);
+		trick.addCard(Card.H7);
+		trick.addCard(Card.HQ);
+		trick.setTrickWinner(Player.FOREHAND);
+		knowledge.addTrick(trick);
+
+		Trick currentTrick = new Trick(1, Player.FOREHAND);
+		currentTrick.addCard(Card.CJ);
+		knowledge.setCurrentTrick(currentTrick);
+
+		generator = new GenericNetworkInputGenerator();
+	}
+
+	/**
+	 * Inputs written into a used buffer are the same as new inputs
+	 */
+	@Test
+	public void setNetInputs() {
+
+		double[] buffer = new double[GenericNetworkInputGenerator
+				.getNeuronCountForAllStrategies()];
+		Arrays.fill(buffer, 0.5);
+
+		for (Card card : knowledge.getOwnCards()) {
+			double[] inputs = generator.getNetInputs(knowledge, card);
+			assertEquals(buffer.length, inputs.length);
+
+			generator.setNetInputs(knowledge, card, buffer);
+			assertArrayEquals(inputs, buffer, 0.0);
+		}
+	}
+
+	/**
+	 * The strategies write their neurons at the given offset
+	 */
+	@Test
+	public void setNetworkInput_Offset() {
+
+		InputStrategy[] strategies = { new DeclarerPositionInputStrategy(),
+				new PlayerPositionInputStrategy(),
+				new PlayerPartyMadeCardsAndNextCardStrategy(),
+				new OpponentPartyMadeCardsAndNextCardStrategy(),
+				new UnplayedCardsForPlayerAndNextCardInputStrategy(),
+				new TrickCardAndNextCardInputStrategy(),
+				new UnplayedCardsInputStrategy() };
+
+		for (InputStrategy strategy : strategies) {
+			double[] inputs = strategy.getNetworkInput(knowledge, Card.SJ);
+			double[] buffer = new double[strategy.getNeuronCount() + 5];
+
+			strategy.setNetworkInput(knowledge, Card.SJ, buffer, 5);
+
+			assertArrayEquals(inputs,
+					Arrays.copyOfRange(buffer, 5, buffer.length), 0.0);
+		}
+	}
+}
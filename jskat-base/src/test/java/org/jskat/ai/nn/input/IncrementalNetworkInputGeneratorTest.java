@@ -0,0 +1,161 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.input;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IncrementalNetworkInputGenerator}
+ */
+public class IncrementalNetworkInputGeneratorTest extends AbstractJSkatTest {
+
+	private final NetworkInputGenerator genericGenerator = new GenericNetworkInputGenerator();
+
+	/**
+	 * Inputs are the same as the generic inputs during complete games
+	 */
+	@Test
+	public void testCompleteGames() {
+
+		PlayerKnowledge knowledge = new PlayerKnowledge();
+		IncrementalNetworkInputGenerator generator = new IncrementalNetworkInputGenerator(
+				knowledge);
+		Random random = new Random(42);
+
+		for (GameType gameType : new GameType[] { GameType.CLUBS,
+				GameType.GRAND, GameType.NULL, GameType.HEARTS }) {
+			for (Player declarer : Player.values()) {
+				playGame(knowledge, generator, gameType, declarer, random);
+			}
+		}
+	}
+
+	/**
+	 * A generator created during a game synchronizes with the knowledge
+	 */
+	@Test
+	public void testSynchronize() {
+
+		PlayerKnowledge knowledge = new PlayerKnowledge();
+		new IncrementalNetworkInputGenerator(knowledge);
+		Random random = new Random(7);
+
+		playGame(knowledge, null, GameType.SPADES, Player.REARHAND, random);
+	}
+
+	private void playGame(final PlayerKnowledge knowledge,
+			final IncrementalNetworkInputGenerator generator,
+			final GameType gameType, final Player declarer,
+			final Random random) {
+
+		List<Card> deck = new ArrayList<Card>();
+		for (Card card : Card.values()) {
+			deck.add(card);
+		}
+		Collections.shuffle(deck, random);
+
+		int[] hands = new int[3];
+		for (int i = 0; i < 30; i++) {
+			hands[i / 10] |= CardSet.getMask(deck.get(i));
+		}
+
+		Player position = Player.MIDDLEHAND;
+		knowledge.initializeVariables();
+		knowledge.setPlayerPosition(position);
+		knowledge.addOwnCards(CardSet.toCardList(hands[position.getOrder()]));
+		knowledge.setDeclarer(declarer);
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(gameType);
+		knowledge.setGame(factory.getAnnouncement());
+
+		IncrementalNetworkInputGenerator currentGenerator = generator;
+		Player foreHand = Player.FOREHAND;
+		for (int trickNo = 0; trickNo < 10; trickNo++) {
+
+			if (generator == null && trickNo == 5) {
+				currentGenerator = new IncrementalNetworkInputGenerator(
+						knowledge);
+			}
+
+			Trick trick = new Trick(trickNo, foreHand);
+			knowledge.setCurrentTrick(new Trick(trickNo, foreHand));
+
+			Player player = foreHand;
+			for (int i = 0; i < 3; i++) {
+				if (currentGenerator != null) {
+					assertSameInputs(knowledge, currentGenerator);
+				}
+
+				int legalCards = RuleTables.legalMoves(
+						hands[player.getOrder()], trick.getFirstCard(),
+						gameType);
+				Card card = CardSet.getFirstCard(legalCards);
+				hands[player.getOrder()] &= ~CardSet.getMask(card);
+
+				trick.addCard(card);
+				knowledge.setCardPlayed(player, card);
+				if (player == position) {
+					knowledge.removeOwnCard(card);
+				} else {
+					knowledge.removeCard(card);
+				}
+				player = player.getLeftNeighbor();
+			}
+
+			foreHand = RuleTables.calculateTrickWinner(gameType,
+					trick.getForeHand(), trick.getFirstCard(),
+					trick.getSecondCard(), trick.getThirdCard());
+			trick.setTrickWinner(foreHand);
+			knowledge.addTrick(trick);
+			knowledge.clearTrickCards();
+		}
+	}
+
+	private void assertSameInputs(final PlayerKnowledge knowledge,
+			final IncrementalNetworkInputGenerator generator) {
+
+		double[] buffer = new double[GenericNetworkInputGenerator
+				.getNeuronCountForAllStrategies()];
+
+		for (Card card : new CardList(knowledge.getOwnCards())) {
+			generator.setNetInputs(knowledge, card, buffer);
+			assertArrayEquals(genericGenerator.getNetInputs(knowledge, card),
+					buffer, 0.0);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.util.GameType;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParallelNNTrainer}
+ */
+public class ParallelNNTrainerTest extends AbstractJSkatTest {
+
+	/**
+	 * Two tables play and the learner trains all generated samples
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTraining() throws Exception {
+
+		ParallelNNTrainer trainer = new ParallelNNTrainer(
+				Arrays.asList(GameType.GRAND), 2,
+				ParallelNNTrainer.DEFAULT_BATCH_SIZE, null);
+		trainer.start();
+
+		TrainingStatistics statistics = trainer.getStatistics();
+		long timeout = System.currentTimeMillis() + 30000;
+		while (statistics.getTrainedSamples() == 0
+				&& System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+
+		trainer.stopTraining();
+
+		assertTrue(statistics.getGames() > 0);
+		assertEquals(statistics.getGames(), statistics.getGames(GameType.GRAND));
+		assertEquals(0, statistics.getFailedGames());
+		assertTrue(statistics.getTrainedSamples() > 0);
+		assertEquals(statistics.getGeneratedSamples(),
+				statistics.getTrainedSamples());
+		assertTrue(statistics.getAverageError(GameType.GRAND,
+				PlayerParty.DECLARER) >= 0.0);
+	}
+
+	/**
+	 * Failed games are counted apart from the played games
+	 */
+	@Test
+	public void testFailedGames() {
+
+		TrainingStatistics statistics = new TrainingStatistics();
+		statistics.addGame(GameType.GRAND, true);
+		statistics.addFailedGame(GameType.GRAND);
+		statistics.addFailedGame(GameType.NULL);
+
+		assertEquals(1, statistics.getGames());
+		assertEquals(1, statistics.getWonGames(GameType.GRAND));
+		assertEquals(2, statistics.getFailedGames());
+		assertEquals(1, statistics.getFailedGames(GameType.GRAND));
+		assertEquals(0, statistics.getGames(GameType.NULL));
+	}
+
+	/**
+	 * Invalid game types are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPassedInGame() {
+
+		new ParallelNNTrainer(Arrays.asList(GameType.PASSED_IN), 1,
+				ParallelNNTrainer.DEFAULT_BATCH_SIZE, null);
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.train;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.ai.nn.AIPlayerNN;
+import org.jskat.ai.nn.data.PlayerParty;
+import org.jskat.ai.nn.data.SkatNetworks;
+import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.control.iss.IssGameExtractor;
+import org.jskat.util.GameType;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SupervisedNNTrainer} and {@link IssTrainingData}
+ */
+public class SupervisedNNTrainerTest extends AbstractJSkatTest {
+
+	private static final String DIAMONDS_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[24072]ID[541932]DT[2010-12-06/18:59:24/UTC]P0[zoot]P1[kermit]P2[foo]R0[]R1[]R2[0.0]MV[w HA.SK.SJ.SA.CQ.S8.C9.H7.H9.DQ.CJ.S9.DJ.S7.D9.SQ.C8.HQ.DK.CA.D8.D7.DT.CT.ST.C7.HK.DA.HT.HJ.H8.CK 1 p 2 18 0 p 2 s w H8.CK 2 D.ST.H8 0 SA 1 S7 2 DA 2 HJ 0 SJ 1 D9 0 DQ 1 DJ 2 D7 1 CJ 2 D8 0 CQ 1 CA 2 C7 0 C9 1 S9 2 DT 0 S8 2 CT 0 H7 1 C8 2 CK 0 H9 1 HQ 2 HK 0 HA 1 SQ 0 SK 1 DK 2 HT ]R[d:2 loss v:-54 m:-2 bidok p:59 t:4 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	/**
+	 * Every card of a game gives one sample for the network of its trick
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTrainingData() throws Exception {
+
+		IssTrainingData trainingData = extract(DIAMONDS_GAME + '\n'
+				+ DIAMONDS_GAME, 1000);
+
+		assertEquals(2, trainingData.getGames());
+		assertEquals(60, trainingData.getSampleCount());
+		assertEquals(20, trainingData.getNetworks().size());
+
+		for (int trick = 0; trick < 10; trick++) {
+			INeuralNetwork declarerNet = SkatNetworks.getNetwork(
+					GameType.DIAMONDS, true, trick);
+			assertEquals(2, trainingData.getSamples(declarerNet).size());
+			for (TrainingSample sample : trainingData.getSamples(declarerNet)) {
+				assertEquals(PlayerParty.DECLARER, sample.getPlayerParty());
+				assertEquals(trick, sample.getTrickNoInGame());
+				// the declarer lost the game
+				assertEquals(AIPlayerNN.LOST, sample.getOutput(), 0.0);
+				assertEquals(
+						GenericNetworkInputGenerator
+								.getNeuronCountForAllStrategies(),
+						sample.getInputCount());
+			}
+
+			INeuralNetwork opponentNet = SkatNetworks.getNetwork(
+					GameType.DIAMONDS, false, trick);
+			assertEquals(4, trainingData.getSamples(opponentNet).size());
+			for (TrainingSample sample : trainingData.getSamples(opponentNet)) {
+				assertEquals(PlayerParty.OPPONENT, sample.getPlayerParty());
+				assertEquals(AIPlayerNN.WON, sample.getOutput(), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Samples keep their inputs compactly and expand them on request
+	 */
+	@Test
+	public void testSampleInputs() {
+
+		double[] inputs = { 0.0, 1.0, 0.0, 0.5, -1.0 };
+		TrainingSample sample = new TrainingSample(GameType.GRAND,
+				PlayerParty.DECLARER, 0, inputs, AIPlayerNN.WON);
+
+		assertEquals(inputs.length, sample.getInputCount());
+		assertTrue(Arrays.equals(inputs, sample.getInputs()));
+
+		double[] buffer = { 1.0, 1.0, 1.0, 1.0, 1.0, 1.0 };
+		sample.copyInputs(buffer);
+		assertEquals(0.0, buffer[0], 0.0);
+		assertEquals(0.5, buffer[3], 0.0);
+		assertEquals(-1.0, buffer[4], 0.0);
+		// elements after the inputs are left alone
+		assertEquals(1.0, buffer[5], 0.0);
+	}
+
+	/**
+	 * A random selection of the samples is kept per network
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testMaxSamples() throws Exception {
+
+		IssTrainingData trainingData = extract(DIAMONDS_GAME + '\n'
+				+ DIAMONDS_GAME, 1);
+
+		assertEquals(20, trainingData.getSampleCount());
+	}
+
+	/**
+	 * All samples are trained
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testTraining() throws Exception {
+
+		IssTrainingData trainingData = extract(DIAMONDS_GAME, 1000);
+
+		SupervisedNNTrainer trainer = new SupervisedNNTrainer(2, 5, 4);
+		trainer.train(trainingData);
+
+		TrainingStatistics statistics = trainer.getStatistics();
+		assertEquals(trainingData.getSampleCount(),
+				statistics.getTrainedSamples());
+		assertEquals(0.0, statistics.getAverageError(GameType.GRAND,
+				PlayerParty.DECLARER), 0.0);
+		assertTrue(statistics.getAverageError(GameType.DIAMONDS,
+				PlayerParty.OPPONENT) >= 0.0);
+	}
+
+	private static IssTrainingData extract(final String database,
+			final int maxSamplesPerNetwork) throws Exception {
+
+		IssTrainingData trainingData = new IssTrainingData(
+				maxSamplesPerNetwork);
+		new IssGameExtractor(2, trainingData).extract(new BufferedReader(
+				new StringReader(database)));
+		return trainingData;
+	}
+}
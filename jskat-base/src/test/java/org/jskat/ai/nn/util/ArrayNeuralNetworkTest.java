@@ -0,0 +1,157 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.nn.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
+import org.jskat.util.SkatRandom;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ArrayNeuralNetwork}
+ */
+public class ArrayNeuralNetworkTest extends AbstractJSkatTest {
+
+	private static final String NETWORK_FILE = "/org/jskat/ai/nn/data/jskat.GRAND.DECLARER.TRICK0.nnet"; //$NON-NLS-1$
+	/**
+	 * Attempts with new random weights for learning XOR
+	 */
+	private static final int MAX_ATTEMPTS = 5;
+	private static final int INPUT_NEURONS = GenericNetworkInputGenerator
+			.getNeuronCountForAllStrategies();
+
+	/**
+	 * A loaded network predicts the same outcomes as the Encog network
+	 */
+	@Test
+	public void testSameOutcomesAsEncog() {
+
+		INeuralNetwork encogNetwork = loadNetwork(new EncogNetworkWrapper(
+				createTopology(), true));
+		INeuralNetwork arrayNetwork = loadNetwork(new ArrayNeuralNetwork(
+				createTopology(), true));
+
+		assertEquals(encogNetwork.getInputNeuronCount(),
+				arrayNetwork.getInputNeuronCount());
+
+		double[][] inputs = createInputs(new SkatRandom(42), 20);
+		double[] outcomes = new double[inputs.length];
+		arrayNetwork.getPredictedOutcomes(inputs, inputs.length, outcomes);
+
+		for (int i = 0; i < inputs.length; i++) {
+			double expected = encogNetwork.getPredictedOutcome(inputs[i]);
+			assertEquals(expected, arrayNetwork.getPredictedOutcome(inputs[i]),
+					1e-9);
+			assertEquals(expected, outcomes[i], 1e-9);
+		}
+	}
+
+	/**
+	 * Predictions see the weights after training
+	 */
+	@Test
+	public void testOutcomesAfterTraining() {
+
+		INeuralNetwork encogNetwork = loadNetwork(new EncogNetworkWrapper(
+				createTopology(), true));
+		INeuralNetwork arrayNetwork = loadNetwork(new ArrayNeuralNetwork(
+				createTopology(), true));
+
+		double[][] inputs = createInputs(new SkatRandom(7), 5);
+		double[] output = { 1.0 };
+
+		double before = arrayNetwork.getPredictedOutcome(inputs[0]);
+		for (int i = 0; i < 10; i++) {
+			encogNetwork.adjustWeights(inputs[0], output);
+			arrayNetwork.adjustWeights(inputs[0], output);
+		}
+
+		assertTrue(arrayNetwork.getPredictedOutcome(inputs[0]) > before);
+		for (double[] input : inputs) {
+			assertEquals(encogNetwork.getPredictedOutcome(input),
+					arrayNetwork.getPredictedOutcome(input), 1e-9);
+		}
+	}
+
+	/**
+	 * Networks with several hidden layers learn XOR
+	 */
+	@Test
+	public void testXORWithTwoHiddenLayers() {
+
+		double[][] input = { { 1.0, 1.0 }, { 1.0, 0.0 }, { 0.0, 1.0 },
+				{ 0.0, 0.0 } };
+		double[][] output = { { 0.0 }, { 1.0 }, { 1.0 }, { 0.0 } };
+
+		boolean learned = false;
+		// training gets stuck in a local minimum for a few random weights
+		for (int attempt = 0; attempt < MAX_ATTEMPTS && !learned; attempt++) {
+
+			int[] hiddenNeurons = { 4, 3 };
+			INeuralNetwork network = new ArrayNeuralNetwork(
+					new NetworkTopology(2, hiddenNeurons, 1), true);
+			network.resetNetwork();
+
+			network.train(Arrays.asList(input), Arrays.asList(output), 1000);
+
+			learned = true;
+			for (int i = 0; i < input.length; i++) {
+				if (Math.abs(output[i][0]
+						- network.getPredictedOutcome(input[i])) >= 0.5) {
+					learned = false;
+				}
+			}
+		}
+
+		assertTrue(learned);
+	}
+
+	private static NetworkTopology createTopology() {
+		int[] hiddenNeurons = { 10 };
+		return new NetworkTopology(INPUT_NEURONS, hiddenNeurons, 1);
+	}
+
+	private static INeuralNetwork loadNetwork(final INeuralNetwork network) {
+		network.loadNetwork(NETWORK_FILE, INPUT_NEURONS, 10, 1);
+		return network;
+	}
+
+	/**
+	 * Creates sparse inputs like the ones of the input generator
+	 */
+	private static double[][] createInputs(final Random rand, final int count) {
+
+		double[][] result = new double[count][INPUT_NEURONS];
+		for (double[] inputs : result) {
+			for (int i = 0; i < inputs.length; i++) {
+				if (rand.nextInt(20) == 0) {
+					inputs[i] = 1.0;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -19,8 +19,19 @@
  */
 package org.jskat.ai.nn.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.encog.engine.network.activation.ActivationSigmoid;
 import org.encog.ml.data.basic.BasicMLData;
 import org.encog.ml.data.basic.BasicMLDataPair;
@@ -89,6 +100,33 @@ public class EncogNetworkWrapperTest extends AbstractJSkatTest {
 		}
 	}
 
+	/**
+	 * Tests batch training of the NetworkWrapper with an XOR example.
+	 */
+	@Test
+	public final void testXORBatch() {
+
+		// three hidden neurons get stuck in a local minimum now and then
+		int[] hiddenNeurons = { 5 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		INeuralNetwork network = new EncogNetworkWrapper(topo, true);
+		network.resetNetwork();
+
+		double[][] input = { { 1.0, 1.0 }, { 1.0, 0.0 }, { 0.0, 1.0 },
+				{ 0.0, 0.0 } };
+		double[][] output = { { 0.0 }, // A XOR B
+				{ 1.0 }, { 1.0 }, { 0.0 } };
+
+		double error = network.train(Arrays.asList(input),
+				Arrays.asList(output), MAX_ITERATIONS);
+
+		assertTrue("Error: " + error, error < MIN_DIFF);
+		for (int i = 0; i < input.length; i++) {
+			assertEquals(output[i][0], network.getPredictedOutcome(input[i]),
+					0.5);
+		}
+	}
+
 	/**
 	 * Tests the {@link BasicNetwork} directly with an XOR example.
 	 */
@@ -129,4 +167,201 @@ public class EncogNetworkWrapperTest extends AbstractJSkatTest {
 			log.debug("Needed " + iteration + " iterations to learn.");
 		}
 	}
+
+	/**
+	 * Batch predictions are the same as single predictions
+	 */
+	@Test
+	public final void testPredictedOutcomes() {
+
+		int[] hiddenNeurons = { 3 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		INeuralNetwork network = new EncogNetworkWrapper(topo, true);
+		network.resetNetwork();
+
+		assertEquals(2, network.getInputNeuronCount());
+
+		double[][] input = { { 1.0, 1.0 }, { 1.0, 0.0 }, { 0.0, 1.0 },
+				{ 0.0, 0.0 } };
+		double[] outcomes = new double[input.length];
+		outcomes[3] = -1.0;
+
+		network.getPredictedOutcomes(input, 3, outcomes);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(network.getPredictedOutcome(input[i]), outcomes[i],
+					0.0);
+		}
+		// only the requested predictions are written
+		assertEquals(-1.0, outcomes[3], 0.0);
+	}
+
+	/**
+	 * Predictions see the weights after training
+	 */
+	@Test
+	public final void testPredictionAfterTraining() {
+
+		int[] hiddenNeurons = { 3 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		INeuralNetwork network = new EncogNetworkWrapper(topo, true);
+		network.resetNetwork();
+
+		double[] input = { 1.0, 0.0 };
+		double[] output = { 1.0 };
+
+		double before = network.getPredictedOutcome(input);
+		for (int i = 0; i < 50; i++) {
+			network.adjustWeights(input, output);
+		}
+		assertTrue(network.getPredictedOutcome(input) > before);
+	}
+
+	/**
+	 * Single samples adjust the weights once per batch
+	 */
+	@Test
+	public final void testReplayBatches() {
+
+		int[] hiddenNeurons = { 3 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		INeuralNetwork network = new EncogNetworkWrapper(topo, true);
+		network.resetNetwork();
+		network.setTrainingParameters(4, 16, 0.5);
+
+		double[] input = { 1.0, 0.0 };
+		double[] output = { 1.0 };
+
+		double before = network.getPredictedOutcome(input);
+		for (int i = 0; i < 3; i++) {
+			network.adjustWeights(input, output);
+		}
+		// no complete batch yet
+		assertEquals(before, network.getPredictedOutcome(input), 0.0);
+
+		network.adjustWeights(input, output);
+		double afterFirstBatch = network.getPredictedOutcome(input);
+		assertTrue(afterFirstBatch > before);
+
+		for (int i = 0; i < 100; i++) {
+			network.adjustWeights(input, output);
+		}
+		assertTrue(network.getPredictedOutcome(input) > afterFirstBatch);
+	}
+
+	/**
+	 * Batches larger than the replay buffer are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInvalidTrainingParameters() {
+
+		int[] hiddenNeurons = { 3 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		new EncogNetworkWrapper(topo, true).setTrainingParameters(10, 5, 0.5);
+	}
+
+	/**
+	 * Several threads predict while the network is trained
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testConcurrentPredictions() throws Exception {
+
+		int[] hiddenNeurons = { 3 };
+		NetworkTopology topo = new NetworkTopology(2, hiddenNeurons, 1);
+		final INeuralNetwork network = new EncogNetworkWrapper(topo, true);
+		network.resetNetwork();
+
+		final double[][] input = { { 1.0, 1.0 }, { 1.0, 0.0 }, { 0.0, 1.0 },
+				{ 0.0, 0.0 } };
+		double[][] output = { { 0.0 }, { 1.0 }, { 1.0 }, { 0.0 } };
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(new Callable<double[]>() {
+					@Override
+					public double[] call() {
+						double[] outcomes = new double[input.length];
+						for (int i = 0; i < 2000; i++) {
+							network.getPredictedOutcomes(input, input.length,
+									outcomes);
+							for (double outcome : outcomes) {
+								assertTrue(outcome >= 0.0 && outcome <= 1.0);
+							}
+						}
+						return outcomes;
+					}
+				}));
+			}
+
+			for (int i = 0; i < 200; i++) {
+				network.adjustWeights(input[i % input.length], output[i
+						% input.length]);
+			}
+
+			for (Future<double[]> future : futures) {
+				future.get();
+			}
+
+			// after training all threads see the same weights
+			futures.clear();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(new Callable<double[]>() {
+					@Override
+					public double[] call() {
+						double[] outcomes = new double[input.length];
+						network.getPredictedOutcomes(input, input.length,
+								outcomes);
+						return outcomes;
+					}
+				}));
+			}
+			for (Future<double[]> future : futures) {
+				double[] outcomes = future.get();
+				for (int i = 0; i < input.length; i++) {
+					assertEquals(network.getPredictedOutcome(input[i]),
+							outcomes[i], 0.0);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Predictions after a training step don't wait for the monitor of the
+	 * network, e.g. while a learner trains the network
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testPredictionWhileTraining() throws Exception {
+
+		int[] hiddenNeurons = { 3 };
+		final INeuralNetwork network = new EncogNetworkWrapper(
+				new NetworkTopology(2, hiddenNeurons, 1), true);
+		final double[] input = { 1.0, 0.0 };
+		network.adjustWeights(input, new double[] { 1.0 });
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Double outcome;
+			synchronized (network) {
+				Future<Double> future = executor.submit(new Callable<Double>() {
+					@Override
+					public Double call() {
+						return Double.valueOf(network.getPredictedOutcome(input));
+					}
+				});
+				outcome = future.get(10, TimeUnit.SECONDS);
+			}
+			assertEquals(network.getPredictedOutcome(input),
+					outcome.doubleValue(), 0.0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }
@@ -0,0 +1,323 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.ai.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DoubleDummySolver} and
+ * {@link PerfectInformationSimulator}
+ */
+public class DoubleDummySolverTest extends AbstractJSkatTest {
+
+	private DoubleDummySolver solver;
+
+	/**
+	 * Creates a solver with a small transposition table
+	 */
+	@Before
+	public void setUp() {
+		solver = new DoubleDummySolver(16);
+	}
+
+	/**
+	 * Declarer holds all jacks and the high cards of three suits
+	 */
+	@Test
+	public void solve_GrandAllTricks() {
+
+		CardList foreHand = new CardList(Card.CJ, Card.SJ, Card.HJ, Card.DJ,
+				Card.CA, Card.CT, Card.SA, Card.ST, Card.HA, Card.HT);
+		CardList middleHand = new CardList(Card.CK, Card.CQ, Card.C9,
+				Card.C8, Card.C7, Card.SK, Card.SQ, Card.S9, Card.S8, Card.S7);
+		CardList rearHand = new CardList(Card.HK, Card.HQ, Card.H9, Card.H8,
+				Card.H7, Card.DA, Card.DT, Card.DK, Card.DQ, Card.D9);
+
+		assertEquals(120 - CardSet.getTotalValue(CardSet.getMask(new CardList(
+				Card.D8, Card.D7))), solver.solve(GameType.GRAND,
+				Player.FOREHAND, foreHand, middleHand, rearHand));
+	}
+
+	/**
+	 * Declarer holds only the lowest cards of every suit
+	 */
+	@Test
+	public void solve_NullWon() {
+
+		CardList foreHand = new CardList(Card.C7, Card.C8, Card.C9, Card.S7,
+				Card.S8, Card.S9, Card.H7, Card.H8, Card.D7, Card.D8);
+		CardList middleHand = new CardList(Card.CT, Card.CJ, Card.CQ,
+				Card.SK, Card.SA, Card.H9, Card.HT, Card.HJ, Card.D9, Card.DT);
+		CardList rearHand = new CardList(Card.CK, Card.CA, Card.ST, Card.SJ,
+				Card.SQ, Card.HQ, Card.HK, Card.HA, Card.DJ, Card.DQ);
+
+		assertEquals(DoubleDummySolver.NULL_GAME_WON, solver.solve(
+				GameType.NULL, Player.FOREHAND, foreHand, middleHand, rearHand));
+	}
+
+	/**
+	 * The declarer can't get rid of the club ace
+	 */
+	@Test
+	public void solve_NullLost() {
+
+		int[] hands = getHands(new CardList(Card.CA, Card.S7), new CardList(
+				Card.C7, Card.SA), new CardList(Card.D7, Card.D8));
+
+		assertEquals(DoubleDummySolver.NULL_GAME_LOST, solver.solve(
+				GameType.NULL, Player.FOREHAND, hands, Player.FOREHAND,
+				new CardList()));
+	}
+
+	/**
+	 * Only one card lets the opponents win the last two tricks
+	 */
+	@Test
+	public void getBestCard_Opponent() {
+
+		// clubs game, declarer in rear hand holds the two highest trumps
+		int[] hands = getHands(new CardList(Card.HA, Card.HT), new CardList(
+				Card.H7, Card.CA), new CardList(Card.CJ, Card.SJ));
+
+		int[] values = solver.solveCards(GameType.CLUBS, Player.REARHAND,
+				hands, Player.FOREHAND, new CardList());
+		assertEquals(2 * 11 + 10 + 2 + 2 + 0, values[Card.HA.ordinal()]);
+		assertEquals(2 * 11 + 10 + 2 + 2 + 0, values[Card.HT.ordinal()]);
+		assertEquals(-1, values[Card.CA.ordinal()]);
+
+		// the middle hand has to trump the ace of hearts, otherwise the
+		// declarer trumps the ten of hearts in the last trick
+		hands = getHands(new CardList(Card.HT), new CardList(Card.CA, Card.D7),
+				new CardList(Card.HK, Card.CJ));
+		assertEquals(Card.CA, solver.getBestCard(GameType.CLUBS,
+				Player.REARHAND, hands, Player.FOREHAND, new CardList(Card.HA)));
+	}
+
+	/**
+	 * The solver returns the same values as a plain minimax search
+	 */
+	@Test
+	public void solve_CompareWithMinimax() {
+
+		Random rand = new Random(42);
+		GameType[] gameTypes = { GameType.CLUBS, GameType.HEARTS,
+				GameType.GRAND, GameType.NULL };
+
+		for (int i = 0; i < 60; i++) {
+			GameType gameType = gameTypes[i % gameTypes.length];
+			int cardsPerPlayer = 2 + i % 3;
+			int[] hands = dealRandomHands(rand, cardsPerPlayer);
+			Player declarer = Player.values()[rand.nextInt(3)];
+			Player foreHand = Player.values()[rand.nextInt(3)];
+
+			assertEquals(
+					minimax(gameType, declarer.getOrder(), hands,
+							foreHand.getOrder(), new int[3], 0),
+					solver.solve(gameType, declarer, hands, foreHand,
+							new CardList()));
+		}
+	}
+
+	/**
+	 * The best value of all cards equals the solved value
+	 */
+	@Test
+	public void solveCards_FullDeal() {
+
+		Random rand = new Random(7);
+		int[] hands = dealRandomHands(rand, 10);
+
+		int value = solver.solve(GameType.SPADES, Player.FOREHAND, hands,
+				Player.FOREHAND, new CardList());
+		int[] cardValues = solver.solveCards(GameType.SPADES,
+				Player.FOREHAND, hands, Player.FOREHAND, new CardList());
+
+		int bestValue = -1;
+		for (int cardValue : cardValues) {
+			bestValue = Math.max(bestValue, cardValue);
+		}
+		assertEquals(value, bestValue);
+		assertTrue(solver.getNodes() > 0);
+	}
+
+	/**
+	 * Ramsch games are not solved
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void solve_Ramsch() {
+
+		int[] hands = getHands(new CardList(Card.CA), new CardList(Card.C7),
+				new CardList(Card.D7));
+		solver.solve(GameType.RAMSCH, Player.FOREHAND, hands, Player.FOREHAND,
+				new CardList());
+	}
+
+	/**
+	 * Positions with a wrong number of cards are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void solve_InvalidCardCount() {
+
+		int[] hands = getHands(new CardList(Card.CA, Card.CT), new CardList(
+				Card.C7), new CardList(Card.D7));
+		solver.solve(GameType.GRAND, Player.FOREHAND, hands, Player.FOREHAND,
+				new CardList());
+	}
+
+	/**
+	 * Perfect information Monte Carlo simulation for the declarer
+	 */
+	@Test
+	public void getBestCard_Simulation() {
+
+		PlayerKnowledge knowledge = new PlayerKnowledge();
+		knowledge.setPlayerPosition(Player.FOREHAND);
+		knowledge.addOwnCards(new CardList(Card.CJ, Card.SJ, Card.HJ, Card.DJ,
+				Card.CA, Card.CT, Card.SA, Card.ST, Card.HA, Card.HT));
+		knowledge.setDeclarer(Player.FOREHAND);
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.GRAND);
+		knowledge.setGame(factory.getAnnouncement());
+		knowledge.setCurrentTrick(new Trick(0, Player.FOREHAND));
+
+		PerfectInformationSimulator simulator = new PerfectInformationSimulator(
+				solver, new Random(42));
+		long[] values = simulator.getCardValues(knowledge, 5);
+		for (Card card : knowledge.getOwnCards()) {
+			assertTrue(values[card.ordinal()] >= 0);
+		}
+
+		Card card = simulator.getBestCard(knowledge, 5);
+		assertNotNull(card);
+		assertTrue(knowledge.getOwnCards().contains(card));
+		assertFalse(values[card.ordinal()] < values[Card.HT.ordinal()]);
+	}
+
+	private static int[] getHands(final CardList foreHand,
+			final CardList middleHand, final CardList rearHand) {
+
+		int[] result = new int[3];
+		result[Player.FOREHAND.getOrder()] = CardSet.getMask(foreHand);
+		result[Player.MIDDLEHAND.getOrder()] = CardSet.getMask(middleHand);
+		result[Player.REARHAND.getOrder()] = CardSet.getMask(rearHand);
+		return result;
+	}
+
+	private static int[] dealRandomHands(final Random rand,
+			final int cardsPerPlayer) {
+
+		Card[] cards = Card.values().clone();
+		for (int i = cards.length - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			Card card = cards[i];
+			cards[i] = cards[j];
+			cards[j] = card;
+		}
+
+		int[] result = new int[3];
+		for (int i = 0; i < 3 * cardsPerPlayer; i++) {
+			result[i % 3] |= CardSet.getMask(cards[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Plain minimax search without any pruning
+	 */
+	private static int minimax(final GameType gameType, final int declarer,
+			final int[] hands, final int foreHand, final int[] trick,
+			final int trickSize) {
+
+		boolean nullGame = gameType == GameType.NULL;
+		int player = (foreHand + trickSize) % 3;
+		if (hands[player] == 0) {
+			return nullGame ? DoubleDummySolver.NULL_GAME_WON : 0;
+		}
+
+		Card initialCard = trickSize == 0 ? null : Card.values()[trick[0]];
+		int moves = RuleTables.legalMoves(hands[player], initialCard, gameType);
+		int best = player == declarer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+		for (int card = 0; card < 32; card++) {
+			if ((moves & 1 << card) == 0) {
+				continue;
+			}
+			int[] nextHands = hands.clone();
+			nextHands[player] &= ~(1 << card);
+			int[] nextTrick = trick.clone();
+			nextTrick[trickSize] = card;
+
+			int value;
+			if (trickSize < 2) {
+				value = minimax(gameType, declarer, nextHands, foreHand,
+						nextTrick, trickSize + 1);
+			} else {
+				int winnerIndex = 0;
+				for (int i = 1; i < 3; i++) {
+					if (RuleTables.isCardBeatsCard(gameType,
+							Card.values()[nextTrick[winnerIndex]],
+							Card.values()[nextTrick[i]])) {
+						winnerIndex = i;
+					}
+				}
+				int winner = (foreHand + winnerIndex) % 3;
+				if (nullGame && winner == declarer) {
+					value = DoubleDummySolver.NULL_GAME_LOST;
+				} else {
+					int points = 0;
+					if (!nullGame && winner == declarer) {
+						for (int trickCard : nextTrick) {
+							points += Card.values()[trickCard].getPoints();
+						}
+					}
+					value = points
+							+ minimax(gameType, declarer, nextHands, winner,
+									new int[3], 0);
+				}
+			}
+
+			if (player == declarer) {
+				best = Math.max(best, value);
+			} else {
+				best = Math.min(best, value);
+			}
+		}
+		return best;
+	}
+}
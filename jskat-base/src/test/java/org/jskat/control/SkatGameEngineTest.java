@@ -0,0 +1,71 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.ai.rnd.AIPlayerRND;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.SkatGameData.GameState;
+import org.jskat.data.SkatGameResult;
+import org.jskat.util.CardDeck;
+import org.jskat.util.GameType;
+import org.jskat.util.GameVariant;
+import org.jskat.util.Player;
+import org.junit.Test;
+
+/**
+ * Test class for {@link SkatGameEngine}
+ */
+public class SkatGameEngineTest extends AbstractJSkatTest {
+
+	/**
+	 * Games are played synchronously and the engine can be reused
+	 */
+	@Test
+	public void testPlaySynchronouslyAndReuse() {
+
+		SkatGameEngine engine = new SkatGameEngine(
+				"Table 1", GameVariant.STANDARD, new AIPlayerRND(), //$NON-NLS-1$
+				new AIPlayerRND(), new AIPlayerRND());
+
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.GRAND);
+		GameAnnouncement announcement = factory.getAnnouncement();
+
+		for (int i = 0; i < 3; i++) {
+			CardDeck deck = new CardDeck();
+			deck.shuffle();
+
+			SkatGameResult result = engine.play(deck, Player.FOREHAND,
+					announcement);
+
+			assertNotNull(result);
+			assertEquals(GameState.GAME_OVER, engine.getGameState());
+			assertEquals(Player.FOREHAND, engine.getDeclarer());
+			assertEquals(GameType.GRAND, engine.getGameAnnouncement()
+					.getGameType());
+			assertEquals(10, engine.getGameSummary().getTricks().size());
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.iss;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.util.GameType;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IssGameExtractor}
+ */
+public class IssGameExtractorTest extends AbstractJSkatTest {
+
+	private static final String DIAMONDS_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[24072]ID[541932]DT[2010-12-06/18:59:24/UTC]P0[zoot]P1[kermit]P2[foo]R0[]R1[]R2[0.0]MV[w HA.SK.SJ.SA.CQ.S8.C9.H7.H9.DQ.CJ.S9.DJ.S7.D9.SQ.C8.HQ.DK.CA.D8.D7.DT.CT.ST.C7.HK.DA.HT.HJ.H8.CK 1 p 2 18 0 p 2 s w H8.CK 2 D.ST.H8 0 SA 1 S7 2 DA 2 HJ 0 SJ 1 D9 0 DQ 1 DJ 2 D7 1 CJ 2 D8 0 CQ 1 CA 2 C7 0 C9 1 S9 2 DT 0 S8 2 CT 0 H7 1 C8 2 CK 0 H9 1 HQ 2 HK 0 HA 1 SQ 0 SK 1 DK 2 HT ]R[d:2 loss v:-54 m:-2 bidok p:59 t:4 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	private static final String GRAND_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[29859]ID[684159]DT[2011-04-05/20:35:55/UTC]P0[foo]P1[xskat:2]P2[xskat]R0[0.0]R1[]R2[]MV[w SQ.DK.ST.S7.CT.HK.S9.SK.H7.C7.DT.CA.CQ.CK.DJ.DA.H8.SA.D7.C8.SJ.HA.CJ.S8.C9.DQ.HJ.HQ.D9.D8.HT.H9 1 18 0 y 1 20 0 y 1 22 0 y 1 23 0 y 1 24 0 y 1 p 2 27 0 p 2 s w HT.H9 2 G.S8.C9 0 DK 1 DA 2 D8 1 DT 2 D9 0 ST 1 SA 2 CJ 0 S7 2 HJ 0 CT 1 DJ 2 DQ 0 C7 1 D7 2 HA 0 H7 1 H8 2 HT 0 HK 1 C8 2 HQ 0 S9 1 CQ 2 H9 0 SQ 1 CK 2 SJ 0 SK 1 CA ]R[d:2 win v:96 m:3 bidok p:85 t:8 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	/**
+	 * All games of several chunks are analyzed and merged
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testExtract() throws Exception {
+
+		int games = 2 * IssGameExtractor.CHUNK_SIZE + 1;
+		StringBuilder database = new StringBuilder();
+		for (int i = 0; i < games; i++) {
+			database.append(i % 2 == 0 ? DIAMONDS_GAME : GRAND_GAME).append(
+					'\n');
+		}
+
+		GameTypeStatistics gameTypes = new GameTypeStatistics();
+		DeclarerPointsHistogram histogram = new DeclarerPointsHistogram();
+		DeclarerPointsFilter filter = new DeclarerPointsFilter(80, 90);
+
+		IssGameExtractor extractor = new IssGameExtractor(3, gameTypes,
+				histogram, filter);
+		extractor.extract(new BufferedReader(new StringReader(database
+				.toString())));
+
+		assertEquals(games, extractor.getParsedGames());
+		assertEquals(0, extractor.getFailedGames());
+
+		assertEquals(IssGameExtractor.CHUNK_SIZE + 1,
+				gameTypes.getGames(GameType.DIAMONDS));
+		assertEquals(0, gameTypes.getWonGames(GameType.DIAMONDS));
+		assertEquals(IssGameExtractor.CHUNK_SIZE,
+				gameTypes.getWonGames(GameType.GRAND));
+		assertEquals(96.0, gameTypes.getAverageGameValue(GameType.GRAND), 0.0);
+
+		assertEquals(IssGameExtractor.CHUNK_SIZE + 1, histogram.getGames(59));
+		assertEquals(IssGameExtractor.CHUNK_SIZE, histogram.getGames(85));
+
+		// the grand games have even game numbers
+		assertEquals(IssGameExtractor.CHUNK_SIZE, filter.getGames().size());
+		assertEquals(Long.valueOf(2), filter.getGames().firstKey());
+		assertEquals(Long.valueOf(games - 1), filter.getGames().lastKey());
+	}
+}
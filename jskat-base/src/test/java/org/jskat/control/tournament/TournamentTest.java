@@ -0,0 +1,223 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.control.tournament;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.control.tournament.Tournament.DealMode;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Tournament}
+ */
+public class TournamentTest extends AbstractJSkatTest {
+
+	private static final String RANDOM_PLAYER = "org.jskat.ai.rnd.AIPlayerRND"; //$NON-NLS-1$
+	private static final String MJL_PLAYER = "org.jskat.ai.mjl.AIPlayerMJL"; //$NON-NLS-1$
+	private static final String ALGORITHM_PLAYER = "org.jskat.ai.newalgorithm.AlgorithmAI"; //$NON-NLS-1$
+
+	/**
+	 * Every deal is played for all seat rotations
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testPlay() throws Exception {
+
+		Tournament tournament = new Tournament(Arrays.asList(RANDOM_PLAYER,
+				MJL_PLAYER), 10, 2);
+
+		TournamentStatistics statistics = tournament.play();
+
+		assertEquals(30, statistics.getGames());
+		assertEquals(30, tournament.getPlayedGames());
+
+		// the random player takes two seats
+		PlayerStatistics randomPlayer = statistics
+				.getPlayerStatistics(RANDOM_PLAYER);
+		PlayerStatistics mjlPlayer = statistics.getPlayerStatistics(MJL_PLAYER);
+		assertEquals(60, randomPlayer.getGames());
+		assertEquals(30, mjlPlayer.getGames());
+		assertEquals(statistics.getGames() - statistics.getPassedInGames(),
+				randomPlayer.getDeclarerGames() + mjlPlayer.getDeclarerGames());
+	}
+
+	/**
+	 * Every deal is played with all permutations of the players
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testPlayDuplicate() throws Exception {
+
+		Tournament tournament = new Tournament(Arrays.asList(RANDOM_PLAYER,
+				MJL_PLAYER), 3, 2, DealMode.DUPLICATE);
+
+		TournamentStatistics statistics = tournament.play();
+
+		assertEquals(18, statistics.getGames());
+		assertEquals(27, statistics.getPlayerStatistics(RANDOM_PLAYER)
+				.getGames());
+		assertEquals(27, statistics.getPlayerStatistics(MJL_PLAYER).getGames());
+		assertEquals(3, statistics.getComparison(RANDOM_PLAYER, MJL_PLAYER)
+				.getDeals());
+	}
+
+	/**
+	 * Tournaments with the same seed give the same games, regardless of the
+	 * number of threads
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSeed() throws Exception {
+
+		assertSameGames(Arrays.asList(RANDOM_PLAYER, MJL_PLAYER));
+	}
+
+	/**
+	 * The random decisions of the algorithm player depend on the seed, too
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSeed_AlgorithmPlayer() throws Exception {
+
+		assertSameGames(Arrays.asList(ALGORITHM_PLAYER, RANDOM_PLAYER));
+	}
+
+	private static void assertSameGames(final List<String> players)
+			throws Exception {
+
+		Tournament tournament = new Tournament(players, 20, 1);
+		tournament.setSeed(20130510L);
+		TournamentStatistics statistics = tournament.play();
+
+		Tournament sameTournament = new Tournament(players, 20, 3);
+		sameTournament.setSeed(20130510L);
+		TournamentStatistics sameStatistics = sameTournament.play();
+
+		assertEquals(statistics.getPassedInGames(),
+				sameStatistics.getPassedInGames());
+		for (String player : players) {
+			PlayerStatistics playerStatistics = statistics
+					.getPlayerStatistics(player);
+			PlayerStatistics samePlayerStatistics = sameStatistics
+					.getPlayerStatistics(player);
+			assertEquals(playerStatistics.getDeclarerGames(),
+					samePlayerStatistics.getDeclarerGames());
+			assertEquals(playerStatistics.getWonGames(),
+					samePlayerStatistics.getWonGames());
+			assertEquals(playerStatistics.getAverageScore(),
+					samePlayerStatistics.getAverageScore(), 0.000001);
+		}
+	}
+
+	/**
+	 * Line-ups for the duplicate mode
+	 */
+	@Test
+	public void testCreatePermutations() {
+
+		assertEquals(6, Tournament.createPermutations(
+				Arrays.asList("A", "B", "C")).size()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(6, Tournament.createPermutations(Arrays.asList("A", "B")) //$NON-NLS-1$ //$NON-NLS-2$
+				.size());
+		assertEquals(1, Tournament.createPermutations(Arrays.asList("A")) //$NON-NLS-1$
+				.size());
+
+		// every player takes every seat equally often
+		int[][] seats = new int[2][3];
+		for (String[] lineUp : Tournament.createPermutations(Arrays.asList(
+				"A", "B"))) { //$NON-NLS-1$ //$NON-NLS-2$
+			for (int seat = 0; seat < 3; seat++) {
+				seats["A".equals(lineUp[seat]) ? 0 : 1][seat]++; //$NON-NLS-1$
+			}
+		}
+		for (int seat = 0; seat < 3; seat++) {
+			assertEquals(3, seats[0][seat]);
+			assertEquals(3, seats[1][seat]);
+		}
+	}
+
+	/**
+	 * Paired comparisons
+	 */
+	@Test
+	public void testPairedComparison() {
+
+		PairedComparison comparison = new PairedComparison();
+		comparison.addDeal(10.0);
+		comparison.addDeal(-2.0);
+
+		PairedComparison other = new PairedComparison();
+		other.addDeal(4.0);
+		comparison.merge(other);
+
+		assertEquals(3, comparison.getDeals());
+		assertEquals(4.0, comparison.getAverageDifference(), 0.000001);
+		// standard deviation of 10, -2, 4 is 6
+		assertEquals(1.96 * 6.0 / Math.sqrt(3.0),
+				comparison.getAverageDifferenceConfidence(), 0.000001);
+	}
+
+	/**
+	 * Win rates, averages and confidence intervals
+	 */
+	@Test
+	public void testPlayerStatistics() {
+
+		PlayerStatistics statistics = new PlayerStatistics();
+		statistics.addGame(true, true, 24);
+		statistics.addGame(true, false, -48);
+		statistics.addGame(false, false, 0);
+
+		PlayerStatistics other = new PlayerStatistics();
+		other.addGame(true, true, 24);
+		statistics.merge(other);
+
+		assertEquals(4, statistics.getGames());
+		assertEquals(3, statistics.getDeclarerGames());
+		assertEquals(2, statistics.getWonGames());
+		assertEquals(2.0 / 3.0, statistics.getWinRate(), 0.000001);
+		assertEquals(0.0, statistics.getAverageScore(), 0.000001);
+		assertEquals(0.0, statistics.getAverageDeclarerGameValue(), 0.000001);
+		// standard deviation of 24, -48, 0, 24 is 33.94
+		assertEquals(1.96 * 33.941125 / 2.0,
+				statistics.getAverageScoreConfidence(), 0.0001);
+		// Wilson score interval of 2 won games out of 3
+		assertEquals(0.2077, statistics.getWinRateLowerBound(), 0.0001);
+		assertEquals(0.9385, statistics.getWinRateUpperBound(), 0.0001);
+	}
+
+	/**
+	 * Tournaments need one to three players
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyPlayers() {
+
+		new Tournament(Arrays.asList(RANDOM_PLAYER, RANDOM_PLAYER,
+				RANDOM_PLAYER, RANDOM_PLAYER), 1, 1);
+	}
+}
@@ -20,8 +20,12 @@
 package org.jskat.data;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
 import org.jskat.util.Player;
 import org.junit.Before;
 import org.junit.Test;
@@ -65,4 +69,23 @@ public class SkatGameDataTest {
 		assertTrue(gameData.isSchwarz());
 	}
 
+	@Test
+	public void reset() {
+
+		gameData.setDeclarer(Player.MIDDLEHAND);
+		gameData.addDealtCards(Player.FOREHAND, new CardList(Card.CJ, Card.SJ));
+		gameData.setDealtSkatCards(new CardList(Card.HA, Card.HT));
+		gameData.setDeclarerScore(120);
+		SkatGameResult oldResult = gameData.getResult();
+
+		gameData.reset();
+
+		assertNull(gameData.getDeclarer());
+		assertTrue(gameData.getDealtCards().get(Player.FOREHAND).isEmpty());
+		assertTrue(gameData.getPlayerCards(Player.FOREHAND).isEmpty());
+		assertTrue(gameData.getSkat().isEmpty());
+		assertFalse(gameData.isSchwarz());
+		assertNotSame(oldResult, gameData.getResult());
+	}
+
 }
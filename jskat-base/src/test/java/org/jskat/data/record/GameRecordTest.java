@@ -0,0 +1,201 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.data.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.control.iss.IssGameRecordConverter;
+import org.jskat.data.SkatGameData;
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GameRecord} and the record files
+ */
+public class GameRecordTest extends AbstractJSkatTest {
+
+	private static final String DIAMONDS_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[24072]ID[541932]DT[2010-12-06/18:59:24/UTC]P0[zoot]P1[kermit]P2[foo]R0[]R1[]R2[0.0]MV[w HA.SK.SJ.SA.CQ.S8.C9.H7.H9.DQ.CJ.S9.DJ.S7.D9.SQ.C8.HQ.DK.CA.D8.D7.DT.CT.ST.C7.HK.DA.HT.HJ.H8.CK 1 p 2 18 0 p 2 s w H8.CK 2 D.ST.H8 0 SA 1 S7 2 DA 2 HJ 0 SJ 1 D9 0 DQ 1 DJ 2 D7 1 CJ 2 D8 0 CQ 1 CA 2 C7 0 C9 1 S9 2 DT 0 S8 2 CT 0 H7 1 C8 2 CK 0 H9 1 HQ 2 HK 0 HA 1 SQ 0 SK 1 DK 2 HT ]R[d:2 loss v:-54 m:-2 bidok p:59 t:4 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	private static final String GRAND_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[29859]ID[684159]DT[2011-04-05/20:35:55/UTC]P0[foo]P1[xskat:2]P2[xskat]R0[0.0]R1[]R2[]MV[w SQ.DK.ST.S7.CT.HK.S9.SK.H7.C7.DT.CA.CQ.CK.DJ.DA.H8.SA.D7.C8.SJ.HA.CJ.S8.C9.DQ.HJ.HQ.D9.D8.HT.H9 1 18 0 y 1 20 0 y 1 22 0 y 1 23 0 y 1 24 0 y 1 p 2 27 0 p 2 s w HT.H9 2 G.S8.C9 0 DK 1 DA 2 D8 1 DT 2 D9 0 ST 1 SA 2 CJ 0 S7 2 HJ 0 CT 1 DJ 2 DQ 0 C7 1 D7 2 HA 0 H7 1 H8 2 HT 0 HK 1 C8 2 HQ 0 S9 1 CQ 2 H9 0 SQ 1 CK 2 SJ 0 SK 1 CA ]R[d:2 win v:96 m:3 bidok p:85 t:8 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	private static final String PASSED_GAME = "(;GM[Skat]PC[International Skat Server]CO[]SE[1]ID[1]DT[2012-01-01/00:00:00/UTC]P0[foo]P1[bar]P2[baz]R0[]R1[]R2[]MV[w SQ.DK.ST.S7.CT.HK.S9.SK.H7.C7.DT.CA.CQ.CK.DJ.DA.H8.SA.D7.C8.SJ.HA.CJ.S8.C9.DQ.HJ.HQ.D9.D8.HT.H9 1 p 2 p 0 p ]R[d:-1 pass v:0 m:0 bidok p:0 t:0 s:0 z:0 p0:0 p1:0 p2:0 l:-1 to:-1 r:0] ;)"; //$NON-NLS-1$
+
+	/**
+	 * A game survives the conversion to a record and back
+	 */
+	@Test
+	public void testRoundTrip() {
+
+		GameRecord record = convert(DIAMONDS_GAME);
+
+		assertEquals(GameType.DIAMONDS, record.getGameType());
+		assertEquals(Player.REARHAND, record.getDeclarer());
+		assertEquals(18, record.getMaxBid(Player.REARHAND));
+		assertTrue(record.isPass(Player.MIDDLEHAND));
+		assertFalse(record.isHand());
+		assertEquals(30, record.getCardPlayCount());
+		assertEquals(Card.SA, record.getPlayedCard(0));
+		assertEquals(-54, record.getGameValue());
+		assertEquals(59, record.getDeclarerPoints());
+		assertFalse(record.isWon());
+
+		SkatGameData gameData = record.toGameData();
+		assertEquals(GameType.DIAMONDS, gameData.getGameType());
+		assertEquals(Player.REARHAND, gameData.getDeclarer());
+		assertEquals(18, gameData.getMaxPlayerBid(Player.REARHAND));
+		assertEquals(0, gameData.getMaxPlayerBid(Player.FOREHAND));
+		assertTrue(gameData.getDealtCards().get(Player.FOREHAND)
+				.contains(Card.HA));
+		assertTrue(gameData.getDealtSkat().contains(Card.CK));
+		assertTrue(gameData.getSkat().contains(Card.ST));
+		assertTrue(gameData.getSkat().contains(Card.H8));
+		assertEquals(10, gameData.getTricks().size());
+
+		Trick firstTrick = gameData.getTricks().get(0);
+		assertEquals(Player.FOREHAND, firstTrick.getForeHand());
+		assertEquals(Card.DA, firstTrick.getThirdCard());
+		assertEquals(Player.REARHAND, firstTrick.getTrickWinner());
+		assertEquals(Player.REARHAND, gameData.getTricks().get(1)
+				.getForeHand());
+		assertEquals(Player.FOREHAND, gameData.getTricks().get(1)
+				.getTrickWinner());
+
+		assertEquals(-54, gameData.getResult().getGameValue());
+		assertEquals(59, gameData.getResult().getFinalDeclarerPoints());
+		assertFalse(gameData.getResult().isWon());
+
+		// converting the game data again gives the same record
+		assertEquals(record, GameRecord.fromGameData(gameData));
+	}
+
+	/**
+	 * Passed in games have no declarer and no card plays
+	 */
+	@Test
+	public void testPassedGame() {
+
+		GameRecord record = convert(PASSED_GAME);
+
+		assertEquals(GameType.PASSED_IN, record.getGameType());
+		assertNull(record.getDeclarer());
+		assertEquals(0, record.getCardPlayCount());
+		assertEquals(GameType.PASSED_IN, record.toGameData().getGameType());
+	}
+
+	/**
+	 * Records are written and read sequentially and with random access
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testFiles() throws IOException {
+
+		GameRecord[] records = { convert(DIAMONDS_GAME), convert(GRAND_GAME),
+				convert(PASSED_GAME) };
+
+		File file = File.createTempFile("jskat", ".jsgr"); //$NON-NLS-1$ //$NON-NLS-2$
+		file.deleteOnExit();
+		GameRecordWriter writer = new GameRecordWriter(file);
+		for (GameRecord record : records) {
+			writer.write(record);
+		}
+		writer.close();
+		assertEquals(GameRecordFormat.HEADER_SIZE + 3 * GameRecord.RECORD_SIZE,
+				file.length());
+
+		GameRecord record = new GameRecord();
+		GameRecordReader reader = new GameRecordReader(file);
+		try {
+			for (GameRecord expected : records) {
+				assertTrue(reader.read(record));
+				assertEquals(expected, record);
+			}
+			assertFalse(reader.read(record));
+		} finally {
+			reader.close();
+		}
+
+		GameRecordFile recordFile = new GameRecordFile(file);
+		try {
+			assertEquals(3, recordFile.getRecordCount());
+			recordFile.read(1, record);
+			assertEquals(records[1], record);
+			assertEquals(GameType.GRAND, record.getGameType());
+			assertEquals(96, record.getGameValue());
+			recordFile.read(0, record);
+			assertEquals(records[0], record);
+		} finally {
+			recordFile.close();
+		}
+	}
+
+	/**
+	 * Streams without header are rejected
+	 * 
+	 * @throws IOException
+	 */
+	@Test(expected = IOException.class)
+	public void testInvalidHeader() throws IOException {
+
+		new GameRecordReader(new ByteArrayInputStream(new byte[8]));
+	}
+
+	/**
+	 * The converter skips invalid games
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testConverter() throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GameRecordWriter writer = new GameRecordWriter(bytes);
+		IssGameRecordConverter converter = new IssGameRecordConverter();
+		converter.convert(new BufferedReader(new StringReader(DIAMONDS_GAME
+				+ "\nno game\n" + GRAND_GAME + "\n")), writer); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.close();
+
+		assertEquals(2, converter.getConvertedGames());
+		assertEquals(1, converter.getFailedGames());
+		assertEquals(GameRecordFormat.HEADER_SIZE + 2 * GameRecord.RECORD_SIZE,
+				bytes.size());
+	}
+
+	private static GameRecord convert(final String gameSummary) {
+
+		GameRecord record = new GameRecord();
+		assertTrue(IssGameRecordConverter.convert(gameSummary, record));
+		return record;
+	}
+}
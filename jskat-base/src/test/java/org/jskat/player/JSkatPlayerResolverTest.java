@@ -36,4 +36,20 @@ public class JSkatPlayerResolverTest extends AbstractJSkatTest {
 
 		assertEquals(3, implementations.size());
 	}
+
+	@Test
+	public void testResolvePlayerClass() {
+
+		assertEquals("org.jskat.ai.nn.AIPlayerNN", //$NON-NLS-1$
+				JSkatPlayerResolver.resolvePlayerClass("AIPlayerNN")); //$NON-NLS-1$
+		assertEquals("org.jskat.ai.mjl.AIPlayerMJL", //$NON-NLS-1$
+				JSkatPlayerResolver
+						.resolvePlayerClass("org.jskat.ai.mjl.AIPlayerMJL")); //$NON-NLS-1$
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResolvePlayerClass_Unknown() {
+
+		JSkatPlayerResolver.resolvePlayerClass("UnknownPlayer"); //$NON-NLS-1$
+	}
 }
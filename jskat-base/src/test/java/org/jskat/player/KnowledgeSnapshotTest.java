@@ -0,0 +1,180 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for class KnowledgeSnapshot
+ */
+public class KnowledgeSnapshotTest extends AbstractJSkatTest {
+
+	private PlayerKnowledge knowledge;
+
+	/**
+	 * Sets up a clubs game with middle hand as player and fore hand as
+	 * declarer
+	 */
+	@Before
+	public void setUp() {
+
+		knowledge = new PlayerKnowledge();
+		knowledge.setPlayerPosition(Player.MIDDLEHAND);
+		knowledge.addOwnCards(new CardList(Card.CA, Card.CQ, Card.C8, Card.ST,
+				Card.SQ, Card.DT, Card.DK, Card.D7, Card.HJ, Card.HA));
+
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.CLUBS);
+		knowledge.setGame(factory.getAnnouncement());
+		knowledge.setDeclarer(Player.FOREHAND);
+		knowledge.setCurrentTrick(new Trick(0, Player.FOREHAND));
+	}
+
+	/**
+	 * Playing cards on a snapshot gives the same knowledge as playing them on
+	 * the player knowledge
+	 */
+	@Test
+	public void testPlayCard() {
+
+		knowledge.setCardPlayed(Player.FOREHAND, Card.SA);
+		KnowledgeSnapshot snapshot = new KnowledgeSnapshot(knowledge);
+
+		assertEquals(1, snapshot.getTrickSize());
+		assertEquals(Card.SA, snapshot.getTrickCard(0));
+		assertEquals(Player.MIDDLEHAND, snapshot.getNextPlayer());
+		assertEquals(CardSet.getMask(new CardList(Card.ST, Card.SQ)),
+				snapshot.getPlayableCardMask());
+
+		snapshot.playCard(Player.MIDDLEHAND, Card.SQ);
+		snapshot.playCard(Player.REARHAND, Card.H7);
+		knowledge.setCardPlayed(Player.MIDDLEHAND, Card.SQ);
+		knowledge.removeOwnCard(Card.SQ);
+		knowledge.setCardPlayed(Player.REARHAND, Card.H7);
+
+		assertSameKnowledge(knowledge, snapshot);
+		assertFalse(snapshot.couldHaveCard(Player.REARHAND, Card.S7));
+		assertTrue(snapshot.couldHaveCard(Player.REARHAND, Card.SJ));
+
+		// fore hand wins the trick and leads the next one
+		assertEquals(0, snapshot.getTrickSize());
+		assertEquals(Player.FOREHAND, snapshot.getTrickForeHand());
+		assertEquals(Player.FOREHAND, snapshot.getNextPlayer());
+	}
+
+	/**
+	 * Undoing cards restores the former state
+	 */
+	@Test
+	public void testUndoCard() {
+
+		KnowledgeSnapshot snapshot = new KnowledgeSnapshot(knowledge);
+
+		long first = snapshot.playCard(Player.FOREHAND, Card.SJ);
+		long second = snapshot.playCard(Player.MIDDLEHAND, Card.HJ);
+		long third = snapshot.playCard(Player.REARHAND, Card.S7);
+
+		assertFalse(snapshot.couldHaveTrump(Player.REARHAND));
+		assertEquals(Player.FOREHAND, snapshot.getTrickForeHand());
+
+		snapshot.undoCard(third);
+		assertTrue(snapshot.couldHaveTrump(Player.REARHAND));
+		assertEquals(2, snapshot.getTrickSize());
+		assertEquals(Player.REARHAND, snapshot.getNextPlayer());
+
+		snapshot.undoCard(second);
+		snapshot.undoCard(first);
+		assertSameKnowledge(knowledge, snapshot);
+		assertEquals(Player.FOREHAND, snapshot.getNextPlayer());
+	}
+
+	/**
+	 * Forked snapshots are independent
+	 */
+	@Test
+	public void testFork() {
+
+		KnowledgeSnapshot snapshot = new KnowledgeSnapshot(knowledge);
+		snapshot.playCard(Player.FOREHAND, Card.SA);
+
+		KnowledgeSnapshot fork = snapshot.fork();
+		fork.playCard(Player.MIDDLEHAND, Card.ST);
+
+		assertTrue(fork.isCardPlayed(Card.ST));
+		assertFalse(snapshot.isCardPlayed(Card.ST));
+		assertEquals(1, snapshot.getTrickSize());
+
+		fork.copyFrom(snapshot);
+		assertFalse(fork.isCardPlayed(Card.ST));
+		assertEquals(snapshot.getOwnCardMask(), fork.getOwnCardMask());
+	}
+
+	/**
+	 * A fork can't take back cards played before it was created
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testUndoBeforeFork() {
+
+		KnowledgeSnapshot snapshot = new KnowledgeSnapshot(knowledge);
+		long undo = snapshot.playCard(Player.FOREHAND, Card.SA);
+
+		snapshot.fork().undoCard(undo);
+	}
+
+	/**
+	 * Cards can't be played twice
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPlayCardTwice() {
+
+		KnowledgeSnapshot snapshot = new KnowledgeSnapshot(knowledge);
+		snapshot.playCard(Player.FOREHAND, Card.SA);
+		snapshot.playCard(Player.MIDDLEHAND, Card.SA);
+	}
+
+	private static void assertSameKnowledge(final PlayerKnowledge expected,
+			final KnowledgeSnapshot snapshot) {
+
+		for (Player player : Player.values()) {
+			assertEquals(expected.getPlayedCardMask(player),
+					snapshot.getPlayedCardMask(player));
+			assertEquals(expected.getPossibleCardMask(player),
+					snapshot.getPossibleCardMask(player));
+		}
+		assertEquals(expected.getPossibleSkatCardMask(),
+				snapshot.getPossibleSkatCardMask());
+		assertEquals(CardSet.getMask(expected.getOwnCards()),
+				snapshot.getOwnCardMask());
+	}
+}
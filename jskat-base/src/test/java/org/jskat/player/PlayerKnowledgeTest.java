@@ -33,6 +33,7 @@ import org.jskat.data.Trick;
 import org.jskat.util.Card;
 import org.jskat.util.GameType;
 import org.jskat.util.Player;
+import org.jskat.util.Suit;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -246,6 +247,78 @@ public class PlayerKnowledgeTest extends AbstractJSkatTest {
 		assertCouldNotHaveCard(Player.REARHAND, Card.S7);
 	}
 
+	/**
+	 * A player not following a jack lead has no trump cards at all
+	 */
+	@Test
+	public void testCardPlay_JackLead() {
+
+		dealPlayerCards();
+
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(GameType.CLUBS);
+		knowledge.setGame(factory.getAnnouncement());
+		knowledge.setDeclarer(Player.FOREHAND);
+
+		knowledge.setCurrentTrick(new Trick(0, Player.FOREHAND));
+
+		knowledge.setCardPlayed(Player.FOREHAND, Card.SJ);
+		knowledge.setCardPlayed(Player.MIDDLEHAND, Card.HJ);
+		assertTrue(knowledge.couldHaveTrump(Player.REARHAND));
+
+		knowledge.setCardPlayed(Player.REARHAND, Card.H7);
+
+		assertFalse(knowledge.couldHaveTrump(Player.REARHAND));
+		assertCouldNotHaveCard(Player.REARHAND, Card.CJ);
+		assertCouldNotHaveCard(Player.REARHAND, Card.DJ);
+		assertCouldNotHaveCard(Player.REARHAND, Card.CK);
+		assertCouldNotHaveCard(Player.REARHAND, Card.C7);
+		// spades are no trump
+		assertCouldHaveCard(Player.REARHAND, Card.SA);
+		assertCouldHaveCard(Player.REARHAND, Card.S7);
+		assertTrue(knowledge.couldHaveSuit(Player.REARHAND, Suit.SPADES));
+	}
+
+	/**
+	 * A suit is possible as long as any card except the jack is possible
+	 */
+	@Test
+	public void testCouldHaveSuit() {
+
+		dealPlayerCards();
+
+		assertTrue(knowledge.couldHaveSuit(Player.FOREHAND, Suit.HEARTS));
+
+		knowledge.setMissingSuit(Player.FOREHAND, Suit.HEARTS);
+		assertFalse(knowledge.couldHaveSuit(Player.FOREHAND, Suit.HEARTS));
+
+		// middle hand holds the ace of hearts, the rest is still possible
+		assertFalse(knowledge.couldHaveCard(Player.REARHAND, Card.HA));
+		assertTrue(knowledge.couldHaveSuit(Player.REARHAND, Suit.HEARTS));
+		assertEquals(6,
+				knowledge.getPotentialSuitCount(Player.REARHAND, Suit.HEARTS,
+						false, false));
+	}
+
+	/**
+	 * Suit counts and points follow the own cards
+	 */
+	@Test
+	public void testSuitCountAndPoints() {
+
+		dealPlayerCards();
+
+		assertEquals(3, knowledge.getSuitCount(Suit.CLUBS));
+		assertEquals(14, knowledge.getSuitPoints(Suit.CLUBS));
+		assertEquals(2, knowledge.getSuitCount(Suit.HEARTS));
+		assertEquals(13, knowledge.getSuitPoints(Suit.HEARTS));
+
+		knowledge.removeOwnCard(Card.CA);
+
+		assertEquals(2, knowledge.getSuitCount(Suit.CLUBS));
+		assertEquals(3, knowledge.getSuitPoints(Suit.CLUBS));
+	}
+
 	private void dealPlayerCards() {
 
 		// set up player cards
@@ -19,6 +19,8 @@
  */
 package org.jskat.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.jskat.AbstractJSkatTest;
@@ -63,4 +65,22 @@ public class CardDeckTest extends AbstractJSkatTest {
 				"CJ SJ HJ CK CQ SK C7 C8 S7 H7 D7 DJ CA CT C9 SQ HA HK HQ S8 H8 H9 HT SA ST S9 D8 D9 DT DA DK DQ");
 		cards.add(Card.CJ);
 	}
+
+	/**
+	 * Shuffling with generators of the same seed gives the same card order
+	 */
+	@Test
+	public void shuffleWithSeed() {
+
+		CardDeck cards = new CardDeck();
+		cards.shuffle(new SkatRandom(42L));
+		CardDeck sameCards = new CardDeck();
+		sameCards.shuffle(new SkatRandom(42L));
+		CardDeck otherCards = new CardDeck();
+		otherCards.shuffle(new SkatRandom(43L));
+
+		assertEquals(cards.toString(), sameCards.toString());
+		assertFalse(cards.toString().equals(otherCards.toString()));
+		assertEquals(32, cards.size());
+	}
 }
@@ -0,0 +1,150 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.jskat.AbstractJSkatTest;
+import org.junit.Test;
+
+/**
+ * Test cases for class {@link CardSet}
+ */
+public class CardSetTest extends AbstractJSkatTest {
+
+	/**
+	 * Adding, removing and counting cards
+	 */
+	@Test
+	public void testAddRemove() {
+
+		CardSet cards = new CardSet();
+		assertTrue(cards.isEmpty());
+
+		assertTrue(cards.add(Card.CJ));
+		assertFalse(cards.add(Card.CJ));
+		assertTrue(cards.add(Card.DA));
+		assertEquals(2, cards.size());
+		assertTrue(cards.contains(Card.CJ));
+		assertFalse(cards.contains(Card.SJ));
+
+		assertTrue(cards.remove(Card.CJ));
+		assertFalse(cards.remove(Card.CJ));
+		assertEquals(1, cards.size());
+		assertEquals(new CardSet(Card.DA), cards);
+	}
+
+	/**
+	 * Trump masks of all game types
+	 */
+	@Test
+	public void testTrumpMasks() {
+
+		assertEquals(4, CardSet.size(CardSet.getTrumpMask(GameType.GRAND)));
+		assertEquals(4, CardSet.size(CardSet.getTrumpMask(GameType.RAMSCH)));
+		assertEquals(0, CardSet.size(CardSet.getTrumpMask(GameType.NULL)));
+		assertEquals(11, CardSet.size(CardSet.getTrumpMask(GameType.CLUBS)));
+
+		for (GameType gameType : GameType.values()) {
+			if (gameType == GameType.PASSED_IN) {
+				continue;
+			}
+			for (Card card : Card.values()) {
+				assertEquals(gameType + " " + card, card.isTrump(gameType), //$NON-NLS-1$
+						(CardSet.getTrumpMask(gameType) & CardSet
+								.getMask(card)) != 0);
+			}
+		}
+	}
+
+	/**
+	 * Card set and card list give the same results for random hands
+	 */
+	@Test
+	public void testSameResultsAsCardList() {
+
+		Random rand = new Random(7);
+
+		for (int i = 0; i < 100; i++) {
+
+			CardDeck deck = new CardDeck();
+			deck.shuffle();
+			CardList hand = new CardList();
+			for (int j = 0; j < 1 + rand.nextInt(12); j++) {
+				hand.add(deck.get(j));
+			}
+
+			CardSet cards = hand.toCardSet();
+
+			assertEquals(hand.size(), cards.size());
+			assertEquals(hand.getTotalValue(), cards.getTotalValue());
+			for (Suit suit : Suit.values()) {
+				assertEquals(hand.getSuitCount(suit, true),
+						cards.getSuitCount(suit, true));
+				assertEquals(hand.getSuitCount(suit, false),
+						cards.getSuitCount(suit, false));
+				assertEquals(hand.getTrumpCount(suit),
+						cards.getTrumpCount(suit));
+				assertEquals(hand.hasJack(suit), cards.hasJack(suit));
+				for (GameType gameType : GameType.values()) {
+					if (gameType != GameType.PASSED_IN) {
+						assertEquals(hand.hasSuit(gameType, suit),
+								cards.hasSuit(gameType, suit));
+					}
+				}
+			}
+			for (GameType gameType : GameType.values()) {
+				if (gameType != GameType.PASSED_IN) {
+					assertEquals(hand.hasTrump(gameType),
+							cards.hasTrump(gameType));
+				}
+			}
+			for (Card card : Card.values()) {
+				assertEquals(hand.contains(card), cards.contains(card));
+			}
+		}
+	}
+
+	/**
+	 * Conversion into a card list and iteration
+	 */
+	@Test
+	public void testToCardList() {
+
+		CardSet cards = new CardSet(Card.D7, Card.CA, Card.HJ);
+
+		CardList cardList = cards.toCardList();
+		assertEquals(3, cardList.size());
+		assertEquals(Card.CA, cardList.get(0));
+		assertEquals(Card.HJ, cardList.get(1));
+		assertEquals(Card.D7, cardList.get(2));
+
+		int count = 0;
+		for (Card card : cards) {
+			assertEquals(cardList.get(count), card);
+			count++;
+		}
+		assertEquals(3, count);
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.jskat.AbstractJSkatTest;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Confidence}
+ */
+public class ConfidenceTest extends AbstractJSkatTest {
+
+	/**
+	 * The Wilson score interval contains the rate and stays inside [0, 1]
+	 */
+	@Test
+	public void testWilsonBounds() {
+
+		assertEquals(0.3127, Confidence.getWilsonLowerBound(6, 10), 0.0001);
+		assertEquals(0.8318, Confidence.getWilsonUpperBound(6, 10), 0.0001);
+
+		assertEquals(0.0, Confidence.getWilsonLowerBound(0, 10), 0.000001);
+		assertTrue(Confidence.getWilsonUpperBound(0, 10) > 0.0);
+		assertTrue(Confidence.getWilsonLowerBound(10, 10) < 1.0);
+		assertEquals(1.0, Confidence.getWilsonUpperBound(10, 10), 0.000001);
+	}
+
+	/**
+	 * Without trials the interval covers all rates
+	 */
+	@Test
+	public void testWilsonBoundsWithoutTrials() {
+
+		assertEquals(0.0, Confidence.getWilsonLowerBound(0, 0), 0.000001);
+		assertEquals(1.0, Confidence.getWilsonUpperBound(0, 0), 0.000001);
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jskat.AbstractJSkatTest;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SkatRandom}
+ */
+public class SkatRandomTest extends AbstractJSkatTest {
+
+	/**
+	 * Generators with the same seed give the same numbers
+	 */
+	@Test
+	public void sameSeed() {
+
+		SkatRandom rand = new SkatRandom(20130510L);
+		SkatRandom sameRand = new SkatRandom(20130510L);
+
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(rand.nextLong(), sameRand.nextLong());
+			assertEquals(rand.nextInt(32), sameRand.nextInt(32));
+			assertEquals(rand.nextDouble(), sameRand.nextDouble(), 0.0);
+		}
+	}
+
+	/**
+	 * Setting the seed restarts the sequence
+	 */
+	@Test
+	public void setSeed() {
+
+		SkatRandom rand = new SkatRandom(1L);
+		long first = rand.nextLong();
+		rand.nextLong();
+		rand.setSeed(1L);
+
+		assertEquals(first, rand.nextLong());
+	}
+
+	/**
+	 * Split generators are reproducible and differ from their parent
+	 */
+	@Test
+	public void split() {
+
+		SkatRandom rand = new SkatRandom(7L);
+		SkatRandom sameRand = new SkatRandom(7L);
+
+		SkatRandom child = rand.split();
+		SkatRandom sameChild = sameRand.split();
+
+		for (int i = 0; i < 100; i++) {
+			long value = child.nextLong();
+			assertEquals(value, sameChild.nextLong());
+			assertFalse(value == rand.nextLong());
+		}
+	}
+
+	/**
+	 * Generators for an index only depend on seed and index
+	 */
+	@Test
+	public void forIndex() {
+
+		long first = SkatRandom.forIndex(3L, 0L).nextLong();
+		long second = SkatRandom.forIndex(3L, 1L).nextLong();
+
+		assertEquals(second, SkatRandom.forIndex(3L, 1L).nextLong());
+		assertEquals(first, SkatRandom.forIndex(3L, 0L).nextLong());
+		assertFalse(first == second);
+		assertFalse(first == SkatRandom.forIndex(4L, 0L).nextLong());
+	}
+
+	/**
+	 * Bounded integers are in range and roughly uniform
+	 */
+	@Test
+	public void nextIntDistribution() {
+
+		SkatRandom rand = new SkatRandom(11L);
+		int[] counts = new int[3];
+		for (int i = 0; i < 30000; i++) {
+			counts[rand.nextInt(3)]++;
+		}
+
+		for (int count : counts) {
+			assertTrue(Math.abs(count - 10000) < 500);
+		}
+	}
+}
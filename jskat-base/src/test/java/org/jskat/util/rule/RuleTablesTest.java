@@ -0,0 +1,115 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.util.rule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jskat.AbstractJSkatTest;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RuleTables}
+ */
+public class RuleTablesTest extends AbstractJSkatTest {
+
+	/**
+	 * Order of trump cards in grand games
+	 */
+	@Test
+	public void testBeatsGrand() {
+
+		assertTrue(RuleTables.isCardBeatsCard(GameType.GRAND, Card.SJ, Card.CJ));
+		assertFalse(RuleTables.isCardBeatsCard(GameType.GRAND, Card.CJ, Card.SJ));
+		assertTrue(RuleTables.isCardBeatsCard(GameType.GRAND, Card.CA, Card.DJ));
+		assertTrue(RuleTables.isCardBeatsCard(GameType.GRAND, Card.CT, Card.CA));
+		assertFalse(RuleTables.isCardBeatsCard(GameType.GRAND, Card.CT, Card.SA));
+		assertEquals(4, CardSet.size(RuleTables.getBeatingCards(GameType.GRAND,
+				Card.HA)));
+	}
+
+	/**
+	 * Order of cards in null games
+	 */
+	@Test
+	public void testBeatsNull() {
+
+		assertTrue(RuleTables.isCardBeatsCard(GameType.NULL, Card.CT, Card.CJ));
+		assertFalse(RuleTables.isCardBeatsCard(GameType.NULL, Card.CJ, Card.CT));
+		assertFalse(RuleTables.isCardBeatsCard(GameType.NULL, Card.C7, Card.DA));
+		assertEquals(0, RuleTables.getBeatingCards(GameType.NULL, Card.CA));
+	}
+
+	/**
+	 * Suit games: jacks and trump suit follow trump
+	 */
+	@Test
+	public void testLegalMovesSuit() {
+
+		int hand = new CardSet(Card.HJ, Card.C7, Card.SA, Card.ST).getMask();
+
+		assertEquals(hand, RuleTables.legalMoves(hand, null, GameType.CLUBS));
+		assertEquals(new CardSet(Card.HJ, Card.C7).getMask(),
+				RuleTables.legalMoves(hand, Card.CA, GameType.CLUBS));
+		assertEquals(new CardSet(Card.HJ, Card.C7).getMask(),
+				RuleTables.legalMoves(hand, Card.DJ, GameType.CLUBS));
+		assertEquals(new CardSet(Card.SA, Card.ST).getMask(),
+				RuleTables.legalMoves(hand, Card.S7, GameType.CLUBS));
+		assertEquals(hand, RuleTables.legalMoves(hand, Card.D7, GameType.CLUBS));
+	}
+
+	/**
+	 * Legal moves match the allowed cards of the rules
+	 */
+	@Test
+	public void testLegalMovesMatchRules() {
+
+		for (int i = 0; i < 50; i++) {
+
+			CardDeck deck = new CardDeck();
+			deck.shuffle();
+			CardList hand = new CardList();
+			for (int j = 0; j < 10; j++) {
+				hand.add(deck.get(j));
+			}
+			int handMask = CardSet.getMask(hand);
+
+			for (GameType gameType : GameType.values()) {
+				if (gameType == GameType.PASSED_IN) {
+					continue;
+				}
+				for (Card initialCard : Card.values()) {
+					int legalMoves = RuleTables.legalMoves(handMask,
+							initialCard, gameType);
+					for (Card card : hand) {
+						assertEquals(card.isAllowed(gameType, initialCard, hand),
+								(legalMoves & CardSet.getMask(card)) != 0);
+					}
+				}
+			}
+		}
+	}
+}
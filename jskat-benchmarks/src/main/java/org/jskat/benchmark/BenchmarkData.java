@@ -0,0 +1,128 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.GameAnnouncement.GameAnnouncementFactory;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+
+/**
+ * Creates reproducible data for the benchmarks
+ */
+final class BenchmarkData {
+
+	/**
+	 * Seed for all random data of the benchmarks
+	 */
+	static final long SEED = 20130510L;
+
+	private BenchmarkData() {
+		// no instances
+	}
+
+	/**
+	 * Creates shuffled card decks
+	 * 
+	 * @param count
+	 *            Number of card decks
+	 * @return Card decks, the same for every run
+	 */
+	static List<CardDeck> createCardDecks(final int count) {
+
+		Random random = new Random(SEED);
+		List<Card> cards = new ArrayList<Card>();
+		for (Card card : Card.values()) {
+			cards.add(card);
+		}
+
+		List<CardDeck> result = new ArrayList<CardDeck>();
+		for (int i = 0; i < count; i++) {
+			Collections.shuffle(cards, random);
+			result.add(new CardDeck(new CardList(cards)));
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a game announcement
+	 * 
+	 * @param gameType
+	 *            Game type
+	 * @return Game announcement
+	 */
+	static GameAnnouncement createAnnouncement(final GameType gameType) {
+
+		GameAnnouncementFactory factory = GameAnnouncement.getFactory();
+		factory.setGameType(gameType);
+		return factory.getAnnouncement();
+	}
+
+	/**
+	 * Creates the knowledge of the declarer of a grand game after the first
+	 * trick
+	 * 
+	 * @return Player knowledge
+	 */
+	static PlayerKnowledge createMidGameKnowledge() {
+
+		PlayerKnowledge knowledge = new PlayerKnowledge();
+		knowledge.setPlayerPosition(Player.FOREHAND);
+		knowledge.addOwnCards(new CardList(Card.CJ, Card.SJ, Card.CA, Card.CT,
+				Card.CK, Card.SA, Card.ST, Card.HA, Card.HT, Card.DA));
+		knowledge.setDeclarer(Player.FOREHAND);
+		knowledge.setGame(createAnnouncement(GameType.GRAND));
+
+		Trick trick = new Trick(0, Player.FOREHAND);
+		knowledge.setCurrentTrick(new Trick(0, Player.FOREHAND));
+		playCard(knowledge, trick, Player.FOREHAND, Card.CA);
+		playCard(knowledge, trick, Player.MIDDLEHAND, Card.HQ);
+		playCard(knowledge, trick, Player.REARHAND, Card.C7);
+		trick.setTrickWinner(Player.FOREHAND);
+		knowledge.addTrick(trick);
+		knowledge.clearTrickCards();
+
+		knowledge.setCurrentTrick(new Trick(1, Player.FOREHAND));
+
+		return knowledge;
+	}
+
+	private static void playCard(final PlayerKnowledge knowledge,
+			final Trick trick, final Player player, final Card card) {
+
+		trick.addCard(card);
+		knowledge.setCardPlayed(player, card);
+		if (player == knowledge.getPlayerPosition()) {
+			knowledge.removeOwnCard(card);
+		} else {
+			knowledge.removeCard(card);
+		}
+	}
+}
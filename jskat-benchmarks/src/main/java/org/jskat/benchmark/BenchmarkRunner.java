@@ -0,0 +1,71 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JSkat benchmarks and writes the results as JSON
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Default file for the benchmark results
+	 */
+	public static final String DEFAULT_RESULT_FILE = "jskat-benchmarks.json"; //$NON-NLS-1$
+
+	/**
+	 * Runs the benchmarks, all JMH command line options are supported
+	 * 
+	 * @param args
+	 *            JMH command line options, without benchmark selection all
+	 *            JSkat benchmarks are run
+	 * @throws CommandLineOptionException
+	 *             If the command line options are invalid
+	 * @throws RunnerException
+	 *             If a benchmark fails
+	 */
+	public static void main(final String[] args)
+			throws CommandLineOptionException, RunnerException {
+
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLineOptions);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include(BenchmarkRunner.class.getPackage().getName()
+					+ ".*"); //$NON-NLS-1$
+		}
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.ai.nn.CardDeckSimulator;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the simulation of unknown cards
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardDeckSimulatorBenchmark {
+
+	private PlayerKnowledge knowledge;
+	private CardList hand;
+
+	/**
+	 * Creates the knowledge after the first trick
+	 */
+	@Setup
+	public void setUp() {
+
+		knowledge = BenchmarkData.createMidGameKnowledge();
+		hand = new CardList(knowledge.getOwnCards());
+	}
+
+	/**
+	 * Simulates the unknown cards when only the own cards are known
+	 * 
+	 * @return Simulated card deck
+	 */
+	@Benchmark
+	public CardDeck simulateUnknownCards_OwnCards() {
+
+		return CardDeckSimulator.simulateUnknownCards(Player.FOREHAND, hand);
+	}
+
+	/**
+	 * Simulates the unknown cards from the knowledge after the first trick
+	 * 
+	 * @return Simulated card deck
+	 */
+	@Benchmark
+	public CardDeck simulateUnknownCards_Knowledge() {
+
+		return CardDeckSimulator.simulateUnknownCards(knowledge);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.ai.nn.DealSampler;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.CardDeck;
+import org.jskat.util.Player;
+import org.jskat.util.SkatRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the throughput of {@link DealSampler}, the score is the
+ * number of sampled deals per second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealSamplerBenchmark {
+
+	private final Random rand = new SkatRandom(BenchmarkData.SEED);
+	/**
+	 * Card masks of the three players and the skat
+	 */
+	private final int[] distribution = new int[4];
+	private final CardDeck deck = new CardDeck();
+
+	private DealSampler ownCardsSampler;
+	private DealSampler knowledgeSampler;
+
+	/**
+	 * Creates the samplers for the knowledge after the first trick
+	 */
+	@Setup
+	public void setUp() {
+
+		PlayerKnowledge knowledge = BenchmarkData.createMidGameKnowledge();
+		ownCardsSampler = new DealSampler(Player.FOREHAND,
+				knowledge.getOwnCards());
+		knowledgeSampler = new DealSampler(knowledge);
+	}
+
+	/**
+	 * Shuffles a complete card deck as a baseline without any knowledge
+	 * 
+	 * @return Shuffled card deck
+	 */
+	@Benchmark
+	public CardDeck shuffleCardDeck() {
+
+		deck.shuffle(rand);
+		return deck;
+	}
+
+	/**
+	 * Samples a deal when only the own cards are known
+	 * 
+	 * @return Card masks of the deal
+	 */
+	@Benchmark
+	public int[] sample_OwnCards() {
+
+		ownCardsSampler.sample(rand, distribution);
+		return distribution;
+	}
+
+	/**
+	 * Samples a deal from the knowledge after the first trick
+	 * 
+	 * @return Card masks of the deal
+	 */
+	@Benchmark
+	public int[] sample_Knowledge() {
+
+		knowledgeSampler.sample(rand, distribution);
+		return distribution;
+	}
+}
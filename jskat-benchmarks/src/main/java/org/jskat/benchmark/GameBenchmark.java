@@ -0,0 +1,112 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.control.SkatGameEngine;
+import org.jskat.data.DesktopSavePathResolver;
+import org.jskat.data.JSkatOptions;
+import org.jskat.data.SkatGameResult;
+import org.jskat.player.AbstractJSkatPlayer;
+import org.jskat.util.CardDeck;
+import org.jskat.util.GameVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Benchmarks for complete games without GUI, from dealing to the game result,
+ * with three players of the same AI type
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GameBenchmark {
+
+	private static final int DECKS = 256;
+
+	@Param({ "org.jskat.ai.rnd.AIPlayerRND", "org.jskat.ai.mjl.AIPlayerMJL",
+			"org.jskat.ai.nn.AIPlayerNN" })
+	private String playerClass;
+
+	private SkatGameEngine engine;
+	private List<CardDeck> decks;
+	private int deckIndex;
+
+	/**
+	 * Creates the players and the card decks
+	 * 
+	 * @throws Exception
+	 *             If the player class can't be instantiated
+	 */
+	@Setup
+	public void setUp() throws Exception {
+
+		JSkatOptions.instance(new DesktopSavePathResolver());
+
+		engine = new SkatGameEngine("benchmark", GameVariant.STANDARD, //$NON-NLS-1$
+				createPlayer(), createPlayer(), createPlayer());
+		engine.setLogger(NOPLogger.NOP_LOGGER);
+		engine.setMaxSleep(0);
+
+		decks = BenchmarkData.createCardDecks(DECKS);
+	}
+
+	private AbstractJSkatPlayer createPlayer() throws Exception {
+
+		AbstractJSkatPlayer player = (AbstractJSkatPlayer) Class.forName(
+				playerClass).newInstance();
+		player.setPlayerName(playerClass);
+		player.setLogger(NOPLogger.NOP_LOGGER);
+		return player;
+	}
+
+	/**
+	 * Plays a complete game including bidding and discarding
+	 * 
+	 * @return Game result
+	 */
+	@Benchmark
+	public SkatGameResult playGame() {
+
+		deckIndex = (deckIndex + 1) % DECKS;
+
+		engine.newGame();
+		// the deck is emptied while dealing
+		engine.setCardDeck(new CardDeck(decks.get(deckIndex)));
+		engine.run();
+
+		return engine.getGameResult();
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.ai.nn.input.GenericNetworkInputGenerator;
+import org.jskat.ai.nn.input.IncrementalNetworkInputGenerator;
+import org.jskat.ai.nn.input.NetworkInputGenerator;
+import org.jskat.ai.nn.util.EncogNetworkWrapper;
+import org.jskat.ai.nn.util.INeuralNetwork;
+import org.jskat.ai.nn.util.NetworkTopology;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the neural network inference of the NN player
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+
+	private PlayerKnowledge knowledge;
+	private Card[] cards;
+	private int cardIndex;
+
+	private final NetworkInputGenerator genericGenerator = new GenericNetworkInputGenerator();
+	private NetworkInputGenerator incrementalGenerator;
+	private double[] inputs;
+
+	private INeuralNetwork network;
+
+	/**
+	 * Creates a network with the topology of the NN player
+	 */
+	@Setup
+	public void setUp() {
+
+		knowledge = BenchmarkData.createMidGameKnowledge();
+		cards = new Card[knowledge.getOwnCards().size()];
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = knowledge.getOwnCards().get(i);
+		}
+		incrementalGenerator = new IncrementalNetworkInputGenerator(knowledge);
+
+		int inputNeurons = GenericNetworkInputGenerator
+				.getNeuronCountForAllStrategies();
+		int[] hiddenNeurons = { 10 };
+		network = new EncogNetworkWrapper(new NetworkTopology(inputNeurons,
+				hiddenNeurons, 1), true);
+		network.resetNetwork();
+
+		inputs = genericGenerator.getNetInputs(knowledge, cards[0]);
+	}
+
+	private Card nextCard() {
+
+		cardIndex = (cardIndex + 1) % cards.length;
+		return cards[cardIndex];
+	}
+
+	/**
+	 * Creates the network inputs for a card
+	 * 
+	 * @return Network inputs
+	 */
+	@Benchmark
+	public double[] getNetInputs() {
+
+		return genericGenerator.getNetInputs(knowledge, nextCard());
+	}
+
+	/**
+	 * Writes the network inputs for a card into a buffer with the generator
+	 * that is kept in sync with the knowledge
+	 * 
+	 * @return Network inputs
+	 */
+	@Benchmark
+	public double[] setNetInputsIncremental() {
+
+		incrementalGenerator.setNetInputs(knowledge, nextCard(), inputs);
+		return inputs;
+	}
+
+	/**
+	 * Predicts the outcome for one input
+	 * 
+	 * @return Predicted outcome
+	 */
+	@Benchmark
+	public double getPredictedOutcome() {
+
+		return network.getPredictedOutcome(inputs);
+	}
+}
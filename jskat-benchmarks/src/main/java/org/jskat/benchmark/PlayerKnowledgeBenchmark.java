@@ -0,0 +1,129 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.data.GameAnnouncement;
+import org.jskat.data.Trick;
+import org.jskat.player.PlayerKnowledge;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.CardSet;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for updating the player knowledge while a game is played
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerKnowledgeBenchmark {
+
+	private static final GameType GAME_TYPE = GameType.GRAND;
+
+	private final PlayerKnowledge knowledge = new PlayerKnowledge();
+	private final GameAnnouncement announcement = BenchmarkData
+			.createAnnouncement(GAME_TYPE);
+
+	private CardList hand;
+	private final Player[] trickForeHands = new Player[10];
+	private final Card[] playedCards = new Card[30];
+
+	/**
+	 * Plays one game with legal cards to get the card sequence
+	 */
+	@Setup
+	public void setUp() {
+
+		CardDeck deck = BenchmarkData.createCardDecks(1).get(0);
+		int[] hands = new int[3];
+		for (int i = 0; i < 30; i++) {
+			hands[i / 10] |= CardSet.getMask(deck.get(i));
+		}
+		hand = CardSet.toCardList(hands[Player.FOREHAND.getOrder()]);
+
+		Player foreHand = Player.FOREHAND;
+		for (int trickNo = 0; trickNo < 10; trickNo++) {
+			trickForeHands[trickNo] = foreHand;
+			Player player = foreHand;
+			for (int i = 0; i < 3; i++) {
+				Card initialCard = i == 0 ? null : playedCards[trickNo * 3];
+				Card card = CardSet.getFirstCard(RuleTables.legalMoves(
+						hands[player.getOrder()], initialCard, GAME_TYPE));
+				hands[player.getOrder()] &= ~CardSet.getMask(card);
+				playedCards[trickNo * 3 + i] = card;
+				player = player.getLeftNeighbor();
+			}
+			foreHand = RuleTables.calculateTrickWinner(GAME_TYPE, foreHand,
+					playedCards[trickNo * 3], playedCards[trickNo * 3 + 1],
+					playedCards[trickNo * 3 + 2]);
+		}
+	}
+
+	/**
+	 * Sets all cards of a game played, like the player does during a game
+	 * 
+	 * @return Player knowledge
+	 */
+	@Benchmark
+	public PlayerKnowledge setCardPlayed() {
+
+		knowledge.initializeVariables();
+		knowledge.setPlayerPosition(Player.FOREHAND);
+		knowledge.addOwnCards(hand);
+		knowledge.setDeclarer(Player.FOREHAND);
+		knowledge.setGame(announcement);
+
+		for (int trickNo = 0; trickNo < 10; trickNo++) {
+			Player player = trickForeHands[trickNo];
+			knowledge.setCurrentTrick(new Trick(trickNo, player));
+			for (int i = 0; i < 3; i++) {
+				Card card = playedCards[trickNo * 3 + i];
+				knowledge.setCardPlayed(player, card);
+				if (player == Player.FOREHAND) {
+					knowledge.removeOwnCard(card);
+				} else {
+					knowledge.removeCard(card);
+				}
+				player = player.getLeftNeighbor();
+			}
+			knowledge.clearTrickCards();
+		}
+
+		return knowledge;
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * JSkat - A skat program written in Java
+ * by Jan Schäfer, Markus J. Luzius and Daniel Loreck
+ *
+ * Version 0.13.0-SNAPSHOT
+ * Copyright (C) 2013-05-10
+ *
+ * Licensed under the Apache License, Version 2.0. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jskat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jskat.data.Trick;
+import org.jskat.util.Card;
+import org.jskat.util.CardDeck;
+import org.jskat.util.CardList;
+import org.jskat.util.GameType;
+import org.jskat.util.Player;
+import org.jskat.util.rule.RuleTables;
+import org.jskat.util.rule.SkatRule;
+import org.jskat.util.rule.SkatRuleFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the skat rules
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleBenchmark {
+
+	private static final int SITUATIONS = 1024;
+
+	@Param({ "GRAND", "CLUBS", "NULL" })
+	private GameType gameType;
+
+	private SkatRule rules;
+
+	private final CardList[] hands = new CardList[SITUATIONS];
+	private final Card[] initialCards = new Card[SITUATIONS];
+	private final Card[] cards = new Card[SITUATIONS];
+	private final Trick[] tricks = new Trick[SITUATIONS];
+
+	private int situation;
+
+	/**
+	 * Creates the same trick situations for every run
+	 */
+	@Setup
+	public void setUp() {
+
+		rules = SkatRuleFactory.getSkatRules(gameType);
+
+		List<CardDeck> decks = BenchmarkData.createCardDecks(SITUATIONS);
+		for (int i = 0; i < SITUATIONS; i++) {
+			CardDeck deck = decks.get(i);
+
+			hands[i] = new CardList();
+			for (int j = 0; j < 10; j++) {
+				hands[i].add(deck.get(j));
+			}
+			initialCards[i] = deck.get(10);
+			cards[i] = hands[i].get(i % 10);
+
+			tricks[i] = new Trick(0, Player.values()[i % 3]);
+			tricks[i].addCard(deck.get(10));
+			tricks[i].addCard(deck.get(11));
+			tricks[i].addCard(deck.get(12));
+		}
+	}
+
+	private int nextSituation() {
+
+		situation = (situation + 1) % SITUATIONS;
+		return situation;
+	}
+
+	/**
+	 * Checks a card with {@link SkatRule#isCardAllowed}
+	 * 
+	 * @return Whether the card is allowed
+	 */
+	@Benchmark
+	public boolean isCardAllowed() {
+
+		int i = nextSituation();
+		return rules.isCardAllowed(gameType, initialCards[i], hands[i],
+				cards[i]);
+	}
+
+	/**
+	 * Checks a card with the rule tables
+	 * 
+	 * @return Whether the card is allowed
+	 */
+	@Benchmark
+	public boolean isCardAllowedRuleTables() {
+
+		int i = nextSituation();
+		return RuleTables.isCardAllowed(gameType, initialCards[i], hands[i],
+				cards[i]);
+	}
+
+	/**
+	 * Calculates a trick winner with {@link SkatRule#calculateTrickWinner}
+	 * 
+	 * @return Trick winner
+	 */
+	@Benchmark
+	public Player calculateTrickWinner() {
+
+		return rules.calculateTrickWinner(gameType, tricks[nextSituation()]);
+	}
+
+	/**
+	 * Calculates a trick winner with the rule tables
+	 * 
+	 * @return Trick winner
+	 */
+	@Benchmark
+	public Player calculateTrickWinnerRuleTables() {
+
+		Trick trick = tricks[nextSituation()];
+		return RuleTables.calculateTrickWinner(gameType, trick.getForeHand(),
+				trick.getFirstCard(), trick.getSecondCard(),
+				trick.getThirdCard());
+	}
+}